@@ -0,0 +1,356 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.cli;
+
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import edu.tum.sse.dirts.core.Blackboard;
+import edu.tum.sse.dirts.core.control.ClassLevelControl;
+import edu.tum.sse.dirts.core.control.Control;
+import edu.tum.sse.dirts.core.control.MethodLevelControl;
+import edu.tum.sse.dirts.core.strategies.DependencyStrategies;
+import edu.tum.sse.dirts.daemon.DaemonRequest;
+import edu.tum.sse.dirts.util.AnalysisContext;
+import org.apache.maven.surefire.api.testset.TestListResolver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.logging.Level;
+
+/**
+ * Selects tests without Maven, from paths given explicitly on the command line
+ * <p>
+ * The state in `.dirts` is shared with the mojos, as long as the same level is analyzed.
+ */
+public class DirtsCli {
+
+    //##################################################################################################################
+    // Static constants
+
+    static final int EXIT_OK = 0;
+    static final int EXIT_FAILED = 1;
+    static final int EXIT_USAGE = 2;
+
+    /**
+     * Default includes and excludes of Surefire
+     */
+    static final String DEFAULT_TESTS = "**/Test*.java, **/*Test.java, **/*Tests.java, **/*TestCase.java, !**/*$*";
+
+    static final String USAGE = String.join("\n",
+            "Usage: dirts [options]",
+            "",
+            "Selects the tests affected by the changes since the last run and prints them, one per line.",
+            "",
+            "  --root <dir>             outermost project, default: working directory",
+            "  --module <dir>           module relative to the root, its state is kept in <module>/.dirts, default: root",
+            "  --level <class|method>   granularity of the analysis, default: class",
+            "  --source-root <dir>      source root to parse, may be repeated, default: all source roots of the module",
+            "  --classpath <path>       classpath used to resolve code from libraries",
+            "  --classpath-file <file>  file containing the classpath, default: <module>/.dirts/libraries",
+            "  --tests <patterns>       comma-separated test patterns like Surefire's -Dtest, default: Surefire's includes",
+            "  --output <file>          write the tests to a file instead of stdout",
+            "  --excluded               write the tests that have not been selected instead",
+            "  --spring, --guice, --cdi analyze dependencies induced by these frameworks",
+            "  --planner                choose between incremental analysis, full re-analysis and running all tests",
+            "  --cache                  reuse the last selection if sources and configuration have not changed",
+            "  --state-cache <dir>      directory shared by several machines to publish and fetch exported state",
+            "  --snapshots              keep the state of every commit and branch and start from the closest one",
+            "  --kv-store               export the state to a memory-mapped key-value store instead of JSON files",
+            "  --threads <n>            number of threads used to run independent analysis steps, default: 1",
+            "  --logging <level>        logging level, written to stderr, default: WARNING",
+            "  --help                   print this message");
+
+    //##################################################################################################################
+    // Attributes
+
+    private Path rootPath = Path.of("").toAbsolutePath();
+    private Path subPath = Path.of("");
+    private String level = DaemonRequest.CLASS_LEVEL;
+    private List<Path> sourceRoots;
+    private String classpath;
+    private Path classpathFile;
+    private String tests = DEFAULT_TESTS;
+    private Path outputPath;
+    private boolean excluded = false;
+    private boolean springExtension = false;
+    private boolean guiceExtension = false;
+    private boolean cdiExtension = false;
+    private boolean planning = false;
+    private boolean selectionCaching = false;
+    private Path stateCachePath;
+    private boolean stateSnapshots = false;
+    private boolean keyValueStore = false;
+    private int threads = 1;
+    private Level logging = Level.WARNING;
+    private boolean help = false;
+
+    //##################################################################################################################
+    // Main
+
+    public static void main(String[] args) {
+        DirtsCli cli;
+        try {
+            cli = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(EXIT_USAGE);
+            return;
+        }
+        if (cli.help) {
+            System.out.println(USAGE);
+            return;
+        }
+        System.exit(cli.run());
+    }
+
+    /**
+     * @param args command line arguments
+     * @return configuration of the runner
+     * @throws IllegalArgumentException if the arguments are malformed
+     */
+    static DirtsCli parse(String[] args) {
+        DirtsCli cli = new DirtsCli();
+        Iterator<String> iterator = Arrays.asList(args).iterator();
+        while (iterator.hasNext()) {
+            String arg = iterator.next();
+            switch (arg) {
+                case "--root":
+                    cli.rootPath = Path.of(value(arg, iterator)).toAbsolutePath();
+                    break;
+                case "--module":
+                    cli.subPath = Path.of(value(arg, iterator));
+                    break;
+                case "--level":
+                    String level = value(arg, iterator);
+                    if (level.equals("class") || level.equals(DaemonRequest.CLASS_LEVEL))
+                        cli.level = DaemonRequest.CLASS_LEVEL;
+                    else if (level.equals("method") || level.equals(DaemonRequest.METHOD_LEVEL))
+                        cli.level = DaemonRequest.METHOD_LEVEL;
+                    else
+                        throw new IllegalArgumentException("Unknown level: " + level);
+                    break;
+                case "--source-root":
+                    if (cli.sourceRoots == null)
+                        cli.sourceRoots = new ArrayList<>();
+                    cli.sourceRoots.add(Path.of(value(arg, iterator)));
+                    break;
+                case "--classpath":
+                    cli.classpath = value(arg, iterator);
+                    break;
+                case "--classpath-file":
+                    cli.classpathFile = Path.of(value(arg, iterator));
+                    break;
+                case "--tests":
+                    cli.tests = value(arg, iterator);
+                    break;
+                case "--output":
+                    cli.outputPath = Path.of(value(arg, iterator));
+                    break;
+                case "--excluded":
+                    cli.excluded = true;
+                    break;
+                case "--spring":
+                    cli.springExtension = true;
+                    break;
+                case "--guice":
+                    cli.guiceExtension = true;
+                    break;
+                case "--cdi":
+                    cli.cdiExtension = true;
+                    break;
+                case "--planner":
+                    cli.planning = true;
+                    break;
+                case "--cache":
+                    cli.selectionCaching = true;
+                    break;
+                case "--snapshots":
+                    cli.stateSnapshots = true;
+                    break;
+                case "--kv-store":
+                    cli.keyValueStore = true;
+                    break;
+                case "--state-cache":
+                    cli.stateCachePath = Path.of(value(arg, iterator)).toAbsolutePath();
+                    break;
+                case "--threads":
+                    try {
+                        cli.threads = Integer.parseInt(value(arg, iterator));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Not a number of threads: " + e.getMessage());
+                    }
+                    break;
+                case "--logging":
+                    cli.logging = Level.parse(value(arg, iterator));
+                    break;
+                case "--help":
+                case "-h":
+                    cli.help = true;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (cli.classpath != null && cli.classpathFile != null)
+            throw new IllegalArgumentException("Only one of --classpath and --classpath-file may be given");
+        return cli;
+    }
+
+    //##################################################################################################################
+    // Methods
+
+    /**
+     * Selects tests and writes them to stdout or to the output file
+     *
+     * @return exit code
+     */
+    int run() {
+        List<Path> libraries;
+        try {
+            libraries = getLibraries();
+        } catch (IOException e) {
+            System.err.println("Failed to read classpath: " + e.getMessage());
+            return EXIT_FAILED;
+        }
+
+        // stdout is reserved for the selected tests
+        PrintStream out = System.out;
+        Map<String, Set<String>> selectedTests;
+        System.setOut(System.err);
+        try {
+            AnalysisContext context = new AnalysisContext();
+            context.setLogLevel(logging);
+            try (AnalysisContext.Scope ignored = context.bind()) {
+                selectedTests = createControl(libraries).getSelectedTests(Set.of());
+            }
+        } finally {
+            System.setOut(out);
+        }
+
+        if (selectedTests == null) {
+            System.err.println("Failed to select tests");
+            return EXIT_FAILED;
+        }
+
+        SortedSet<String> included = new TreeSet<>();
+        selectedTests.forEach((affectingNode, affectedTests) -> {
+            if (affectingNode != null)
+                included.addAll(affectedTests);
+        });
+        SortedSet<String> result = included;
+        if (excluded) {
+            result = new TreeSet<>(selectedTests.getOrDefault(null, Set.of()));
+            result.removeAll(included);
+        }
+
+        try {
+            if (outputPath != null) {
+                Path absoluteOutputPath = outputPath.toAbsolutePath();
+                Files.createDirectories(absoluteOutputPath.getParent());
+                Files.write(absoluteOutputPath, result);
+            } else {
+                result.forEach(out::println);
+                out.flush();
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write tests: " + e.getMessage());
+            return EXIT_FAILED;
+        }
+        return EXIT_OK;
+    }
+
+    private Control<?> createControl(List<Path> libraries) {
+        if (level.equals(DaemonRequest.METHOD_LEVEL)) {
+            Blackboard<BodyDeclaration<?>> blackboard = new Blackboard<>(rootPath, subPath, level);
+            configure(blackboard, libraries);
+            DependencyStrategies.addMethodLevelStrategies(blackboard, springExtension, guiceExtension, cdiExtension);
+            return new MethodLevelControl(blackboard, true);
+        } else {
+            Blackboard<TypeDeclaration<?>> blackboard = new Blackboard<>(rootPath, subPath, level);
+            configure(blackboard, libraries);
+            DependencyStrategies.addClassLevelStrategies(blackboard, springExtension, guiceExtension, cdiExtension);
+            return new ClassLevelControl(blackboard, true);
+        }
+    }
+
+    private void configure(Blackboard<?> blackboard, List<Path> libraries) {
+        blackboard.setKnowledgeSourceThreads(threads);
+        blackboard.setPlanning(planning);
+        blackboard.setSelectionCaching(selectionCaching);
+        blackboard.setStateCachePath(stateCachePath);
+        blackboard.setStateSnapshots(stateSnapshots);
+        blackboard.setKeyValueStore(keyValueStore);
+        blackboard.setSourceRoots(sourceRoots);
+        blackboard.setLibraries(libraries);
+        blackboard.setTestFilter(new TestListResolver(tests));
+    }
+
+    /**
+     * @return entries of the classpath, null or empty if the classpath should be read from `.dirts/libraries`
+     */
+    private List<Path> getLibraries() throws IOException {
+        String entries = classpath;
+        if (classpathFile != null)
+            entries = Files.readString(classpathFile);
+        if (entries == null)
+            return null;
+
+        List<Path> libraries = new ArrayList<>();
+        for (String entry : entries.split("[" + File.pathSeparator + "\\r\\n]")) {
+            if (!entry.isBlank())
+                libraries.add(Path.of(entry.trim()));
+        }
+        return libraries;
+    }
+
+    //##################################################################################################################
+    // Auxiliary methods
+
+    private static String value(String option, Iterator<String> iterator) {
+        if (!iterator.hasNext())
+            throw new IllegalArgumentException("Missing value of option " + option);
+        return iterator.next();
+    }
+
+    //##################################################################################################################
+    // Getters for tests
+
+    Path getRootPath() {
+        return rootPath;
+    }
+
+    Path getSubPath() {
+        return subPath;
+    }
+
+    String getLevel() {
+        return level;
+    }
+
+    List<Path> getSourceRoots() {
+        return sourceRoots;
+    }
+
+    String getTests() {
+        return tests;
+    }
+
+    boolean isExcluded() {
+        return excluded;
+    }
+}
@@ -0,0 +1,90 @@
+package edu.tum.sse.dirts.cli;
+
+import edu.tum.sse.dirts.daemon.DaemonRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DirtsCliTest {
+
+    @TempDir
+    Path tmpPath;
+
+    @Test
+    public void testParse() {
+        /* when */
+        DirtsCli cli = DirtsCli.parse(new String[]{
+                "--root", tmpPath.toString(),
+                "--module", "sub",
+                "--level", "method",
+                "--source-root", "sub/src/main/java",
+                "--source-root", "sub/src/test/java",
+                "--tests", "**/*IT.java",
+                "--excluded"});
+
+        /* then */
+        assertThat(cli.getRootPath()).isEqualTo(tmpPath.toAbsolutePath());
+        assertThat(cli.getSubPath()).isEqualTo(Path.of("sub"));
+        assertThat(cli.getLevel()).isEqualTo(DaemonRequest.METHOD_LEVEL);
+        assertThat(cli.getSourceRoots()).containsExactly(Path.of("sub/src/main/java"), Path.of("sub/src/test/java"));
+        assertThat(cli.getTests()).isEqualTo("**/*IT.java");
+        assertThat(cli.isExcluded()).isTrue();
+    }
+
+    @Test
+    public void testParseDefaults() {
+        /* when */
+        DirtsCli cli = DirtsCli.parse(new String[0]);
+
+        /* then */
+        assertThat(cli.getSubPath()).isEqualTo(Path.of(""));
+        assertThat(cli.getLevel()).isEqualTo(DaemonRequest.CLASS_LEVEL);
+        assertThat(cli.getSourceRoots()).isNull();
+        assertThat(cli.getTests()).isEqualTo(DirtsCli.DEFAULT_TESTS);
+        assertThat(cli.isExcluded()).isFalse();
+    }
+
+    @Test
+    public void testParseMalformed() {
+        assertThatThrownBy(() -> DirtsCli.parse(new String[]{"--level"}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> DirtsCli.parse(new String[]{"--level", "statement"}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> DirtsCli.parse(new String[]{"--unknown"}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testRun() throws IOException {
+        /* given */
+        Path mainPath = tmpPath.resolve("src/main/java/p");
+        Path testPath = tmpPath.resolve("src/test/java/p");
+        Files.createDirectories(mainPath);
+        Files.createDirectories(testPath);
+        Files.writeString(mainPath.resolve("A.java"), "package p; public class A { int f() { return 1; } }");
+        Files.writeString(mainPath.resolve("B.java"), "package p; public class B { int g() { return 2; } }");
+        Files.writeString(testPath.resolve("ATest.java"), "package p; import org.junit.jupiter.api.Test; " +
+                "public class ATest { @Test void t() { new A().f(); } }");
+        Files.writeString(testPath.resolve("BTest.java"), "package p; import org.junit.jupiter.api.Test; " +
+                "public class BTest { @Test void t() { new B().g(); } }");
+
+        Path outputPath = tmpPath.resolve("selected");
+        String[] args = {"--root", tmpPath.toString(), "--output", outputPath.toString()};
+
+        /* when */
+        int firstExitCode = DirtsCli.parse(args).run();
+        Files.writeString(mainPath.resolve("A.java"), "package p; public class A { int f() { return 3; } }");
+        int secondExitCode = DirtsCli.parse(args).run();
+
+        /* then */
+        assertThat(firstExitCode).isEqualTo(DirtsCli.EXIT_OK);
+        assertThat(secondExitCode).isEqualTo(DirtsCli.EXIT_OK);
+        assertThat(Files.readAllLines(outputPath)).containsExactly("p.ATest");
+    }
+}
@@ -24,9 +24,9 @@ import edu.tum.sse.dirts.analysis.def.identifiers.AnnotationIdentifierVisitor;
 import edu.tum.sse.dirts.analysis.def.identifiers.classlevel.ExtendsImplementsIdentifierVisitor;
 import edu.tum.sse.dirts.analysis.def.identifiers.classlevel.NewIdentifierVisitor;
 import edu.tum.sse.dirts.analysis.def.identifiers.classlevel.StaticIdentifierVisitor;
-import edu.tum.sse.dirts.core.Blackboard;
 import edu.tum.sse.dirts.core.control.Control;
 import edu.tum.sse.dirts.graph.DependencyGraph;
+import edu.tum.sse.dirts.util.AnalysisContext;
 
 import java.util.Collection;
 import java.util.Set;
@@ -82,7 +82,7 @@ public class DefaultClassLevelDependencyCollectorVisitor
     private void processAnnotations(DependencyGraph dependencyGraph,
                                     String node,
                                     Collection<ResolvedAnnotationDeclaration> resolvedAnnotations) {
-        if (Blackboard.considerAnnotationsAsDependencies) {
+        if (AnalysisContext.current().isConsiderAnnotationsAsDependencies()) {
             for (ResolvedAnnotationDeclaration resolvedAnnotation : resolvedAnnotations) {
                 String toNode = lookup(resolvedAnnotation);
                 dependencyGraph.addEdge(node, toNode, ANNOTATION);
@@ -22,6 +22,7 @@ import edu.tum.sse.dirts.analysis.def.identifiers.methodlevel.FieldAccessIdentif
 import edu.tum.sse.dirts.analysis.def.identifiers.methodlevel.InheritanceIdentifierVisitor;
 import edu.tum.sse.dirts.core.Blackboard;
 import edu.tum.sse.dirts.graph.DependencyGraph;
+import edu.tum.sse.dirts.util.AnalysisContext;
 import edu.tum.sse.dirts.util.tuples.Pair;
 
 import java.util.*;
@@ -130,7 +131,7 @@ public class DefaultMethodLevelDependencyCollectorVisitor
     private void processAnnotations(DependencyGraph dependencyGraph,
                                     String node,
                                     Collection<ResolvedAnnotationDeclaration> resolvedAnnotations) {
-        if (Blackboard.considerAnnotationsAsDependencies) {
+        if (AnalysisContext.current().isConsiderAnnotationsAsDependencies()) {
             for (ResolvedAnnotationDeclaration resolvedAnnotation : resolvedAnnotations) {
                 String toNode = lookup(resolvedAnnotation);
                 dependencyGraph.addEdge(node, toNode, ANNOTATION);
@@ -140,15 +140,17 @@ public class BeanStorage<T> {
      * @return set of eligible beans
      */
     public Set<T> getBeans(String type, String name, Set<String> qualifiers) {
-        HashSet<T> ret = new HashSet<>(allBeans);
+        HashSet<T> ret;
 
         if (type != null) {
             if (beansByType.containsKey(type)) {
-                ret.retainAll(beansByType.get(type));
+                ret = new HashSet<>(beansByType.get(type));
             } else {
                 // if type is given, but does not match, we do not want any beans to be returned
-                ret.clear();
+                return new HashSet<>();
             }
+        } else {
+            ret = new HashSet<>(allBeans);
         }
         if (name != null && beansByName.containsKey(name)) {
             ret.retainAll(beansByName.get(name));
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.analysis.di;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.tum.sse.dirts.util.DirtsUtil;
+import edu.tum.sse.dirts.util.Log;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.WARNING;
+
+/**
+ * Detects which DI frameworks are used in a module
+ * <p>
+ * A framework is considered present if one of its artifacts is part of the classpath in `.dirts/libraries`
+ * or if some source file of the module imports one of its packages.
+ * The frameworks detected in the last successful run of each level are exported together with its state, so that a
+ * framework that has been removed from a module is still considered once more, allowing the corresponding strategy to
+ * clean up its edges.
+ */
+public class DIFrameworkDetector {
+
+    //##################################################################################################################
+    // Static constants
+
+    private final static ObjectMapper objectMapper = new ObjectMapper();
+    private static final TypeReference<Set<DIFramework>> typeRefFrameworks = new TypeReference<>() {
+    };
+
+    private static final Set<String> EXCLUDED_DIRECTORIES = Set.of("target", ".dirts", ".git");
+
+    //##################################################################################################################
+    // Attributes
+
+    private final Path rootPath;
+    private final Path subPath;
+
+    //##################################################################################################################
+    // Constructors
+
+    public DIFrameworkDetector(Path rootPath, Path subPath) {
+        this.rootPath = rootPath;
+        this.subPath = subPath;
+    }
+
+    //##################################################################################################################
+    // Methods
+
+    /**
+     * Detects the frameworks used in the module
+     *
+     * @return frameworks used in the module
+     */
+    public Set<DIFramework> detect() {
+        Set<DIFramework> detected = EnumSet.noneOf(DIFramework.class);
+
+        detectFromLibraries(detected);
+        if (detected.size() < DIFramework.values().length) {
+            detectFromImports(detected);
+        }
+
+        Log.log(FINE, "Detected DI frameworks: " + detected);
+        return detected;
+    }
+
+    /**
+     * Merges the detected frameworks with the frameworks that have been detected in the last successful run of a level
+     *
+     * @param detected frameworks used in the module
+     * @param suffix   class_level or method_level
+     * @return frameworks that need to be considered in this run
+     */
+    public Set<DIFramework> withPreviousFrameworks(Set<DIFramework> detected, String suffix) {
+        Set<DIFramework> result = EnumSet.noneOf(DIFramework.class);
+        result.addAll(detected);
+        result.addAll(importPreviousFrameworks(suffix));
+        return result;
+    }
+
+    // _________________________________________________________________________________________________________________
+    // Detection
+
+    private void detectFromLibraries(Set<DIFramework> detected) {
+        Path librariesPath = DirtsUtil.getLibrariesPath(rootPath, subPath);
+        if (Files.exists(librariesPath)) {
+            try {
+                String[] libraries = Files.readString(librariesPath).split(":");
+                for (String library : libraries) {
+                    if (library.isEmpty())
+                        continue;
+                    Path fileName = Path.of(library).getFileName();
+                    if (fileName == null)
+                        continue;
+                    for (DIFramework framework : DIFramework.values()) {
+                        if (framework.matchesLibrary(fileName.toString())) {
+                            detected.add(framework);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                Log.errLog(WARNING, "Failed to read maven dependencies for DI framework detection: "
+                        + e.getMessage());
+            }
+        }
+    }
+
+    private void detectFromImports(Set<DIFramework> detected) {
+        Path modulePath = rootPath.resolve(subPath);
+        try {
+            Files.walkFileTree(modulePath, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    Path fileName = dir.getFileName();
+                    if (!dir.equals(modulePath) && fileName != null) {
+                        if (EXCLUDED_DIRECTORIES.contains(fileName.toString())
+                                || Files.exists(dir.resolve("pom.xml"))) {
+                            // do not descend into build output or nested modules
+                            return FileVisitResult.SKIP_SUBTREE;
+                        }
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (file.toString().endsWith(".java")) {
+                        scanImports(file, detected);
+                        if (detected.size() == DIFramework.values().length) {
+                            return FileVisitResult.TERMINATE;
+                        }
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            Log.errLog(WARNING, "Failed to scan sources for DI framework detection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Only reads the header of a source file, stops at the first line that is neither
+     * a package declaration, an import, a comment nor blank
+     */
+    private static void scanImports(Path file, Set<DIFramework> detected) {
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            boolean inBlockComment = false;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (inBlockComment) {
+                    if (line.contains("*/"))
+                        inBlockComment = false;
+                    continue;
+                }
+                if (line.isEmpty() || line.startsWith("//") || line.startsWith("package ")) {
+                    continue;
+                }
+                if (line.startsWith("/*")) {
+                    inBlockComment = !line.contains("*/");
+                    continue;
+                }
+                if (!line.startsWith("import ")) {
+                    break;
+                }
+                for (DIFramework framework : DIFramework.values()) {
+                    if (framework.matchesImport(line)) {
+                        detected.add(framework);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            Log.log(FINE, "Failed to read " + file + " for DI framework detection: " + e.getMessage());
+        }
+    }
+
+    // _________________________________________________________________________________________________________________
+    // Persistence
+
+    private Set<DIFramework> importPreviousFrameworks(String suffix) {
+        Path frameworksPath = DirtsUtil.getDIFrameworksPath(rootPath, subPath, suffix);
+        if (Files.exists(frameworksPath)) {
+            try {
+                return objectMapper.readValue(Files.readString(frameworksPath), typeRefFrameworks);
+            } catch (IOException e) {
+                Log.errLog(WARNING, "Failed to import previously detected DI frameworks: " + e.getMessage());
+            }
+        }
+        return Set.of();
+    }
+
+    /**
+     * Exports the detected frameworks, only called once the state of the level has been exported
+     */
+    public static void exportFrameworks(Path rootPath, Path subPath, String suffix, Set<DIFramework> detected) {
+        Path frameworksPath = DirtsUtil.getDIFrameworksPath(rootPath, subPath, suffix);
+        try {
+            Files.createDirectories(frameworksPath.getParent());
+            Files.writeString(frameworksPath,
+                    objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(detected),
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            Log.errLog(WARNING, "Failed to export detected DI frameworks: " + e.getMessage());
+        }
+    }
+
+    //##################################################################################################################
+    // Inner enum
+
+    public enum DIFramework {
+        SPRING(List.of("spring-context", "spring-beans"),
+                List.of("org.springframework.")),
+        GUICE(List.of("guice-"),
+                List.of("com.google.inject.")),
+        CDI(List.of("cdi-api", "jakarta.enterprise.cdi-api", "weld-"),
+                List.of("javax.enterprise.", "jakarta.enterprise."));
+
+        private final List<String> libraryPrefixes;
+        private final List<String> importPrefixes;
+
+        DIFramework(List<String> libraryPrefixes, List<String> importPrefixes) {
+            this.libraryPrefixes = libraryPrefixes;
+            this.importPrefixes = importPrefixes;
+        }
+
+        public boolean matchesLibrary(String fileName) {
+            return libraryPrefixes.stream().anyMatch(fileName::startsWith);
+        }
+
+        public boolean matchesImport(String importLine) {
+            String imported = importLine.substring("import ".length()).trim();
+            if (imported.startsWith("static ")) {
+                imported = imported.substring("static ".length()).trim();
+            }
+            return importPrefixes.stream().anyMatch(imported::startsWith);
+        }
+    }
+}
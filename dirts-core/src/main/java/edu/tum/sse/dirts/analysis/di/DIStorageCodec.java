@@ -0,0 +1,309 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.analysis.di;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.tum.sse.dirts.util.tuples.Triple;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Binary persistence for {@link BeanStorage} and {@link InjectionPointStorage}
+ * <p>
+ * Every distinct string is written once into a string table at the beginning of the file, the remaining content only
+ * refers to indices into this table. Files written in the previous JSON format are still readable.
+ */
+public class DIStorageCodec {
+
+    /*
+    Layout (all numbers are written as unsigned variable-length integers):
+        magic, version, kind
+        string table:   #strings, (#bytes, utf-8 bytes)*
+        beans:          #beans, (#nodes, string index*)*
+                        3 times (by name, by type, by qualifier): #keys, (key, #beans, bean index*)*
+        injectionPoints: #injectionPoints, (node, #keys, (type, name, #qualifiers, qualifier*)*)*
+    A string index of 0 encodes null, all other indices are shifted by one.
+     */
+
+    private static final int MAGIC = 0xD1D5C0DE;
+    private static final int VERSION = 1;
+
+    private static final int KIND_BEANS = 1;
+    private static final int KIND_INJECTION_POINTS = 2;
+
+    private final static ObjectMapper objectMapper = new ObjectMapper();
+    private static final TypeReference<BeanStorage<Set<String>>> typeReferenceBeanStorage = new TypeReference<>() {
+    };
+    private static final TypeReference<InjectionPointStorage> typeReferenceInjectionPointStorage =
+            new TypeReference<>() {
+            };
+
+    private DIStorageCodec() {
+    }
+
+    //##################################################################################################################
+    // Beans
+
+    public static void writeBeans(BeanStorage<Set<String>> beans, Path path) throws IOException {
+        StringTable stringTable = new StringTable();
+        Map<Set<String>, Integer> beanIndices = new HashMap<>();
+        for (Set<String> bean : beans.getAllBeans()) {
+            beanIndices.put(bean, beanIndices.size());
+            bean.forEach(stringTable::add);
+        }
+        beans.getBeansByName().keySet().forEach(stringTable::add);
+        beans.getBeansByType().keySet().forEach(stringTable::add);
+        beans.getBeansByQualifier().keySet().forEach(stringTable::add);
+
+        try (DataOutputStream out = openOutput(path, KIND_BEANS)) {
+            stringTable.writeTo(out);
+
+            writeVarInt(out, beanIndices.size());
+            for (Set<String> bean : beans.getAllBeans()) {
+                writeVarInt(out, bean.size());
+                for (String node : bean) {
+                    writeVarInt(out, stringTable.indexOf(node));
+                }
+            }
+
+            writeBeanMap(out, beans.getBeansByName(), stringTable, beanIndices);
+            writeBeanMap(out, beans.getBeansByType(), stringTable, beanIndices);
+            writeBeanMap(out, beans.getBeansByQualifier(), stringTable, beanIndices);
+        }
+    }
+
+    public static BeanStorage<Set<String>> readBeans(Path path) throws IOException {
+        try (DataInputStream in = openInput(path)) {
+            if (!checkHeader(in, KIND_BEANS)) {
+                in.reset();
+                return objectMapper.readValue(in, typeReferenceBeanStorage);
+            }
+
+            String[] strings = readStringTable(in);
+
+            int numberOfBeans = readVarInt(in);
+            List<Set<String>> allBeans = new ArrayList<>(numberOfBeans);
+            for (int i = 0; i < numberOfBeans; i++) {
+                int numberOfNodes = readVarInt(in);
+                Set<String> bean = new HashSet<>(numberOfNodes * 2);
+                for (int j = 0; j < numberOfNodes; j++) {
+                    bean.add(strings[readVarInt(in)]);
+                }
+                allBeans.add(bean);
+            }
+
+            BeanStorage<Set<String>> beans = new BeanStorage<>();
+            readBeanMap(in, strings, allBeans, beans::addBeanByName);
+            readBeanMap(in, strings, allBeans, beans::addBeanByType);
+            readBeanMap(in, strings, allBeans, beans::addBeanByQualifier);
+            return beans;
+        }
+    }
+
+    private static void writeBeanMap(DataOutputStream out,
+                                     Map<String, Set<Set<String>>> beanMap,
+                                     StringTable stringTable,
+                                     Map<Set<String>, Integer> beanIndices) throws IOException {
+        writeVarInt(out, beanMap.size());
+        for (Map.Entry<String, Set<Set<String>>> entry : beanMap.entrySet()) {
+            writeVarInt(out, stringTable.indexOf(entry.getKey()));
+            writeVarInt(out, entry.getValue().size());
+            for (Set<String> bean : entry.getValue()) {
+                writeVarInt(out, beanIndices.get(bean));
+            }
+        }
+    }
+
+    private static void readBeanMap(DataInputStream in,
+                                    String[] strings,
+                                    List<Set<String>> allBeans,
+                                    BeanAdder beanAdder) throws IOException {
+        int numberOfKeys = readVarInt(in);
+        for (int i = 0; i < numberOfKeys; i++) {
+            String key = strings[readVarInt(in)];
+            int numberOfBeans = readVarInt(in);
+            for (int j = 0; j < numberOfBeans; j++) {
+                beanAdder.add(key, allBeans.get(readVarInt(in)));
+            }
+        }
+    }
+
+    private interface BeanAdder {
+        void add(String key, Set<String> bean);
+    }
+
+    //##################################################################################################################
+    // InjectionPoints
+
+    public static void writeInjectionPoints(InjectionPointStorage injectionPoints, Path path) throws IOException {
+        StringTable stringTable = new StringTable();
+        injectionPoints.getInjectionPoints().forEach((node, keys) -> {
+            stringTable.add(node);
+            for (Triple<String, String, Set<String>> key : keys) {
+                stringTable.add(key.getFirst());
+                stringTable.add(key.getSecond());
+                key.getThird().forEach(stringTable::add);
+            }
+        });
+
+        try (DataOutputStream out = openOutput(path, KIND_INJECTION_POINTS)) {
+            stringTable.writeTo(out);
+
+            writeVarInt(out, injectionPoints.getInjectionPoints().size());
+            for (Map.Entry<String, Set<Triple<String, String, Set<String>>>> entry :
+                    injectionPoints.getInjectionPoints().entrySet()) {
+                writeVarInt(out, stringTable.indexOf(entry.getKey()));
+                writeVarInt(out, entry.getValue().size());
+                for (Triple<String, String, Set<String>> key : entry.getValue()) {
+                    writeVarInt(out, stringTable.indexOf(key.getFirst()));
+                    writeVarInt(out, stringTable.indexOf(key.getSecond()));
+                    writeVarInt(out, key.getThird().size());
+                    for (String qualifier : key.getThird()) {
+                        writeVarInt(out, stringTable.indexOf(qualifier));
+                    }
+                }
+            }
+        }
+    }
+
+    public static InjectionPointStorage readInjectionPoints(Path path) throws IOException {
+        try (DataInputStream in = openInput(path)) {
+            if (!checkHeader(in, KIND_INJECTION_POINTS)) {
+                in.reset();
+                // copy to rebuild the index, which is not part of the JSON representation
+                InjectionPointStorage injectionPoints = new InjectionPointStorage();
+                injectionPoints.addAll(objectMapper.readValue(in, typeReferenceInjectionPointStorage));
+                return injectionPoints;
+            }
+
+            String[] strings = readStringTable(in);
+
+            InjectionPointStorage injectionPoints = new InjectionPointStorage();
+            int numberOfInjectionPoints = readVarInt(in);
+            for (int i = 0; i < numberOfInjectionPoints; i++) {
+                String node = strings[readVarInt(in)];
+                int numberOfKeys = readVarInt(in);
+                for (int j = 0; j < numberOfKeys; j++) {
+                    String type = strings[readVarInt(in)];
+                    String name = strings[readVarInt(in)];
+                    int numberOfQualifiers = readVarInt(in);
+                    Set<String> qualifiers = new HashSet<>(numberOfQualifiers * 2);
+                    for (int k = 0; k < numberOfQualifiers; k++) {
+                        qualifiers.add(strings[readVarInt(in)]);
+                    }
+                    injectionPoints.addInjectionPoint(node, type, name, qualifiers);
+                }
+            }
+            return injectionPoints;
+        }
+    }
+
+    //##################################################################################################################
+    // Auxiliary methods
+
+    private static DataOutputStream openOutput(Path path, int kind) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(kind);
+        return out;
+    }
+
+    private static DataInputStream openInput(Path path) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)));
+        in.mark(Integer.BYTES + 2);
+        return in;
+    }
+
+    /**
+     * @return true if the header of a binary file of the given kind is present, false if the file has to be treated
+     * as JSON
+     */
+    private static boolean checkHeader(DataInputStream in, int kind) throws IOException {
+        try {
+            if (in.readInt() != MAGIC)
+                return false;
+            int version = in.readUnsignedByte();
+            int actualKind = in.readUnsignedByte();
+            if (version != VERSION || actualKind != kind)
+                throw new IOException("Unsupported storage format: version " + version + ", kind " + actualKind);
+            return true;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    private static String[] readStringTable(DataInputStream in) throws IOException {
+        int numberOfStrings = readVarInt(in);
+        String[] strings = new String[numberOfStrings + 1];
+        byte[] buffer = new byte[256];
+        for (int i = 1; i <= numberOfStrings; i++) {
+            int length = readVarInt(in);
+            if (length > buffer.length)
+                buffer = new byte[Math.max(length, buffer.length * 2)];
+            in.readFully(buffer, 0, length);
+            strings[i] = new String(buffer, 0, length, StandardCharsets.UTF_8);
+        }
+        return strings;
+    }
+
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+
+    /**
+     * Assigns indices to strings in the order of their first occurrence, index 0 is reserved for null
+     */
+    private static class StringTable {
+
+        private final Map<String, Integer> indices = new LinkedHashMap<>();
+
+        void add(String s) {
+            if (s != null)
+                indices.putIfAbsent(s, indices.size() + 1);
+        }
+
+        int indexOf(String s) {
+            return s == null ? 0 : indices.get(s);
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            writeVarInt(out, indices.size());
+            for (String s : indices.keySet()) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(out, bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+}
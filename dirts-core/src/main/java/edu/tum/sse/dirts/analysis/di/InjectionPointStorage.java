@@ -28,6 +28,12 @@ public class InjectionPointStorage {
 
     private final Map<String, Set<Triple<String, String, Set<String>>>> injectionPoints = new HashMap<>();
 
+    /*
+    Reverse index from the type of a lookup key to the injectionPoints that use it, null is used for untyped keys
+    Not serialized, it is maintained by the methods that add or remove injectionPoints
+     */
+    private final Map<String, Set<String>> injectionPointsByType = new HashMap<>();
+
     //##################################################################################################################
     // Methods that add InjectionPoints
 
@@ -47,20 +53,41 @@ public class InjectionPointStorage {
             typeString = lookup(type);
         }
 
-        Triple<String, String, Set<String>> value = new Triple<>(typeString, name, qualifiers);
+        addInjectionPoint(injectionPoint, typeString, name, qualifiers);
+    }
+
+    public void addInjectionPoint(String injectionPoint,
+                                  String type,
+                                  String name,
+                                  Set<String> qualifiers) {
+        Triple<String, String, Set<String>> value = new Triple<>(type, name, qualifiers);
         injectionPoints.computeIfAbsent(injectionPoint, k -> new HashSet<>());
         injectionPoints.get(injectionPoint).add(value);
+        injectionPointsByType.computeIfAbsent(type, k -> new HashSet<>()).add(injectionPoint);
     }
 
     public void addAll(InjectionPointStorage other) {
-        injectionPoints.putAll(other.getInjectionPoints());
+        other.getInjectionPoints().forEach((injectionPoint, keys) -> {
+            removeInjectionPoint(injectionPoint);
+            keys.forEach(key -> addInjectionPoint(injectionPoint, key.getFirst(), key.getSecond(), key.getThird()));
+        });
     }
 
     //##################################################################################################################
     // Methods that remove InjectionPoints
 
     public void removeInjectionPoint(String injectionPoint) {
-        injectionPoints.remove(injectionPoint);
+        Set<Triple<String, String, Set<String>>> keys = injectionPoints.remove(injectionPoint);
+        if (keys != null) {
+            for (Triple<String, String, Set<String>> key : keys) {
+                Set<String> injectionPointsOfType = injectionPointsByType.get(key.getFirst());
+                if (injectionPointsOfType != null) {
+                    injectionPointsOfType.remove(injectionPoint);
+                    if (injectionPointsOfType.isEmpty())
+                        injectionPointsByType.remove(key.getFirst());
+                }
+            }
+        }
     }
 
     //##################################################################################################################
@@ -70,6 +97,19 @@ public class InjectionPointStorage {
         return Collections.unmodifiableMap(injectionPoints);
     }
 
+    /**
+     * Query the injectionPoints that could be satisfied by a bean of one of the given types
+     * @param types types of the beans
+     * @return injectionPoints that have a lookup key of one of these types or a lookup key without type
+     */
+    public Set<String> lookupInjectionPoints(Collection<String> types) {
+        Set<String> ret = new HashSet<>(injectionPointsByType.getOrDefault(null, Set.of()));
+        for (String type : types) {
+            ret.addAll(injectionPointsByType.getOrDefault(type, Set.of()));
+        }
+        return ret;
+    }
+
     @JsonIgnore
     public boolean isEmpty() {
         return injectionPoints.isEmpty();
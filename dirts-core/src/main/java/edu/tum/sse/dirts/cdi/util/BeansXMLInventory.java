@@ -0,0 +1,251 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.cdi.util;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import edu.tum.sse.dirts.util.Log;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.zip.CRC32;
+
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.FINER;
+
+/**
+ * Inventory of the beans.xml files of a module, containing their checksums and the alternatives declared in them
+ * <p>
+ * Used to only parse those beans.xml files that have changed since the last run
+ */
+public class BeansXMLInventory {
+
+    //##################################################################################################################
+    // Static constants
+
+    private static final String BEANS_XML = "beans.xml";
+    private static final String META_INF = "META-INF";
+    private static final Set<String> EXCLUDED_DIRECTORIES = Set.of("target", ".dirts", ".git");
+
+    //##################################################################################################################
+    // Attributes
+
+    /**
+     * Entries by path of the beans.xml file, relative to the module
+     */
+    private Map<String, Entry> entries = new HashMap<>();
+
+    //##################################################################################################################
+    // Getters and Setters
+
+    public Map<String, Entry> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(Map<String, Entry> entries) {
+        this.entries = entries;
+    }
+
+    @JsonIgnore
+    public Set<String> getAllAlternatives() {
+        Set<String> ret = new HashSet<>();
+        entries.values().forEach(e -> ret.addAll(e.getAlternatives()));
+        return ret;
+    }
+
+    //##################################################################################################################
+    // Methods
+
+    /**
+     * Creates an up-to-date inventory, only beans.xml files that have changed are parsed again
+     *
+     * @param previous   inventory of the last run, may be null
+     * @param modulePath path of the module
+     * @return new inventory
+     */
+    public static BeansXMLInventory update(BeansXMLInventory previous, Path modulePath) {
+        Map<String, Entry> previousEntries = previous != null ? previous.getEntries() : Map.of();
+
+        XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        BeansXMLInventory ret = new BeansXMLInventory();
+        int parsed = 0;
+        for (Path beansXMLPath : findBeansXMLFiles(modulePath)) {
+            String key = modulePath.relativize(beansXMLPath).toString();
+            Entry previousEntry = previousEntries.get(key);
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(beansXMLPath, BasicFileAttributes.class);
+                long lastModified = attributes.lastModifiedTime().toMillis();
+                long size = attributes.size();
+
+                if (previousEntry != null
+                        && previousEntry.getLastModified() == lastModified
+                        && previousEntry.getSize() == size) {
+                    ret.entries.put(key, previousEntry);
+                    continue;
+                }
+
+                byte[] content = Files.readAllBytes(beansXMLPath);
+                CRC32 crc32 = new CRC32();
+                crc32.update(content);
+                long checksum = crc32.getValue();
+
+                Set<String> alternatives;
+                if (previousEntry != null && previousEntry.getChecksum() == checksum) {
+                    alternatives = previousEntry.getAlternatives();
+                } else {
+                    alternatives = parseAlternatives(xmlInputFactory, beansXMLPath, content);
+                    parsed++;
+                }
+                ret.entries.put(key, new Entry(lastModified, size, checksum, alternatives));
+            } catch (IOException e) {
+                Log.log(FINE, "Failed to read " + beansXMLPath + ": " + e.getMessage());
+            }
+        }
+
+        Log.log(FINER, "Parsed " + parsed + " of " + ret.entries.size() + " beans.xml files");
+        return ret;
+    }
+
+    private static Set<Path> findBeansXMLFiles(Path modulePath) {
+        Set<Path> ret = new HashSet<>();
+        try {
+            Files.walkFileTree(modulePath, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (dir.equals(modulePath))
+                        return FileVisitResult.CONTINUE;
+
+                    String name = dir.getFileName().toString();
+                    if (EXCLUDED_DIRECTORIES.contains(name) || Files.exists(dir.resolve("pom.xml"))) {
+                        // do not descend into build output or nested modules
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    if (name.equals(META_INF)) {
+                        Path beansXMLPath = dir.resolve(BEANS_XML);
+                        if (Files.isRegularFile(beansXMLPath))
+                            ret.add(beansXMLPath);
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            Log.log(FINE, "Failed to search for beans.xml files: " + e.getMessage());
+        }
+        return ret;
+    }
+
+    /**
+     * Streams through a beans.xml file and collects the classes declared as alternatives
+     */
+    private static Set<String> parseAlternatives(XMLInputFactory xmlInputFactory,
+                                                 Path beansXMLPath,
+                                                 byte[] content) {
+        Set<String> ret = new HashSet<>();
+        XMLStreamReader reader = null;
+        try {
+            reader = xmlInputFactory.createXMLStreamReader(new ByteArrayInputStream(content));
+            int alternativesDepth = 0;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String localName = reader.getLocalName();
+                    if (localName.equals("alternatives")) {
+                        alternativesDepth++;
+                    } else if (alternativesDepth > 0 && localName.equals("class")) {
+                        // moves the reader to the corresponding end element
+                        String className = reader.getElementText().trim();
+                        if (!className.isEmpty())
+                            ret.add(className);
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (reader.getLocalName().equals("alternatives"))
+                        alternativesDepth--;
+                }
+            }
+        } catch (XMLStreamException e) {
+            Log.log(FINE, "Failed to parse " + beansXMLPath + ": " + e.getMessage());
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignored) {
+                }
+            }
+        }
+        return ret;
+    }
+
+    //##################################################################################################################
+    // Inner class
+
+    public static class Entry {
+
+        private long lastModified;
+        private long size;
+        private long checksum;
+        private Set<String> alternatives;
+
+        public Entry() {
+            alternatives = new HashSet<>();
+        }
+
+        public Entry(long lastModified, long size, long checksum, Set<String> alternatives) {
+            this.lastModified = lastModified;
+            this.size = size;
+            this.checksum = checksum;
+            this.alternatives = alternatives;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public void setLastModified(long lastModified) {
+            this.lastModified = lastModified;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public void setSize(long size) {
+            this.size = size;
+        }
+
+        public long getChecksum() {
+            return checksum;
+        }
+
+        public void setChecksum(long checksum) {
+            this.checksum = checksum;
+        }
+
+        public Set<String> getAlternatives() {
+            return alternatives;
+        }
+
+        public void setAlternatives(Set<String> alternatives) {
+            this.alternatives = alternatives;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.core;
+
+/**
+ * Decision of the Planner on how to analyze the current revision and which tests to select
+ */
+public class AnalysisPlan {
+
+    //##################################################################################################################
+    // Static constants
+
+    /**
+     * Crop the graph and recalculate the dependencies of impacted types only, then select affected tests
+     */
+    public static final AnalysisPlan INCREMENTAL = new AnalysisPlan(false, null);
+
+    //##################################################################################################################
+    // Attributes
+
+    /**
+     * Whether the primary dependencies of all types are recalculated instead of cropping the graph
+     */
+    private final boolean recomputeAll;
+
+    /**
+     * Reason for running all tests, null if only affected tests are selected
+     */
+    private final String runAllReason;
+
+    //##################################################################################################################
+    // Constructors
+
+    private AnalysisPlan(boolean recomputeAll, String runAllReason) {
+        this.recomputeAll = recomputeAll;
+        this.runAllReason = runAllReason;
+    }
+
+    public static AnalysisPlan recomputeAll() {
+        return new AnalysisPlan(true, null);
+    }
+
+    /**
+     * Dependencies are not calculated at all, the state of the previous run is dropped instead
+     *
+     * @param reason reason for running all tests
+     */
+    public static AnalysisPlan runAll(String reason) {
+        return new AnalysisPlan(false, reason);
+    }
+
+    //##################################################################################################################
+    // Getters
+
+    public boolean isRecomputeAll() {
+        return recomputeAll;
+    }
+
+    public boolean isRunAll() {
+        return runAllReason != null;
+    }
+
+    public String getRunAllReason() {
+        return runAllReason;
+    }
+
+    @Override
+    public String toString() {
+        if (isRunAll())
+            return "run all tests without analysis";
+        return recomputeAll ? "full re-analysis" : "incremental analysis";
+    }
+}
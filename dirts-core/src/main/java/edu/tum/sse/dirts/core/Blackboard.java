@@ -19,10 +19,13 @@ import com.github.javaparser.ast.body.TypeDeclaration;
 import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
 import edu.tum.sse.dirts.analysis.FinderVisitor;
 import edu.tum.sse.dirts.analysis.def.identifiers.methodlevel.InheritanceIdentifierVisitor;
+import edu.tum.sse.dirts.analysis.di.DIFrameworkDetector.DIFramework;
 import edu.tum.sse.dirts.core.strategies.DependencyStrategy;
+import edu.tum.sse.dirts.daemon.WarmState;
 import edu.tum.sse.dirts.graph.DependencyGraph;
 import edu.tum.sse.dirts.graph.ModificationGraph;
 import edu.tum.sse.dirts.util.Log;
+import edu.tum.sse.dirts.util.metrics.Metrics;
 import edu.tum.sse.dirts.util.naming_scheme.Names;
 import edu.tum.sse.dirts.util.tuples.Pair;
 import org.apache.maven.surefire.api.testset.TestFilter;
@@ -38,8 +41,6 @@ import static java.util.logging.Level.*;
  */
 public class Blackboard<T extends BodyDeclaration<?>> {
 
-    public static boolean considerAnnotationsAsDependencies = false;
-
     /*
      * Central class of the blackboard pattern
      *
@@ -54,6 +55,82 @@ public class Blackboard<T extends BodyDeclaration<?>> {
     private final List<KnowledgeSource<T>> knowledgeSources;
     private final List<DependencyStrategy<T>> dependencyStrategies;
 
+    /**
+     * Number of threads used to import and export the state of DependencyStrategies concurrently
+     */
+    private int strategyThreads = 1;
+
+    /**
+     * Number of threads used to apply independent KnowledgeSources concurrently
+     */
+    private int knowledgeSourceThreads = 1;
+
+    /**
+     * Measurements of the phases of this run
+     */
+    private Metrics metrics = new Metrics();
+
+    /**
+     * Whether a flight recording with the events of DIRTS should be created
+     */
+    private boolean flightRecording = false;
+
+    /**
+     * State kept by the daemon across several analyses, null when running in-process
+     */
+    private WarmState warmState;
+
+    /**
+     * Files and directories that have changed since the last analysis using this blackboard, null to check all files
+     */
+    private Set<Path> changedFiles;
+
+    /**
+     * Bytes the compilation units parsed at a time may occupy, 0 to keep all compilation units in memory
+     */
+    private long memoryBudget = 0;
+
+    /**
+     * Whether the Planner should choose between incremental analysis, full re-analysis and running all tests
+     */
+    private boolean planning = false;
+
+    /**
+     * Fraction of the tests that need to be affected by a change, such that all tests are run right away
+     */
+    private double runAllThreshold = 0.8;
+
+    /**
+     * Whether the selection of the last run should be reused if sources and configuration have not changed
+     */
+    private boolean selectionCaching = false;
+
+    /**
+     * Directory shared with other machines to publish and fetch exported state, null if not used
+     */
+    private Path stateCachePath;
+
+    /**
+     * Whether snapshots of the exported state are kept per commit and branch to restore the closest one
+     */
+    private boolean stateSnapshots = false;
+
+    /**
+     * Whether checksums, compilation units and the graph are exported to a memory-mapped key-value store instead of
+     * JSON files
+     */
+    private boolean keyValueStore = false;
+
+    /**
+     * Source roots to parse, null or empty to collect all source roots of the module
+     */
+    private List<Path> sourceRoots;
+
+    /**
+     * Classpath used to resolve code from libraries, null or empty to read it from `.dirts/libraries`
+     */
+    private List<Path> libraries;
+
     // #################################################################################################################
     // ## Content of blackboard, actual knowledge
 
@@ -70,6 +147,16 @@ public class Blackboard<T extends BodyDeclaration<?>> {
 
     private Collection<CompilationUnit> compilationUnits;
 
+    /**
+     * Whether type solver and compilation units have been taken from the analysis of another level
+     */
+    private boolean sourcesShared = false;
+
+    /**
+     * Index of all source files, if only some of the compilation units are kept in memory
+     */
+    private SourceIndex sourceIndex;
+
     private FinderVisitor<Map<String, Node>, T> nameFinderVisitor;
 
     private Map<String, Node> allNodes;
@@ -82,6 +169,15 @@ public class Blackboard<T extends BodyDeclaration<?>> {
 
     private Collection<TypeDeclaration<?>> impactedTypes;
 
+    private Map<String, Integer> checksumsBuildFiles;
+
+    private AnalysisPlan analysisPlan = AnalysisPlan.INCREMENTAL;
+
+    /**
+     * DI frameworks detected in the module, exported for the next run, null if frameworks are not detected
+     */
+    private Set<DIFramework> detectedFrameworks;
+
     private DependencyGraph graphOldRevision;
     private DependencyGraph graphNewRevision;
 
@@ -103,6 +199,34 @@ public class Blackboard<T extends BodyDeclaration<?>> {
         dependencyStrategies = new ArrayList<>();
     }
 
+    //##################################################################################################################
+    // Methods
+
+    /**
+     * Prepares this blackboard to analyze the module again after some files have changed
+     * <p>
+     * The imported state is kept, i.e. changes are still relative to the revision that has been imported before.
+     * KnowledgeSources and DependencyStrategies have to be added again, since DependencyStrategies accumulate state
+     * during an analysis.
+     *
+     * @param changedFiles files and directories that have changed since the last analysis
+     */
+    public void prepareReanalysis(Set<Path> changedFiles) {
+        // the state is imported again if the last analysis failed before importing it
+        this.changedFiles = checksumsNodes != null ? changedFiles : null;
+
+        this.state = BlackboardState.CLEAN;
+        knowledgeSources.clear();
+        dependencyStrategies.clear();
+        metrics = new Metrics();
+
+        analysisPlan = AnalysisPlan.INCREMENTAL;
+        modificationGraph = null;
+        sourceIndex = null;
+        impactedTypes = null;
+        inheritanceIdentifierVisitorMap = null;
+    }
+
     //##################################################################################################################
     // Getters and Setters
 
@@ -131,6 +255,125 @@ public class Blackboard<T extends BodyDeclaration<?>> {
         dependencyStrategies.add(dependencyStrategy);
     }
 
+    public int getStrategyThreads() {
+        return strategyThreads;
+    }
+
+    public void setStrategyThreads(int strategyThreads) {
+        this.strategyThreads = Math.max(1, strategyThreads);
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public boolean isFlightRecording() {
+        return flightRecording;
+    }
+
+    public void setFlightRecording(boolean flightRecording) {
+        this.flightRecording = flightRecording;
+    }
+
+    public WarmState getWarmState() {
+        return warmState;
+    }
+
+    public void setWarmState(WarmState warmState) {
+        this.warmState = warmState;
+    }
+
+    public Set<Path> getChangedFiles() {
+        return changedFiles;
+    }
+
+    /**
+     * @return whether the state imported by an earlier analysis using this blackboard is reused
+     */
+    public boolean isReanalysis() {
+        return changedFiles != null;
+    }
+
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    public void setMemoryBudget(long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+
+    public boolean isPlanning() {
+        return planning;
+    }
+
+    public void setPlanning(boolean planning) {
+        this.planning = planning;
+    }
+
+    public double getRunAllThreshold() {
+        return runAllThreshold;
+    }
+
+    public void setRunAllThreshold(double runAllThreshold) {
+        this.runAllThreshold = runAllThreshold;
+    }
+
+    public boolean isSelectionCaching() {
+        return selectionCaching;
+    }
+
+    public void setSelectionCaching(boolean selectionCaching) {
+        this.selectionCaching = selectionCaching;
+    }
+
+    public Path getStateCachePath() {
+        return stateCachePath;
+    }
+
+    public void setStateCachePath(Path stateCachePath) {
+        this.stateCachePath = stateCachePath;
+    }
+
+    public boolean isStateSnapshots() {
+        return stateSnapshots;
+    }
+
+    public void setStateSnapshots(boolean stateSnapshots) {
+        this.stateSnapshots = stateSnapshots;
+    }
+
+    public boolean isKeyValueStore() {
+        return keyValueStore;
+    }
+
+    public void setKeyValueStore(boolean keyValueStore) {
+        this.keyValueStore = keyValueStore;
+    }
+
+    public List<Path> getSourceRoots() {
+        return sourceRoots;
+    }
+
+    public void setSourceRoots(List<Path> sourceRoots) {
+        this.sourceRoots = sourceRoots;
+    }
+
+    public List<Path> getLibraries() {
+        return libraries;
+    }
+
+    public void setLibraries(List<Path> libraries) {
+        this.libraries = libraries;
+    }
+
+    public int getKnowledgeSourceThreads() {
+        return knowledgeSourceThreads;
+    }
+
+    public void setKnowledgeSourceThreads(int knowledgeSourceThreads) {
+        this.knowledgeSourceThreads = Math.max(1, knowledgeSourceThreads);
+    }
+
     // _________________________________________________________________________________________________________________
 
     public Path getRootPath() {
@@ -161,8 +404,9 @@ public class Blackboard<T extends BodyDeclaration<?>> {
     // _________________________________________________________________________________________________________________
 
     public void setChecksumsNodes(Map<String, Integer> checksumsNodes) {
+        // checksums may be read from the state on demand, so they are only traversed if they are logged
         if (checksumsNodes != null)
-            Log.log(FINEST, "Checksums:\n" +
+            Log.log(FINEST, () -> "Checksums:\n" +
                     checksumsNodes.entrySet().stream()
                             .map(e -> e.getKey() + ": " + e.getValue())
                             .collect(Collectors.joining("\n")) +
@@ -177,7 +421,7 @@ public class Blackboard<T extends BodyDeclaration<?>> {
 
     public void setCompilationUnitMapping(Map<String, String> compilationUnitMapping) {
         if (compilationUnitMapping != null)
-            Log.log(ALL, "Mapping of Nodes to CompilationUnits:\n" +
+            Log.log(ALL, () -> "Mapping of Nodes to CompilationUnits:\n" +
                     compilationUnitMapping.entrySet().stream()
                             .map(e -> e.getKey() + " -> " + e.getValue())
                             .collect(Collectors.joining("\n")) +
@@ -219,6 +463,27 @@ public class Blackboard<T extends BodyDeclaration<?>> {
         return Collections.unmodifiableCollection(compilationUnits);
     }
 
+    /**
+     * Reuses the type solver and the compilation units of a blackboard of the same module that has already been parsed
+     */
+    public void shareSources(Blackboard<?> other) {
+        this.typeSolver = other.typeSolver;
+        this.compilationUnits = other.compilationUnits;
+        this.sourcesShared = true;
+    }
+
+    public boolean isSourcesShared() {
+        return sourcesShared;
+    }
+
+    public SourceIndex getSourceIndex() {
+        return sourceIndex;
+    }
+
+    public void setSourceIndex(SourceIndex sourceIndex) {
+        this.sourceIndex = sourceIndex;
+    }
+
     // _________________________________________________________________________________________________________________
 
 
@@ -279,6 +544,32 @@ public class Blackboard<T extends BodyDeclaration<?>> {
         return Collections.unmodifiableMap(allNodes);
     }
 
+    /**
+     * Looks up a node of the new revision
+     * <p>
+     * If only some of the compilation units are kept in memory, the compilation unit declaring the node is parsed on
+     * demand.
+     *
+     * @return the node, null if it is unknown
+     */
+    public synchronized Node getNode(String name) {
+        Node node = allNodes.get(name);
+        if (node == null && sourceIndex != null) {
+            sourceIndex.loadDeclaring(name).ifPresent(compilationUnit -> {
+                compilationUnits.add(compilationUnit);
+
+                Map<String, Node> nodes = new HashMap<>();
+                compilationUnit.accept(nameFinderVisitor, nodes);
+                nodes.forEach((n, v) -> {
+                    if (v != null && allNodes.containsKey(n) && allNodes.get(n) == null)
+                        allNodes.put(n, v);
+                });
+            });
+            node = allNodes.get(name);
+        }
+        return node;
+    }
+
     // _________________________________________________________________________________________________________________
 
     public void setTests(Collection<String> tests) {
@@ -318,6 +609,32 @@ public class Blackboard<T extends BodyDeclaration<?>> {
 
     // _________________________________________________________________________________________________________________
 
+    public Map<String, Integer> getChecksumsBuildFiles() {
+        return checksumsBuildFiles;
+    }
+
+    public void setChecksumsBuildFiles(Map<String, Integer> checksumsBuildFiles) {
+        this.checksumsBuildFiles = checksumsBuildFiles;
+    }
+
+    public AnalysisPlan getAnalysisPlan() {
+        return analysisPlan;
+    }
+
+    public void setAnalysisPlan(AnalysisPlan analysisPlan) {
+        this.analysisPlan = analysisPlan;
+    }
+
+    public Set<DIFramework> getDetectedFrameworks() {
+        return detectedFrameworks;
+    }
+
+    public void setDetectedFrameworks(Set<DIFramework> detectedFrameworks) {
+        this.detectedFrameworks = detectedFrameworks;
+    }
+
+    // _________________________________________________________________________________________________________________
+
     public void setGraphOldRevision(DependencyGraph graphOldRevision) {
         this.graphOldRevision = graphOldRevision;
     }
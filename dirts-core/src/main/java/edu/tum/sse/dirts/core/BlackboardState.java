@@ -29,6 +29,7 @@ public enum BlackboardState {
     PARSED,                  // Parser
     TESTS_FOUND,            // TestFinder
     NODES_CHANGES_SET,      // ChangeAnalyzer
+    PLANNED,                // Planner
     NEW_GRAPH_SET,          // GraphCropper
 
     DEPENDENCIES_UPDATED,   // DEPENDENCY_ANALYZER
@@ -58,6 +59,8 @@ public enum BlackboardState {
                 return "Finding tests";
             case NODES_CHANGES_SET:
                 return "Calculating changes";
+            case PLANNED:
+                return "Planning analysis";
             case NEW_GRAPH_SET:
                 return "Cropping dependency graph";
             case DEPENDENCIES_UPDATED:
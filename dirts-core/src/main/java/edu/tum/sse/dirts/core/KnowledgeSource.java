@@ -14,6 +14,8 @@ package edu.tum.sse.dirts.core;
 
 import com.github.javaparser.ast.body.BodyDeclaration;
 
+import java.util.Set;
+
 /**
  * Can be extended to define a processing step
  */
@@ -37,4 +39,26 @@ public abstract class KnowledgeSource<T extends BodyDeclaration<?>> {
     public abstract BlackboardState updateBlackboard();
 
     public abstract boolean executeCondition();
+
+    //##################################################################################################################
+    // Methods used to schedule KnowledgeSources concurrently
+
+    /**
+     * States that need to be reached before this KnowledgeSource can be applied
+     * (Replaces executeCondition if KnowledgeSources are scheduled concurrently)
+     *
+     * @return required states, null if this KnowledgeSource does not declare its requirements
+     */
+    public Set<BlackboardState> getRequiredStates() {
+        return null;
+    }
+
+    /**
+     * State that is reached once this KnowledgeSource has been applied
+     *
+     * @return provided state, null if this KnowledgeSource does not declare it
+     */
+    public BlackboardState getProvidedState() {
+        return null;
+    }
 }
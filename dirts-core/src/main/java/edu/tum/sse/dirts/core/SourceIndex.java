@@ -0,0 +1,119 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.core;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import edu.tum.sse.dirts.util.Log;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+
+import static java.util.logging.Level.WARNING;
+
+/**
+ * Compact index of the source files of a module, used instead of keeping all compilation units in memory
+ * <p>
+ * Maps the names of nodes to the files declaring them, so that compilation units can be parsed again on demand.
+ */
+public class SourceIndex {
+
+    //##################################################################################################################
+    // Attributes
+
+    private final List<Path> files = new ArrayList<>();
+    private final List<ParserConfiguration> parserConfigurations = new ArrayList<>();
+    private final List<String> packages = new ArrayList<>();
+
+    private final Map<String, Integer> fileByNode = new HashMap<>();
+
+    private final BitSet loaded = new BitSet();
+
+    //##################################################################################################################
+    // Methods
+
+    /**
+     * @return index of the added file
+     */
+    public int addFile(Path file, ParserConfiguration parserConfiguration) {
+        files.add(file);
+        parserConfigurations.add(parserConfiguration);
+        packages.add("");
+        return files.size() - 1;
+    }
+
+    public void setPackage(int file, String packageName) {
+        packages.set(file, packageName);
+    }
+
+    public void addNode(String name, int file) {
+        fileByNode.put(name, file);
+    }
+
+    public int getNumberOfFiles() {
+        return files.size();
+    }
+
+    public Path getFile(int file) {
+        return files.get(file);
+    }
+
+    public String getPackage(int file) {
+        return packages.get(file);
+    }
+
+    public Set<String> getNodes() {
+        return Collections.unmodifiableSet(fileByNode.keySet());
+    }
+
+    /**
+     * Parses a file that has not been loaded yet
+     *
+     * @return the compilation unit, empty if the file has already been loaded or could not be parsed
+     */
+    public Optional<CompilationUnit> load(int file) {
+        if (loaded.get(file))
+            return Optional.empty();
+        loaded.set(file);
+        return parse(file);
+    }
+
+    /**
+     * Parses the file declaring a node, if it has not been loaded yet
+     *
+     * @return the compilation unit, empty if the file has already been loaded or the node is unknown
+     */
+    public Optional<CompilationUnit> loadDeclaring(String node) {
+        Integer file = fileByNode.get(node);
+        if (file == null)
+            return Optional.empty();
+        return load(file);
+    }
+
+    /**
+     * Parses a file without marking it as loaded
+     */
+    public Optional<CompilationUnit> parse(int file) {
+        Path path = files.get(file);
+        try {
+            ParseResult<CompilationUnit> result = new JavaParser(parserConfigurations.get(file)).parse(path);
+            return result.getResult().filter(compilationUnit -> result.isSuccessful());
+        } catch (IOException e) {
+            Log.errLog(WARNING, "Failed to parse " + path + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.core.control;
+
+import edu.tum.sse.dirts.graph.EdgeType;
+import edu.tum.sse.dirts.util.tuples.Pair;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Class level and method level RTS in a single pass
+ * <p>
+ * The sources are parsed only once, the method level analysis reuses the type solver and the compilation units of the
+ * class level analysis. Both levels keep their own state in `.dirts`, as if they had been run separately.
+ */
+public class CombinedControl {
+
+    //##################################################################################################################
+    // Attributes
+
+    private final ClassLevelControl classLevelControl;
+    private final MethodLevelControl methodLevelControl;
+
+    //##################################################################################################################
+    // Constructors
+
+    public CombinedControl(ClassLevelControl classLevelControl, MethodLevelControl methodLevelControl) {
+        this.classLevelControl = classLevelControl;
+        this.methodLevelControl = methodLevelControl;
+    }
+
+    //##################################################################################################################
+    // Methods
+
+    /**
+     * Calculates affected tests on both levels
+     *
+     * @param filterByEdgeType types of edges that need to occur in a path from test to modified node
+     * @return (changedNode, affectedTest) of class level and method level, null if the analysis failed
+     * @see Control#getSelectedTests(Set)
+     */
+    public Pair<Map<String, Set<String>>, Map<String, Set<String>>> getSelectedTests(Set<EdgeType> filterByEdgeType) {
+        Map<String, Set<String>> classLevelTests = classLevelControl.getSelectedTests(filterByEdgeType);
+        if (classLevelTests == null)
+            return null;
+
+        // only some of the compilation units are kept in memory when streaming
+        if (!classLevelControl.isSelectionReused() && classLevelControl.blackboard.getSourceIndex() == null)
+            methodLevelControl.blackboard.shareSources(classLevelControl.blackboard);
+
+        Map<String, Set<String>> methodLevelTests = methodLevelControl.getSelectedTests(filterByEdgeType);
+        if (methodLevelTests == null)
+            return null;
+
+        return new Pair<>(classLevelTests, methodLevelTests);
+    }
+}
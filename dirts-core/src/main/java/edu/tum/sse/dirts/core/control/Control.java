@@ -17,12 +17,18 @@ import com.github.javaparser.ast.body.BodyDeclaration;
 import edu.tum.sse.dirts.analysis.FinderVisitor;
 import edu.tum.sse.dirts.analysis.def.DefaultDependencyCollectorVisitor;
 import edu.tum.sse.dirts.analysis.def.checksum.ChecksumVisitor;
+import edu.tum.sse.dirts.core.AnalysisPlan;
 import edu.tum.sse.dirts.core.Blackboard;
 import edu.tum.sse.dirts.core.BlackboardState;
 import edu.tum.sse.dirts.core.KnowledgeSource;
 import edu.tum.sse.dirts.core.knowledgesources.*;
+import edu.tum.sse.dirts.core.strategies.DependencyStrategy;
 import edu.tum.sse.dirts.graph.EdgeType;
+import edu.tum.sse.dirts.util.DirtsUtil;
 import edu.tum.sse.dirts.util.Log;
+import edu.tum.sse.dirts.util.metrics.FlightRecording;
+import edu.tum.sse.dirts.util.metrics.GraphTraversalEvent;
+import edu.tum.sse.dirts.util.metrics.Metrics;
 
 import java.util.*;
 import java.util.function.Predicate;
@@ -83,6 +89,11 @@ public abstract class Control<T extends BodyDeclaration<?>> {
      */
     protected final Set<EdgeType> affectedEdges;
 
+    /**
+     * Whether the selection has been taken from the SelectionCache without analyzing
+     */
+    private boolean selectionReused = false;
+
     //##################################################################################################################
     // Constructors
 
@@ -116,11 +127,15 @@ public abstract class Control<T extends BodyDeclaration<?>> {
 
                 new TypeSolverInitializer<>(blackboard),
 
-                new Parser<>(blackboard),
+                isStreaming()
+                        ? new SourceStreamer<>(blackboard, checksumVisitor, testFinderVisitor)
+                        : new Parser<>(blackboard),
 
                 new ChangeAnalyzer<>(blackboard,
                         checksumVisitor),
 
+                new Planner<>(blackboard),
+
                 new TestFinder<>(blackboard,
                         testFinderVisitor),
 
@@ -137,12 +152,52 @@ public abstract class Control<T extends BodyDeclaration<?>> {
         knowledgeSources.forEach(blackboard::addKnowledgeSource);
     }
 
+    /**
+     * @return whether only the impacted compilation units should be kept in memory
+     */
+    private boolean isStreaming() {
+        if (blackboard.getMemoryBudget() <= 0)
+            return false;
+
+        // the daemon and the watch mojos keep all compilation units on purpose
+        if (blackboard.getWarmState() != null || blackboard.isSourcesShared()) {
+            Log.log(INFO, "Ignoring memory budget, compilation units are kept in memory");
+            return false;
+        }
+        if (blackboard.getDependencyStrategies().stream().anyMatch(DependencyStrategy::requiresAllCompilationUnits)) {
+            Log.log(INFO, "Ignoring memory budget, an extension needs all compilation units");
+            return false;
+        }
+        return true;
+    }
+
     /**
      * Apply knowledgeSources as long as possible
      */
     public void applyKnowledgeSources() {
         init();
 
+        try {
+            int knowledgeSourceThreads = blackboard.getKnowledgeSourceThreads();
+            if (knowledgeSourceThreads > 1
+                    && KnowledgeSourceScheduler.isApplicable(blackboard.getKnowledgeSources())) {
+                new KnowledgeSourceScheduler<>(blackboard, knowledgeSourceThreads).applyKnowledgeSources();
+            }
+
+            applyKnowledgeSourcesSequentially();
+        } finally {
+            blackboard.getMetrics().export(
+                    DirtsUtil.getMetricsPath(blackboard.getRootPath(), blackboard.getSubPath(), blackboard.getSuffix()),
+                    blackboard.getSuffix());
+        }
+
+        // check if failed
+        if (blackboard.getState().isFailedState()) {
+            throw new RuntimeException("Failed to compute affected tests.");
+        }
+    }
+
+    private void applyKnowledgeSourcesSequentially() {
         while (!blackboard.getState().isTerminalState()) {
 
             // query candidate ready to run
@@ -152,26 +207,24 @@ public abstract class Control<T extends BodyDeclaration<?>> {
 
             if (candidate != null) {
                 // run candidate
-                long unitTime = System.currentTimeMillis();
-
-                BlackboardState newState = candidate.updateBlackboard();
+                BlackboardState newState;
+                Metrics.Phase phase = blackboard.getMetrics()
+                        .startPhase("knowledgeSource", candidate.getClass().getSimpleName());
+                try (phase) {
+                    newState = candidate.updateBlackboard();
+                }
                 blackboard.setState(newState);
 
                 Log.log(INFO, "TIME",
                         String.format(Locale.US,
                                 "%s took %.3f seconds",
                                 newState,
-                                ((System.currentTimeMillis() - unitTime) * 0.001)));
+                                (phase.getWallTime() * 1e-9)));
 
             } else {
                 throw new RuntimeException("Terminated unexpectedly at state " + blackboard.getState().name());
             }
         }
-
-        // check if failed
-        if (blackboard.getState().isFailedState()) {
-            throw new RuntimeException("Failed to compute affected tests.");
-        }
     }
 
     /**
@@ -181,13 +234,50 @@ public abstract class Control<T extends BodyDeclaration<?>> {
      * @return (changedNode, affectedTest)
      */
     public Map<String, Set<String>> getSelectedTests(Set<EdgeType> filterByEdgeType) {
+        try (FlightRecording ignored = startFlightRecording()) {
+            return selectTests(filterByEdgeType);
+        }
+    }
+
+    private Map<String, Set<String>> selectTests(Set<EdgeType> filterByEdgeType) {
+        if (!blackboard.isSelectionCaching() || blackboard.getState().isTerminalState())
+            return computeSelectedTests(filterByEdgeType);
+
+        SelectionCache selectionCache = new SelectionCache(blackboard, filterByEdgeType);
+        Map<String, Set<String>> selectedTests = selectionCache.read();
+        if (selectedTests != null) {
+            Log.log(INFO, "Sources and configuration have not changed since the last run, reusing its selection");
+            selectionReused = true;
+            return selectedTests;
+        }
+
+        selectedTests = computeSelectedTests(filterByEdgeType);
+        // the state has been dropped if all tests are run, the next run has to analyze again
+        if (selectedTests != null && !blackboard.getAnalysisPlan().isRunAll())
+            selectionCache.write(selectedTests);
+        return selectedTests;
+    }
+
+    private Map<String, Set<String>> computeSelectedTests(Set<EdgeType> filterByEdgeType) {
         long startTime = System.currentTimeMillis();
 
         if (!blackboard.getState().isTerminalState())
             applyKnowledgeSources();
 
         if (blackboard.getState().isDoneState()) {
+            AnalysisPlan analysisPlan = blackboard.getAnalysisPlan();
+            if (analysisPlan.isRunAll()) {
+                // the reason is reported in place of a changed node
+                Map<String, Set<String>> allTests = new HashMap<>();
+                allTests.put("run all tests, " + analysisPlan.getRunAllReason(), new HashSet<>(blackboard.getTests()));
+                allTests.put(null, new HashSet<>());
+                return allTests;
+            }
+
             // calculated impacted nodes
+            GraphTraversalEvent event = new GraphTraversalEvent();
+            event.begin();
+
             Map<String, Set<String>> impactedNodes;
             if (!filterByEdgeType.isEmpty()) {
                 impactedNodes = blackboard.getCombinedGraph().affectedByEdgeType(filterByEdgeType);
@@ -195,6 +285,14 @@ public abstract class Control<T extends BodyDeclaration<?>> {
                 impactedNodes = blackboard.getCombinedGraph().affected();
             }
 
+            event.end();
+            if (event.shouldCommit()) {
+                event.edgeTypes = filterByEdgeType.toString();
+                event.nodes = blackboard.getCombinedGraph().getNodes().size();
+                event.changedNodes = impactedNodes.size();
+                event.commit();
+            }
+
             Collection<String> tests = blackboard.getTests();
 
             // Check if tests are in set of impacted nodes
@@ -216,18 +314,35 @@ public abstract class Control<T extends BodyDeclaration<?>> {
         }
     }
 
+    /**
+     * @return whether the last selection has been reused without analyzing
+     */
+    public boolean isSelectionReused() {
+        return selectionReused;
+    }
+
     /**
      * Visualizes the combined DependencyGraph
      *
      * @return visualization of the graph
      */
     public String visualizeDependencyGraph() {
-        if (!blackboard.getState().isTerminalState())
-            applyKnowledgeSources();
+        try (FlightRecording ignored = startFlightRecording()) {
+            if (!blackboard.getState().isTerminalState())
+                applyKnowledgeSources();
+        }
 
-        if (blackboard.getState().isDoneState())
+        // the graphs are not combined if all tests are run anyway
+        if (blackboard.getState().isDoneState() && blackboard.getCombinedGraph() != null)
             return blackboard.getCombinedGraph().toString();
         else
             return "Not able to visualize dependency graph";
     }
+
+    private FlightRecording startFlightRecording() {
+        return FlightRecording.start(blackboard.isFlightRecording(),
+                DirtsUtil.getFlightRecordingPath(blackboard.getRootPath(),
+                        blackboard.getSubPath(),
+                        blackboard.getSuffix()));
+    }
 }
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.core.control;
+
+import com.github.javaparser.ast.body.BodyDeclaration;
+import edu.tum.sse.dirts.core.Blackboard;
+import edu.tum.sse.dirts.core.BlackboardState;
+import edu.tum.sse.dirts.core.KnowledgeSource;
+import edu.tum.sse.dirts.util.AnalysisContext;
+import edu.tum.sse.dirts.util.Log;
+import edu.tum.sse.dirts.util.metrics.Metrics;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.INFO;
+
+/**
+ * Applies KnowledgeSources as soon as all states they require have been reached
+ * <p>
+ * KnowledgeSources that do not depend on each other are applied concurrently. The state of the blackboard is only
+ * used to report progress, it is set to the furthest state that has been reached so far.
+ */
+class KnowledgeSourceScheduler<T extends BodyDeclaration<?>> {
+
+    //##################################################################################################################
+    // Attributes
+
+    private final Blackboard<T> blackboard;
+    private final int threads;
+
+    //##################################################################################################################
+    // Constructors
+
+    KnowledgeSourceScheduler(Blackboard<T> blackboard, int threads) {
+        this.blackboard = blackboard;
+        this.threads = threads;
+    }
+
+    //##################################################################################################################
+    // Methods
+
+    /**
+     * @return true if all KnowledgeSources declare the states they require and provide
+     */
+    static <T extends BodyDeclaration<?>> boolean isApplicable(List<KnowledgeSource<T>> knowledgeSources) {
+        return knowledgeSources.stream()
+                .allMatch(k -> k.getRequiredStates() != null && k.getProvidedState() != null);
+    }
+
+    /**
+     * Apply all KnowledgeSources of the blackboard
+     */
+    void applyKnowledgeSources() {
+        List<KnowledgeSource<T>> pending = new ArrayList<>(blackboard.getKnowledgeSources());
+        Set<BlackboardState> reached = EnumSet.of(BlackboardState.CLEAN);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threads, new KnowledgeSourceThreadFactory());
+        CompletionService<Result> completionService = new ExecutorCompletionService<>(executorService);
+        int running = 0;
+
+        try {
+            while (!blackboard.getState().isTerminalState()) {
+
+                // start all candidates whose requirements are met
+                for (Iterator<KnowledgeSource<T>> iterator = pending.iterator(); iterator.hasNext(); ) {
+                    KnowledgeSource<T> candidate = iterator.next();
+                    if (reached.containsAll(candidate.getRequiredStates())) {
+                        iterator.remove();
+                        Log.log(FINE, "Starting " + candidate.getClass().getSimpleName());
+                        completionService.submit(AnalysisContext.wrap(() -> apply(candidate)));
+                        running++;
+                    }
+                }
+
+                if (running == 0) {
+                    throw new RuntimeException("Terminated unexpectedly at state " + blackboard.getState().name());
+                }
+
+                Result result = take(completionService);
+                running--;
+
+                Log.log(INFO, "TIME",
+                        String.format(Locale.US,
+                                "%s took %.3f seconds",
+                                result.newState,
+                                result.duration * 1e-9));
+
+                if (result.newState.isFailedState()) {
+                    blackboard.setState(result.newState);
+                } else {
+                    reached.add(result.newState);
+                    if (result.newState.compareTo(blackboard.getState()) > 0)
+                        blackboard.setState(result.newState);
+                }
+            }
+        } finally {
+            executorService.shutdown();
+            // KnowledgeSources that are still running must not interfere with subsequent work on the blackboard
+            try {
+                if (!executorService.awaitTermination(1, TimeUnit.HOURS))
+                    executorService.shutdownNow();
+            } catch (InterruptedException e) {
+                executorService.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Result apply(KnowledgeSource<T> knowledgeSource) {
+        BlackboardState newState;
+        Metrics.Phase phase = blackboard.getMetrics()
+                .startPhase("knowledgeSource", knowledgeSource.getClass().getSimpleName());
+        try (phase) {
+            newState = knowledgeSource.updateBlackboard();
+        }
+        return new Result(newState, phase.getWallTime());
+    }
+
+    private static Result take(CompletionService<Result> completionService) {
+        try {
+            return completionService.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for KnowledgeSources", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Error)
+                throw (Error) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    //##################################################################################################################
+    // Auxiliary classes
+
+    private static class Result {
+        private final BlackboardState newState;
+        private final long duration;
+
+        private Result(BlackboardState newState, long duration) {
+            this.newState = newState;
+            this.duration = duration;
+        }
+    }
+
+    private static class KnowledgeSourceThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "dirts-knowledgesource-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.core.control;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.javaparser.utils.SourceRoot;
+import edu.tum.sse.dirts.core.Blackboard;
+import edu.tum.sse.dirts.core.knowledgesources.Parser;
+import edu.tum.sse.dirts.core.knowledgesources.StateBackend;
+import edu.tum.sse.dirts.graph.EdgeType;
+import edu.tum.sse.dirts.graph.NodeStore;
+import edu.tum.sse.dirts.util.AnalysisContext;
+import edu.tum.sse.dirts.util.DirtsUtil;
+import edu.tum.sse.dirts.util.Log;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.WARNING;
+
+/**
+ * Selection of the last run, that is reused as long as neither the sources nor the configuration have changed
+ * <p>
+ * The fingerprint covers the source files and xml files of the module, the libraries, the configuration and the nodes
+ * of other modules that are recorded as affected in the reactor-wide node store. A cached selection is only valid as long as the exported graph and checksums are still those of the run that
+ * computed it.
+ */
+class SelectionCache {
+
+    //##################################################################################################################
+    // Static constants
+
+    private final static ObjectMapper objectMapper = new ObjectMapper();
+
+    //##################################################################################################################
+    // Attributes
+
+    private final Blackboard<?> blackboard;
+
+    private final String fingerprint;
+
+    //##################################################################################################################
+    // Constructors
+
+    /**
+     * @param blackboard       blackboard that has not yet been analyzed
+     * @param filterByEdgeType types of edges that need to occur in a path from test to modified node
+     */
+    SelectionCache(Blackboard<?> blackboard, Set<EdgeType> filterByEdgeType) {
+        this.blackboard = blackboard;
+        this.fingerprint = computeFingerprint(blackboard, filterByEdgeType);
+    }
+
+    //##################################################################################################################
+    // Methods
+
+    /**
+     * @return the cached selection, null if there is no selection for this fingerprint
+     */
+    Map<String, Set<String>> read() {
+        if (fingerprint == null)
+            return null;
+
+        Path cachePath = getCachePath();
+        if (!Files.exists(cachePath))
+            return null;
+
+        Entry entry;
+        try {
+            entry = objectMapper.readValue(Files.readString(cachePath), Entry.class);
+        } catch (IOException e) {
+            Log.errLog(WARNING, "Failed to read cached selection: " + e.getMessage());
+            return null;
+        }
+
+        if (!fingerprint.equals(entry.getFingerprint())) {
+            Log.log(FINE, "Sources or configuration have changed since the cached selection");
+            return null;
+        }
+        if (!Objects.equals(computeStateHash(), entry.getState())) {
+            Log.log(FINE, "Graph or checksums have been replaced since the cached selection");
+            return null;
+        }
+
+        Map<String, Set<String>> selectedTests = new HashMap<>(entry.getAffected());
+        selectedTests.put(null, new HashSet<>(entry.getNotAffected()));
+        return selectedTests;
+    }
+
+    /**
+     * Caches the selection, after graph and checksums have been exported
+     */
+    void write(Map<String, Set<String>> selectedTests) {
+        if (fingerprint == null)
+            return;
+
+        Entry entry = new Entry();
+        entry.setFingerprint(fingerprint);
+        entry.setState(computeStateHash());
+        Map<String, Set<String>> affected = new HashMap<>(selectedTests);
+        Set<String> notAffected = affected.remove(null);
+        entry.setAffected(affected);
+        entry.setNotAffected(notAffected != null ? notAffected : Set.of());
+
+        try {
+            Path cachePath = getCachePath();
+            Files.createDirectories(cachePath.getParent());
+            Files.writeString(cachePath, objectMapper.writeValueAsString(entry));
+        } catch (IOException e) {
+            Log.errLog(WARNING, "Failed to cache selection: " + e.getMessage());
+        }
+    }
+
+    //##################################################################################################################
+    // Auxiliary methods
+
+    private Path getCachePath() {
+        return DirtsUtil.getSelectionCachePath(blackboard.getRootPath(), blackboard.getSubPath(), blackboard.getSuffix());
+    }
+
+    /**
+     * @return hash of sources, xml files, libraries, changes in other modules and configuration, null if the sources
+     * or the node store could not be read
+     */
+    private static String computeFingerprint(Blackboard<?> blackboard, Set<EdgeType> filterByEdgeType) {
+        MessageDigest digest = createDigest();
+        Path modulePath = blackboard.getRootPath().resolve(blackboard.getSubPath());
+
+        // configuration
+        AnalysisContext context = AnalysisContext.current();
+        update(digest, "level=" + blackboard.getSuffix());
+        update(digest, "edgeTypes=" + new TreeSet<>(filterByEdgeType));
+        update(digest, "strategies=" + blackboard.getDependencyStrategies().stream()
+                .map(strategy -> strategy.getClass().getName())
+                .sorted()
+                .collect(Collectors.toList()));
+        update(digest, "planning=" + blackboard.isPlanning() + "," + blackboard.getRunAllThreshold());
+        update(digest, "testFilter=" + blackboard.getTestFilter());
+        update(digest, "restrictive=" + context.isRestrictive());
+        update(digest, "annotations=" + context.isConsiderAnnotationsAsDependencies());
+
+        try {
+            // libraries
+            if (blackboard.getLibraries() != null && !blackboard.getLibraries().isEmpty()) {
+                update(digest, "libraries=" + blackboard.getLibraries());
+            } else {
+                Path librariesPath = DirtsUtil.getLibrariesPath(blackboard.getRootPath(), blackboard.getSubPath());
+                if (Files.exists(librariesPath))
+                    update(digest, "libraries=" + Files.readString(librariesPath));
+            }
+
+            // changes in modules this module may depend on, see GraphCombiner
+            NodeStore nodeStore = NodeStore.read(DirtsUtil.getNodeStorePath(blackboard.getRootPath(),
+                    blackboard.getSuffix()));
+            SortedSet<String> nodesAffectedOutside =
+                    new TreeSet<>(nodeStore.getNodesAffectedOutside(blackboard.getSubPath().toString()));
+            for (String node : nodesAffectedOutside) {
+                NodeStore.Record record = nodeStore.getRecord(node).orElseThrow();
+                update(digest, "affectedOutside=" + node + "," + record.getModule() + ","
+                        + record.getModificationType());
+            }
+
+            // sources
+            SortedSet<Path> files = new TreeSet<>();
+            for (SourceRoot sourceRoot : Parser.getSourceRoots(blackboard)) {
+                files.addAll(findFiles(sourceRoot.getRoot(), ".java"));
+            }
+
+            // xml files may declare beans or build configuration
+            files.addAll(findFiles(modulePath, ".xml"));
+
+            for (Path file : files) {
+                update(digest, file.toString());
+                digest.update(Files.readAllBytes(file));
+            }
+        } catch (IOException e) {
+            Log.errLog(WARNING, "Failed to compute fingerprint of sources and changes in other modules: "
+                    + e.getMessage());
+            return null;
+        }
+
+        return toHex(digest.digest());
+    }
+
+    /**
+     * @return hash of graph, checksums and journal exported for this level, null if they have not been exported
+     */
+    private String computeStateHash() {
+        Path rootPath = blackboard.getRootPath();
+        Path subPath = blackboard.getSubPath();
+        String suffix = blackboard.getSuffix();
+
+        MessageDigest digest = createDigest();
+        try {
+            List<Path> paths = StateBackend.of(blackboard).getPaths();
+            for (Path path : paths) {
+                if (!Files.exists(path))
+                    return null;
+                digest.update(Files.readAllBytes(path));
+            }
+            Path journalPath = DirtsUtil.getJournalPath(rootPath, subPath, suffix);
+            if (Files.exists(journalPath))
+                digest.update(Files.readAllBytes(journalPath));
+        } catch (IOException e) {
+            return null;
+        }
+        return toHex(digest.digest());
+    }
+
+    private static Set<Path> findFiles(Path root, String extension) throws IOException {
+        if (root == null || !Files.isDirectory(root))
+            return Set.of();
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths
+                    .filter(p -> p.toString().endsWith(extension))
+                    .filter(p -> {
+                        for (Path name : root.relativize(p)) {
+                            if (name.toString().equals("target") || name.toString().equals(".dirts"))
+                                return false;
+                        }
+                        return true;
+                    })
+                    .filter(Files::isRegularFile)
+                    .map(Path::toAbsolutePath)
+                    .collect(Collectors.toSet());
+        }
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String s) {
+        digest.update(s.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    //##################################################################################################################
+    // Auxiliary classes
+
+    /**
+     * Content of the cache file
+     */
+    public static class Entry {
+
+        private String fingerprint;
+        private String state;
+        private Map<String, Set<String>> affected = new HashMap<>();
+        private Set<String> notAffected = new HashSet<>();
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public void setFingerprint(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        public String getState() {
+            return state;
+        }
+
+        public void setState(String state) {
+            this.state = state;
+        }
+
+        public Map<String, Set<String>> getAffected() {
+            return affected;
+        }
+
+        public void setAffected(Map<String, Set<String>> affected) {
+            this.affected = affected;
+        }
+
+        public Set<String> getNotAffected() {
+            return notAffected;
+        }
+
+        public void setNotAffected(Set<String> notAffected) {
+            this.notAffected = notAffected;
+        }
+    }
+}
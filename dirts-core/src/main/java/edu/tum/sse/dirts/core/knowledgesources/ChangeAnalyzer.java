@@ -20,8 +20,13 @@ import edu.tum.sse.dirts.analysis.def.checksum.ChecksumVisitor;
 import edu.tum.sse.dirts.core.Blackboard;
 import edu.tum.sse.dirts.core.BlackboardState;
 import edu.tum.sse.dirts.core.KnowledgeSource;
-import edu.tum.sse.dirts.core.strategies.DependencyStrategy;
+import edu.tum.sse.dirts.core.SourceIndex;
+import edu.tum.sse.dirts.core.strategies.DependencyStrategyExecutor;
+import edu.tum.sse.dirts.daemon.WarmState;
 import edu.tum.sse.dirts.util.Log;
+import edu.tum.sse.dirts.util.metrics.CompilationUnitEvent;
+import edu.tum.sse.dirts.util.metrics.Counter;
+import edu.tum.sse.dirts.util.metrics.Metrics;
 
 import java.io.File;
 import java.io.IOException;
@@ -30,11 +35,13 @@ import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static edu.tum.sse.dirts.core.BlackboardState.IMPORTED;
 import static edu.tum.sse.dirts.core.BlackboardState.NODES_CHANGES_SET;
 import static edu.tum.sse.dirts.core.BlackboardState.TESTS_FOUND;
 import static java.util.logging.Level.WARNING;
@@ -75,11 +82,27 @@ public class ChangeAnalyzer<T extends BodyDeclaration<?>> extends KnowledgeSourc
         Map<String, Node> allObjects = new HashMap<>();
 
         Collection<CompilationUnit> compilationUnits = blackboard.getCompilationUnits();
-        compilationUnits.forEach(cu -> cu.accept(blackboard.getNameFinderVisitor(), allObjects));
+        Function<Node, Integer> checksumFunction = checksumVisitor::hashCode;
+        if (CompilationUnitEvent.enabled()) {
+            checksumFunction = hashRecorded(compilationUnits, allObjects);
+        } else {
+            compilationUnits.forEach(cu -> cu.accept(blackboard.getNameFinderVisitor(), allObjects));
+
+            WarmState warmState = blackboard.getWarmState();
+            if (warmState != null) {
+                checksumFunction = node -> warmState.checksum(node, checksumVisitor);
+            }
+        }
+
+        // nodes of compilation units that are not kept in memory have not changed, see SourceStreamer
+        SourceIndex sourceIndex = blackboard.getSourceIndex();
+        if (sourceIndex != null) {
+            sourceIndex.getNodes().forEach(name -> allObjects.putIfAbsent(name, null));
+        }
 
         calculateChange(
                 blackboard.getChecksumsNodes(),
-                checksumVisitor::hashCode,
+                checksumFunction,
                 allObjects,
                 sameCode,
                 differentCode,
@@ -88,9 +111,8 @@ public class ChangeAnalyzer<T extends BodyDeclaration<?>> extends KnowledgeSourc
 
         blackboard.setChangesNodes(sameCode, differentCode, added, removed);
 
-        for (DependencyStrategy<T> dependencyStrategy : blackboard.getDependencyStrategies()) {
-            dependencyStrategy.doChangeAnalysis(blackboard);
-        }
+        DependencyStrategyExecutor.forEach(blackboard, "doChangeAnalysis",
+                dependencyStrategy -> dependencyStrategy.doChangeAnalysis(blackboard));
 
         return NODES_CHANGES_SET;
     }
@@ -100,6 +122,50 @@ public class ChangeAnalyzer<T extends BodyDeclaration<?>> extends KnowledgeSourc
         return blackboard.getState() == TESTS_FOUND;
     }
 
+    @Override
+    public Set<BlackboardState> getRequiredStates() {
+        // TestFinder is required although its results are not used, because both resolve symbols and the caches
+        // of the symbol solver must not be accessed concurrently
+        return Set.of(IMPORTED, TESTS_FOUND);
+    }
+
+    @Override
+    public BlackboardState getProvidedState() {
+        return NODES_CHANGES_SET;
+    }
+
+    /**
+     * Finds the nodes of one CompilationUnit at a time and computes the checksums needed by calculateChange
+     * right away, to record the time spent on each CompilationUnit
+     *
+     * @return function that looks up the precomputed checksums
+     */
+    private Function<Node, Integer> hashRecorded(Collection<CompilationUnit> compilationUnits,
+                                                 Map<String, Node> allObjects) {
+        Map<String, Integer> checksumsOldRevision = blackboard.getChecksumsNodes();
+        Map<Node, Integer> checksums = new IdentityHashMap<>();
+
+        for (CompilationUnit compilationUnit : compilationUnits) {
+            Map<String, Node> objects = new HashMap<>();
+            compilationUnit.accept(blackboard.getNameFinderVisitor(), objects);
+            allObjects.putAll(objects);
+
+            CompilationUnitEvent event = new CompilationUnitEvent(CompilationUnitEvent.CHECKSUM);
+            event.begin();
+            objects.forEach((name, node) -> {
+                if (node != null && checksumsOldRevision != null && checksumsOldRevision.containsKey(name)) {
+                    checksums.put(node, checksumVisitor.hashCode(node));
+                    event.nodes++;
+                }
+            });
+            event.end();
+            event.setCompilationUnit(compilationUnit);
+            event.commit();
+        }
+
+        return node -> checksums.computeIfAbsent(node, checksumVisitor::hashCode);
+    }
+
     public static <T> void calculateChange(
             Map<String, Integer> checksumsOldRevision,
             Function<T, Integer> checksumFunction,
@@ -127,6 +193,7 @@ public class ChangeAnalyzer<T extends BodyDeclaration<?>> extends KnowledgeSourc
                 String name = tNew.getKey();
                 Integer matchingOldT = objectsRemoved.getOrDefault(name, null);
                 if (matchingOldT != null) {
+                    Metrics.count(Counter.NODES_HASHED);
                     if (checksumFunction.apply(tNew.getValue()).equals(matchingOldT)) {
                         // same Name, same Code
                         objectsSame.put(name, tNew.getValue());
@@ -18,10 +18,16 @@ import edu.tum.sse.dirts.analysis.def.DefaultDependencyCollectorVisitor;
 import edu.tum.sse.dirts.core.Blackboard;
 import edu.tum.sse.dirts.core.BlackboardState;
 import edu.tum.sse.dirts.core.KnowledgeSource;
-import edu.tum.sse.dirts.core.strategies.DependencyStrategy;
+import edu.tum.sse.dirts.core.strategies.DependencyStrategyExecutor;
+import edu.tum.sse.dirts.util.metrics.CompilationUnitEvent;
+import edu.tum.sse.dirts.util.metrics.Counter;
+import edu.tum.sse.dirts.util.metrics.Metrics;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 
+import static edu.tum.sse.dirts.core.BlackboardState.DEPENDENCIES_UPDATED;
 import static edu.tum.sse.dirts.core.BlackboardState.NEW_GRAPH_SET;
 
 /**
@@ -45,15 +51,29 @@ public class DependencyAnalyzer<T extends BodyDeclaration<?>> extends KnowledgeS
     @Override
     public BlackboardState updateBlackboard() {
         Collection<TypeDeclaration<?>> impactedTypes = blackboard.getImpactedTypes();
+        Metrics.count(Counter.TYPES_ANALYZED, impactedTypes.size());
 
         primaryDependencyCollector.init(blackboard);
-        primaryDependencyCollector.calculateDependencies(
-                impactedTypes,
-                blackboard.getDependencyGraphNewRevision());
-
-        for (DependencyStrategy<T> dependencyStrategy : blackboard.getDependencyStrategies()) {
-            dependencyStrategy.doDependencyAnalysis(blackboard);
+        if (CompilationUnitEvent.enabled()) {
+            // one type at a time, to record the time spent on each of them
+            for (TypeDeclaration<?> impactedType : impactedTypes) {
+                CompilationUnitEvent event = new CompilationUnitEvent(CompilationUnitEvent.DEPENDENCIES);
+                event.begin();
+                primaryDependencyCollector.calculateDependencies(
+                        List.of(impactedType),
+                        blackboard.getDependencyGraphNewRevision());
+                event.end();
+                event.setCompilationUnit(impactedType);
+                event.commit();
+            }
+        } else {
+            primaryDependencyCollector.calculateDependencies(
+                    impactedTypes,
+                    blackboard.getDependencyGraphNewRevision());
         }
+
+        DependencyStrategyExecutor.forEach(blackboard, "doDependencyAnalysis",
+                dependencyStrategy -> dependencyStrategy.doDependencyAnalysis(blackboard));
         return BlackboardState.DEPENDENCIES_UPDATED;
     }
 
@@ -61,4 +81,14 @@ public class DependencyAnalyzer<T extends BodyDeclaration<?>> extends KnowledgeS
     public boolean executeCondition() {
         return blackboard.getState() == NEW_GRAPH_SET;
     }
+
+    @Override
+    public Set<BlackboardState> getRequiredStates() {
+        return Set.of(NEW_GRAPH_SET);
+    }
+
+    @Override
+    public BlackboardState getProvidedState() {
+        return DEPENDENCIES_UPDATED;
+    }
 }
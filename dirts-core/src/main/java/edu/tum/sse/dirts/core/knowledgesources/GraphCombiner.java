@@ -17,17 +17,19 @@ import edu.tum.sse.dirts.core.Blackboard;
 import edu.tum.sse.dirts.core.BlackboardState;
 import edu.tum.sse.dirts.core.KnowledgeSource;
 import edu.tum.sse.dirts.core.strategies.DependencyStrategy;
+import edu.tum.sse.dirts.core.strategies.DependencyStrategyExecutor;
 import edu.tum.sse.dirts.graph.DependencyGraph;
 import edu.tum.sse.dirts.graph.ModificationGraph;
 import edu.tum.sse.dirts.graph.ModificationType;
+import edu.tum.sse.dirts.graph.NodeStore;
 import edu.tum.sse.dirts.util.DirtsUtil;
 import edu.tum.sse.dirts.util.Log;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import static edu.tum.sse.dirts.core.BlackboardState.DEPENDENCIES_UPDATED;
 import static edu.tum.sse.dirts.core.BlackboardState.READY_TO_CALCULATE_AFFECTED_TESTS;
@@ -61,35 +63,50 @@ public class GraphCombiner<T extends BodyDeclaration<?>> extends KnowledgeSource
 
         blackboard.setCombinedGraph(modificationGraph);
 
-        for (DependencyStrategy<T> dependencyStrategy : blackboard.getDependencyStrategies()) {
-            dependencyStrategy.combineGraphs(blackboard);
-        }
+        // modification types are not tied to edge types, so this is never done concurrently
+        Consumer<DependencyStrategy<T>> combineGraphs = DependencyStrategyExecutor.measured(blackboard,
+                "combineGraphs",
+                dependencyStrategy -> dependencyStrategy.combineGraphs(blackboard));
+        blackboard.getDependencyStrategies().forEach(combineGraphs);
+
+        importChangesFromOtherModules(modificationGraph);
 
         modificationGraph.setModificationByDependencies();
 
         return READY_TO_CALCULATE_AFFECTED_TESTS;
     }
 
+    /**
+     * Marks nodes declared in modules that have already been analyzed as externally modified, if they are affected by
+     * changes in these modules
+     */
     private void importChangesFromOtherModules(ModificationGraph graph) {
-        Path changedNodesPath = DirtsUtil.getChangedNodesPath(blackboard.getRootPath());
-
-        if (Files.exists(changedNodesPath)) {
-            try {
-                Set<String> changedNodes = Set.of(Files.readString(changedNodesPath).strip().split(", "));
+        Path nodeStorePath = DirtsUtil.getNodeStorePath(blackboard.getRootPath(), blackboard.getSuffix());
 
-                for (String changedNode : changedNodes) {
+        try {
+            NodeStore nodeStore = NodeStore.read(nodeStorePath);
+            for (String changedNode : nodeStore.getNodesAffectedOutside(blackboard.getSubPath().toString())) {
+                // only nodes that are not declared in this module have an unknown status
+                if (graph.getModificationType(changedNode) == ModificationType.UNKNOWN)
                     graph.setModificationTypeIfPresent(changedNode, ModificationType.EXTERNALLY_MODIFIED);
-                }
-
-            } catch (IOException e) {
-                Log.errLog(WARNING, "Failed to read file containing changed nodes");
             }
+        } catch (IOException e) {
+            Log.errLog(WARNING, "Failed to read store of changed nodes: " + e.getMessage());
         }
-
     }
 
     @Override
     public boolean executeCondition() {
         return blackboard.getState() == DEPENDENCIES_UPDATED;
     }
+
+    @Override
+    public Set<BlackboardState> getRequiredStates() {
+        return Set.of(DEPENDENCIES_UPDATED);
+    }
+
+    @Override
+    public BlackboardState getProvidedState() {
+        return READY_TO_CALCULATE_AFFECTED_TESTS;
+    }
 }
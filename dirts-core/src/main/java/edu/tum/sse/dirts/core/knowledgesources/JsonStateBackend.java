@@ -0,0 +1,91 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.core.knowledgesources;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.tum.sse.dirts.graph.DependencyGraph;
+import edu.tum.sse.dirts.util.DirtsUtil;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exports the state as pretty-printed JSON files, which have to be read entirely
+ */
+public class JsonStateBackend implements StateBackend {
+
+    private final static ObjectMapper objectMapper = new ObjectMapper();
+    private static final TypeReference<HashMap<String, Integer>> typeRefNodes = new TypeReference<>() {
+    };
+    private static final TypeReference<HashMap<String, String>> typeRefCUMapping = new TypeReference<>() {
+    };
+
+    private final Path graphPath;
+    private final Path checksumsPath;
+    private final Path cuMappingPath;
+    private final Path stateStorePath;
+
+    private String graph;
+
+    public JsonStateBackend(Path rootPath, Path subPath, String suffix) {
+        this.graphPath = DirtsUtil.getGraphPath(rootPath, subPath, suffix);
+        this.checksumsPath = DirtsUtil.getChecksumsPath(rootPath, subPath, suffix);
+        this.cuMappingPath = DirtsUtil.getCUMappingPath(rootPath, subPath, suffix);
+        this.stateStorePath = DirtsUtil.getStateStorePath(rootPath, subPath, suffix);
+    }
+
+    @Override
+    public List<Path> getPaths() {
+        return List.of(graphPath, checksumsPath, cuMappingPath);
+    }
+
+    @Override
+    public DependencyGraph readGraph() throws IOException {
+        if (graph == null)
+            graph = Files.readString(graphPath);
+        return DependencyGraph.deserializeGraph(graph);
+    }
+
+    @Override
+    public Map<String, Integer> readChecksums() throws IOException {
+        return objectMapper.readValue(Files.readString(checksumsPath), typeRefNodes);
+    }
+
+    @Override
+    public Map<String, String> readCompilationUnitMapping() throws IOException {
+        return objectMapper.readValue(Files.readString(cuMappingPath), typeRefCUMapping);
+    }
+
+    @Override
+    public void write(DependencyGraph graph,
+                      Map<String, Integer> checksums,
+                      Map<String, String> compilationUnitMapping) throws IOException {
+        Files.deleteIfExists(stateStorePath);
+        Files.writeString(graphPath,
+                graph.serializeGraph(),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        Files.writeString(checksumsPath,
+                objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(checksums),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        Files.writeString(cuMappingPath,
+                objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(compilationUnitMapping),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+}
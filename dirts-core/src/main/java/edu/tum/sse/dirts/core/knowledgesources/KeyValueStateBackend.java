@@ -0,0 +1,87 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.core.knowledgesources;
+
+import edu.tum.sse.dirts.graph.DependencyGraph;
+import edu.tum.sse.dirts.util.DirtsUtil;
+import edu.tum.sse.dirts.util.KeyValueStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exports the state into a single {@link KeyValueStore}
+ * <p>
+ * Checksums and mapping of compilation units are read on demand, so analysis steps that only look up a few nodes,
+ * like the {@link SourceStreamer} and the graph croppers, do not load all of them. The graph is read entirely, since
+ * combining and traversing it needs all nodes anyway. The store is replaced atomically on every full export.
+ */
+public class KeyValueStateBackend implements StateBackend {
+
+    private static final String CHECKSUMS_PREFIX = "checksum\t";
+    private static final String CU_MAPPING_PREFIX = "cuMapping\t";
+
+    private final Path stateStorePath;
+    private final List<Path> jsonPaths;
+
+    private KeyValueStore store;
+
+    public KeyValueStateBackend(Path rootPath, Path subPath, String suffix) {
+        this.stateStorePath = DirtsUtil.getStateStorePath(rootPath, subPath, suffix);
+        this.jsonPaths = new JsonStateBackend(rootPath, subPath, suffix).getPaths();
+    }
+
+    @Override
+    public List<Path> getPaths() {
+        return List.of(stateStorePath);
+    }
+
+    @Override
+    public DependencyGraph readGraph() throws IOException {
+        return DependencyGraph.deserializeEntries(getStore());
+    }
+
+    @Override
+    public Map<String, Integer> readChecksums() throws IOException {
+        return getStore().prefixMap(CHECKSUMS_PREFIX, Integer::valueOf);
+    }
+
+    @Override
+    public Map<String, String> readCompilationUnitMapping() throws IOException {
+        return getStore().prefixMap(CU_MAPPING_PREFIX, v -> v);
+    }
+
+    @Override
+    public void write(DependencyGraph graph,
+                      Map<String, Integer> checksums,
+                      Map<String, String> compilationUnitMapping) throws IOException {
+        Map<String, String> entries = new HashMap<>();
+        graph.serializeEntries(entries);
+        checksums.forEach((node, checksum) -> entries.put(CHECKSUMS_PREFIX + node, checksum.toString()));
+        compilationUnitMapping.forEach((node, type) -> entries.put(CU_MAPPING_PREFIX + node, type));
+        KeyValueStore.write(stateStorePath, entries);
+
+        for (Path jsonPath : jsonPaths)
+            Files.deleteIfExists(jsonPath);
+    }
+
+    private KeyValueStore getStore() throws IOException {
+        if (store == null)
+            store = KeyValueStore.open(stateStorePath);
+        return store;
+    }
+}
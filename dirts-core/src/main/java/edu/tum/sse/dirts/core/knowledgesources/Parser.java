@@ -14,7 +14,6 @@ package edu.tum.sse.dirts.core.knowledgesources;
 
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.BodyDeclaration;
-import com.github.javaparser.symbolsolver.JavaSymbolSolver;
 import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
 import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
 import com.github.javaparser.utils.ParserCollectionStrategy;
@@ -23,11 +22,16 @@ import edu.tum.sse.dirts.core.Blackboard;
 import edu.tum.sse.dirts.core.BlackboardState;
 import edu.tum.sse.dirts.core.KnowledgeSource;
 import edu.tum.sse.dirts.util.Log;
+import edu.tum.sse.dirts.util.metrics.CompilationUnitEvent;
+import edu.tum.sse.dirts.util.metrics.CountingSymbolSolver;
+import edu.tum.sse.dirts.util.metrics.Counter;
+import edu.tum.sse.dirts.util.metrics.Metrics;
 
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static java.util.logging.Level.FINEST;
@@ -50,16 +54,25 @@ public class Parser<T extends BodyDeclaration<?>> extends KnowledgeSource<T> {
 
     @Override
     public BlackboardState updateBlackboard() {
-        CombinedTypeSolver typeSolver = blackboard.getTypeSolver();
+        if (blackboard.isSourcesShared()) {
+            Log.log(FINEST, "Reusing compilation units parsed for another level");
+            return BlackboardState.PARSED;
+        }
 
-        Path rootPath = blackboard.getRootPath();
-        Path subPath = blackboard.getSubPath();
+        CombinedTypeSolver typeSolver = blackboard.getTypeSolver();
 
-        List<SourceRoot> sourceRootsSubProject = getSourceRoots(rootPath.resolve(subPath));
+        List<SourceRoot> sourceRootsSubProject = getSourceRoots(blackboard);
+        if (blackboard.getWarmState() != null && blackboard.getSourceRoots() == null) {
+            // the module is not walked again if the blackboard is reused for another analysis
+            blackboard.setSourceRoots(sourceRootsSubProject.stream()
+                    .map(SourceRoot::getRoot)
+                    .collect(Collectors.toList()));
+        }
 
         List<CompilationUnit> compilationUnits = importCompilationUnits(sourceRootsSubProject, typeSolver);
 
         blackboard.setCompilationUnits(compilationUnits);
+        Metrics.count(Counter.COMPILATION_UNITS_PARSED, compilationUnits.size());
 
         return BlackboardState.PARSED;
     }
@@ -69,6 +82,16 @@ public class Parser<T extends BodyDeclaration<?>> extends KnowledgeSource<T> {
         return blackboard.getState() == BlackboardState.TYPE_SOLVER_SET;
     }
 
+    @Override
+    public Set<BlackboardState> getRequiredStates() {
+        return Set.of(BlackboardState.TYPE_SOLVER_SET);
+    }
+
+    @Override
+    public BlackboardState getProvidedState() {
+        return BlackboardState.PARSED;
+    }
+
     private List<CompilationUnit> importCompilationUnits(List<SourceRoot> sourceRoots, CombinedTypeSolver typeSolver) {
         List<CompilationUnit> compilationUnits = new ArrayList<>();
         for (SourceRoot sourceRoot : sourceRoots) {
@@ -85,9 +108,16 @@ public class Parser<T extends BodyDeclaration<?>> extends KnowledgeSource<T> {
 //                        .setAttributeComments(false)
 //                        .setDoNotAssignCommentsPrecedingEmptyLines(true)
 //                        .setIgnoreAnnotationsWhenAttributingComments(true)
-                        .setSymbolResolver(new JavaSymbolSolver(typeSolver));
-                sourceRoot.tryToParse()
-                        .forEach(result -> result.ifSuccessful(compilationUnits::add));
+                        .setSymbolResolver(new CountingSymbolSolver(typeSolver));
+                if (blackboard.getWarmState() != null) {
+                    compilationUnits.addAll(blackboard.getWarmState()
+                            .parse(sourceRoot, blackboard.getChangedFiles()));
+                } else if (CompilationUnitEvent.enabled()) {
+                    parseRecorded(sourceRoot, compilationUnits);
+                } else {
+                    sourceRoot.tryToParse()
+                            .forEach(result -> result.ifSuccessful(compilationUnits::add));
+                }
             } catch (IOException e) {
                 Log.log(WARNING, "Failed to parse SourceRoot " + sourceRoot);
                 e.printStackTrace();
@@ -96,9 +126,40 @@ public class Parser<T extends BodyDeclaration<?>> extends KnowledgeSource<T> {
         return compilationUnits;
     }
 
-    private static List<SourceRoot> getSourceRoots(Path path) {
+    /**
+     * Parses all files in a SourceRoot one by one, to record the time spent on each of them
+     */
+    private static void parseRecorded(SourceRoot sourceRoot, List<CompilationUnit> compilationUnits)
+            throws IOException {
+        CompilationUnitEvent[] event = {new CompilationUnitEvent(CompilationUnitEvent.PARSE)};
+        event[0].begin();
+        sourceRoot.parse("", (localPath, absolutePath, result) -> {
+            event[0].end();
+            event[0].fileName = absolutePath.toString();
+            result.ifSuccessful(compilationUnit -> {
+                compilationUnits.add(compilationUnit);
+                event[0].setCompilationUnit(compilationUnit);
+            });
+            event[0].commit();
+
+            event[0] = new CompilationUnitEvent(CompilationUnitEvent.PARSE);
+            event[0].begin();
+            return SourceRoot.Callback.Result.DONT_SAVE;
+        });
+    }
+
+    /**
+     * @return the source roots configured explicitly, otherwise all source roots found in the module
+     */
+    public static List<SourceRoot> getSourceRoots(Blackboard<?> blackboard) {
+        List<Path> sourceRoots = blackboard.getSourceRoots();
+        if (sourceRoots != null && !sourceRoots.isEmpty()) {
+            return sourceRoots.stream()
+                    .map(sourceRoot -> new SourceRoot(blackboard.getRootPath().resolve(sourceRoot)))
+                    .collect(Collectors.toList());
+        }
         return new ParserCollectionStrategy()
-                .collect(path)
+                .collect(blackboard.getRootPath().resolve(blackboard.getSubPath()))
                 .getSourceRoots();
     }
 }
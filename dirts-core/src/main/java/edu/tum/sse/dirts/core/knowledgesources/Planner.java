@@ -0,0 +1,253 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.core.knowledgesources;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import edu.tum.sse.dirts.analysis.def.finders.TypeFinderVisitor;
+import edu.tum.sse.dirts.core.AnalysisPlan;
+import edu.tum.sse.dirts.core.Blackboard;
+import edu.tum.sse.dirts.core.BlackboardState;
+import edu.tum.sse.dirts.core.KnowledgeSource;
+import edu.tum.sse.dirts.graph.DependencyGraph;
+import edu.tum.sse.dirts.util.DirtsUtil;
+import edu.tum.sse.dirts.util.Log;
+import edu.tum.sse.dirts.util.metrics.Counter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static edu.tum.sse.dirts.core.BlackboardState.NODES_CHANGES_SET;
+import static edu.tum.sse.dirts.core.BlackboardState.PLANNED;
+import static edu.tum.sse.dirts.core.BlackboardState.READY_TO_CALCULATE_AFFECTED_TESTS;
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.INFO;
+
+/**
+ * Chooses the cheapest way to analyze the current revision before dependencies are calculated
+ * <p>
+ * The costs of recalculating the dependencies of the impacted types and of all types are estimated from the timings
+ * recorded by the previous run. All tests are run right away if build files have changed or if the tests reaching a
+ * changed node in the graph of the old revision make up most of the tests anyway. In that case, no dependencies are
+ * calculated and the ProjectExporter drops the state, so that the next run analyzes all types from scratch.
+ */
+public class Planner<T extends BodyDeclaration<?>> extends KnowledgeSource<T> {
+
+    //##################################################################################################################
+    // Static constants
+
+    private final static ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final List<Path> BUILD_FILES = List.of(Path.of("pom.xml"));
+
+    private static final String KNOWLEDGE_SOURCE = "knowledgeSource";
+
+    //##################################################################################################################
+    // Constructors
+
+    public Planner(Blackboard<T> blackboard) {
+        super(blackboard);
+    }
+
+    //##################################################################################################################
+    // Methods
+
+    @Override
+    public BlackboardState updateBlackboard() {
+        if (!blackboard.isPlanning())
+            return PLANNED;
+
+        AnalysisPlan analysisPlan = plan();
+        blackboard.setAnalysisPlan(analysisPlan);
+        Log.log(INFO, "Planner chose " + analysisPlan);
+
+        // cropping, calculating and combining the graphs would be wasted if all tests are run anyway
+        return analysisPlan.isRunAll() ? READY_TO_CALCULATE_AFFECTED_TESTS : PLANNED;
+    }
+
+    private AnalysisPlan plan() {
+        DependencyGraph graphOldRevision = blackboard.getDependencyGraphOldRevision();
+        if (graphOldRevision == null) {
+            Log.log(INFO, "Planner: there is no state of a previous run, all dependencies are calculated anyway");
+            return AnalysisPlan.INCREMENTAL;
+        }
+
+        Set<String> changedBuildFiles = getChangedBuildFiles();
+        if (!changedBuildFiles.isEmpty()) {
+            // dependencies on libraries may resolve differently, edges of unchanged types cannot be trusted
+            String reason = "build files changed: " + String.join(", ", changedBuildFiles);
+            Log.log(INFO, "Planner: " + reason);
+            return AnalysisPlan.runAll(reason);
+        }
+
+        Collection<String> tests = blackboard.getTests();
+        if (tests != null && !tests.isEmpty()) {
+            Set<String> changedNodes = new HashSet<>(blackboard.getNodesDifferent().keySet());
+            changedNodes.addAll(blackboard.getNodesRemoved().keySet());
+
+            long expectedSelection = graphOldRevision.reachingNodes(changedNodes).stream()
+                    .filter(tests::contains)
+                    .count();
+            double fraction = (double) expectedSelection / tests.size();
+            Log.log(INFO, String.format(Locale.US,
+                    "Planner: %d of %d tests reach a changed node in the graph of the old revision (%.0f%%)",
+                    expectedSelection, tests.size(), fraction * 100));
+
+            if (fraction >= blackboard.getRunAllThreshold()) {
+                String reason = String.format(Locale.US, "%.0f%% of the tests are expected to be affected",
+                        fraction * 100);
+                return AnalysisPlan.runAll(reason);
+            }
+        }
+
+        // a full re-analysis needs all compilation units, see SourceStreamer
+        boolean recomputePossible = blackboard.getSourceIndex() == null;
+        return recomputePossible && isRecomputeAllCheaper() ? AnalysisPlan.recomputeAll() : AnalysisPlan.INCREMENTAL;
+    }
+
+    /**
+     * Compares the estimated costs of cropping the graph and recalculating the dependencies of impacted types
+     * with recalculating the dependencies of all types
+     */
+    private boolean isRecomputeAllCheaper() {
+        Path metricsPath = DirtsUtil.getMetricsPath(blackboard.getRootPath(),
+                blackboard.getSubPath(),
+                blackboard.getSuffix());
+        Map<String, JsonNode> phases = readPreviousPhases(metricsPath);
+
+        JsonNode dependencyAnalyzer = phases.get(KNOWLEDGE_SOURCE + ":" + DependencyAnalyzer.class.getSimpleName());
+        long typesAnalyzed = dependencyAnalyzer == null ? 0
+                : dependencyAnalyzer.path("counters").path(Counter.TYPES_ANALYZED.name()).asLong();
+        if (typesAnalyzed == 0) {
+            Log.log(INFO, "Planner: no timings of a previous run, analyzing incrementally");
+            return false;
+        }
+
+        double analysisPerType = dependencyAnalyzer.path("wallTimeNanos").asDouble() / typesAnalyzed;
+        double croppingPerType = phases.entrySet().stream()
+                .filter(e -> e.getKey().startsWith(KNOWLEDGE_SOURCE + ":") && e.getKey().endsWith("GraphCropper"))
+                .mapToDouble(e -> e.getValue().path("wallTimeNanos").asDouble())
+                .sum() / typesAnalyzed;
+
+        Collection<CompilationUnit> compilationUnits = blackboard.getCompilationUnits();
+        Set<CompilationUnit> impactedCompilationUnits = new HashSet<>();
+        collectCompilationUnits(blackboard.getNodesDifferent().values(), impactedCompilationUnits);
+        collectCompilationUnits(blackboard.getNodesAdded().values(), impactedCompilationUnits);
+
+        long impactedTypes = countTypes(impactedCompilationUnits);
+        long allTypes = countTypes(compilationUnits);
+
+        double incrementalCost = impactedTypes * (analysisPerType + croppingPerType);
+        double recomputeAllCost = allTypes * analysisPerType;
+
+        boolean recomputeAllCheaper = recomputeAllCost < incrementalCost;
+        Log.log(INFO, String.format(Locale.US,
+                "Planner: incremental analysis of %d types estimated at %.3f seconds, "
+                        + "full re-analysis of %d types at %.3f seconds, choosing %s",
+                impactedTypes, incrementalCost * 1e-9,
+                allTypes, recomputeAllCost * 1e-9,
+                recomputeAllCheaper ? "full re-analysis" : "incremental analysis"));
+        return recomputeAllCheaper;
+    }
+
+    /**
+     * @return build files whose checksums differ from the previous run
+     */
+    private Set<String> getChangedBuildFiles() {
+        Map<String, Integer> checksumsOldRevision = blackboard.getChecksumsBuildFiles();
+        if (checksumsOldRevision == null)
+            return Set.of();
+
+        Map<String, Integer> checksumsNewRevision = checksumBuildFiles(blackboard.getRootPath(), blackboard.getSubPath());
+        Set<String> buildFiles = new TreeSet<>(checksumsOldRevision.keySet());
+        buildFiles.addAll(checksumsNewRevision.keySet());
+        return buildFiles.stream()
+                .filter(file -> !Objects.equals(checksumsOldRevision.get(file), checksumsNewRevision.get(file)))
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /**
+     * Computes checksums of the build files of the module and the root project
+     *
+     * @return (path relative to the root, checksum)
+     */
+    static Map<String, Integer> checksumBuildFiles(Path rootPath, Path subPath) {
+        Map<String, Integer> checksums = new TreeMap<>();
+        for (Path buildFile : BUILD_FILES) {
+            for (Path path : new LinkedHashSet<>(List.of(buildFile, subPath.resolve(buildFile).normalize()))) {
+                try {
+                    byte[] content = Files.readAllBytes(rootPath.resolve(path));
+                    checksums.put(path.toString(), Arrays.hashCode(content));
+                } catch (IOException ignored) {
+                }
+            }
+        }
+        return checksums;
+    }
+
+    //##################################################################################################################
+    // Auxiliary methods
+
+    /**
+     * @return phases of the previous run of this module and level by kind and name
+     */
+    private static Map<String, JsonNode> readPreviousPhases(Path metricsPath) {
+        Map<String, JsonNode> phases = new HashMap<>();
+        try {
+            JsonNode report = objectMapper.readTree(Files.readString(metricsPath));
+            for (JsonNode phase : report.path("phases")) {
+                phases.put(phase.path("kind").asText() + ":" + phase.path("name").asText(), phase);
+            }
+        } catch (IOException e) {
+            Log.log(FINE, "No metrics of a previous run: " + e.getMessage());
+        }
+        return phases;
+    }
+
+    private static void collectCompilationUnits(Collection<Node> nodes, Set<CompilationUnit> compilationUnits) {
+        nodes.stream()
+                .filter(Objects::nonNull)
+                .map(Node::findCompilationUnit)
+                .flatMap(Optional::stream)
+                .forEach(compilationUnits::add);
+    }
+
+    private static long countTypes(Collection<CompilationUnit> compilationUnits) {
+        List<TypeDeclaration<?>> typeDeclarations = new ArrayList<>();
+        TypeFinderVisitor typeFinderVisitor = new TypeFinderVisitor();
+        compilationUnits.forEach(cu -> cu.accept(typeFinderVisitor, typeDeclarations));
+        return typeDeclarations.size();
+    }
+
+    @Override
+    public boolean executeCondition() {
+        return blackboard.getState() == NODES_CHANGES_SET;
+    }
+
+    @Override
+    public Set<BlackboardState> getRequiredStates() {
+        return Set.of(NODES_CHANGES_SET);
+    }
+
+    @Override
+    public BlackboardState getProvidedState() {
+        return PLANNED;
+    }
+}
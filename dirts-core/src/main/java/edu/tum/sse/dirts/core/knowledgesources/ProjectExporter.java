@@ -12,26 +12,35 @@
  */
 package edu.tum.sse.dirts.core.knowledgesources;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.body.BodyDeclaration;
 import com.github.javaparser.ast.body.TypeDeclaration;
 import edu.tum.sse.dirts.analysis.def.checksum.ChecksumVisitor;
+import edu.tum.sse.dirts.analysis.di.DIFrameworkDetector;
+import edu.tum.sse.dirts.analysis.di.DIFrameworkDetector.DIFramework;
 import edu.tum.sse.dirts.core.Blackboard;
 import edu.tum.sse.dirts.core.BlackboardState;
 import edu.tum.sse.dirts.core.KnowledgeSource;
-import edu.tum.sse.dirts.core.strategies.DependencyStrategy;
+import edu.tum.sse.dirts.core.strategies.DependencyStrategyExecutor;
 import edu.tum.sse.dirts.graph.DependencyGraph;
+import edu.tum.sse.dirts.graph.MapDelta;
+import edu.tum.sse.dirts.graph.ModificationGraph;
+import edu.tum.sse.dirts.graph.ModificationType;
+import edu.tum.sse.dirts.graph.NodeStore;
 import edu.tum.sse.dirts.util.DirtsUtil;
 import edu.tum.sse.dirts.util.Log;
+import edu.tum.sse.dirts.util.StateCache;
+import edu.tum.sse.dirts.util.metrics.Counter;
+import edu.tum.sse.dirts.util.metrics.Metrics;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -45,8 +54,6 @@ import static java.util.logging.Level.WARNING;
 public class ProjectExporter<T extends BodyDeclaration<?>> extends KnowledgeSource<T> {
 
     private final static ObjectMapper objectMapper = new ObjectMapper();
-    private static final TypeReference<Set<String>> typeRefAffectedNodes = new TypeReference<>() {
-    };
 
     private final Blackboard<T> blackboard;
     private final ChecksumVisitor<T> checksumVisitor;
@@ -67,7 +74,13 @@ public class ProjectExporter<T extends BodyDeclaration<?>> extends KnowledgeSour
         Path subPath = blackboard.getSubPath();
         String suffix = blackboard.getSuffix();
 
-        if (overwrite) {
+        if (overwrite && blackboard.getAnalysisPlan().isRunAll()) {
+            // no dependencies have been calculated, the next run has to analyze all types again
+            dropState();
+            writeAffectedNodes(blackboard.getNodesAdded().keySet(),
+                    blackboard.getNodesDifferent().keySet(),
+                    blackboard.getNodesRemoved().keySet());
+        } else if (overwrite) {
             Path tmpPath = rootPath.resolve(subPath).resolve(Path.of(".dirts"));
 
             // DependencyGraph
@@ -80,22 +93,23 @@ public class ProjectExporter<T extends BodyDeclaration<?>> extends KnowledgeSour
             Map<String, Node> nodesDifferent = blackboard.getNodesDifferent();
             Map<String, Integer> nodesRemoved = blackboard.getNodesRemoved();
 
-            // Checksums
-            Map<String, Integer> checksumsNodesNewRevision = new HashMap<>(blackboard.getChecksumsNodes());
-            nodesRemoved.keySet().forEach(checksumsNodesNewRevision::remove);
-            nodesDifferent.forEach((name, t) -> checksumsNodesNewRevision.put(name, checksumVisitor.hashCode(t)));
-            nodesAdded.forEach((name, t) -> checksumsNodesNewRevision.put(name, checksumVisitor.hashCode(t)));
+            // Checksums, only the changes are computed since the old checksums may be read on demand
+            MapDelta<Integer> checksumsDelta = new MapDelta<>();
+            checksumsDelta.getRemoved().addAll(nodesRemoved.keySet());
+            nodesDifferent.forEach((name, t) -> checksumsDelta.getPut().put(name, checksumVisitor.hashCode(t)));
+            nodesAdded.forEach((name, t) -> checksumsDelta.getPut().put(name, checksumVisitor.hashCode(t)));
+            Metrics.count(Counter.NODES_HASHED, nodesDifferent.size() + nodesAdded.size());
 
             // CompilationUnits mapping
-            Map<String, String> compilationUnitsMappingNew = new HashMap<>(blackboard.getCompilationUnitMapping());
-            nodesRemoved.keySet().forEach(compilationUnitsMappingNew::remove);
+            MapDelta<String> compilationUnitsMappingDelta = new MapDelta<>();
+            compilationUnitsMappingDelta.getRemoved().addAll(nodesRemoved.keySet());
             nodesDifferent.forEach((name, t) -> {
                 Optional<CompilationUnit> maybeCompilationUnit = t.findCompilationUnit();
                 if (maybeCompilationUnit.isPresent()) {
                     CompilationUnit compilationUnit = maybeCompilationUnit.get();
                     Optional<TypeDeclaration<?>> maybePrimaryType = compilationUnit.getPrimaryType();
                     maybePrimaryType.ifPresent(typeDeclaration ->
-                            compilationUnitsMappingNew.put(name, lookup(typeDeclaration).getFirst()));
+                            compilationUnitsMappingDelta.getPut().put(name, lookup(typeDeclaration).getFirst()));
                 }
             });
             nodesAdded.forEach((name, t) -> {
@@ -104,71 +118,125 @@ public class ProjectExporter<T extends BodyDeclaration<?>> extends KnowledgeSour
                     CompilationUnit compilationUnit = maybeCompilationUnit.get();
                     Optional<TypeDeclaration<?>> maybePrimaryType = compilationUnit.getPrimaryType();
                     maybePrimaryType.ifPresent(typeDeclaration ->
-                            compilationUnitsMappingNew.put(name, lookup(typeDeclaration).getFirst()));
+                            compilationUnitsMappingDelta.getPut().put(name, lookup(typeDeclaration).getFirst()));
                 }
             });
 
-            for (DependencyStrategy<T> dependencyStrategy : blackboard.getDependencyStrategies()) {
-                dependencyStrategy.doExport(tmpPath, blackboard, suffix);
-            }
+            DependencyStrategyExecutor.forEachConcurrently(blackboard, "doExport",
+                    dependencyStrategy -> dependencyStrategy.doExport(tmpPath, blackboard, suffix));
 
             try {
 
                 Files.createDirectories(tmpPath);
-                Files.writeString(tmpPath.resolve(Path.of("graph_" + suffix)),
-                        dependencyGraphNewRevision.serializeGraph(),
-                        StandardOpenOption.CREATE,
-                        StandardOpenOption.TRUNCATE_EXISTING);
-                Files.writeString(tmpPath.resolve(Path.of("checksums_" + suffix)),
-                        objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(checksumsNodesNewRevision),
-                        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-                Files.writeString(tmpPath.resolve(Path.of("cuMapping_" + suffix)),
-                        objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(compilationUnitsMappingNew),
+
+                StateBackend stateBackend = StateBackend.of(blackboard);
+                StateJournal journal = new StateJournal(DirtsUtil.getJournalPath(rootPath, subPath, suffix));
+                DependencyGraph dependencyGraphOldRevision = blackboard.getDependencyGraphOldRevision();
+                if (dependencyGraphOldRevision != null && !journal.needsCompaction(stateBackend.getPaths())) {
+                    // only record what has changed since the imported state
+                    StateJournal.Entry entry = new StateJournal.Entry();
+                    entry.setGraph(dependencyGraphNewRevision.deltaFrom(dependencyGraphOldRevision));
+                    entry.setChecksums(checksumsDelta);
+                    entry.setCompilationUnitMapping(compilationUnitsMappingDelta);
+                    if (!entry.getGraph().isEmpty()
+                            || !entry.getChecksums().isEmpty()
+                            || !entry.getCompilationUnitMapping().isEmpty())
+                        journal.append(entry);
+                } else {
+                    Map<String, Integer> checksumsNodesNewRevision = new HashMap<>(blackboard.getChecksumsNodes());
+                    checksumsDelta.applyTo(checksumsNodesNewRevision, UnaryOperator.identity());
+                    Map<String, String> compilationUnitsMappingNew =
+                            new HashMap<>(blackboard.getCompilationUnitMapping());
+                    compilationUnitsMappingDelta.applyTo(compilationUnitsMappingNew, UnaryOperator.identity());
+
+                    // without the journal, the remaining exported files are at least an older consistent state
+                    journal.delete();
+                    stateBackend.write(dependencyGraphNewRevision,
+                            checksumsNodesNewRevision,
+                            compilationUnitsMappingNew);
+                }
+                Files.writeString(tmpPath.resolve(Path.of("build_files_" + suffix)),
+                        objectMapper.writerWithDefaultPrettyPrinter()
+                                .writeValueAsString(Planner.checksumBuildFiles(rootPath, subPath)),
                         StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
 
             } catch (IOException e) {
                 return FAILED;
             }
 
-            HashSet<String> affectedNodes = new HashSet<>();
-            affectedNodes.addAll(nodesAdded.keySet());
-            affectedNodes.addAll(nodesRemoved.keySet());
-            affectedNodes.addAll(nodesDifferent.keySet());
-            writeAffectedNodes(affectedNodes, blackboard.getNodesSame().keySet());
+            // a framework that is not detected anymore has been considered for the last time in this run
+            Set<DIFramework> detectedFrameworks = blackboard.getDetectedFrameworks();
+            if (detectedFrameworks != null)
+                DIFrameworkDetector.exportFrameworks(rootPath, subPath, suffix, detectedFrameworks);
+
+            writeAffectedNodes(nodesAdded.keySet(), nodesDifferent.keySet(), nodesRemoved.keySet());
+
+            List<Path> exportedPaths = StateBackend.getExportedPaths(blackboard);
+            if (blackboard.isStateSnapshots()) {
+                new StateCache(DirtsUtil.getSnapshotsPath(rootPath), rootPath, subPath, suffix, exportedPaths).snapshot();
+            }
+            Path stateCachePath = blackboard.getStateCachePath();
+            if (stateCachePath != null) {
+                new StateCache(stateCachePath, rootPath, subPath, suffix, exportedPaths).publish();
+            }
         }
 
         return DONE;
     }
 
-    private void writeAffectedNodes(Set<String> affectedNodes, Set<String> nonAffectedNodes) {
-        Path changedNodesPath = DirtsUtil.getChangedNodesPath(blackboard.getRootPath());
-
-        if (!Files.exists(changedNodesPath)) {
+    /**
+     * Deletes the exported state of the previous run
+     */
+    private void dropState() {
+        for (Path exportedPath : StateBackend.getExportedPaths(blackboard)) {
             try {
-                Files.createDirectories(changedNodesPath.getParent());
-                Files.createFile(changedNodesPath);
+                Files.deleteIfExists(exportedPath);
             } catch (IOException e) {
-                Log.errLog(WARNING, "Failed to create file containing changed nodes: " + e.getMessage());
+                Log.errLog(WARNING, "Failed to delete " + exportedPath + ": " + e.getMessage());
             }
         }
+    }
 
-        try {
-            String changedNodesContent = Files.readString(changedNodesPath);
-            Set<String> changedNodes = new HashSet<>();
-            if (!changedNodesContent.isEmpty()) {
-                changedNodes.addAll(objectMapper.readValue(changedNodesContent, typeRefAffectedNodes));
-            }
+    /**
+     * Records the nodes of this module that are affected by changes, so that modules depending on this module can
+     * select tests affected by these changes without analyzing this module again
+     */
+    private void writeAffectedNodes(Set<String> nodesAdded, Set<String> nodesDifferent, Set<String> nodesRemoved) {
+        Map<String, ModificationType> affectedNodes = new HashMap<>();
 
-            changedNodes.removeAll(nonAffectedNodes);
-            changedNodes.addAll(affectedNodes);
+        // nodes that reach changed nodes are affected as well, even if they are used in another module
+        ModificationGraph combinedGraph = blackboard.getCombinedGraph();
+        if (combinedGraph != null) {
+            for (String node : combinedGraph.affectedNodes()) {
+                // nodes of other modules have an unknown status
+                ModificationType modificationType = combinedGraph.getModificationType(node);
+                if (modificationType == ModificationType.EXTERNALLY_MODIFIED
+                        || modificationType == ModificationType.UNKNOWN)
+                    continue;
+                affectedNodes.put(node, modificationType.isRelevant()
+                        ? modificationType
+                        : ModificationType.CHANGED_DEPENDENCIES);
+            }
+        } else if (blackboard.getDependencyGraphOldRevision() != null) {
+            // the graphs have not been combined, the graph of the old revision is the best approximation
+            Set<String> changedNodes = new HashSet<>(nodesDifferent);
+            changedNodes.addAll(nodesRemoved);
+            Map<String, Integer> checksumsNodes = blackboard.getChecksumsNodes();
+            for (String node : blackboard.getDependencyGraphOldRevision().reachingNodes(changedNodes)) {
+                // only nodes declared in this module
+                if (checksumsNodes.containsKey(node))
+                    affectedNodes.put(node, ModificationType.CHANGED_DEPENDENCIES);
+            }
+        }
+        nodesAdded.forEach(node -> affectedNodes.put(node, ModificationType.ADDED));
+        nodesDifferent.forEach(node -> affectedNodes.put(node, ModificationType.MODIFIED));
+        nodesRemoved.forEach(node -> affectedNodes.put(node, ModificationType.REMOVED));
 
-            Files.writeString(
-                    changedNodesPath,
-                    objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(changedNodes),
-                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING
-            );
+        Path nodeStorePath = DirtsUtil.getNodeStorePath(blackboard.getRootPath(), blackboard.getSuffix());
+        try {
+            NodeStore.update(nodeStorePath, blackboard.getSubPath().toString(), affectedNodes);
         } catch (IOException e) {
-            Log.errLog(WARNING, "Failed to read or write file containing changed nodes: " + e.getMessage());
+            Log.errLog(WARNING, "Failed to update store of changed nodes: " + e.getMessage());
         }
     }
 
@@ -176,4 +244,14 @@ public class ProjectExporter<T extends BodyDeclaration<?>> extends KnowledgeSour
     public boolean executeCondition() {
         return blackboard.getState() == READY_TO_CALCULATE_AFFECTED_TESTS;
     }
+
+    @Override
+    public Set<BlackboardState> getRequiredStates() {
+        return Set.of(READY_TO_CALCULATE_AFFECTED_TESTS);
+    }
+
+    @Override
+    public BlackboardState getProvidedState() {
+        return DONE;
+    }
 }
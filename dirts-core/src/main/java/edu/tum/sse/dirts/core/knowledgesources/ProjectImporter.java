@@ -18,14 +18,19 @@ import com.github.javaparser.ast.body.BodyDeclaration;
 import edu.tum.sse.dirts.core.Blackboard;
 import edu.tum.sse.dirts.core.BlackboardState;
 import edu.tum.sse.dirts.core.KnowledgeSource;
-import edu.tum.sse.dirts.core.strategies.DependencyStrategy;
+import edu.tum.sse.dirts.core.strategies.DependencyStrategyExecutor;
 import edu.tum.sse.dirts.graph.DependencyGraph;
 import edu.tum.sse.dirts.util.DirtsUtil;
+import edu.tum.sse.dirts.util.StateCache;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
 
 /**
  * Imports cached information from the previous run
@@ -35,8 +40,6 @@ public class ProjectImporter<T extends BodyDeclaration<?>> extends KnowledgeSour
     private final static ObjectMapper objectMapper = new ObjectMapper();
     private static final TypeReference<HashMap<String, Integer>> typeRefNodes = new TypeReference<>() {
     };
-    private static final TypeReference<HashMap<String, String>> typeRefCUMapping = new TypeReference<>() {
-    };
 
     public ProjectImporter(Blackboard<T> blackboard) {
         super(blackboard);
@@ -51,19 +54,75 @@ public class ProjectImporter<T extends BodyDeclaration<?>> extends KnowledgeSour
         Path subPath = blackboard.getSubPath();
         String suffix = blackboard.getSuffix();
 
+        if (blackboard.isReanalysis()) {
+            // the blackboard is reused, the state imported before is still relative to the same revision
+            DependencyGraph graphOldRevision = blackboard.getDependencyGraphOldRevision();
+            blackboard.setGraphNewRevision(graphOldRevision != null ? graphOldRevision.copy() : new DependencyGraph());
+        } else {
+            importState(rootPath, subPath, suffix);
+        }
+
+        Path tmpPath = DirtsUtil.getSubTemporaryDirectory(rootPath, subPath);
+        DependencyStrategyExecutor.forEachConcurrently(blackboard, "doImport",
+                dependencyStrategy -> dependencyStrategy.doImport(tmpPath, blackboard, suffix));
+
+        return BlackboardState.IMPORTED;
+    }
+
+    @Override
+    public boolean executeCondition() {
+        return blackboard.getState() == BlackboardState.CLEAN;
+    }
+
+    @Override
+    public Set<BlackboardState> getRequiredStates() {
+        return Set.of();
+    }
+
+    @Override
+    public BlackboardState getProvidedState() {
+        return BlackboardState.IMPORTED;
+    }
+
+    private void importState(Path rootPath, Path subPath, String suffix) {
+        List<Path> exportedPaths = StateBackend.getExportedPaths(blackboard);
+
+        // after switching branches, start from the snapshot closest to the current commit
+        if (blackboard.isStateSnapshots()) {
+            new StateCache(DirtsUtil.getSnapshotsPath(rootPath), rootPath, subPath, suffix, exportedPaths).restoreClosestSnapshot();
+        }
+
+        // on machines without exported state, start from the state published for an ancestor commit
+        StateBackend stateBackend = StateBackend.of(blackboard);
+        Path stateCachePath = blackboard.getStateCachePath();
+        if (stateCachePath != null && !stateBackend.exists()) {
+            new StateCache(stateCachePath, rootPath, subPath, suffix, exportedPaths).fetch();
+        }
+
         try {
             // DependencyGraph
-            String graph = Files.readString(DirtsUtil.getGraphPath(rootPath, subPath, suffix));
-            blackboard.setGraphOldRevision(DependencyGraph.deserializeGraph(graph));
-            blackboard.setGraphNewRevision(DependencyGraph.deserializeGraph(graph));
+            DependencyGraph graphOldRevision = stateBackend.readGraph();
+            DependencyGraph graphNewRevision = stateBackend.readGraph();
 
             // import Checksums
-            String checksumsNodes = Files.readString(DirtsUtil.getChecksumsPath(rootPath, subPath, suffix));
-            blackboard.setChecksumsNodes(objectMapper.readValue(checksumsNodes, typeRefNodes));
+            Map<String, Integer> checksums = stateBackend.readChecksums();
 
             // import CompilationUnits mapping
-            String compilationUnitsMapping = Files.readString(DirtsUtil.getCUMappingPath(rootPath, subPath, suffix));
-            blackboard.setCompilationUnitMapping(objectMapper.readValue(compilationUnitsMapping, typeRefCUMapping));
+            Map<String, String> cuMapping = stateBackend.readCompilationUnitMapping();
+
+            // replay the changes of the runs since these files have been exported in full
+            StateJournal journal = new StateJournal(DirtsUtil.getJournalPath(rootPath, subPath, suffix));
+            for (StateJournal.Entry entry : journal.read()) {
+                graphOldRevision.applyDelta(entry.getGraph());
+                graphNewRevision.applyDelta(entry.getGraph());
+                entry.getChecksums().applyTo(checksums, UnaryOperator.identity());
+                entry.getCompilationUnitMapping().applyTo(cuMapping, UnaryOperator.identity());
+            }
+
+            blackboard.setGraphOldRevision(graphOldRevision);
+            blackboard.setGraphNewRevision(graphNewRevision);
+            blackboard.setChecksumsNodes(checksums);
+            blackboard.setCompilationUnitMapping(cuMapping);
 
         } catch (IOException ignored) {
 
@@ -74,15 +133,12 @@ public class ProjectImporter<T extends BodyDeclaration<?>> extends KnowledgeSour
             blackboard.setCompilationUnitMapping(new HashMap<>());
         }
 
-        for (DependencyStrategy<T> dependencyStrategy : blackboard.getDependencyStrategies()) {
-            dependencyStrategy.doImport(DirtsUtil.getSubTemporaryDirectory(rootPath, subPath), blackboard, suffix);
+        try {
+            // checksums of build files have not been recorded by earlier versions
+            String checksumsBuildFiles = Files.readString(DirtsUtil.getBuildFilesPath(rootPath, subPath, suffix));
+            blackboard.setChecksumsBuildFiles(objectMapper.readValue(checksumsBuildFiles, typeRefNodes));
+        } catch (IOException ignored) {
+            blackboard.setChecksumsBuildFiles(null);
         }
-
-        return BlackboardState.IMPORTED;
-    }
-
-    @Override
-    public boolean executeCondition() {
-        return blackboard.getState() == BlackboardState.CLEAN;
     }
 }
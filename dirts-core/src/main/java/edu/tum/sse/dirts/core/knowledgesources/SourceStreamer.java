@@ -0,0 +1,248 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.core.knowledgesources;
+
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.nodeTypes.NodeWithName;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
+import com.github.javaparser.utils.SourceRoot;
+import edu.tum.sse.dirts.analysis.FinderVisitor;
+import edu.tum.sse.dirts.analysis.def.checksum.ChecksumVisitor;
+import edu.tum.sse.dirts.core.Blackboard;
+import edu.tum.sse.dirts.core.BlackboardState;
+import edu.tum.sse.dirts.core.KnowledgeSource;
+import edu.tum.sse.dirts.core.SourceIndex;
+import edu.tum.sse.dirts.util.Log;
+import edu.tum.sse.dirts.util.metrics.Counter;
+import edu.tum.sse.dirts.util.metrics.CountingSymbolSolver;
+import edu.tum.sse.dirts.util.metrics.Metrics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static edu.tum.sse.dirts.core.BlackboardState.*;
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.WARNING;
+
+/**
+ * Parses the compilation units in batches that fit into the memory budget, instead of keeping all of them in memory
+ * <p>
+ * Names, checksums and tests are computed batch by batch and only the names and tests are retained.
+ * Afterwards, only the compilation units that contain modified or added nodes or that are located in a package
+ * containing an added compilation unit are parsed again and kept in memory.
+ * Further compilation units are parsed on demand, see {@link Blackboard#getNode(String)}.
+ */
+public class SourceStreamer<T extends BodyDeclaration<?>> extends KnowledgeSource<T> {
+
+    //##################################################################################################################
+    // Constants
+
+    /**
+     * Rough estimate of the memory occupied by the syntax tree of a source file, including resolved symbols
+     */
+    private static final long AST_BYTES_PER_SOURCE_BYTE = 32;
+
+    /**
+     * Minimum number of files the resolvers for source files may keep parsed
+     */
+    private static final long MIN_RESOLVER_CACHE_SIZE = 16;
+
+    //##################################################################################################################
+    // Attributes
+
+    private final ChecksumVisitor<T> checksumVisitor;
+    private final FinderVisitor<Collection<String>, T> testFinderVisitor;
+
+    //##################################################################################################################
+    // Constructors
+
+    public SourceStreamer(Blackboard<T> blackboard,
+                          ChecksumVisitor<T> checksumVisitor,
+                          FinderVisitor<Collection<String>, T> testFinderVisitor) {
+        super(blackboard);
+        this.checksumVisitor = checksumVisitor;
+        this.testFinderVisitor = testFinderVisitor;
+    }
+
+    //##################################################################################################################
+    // Methods
+
+    @Override
+    public BlackboardState updateBlackboard() {
+        CombinedTypeSolver typeSolver = blackboard.getTypeSolver();
+        long memoryBudget = blackboard.getMemoryBudget();
+
+        List<SourceRoot> sourceRoots = Parser.getSourceRoots(blackboard);
+
+        SourceIndex sourceIndex = new SourceIndex();
+        long totalSize = 0;
+        List<Long> sizes = new ArrayList<>();
+        for (SourceRoot sourceRoot : sourceRoots) {
+            ParserConfiguration parserConfiguration = sourceRoot.getParserConfiguration()
+                    .setSymbolResolver(new CountingSymbolSolver(typeSolver));
+            for (Path file : listJavaFiles(sourceRoot.getRoot())) {
+                sourceIndex.addFile(file, parserConfiguration);
+                long size = fileSize(file);
+                sizes.add(size);
+                totalSize += size;
+            }
+        }
+
+        // the resolvers for source files keep the files they have parsed, this cache has to be limited as well
+        long averageSize = sizes.isEmpty() ? 1 : Math.max(1, totalSize / sizes.size());
+        long cacheSize = Math.max(MIN_RESOLVER_CACHE_SIZE, memoryBudget / (averageSize * AST_BYTES_PER_SOURCE_BYTE));
+        for (SourceRoot sourceRoot : sourceRoots) {
+            typeSolver.add(new JavaParserTypeSolver(sourceRoot.getRoot(),
+                    new ParserConfiguration().setLanguageLevel(ParserConfiguration.LanguageLevel.BLEEDING_EDGE),
+                    cacheSize));
+        }
+
+        Map<String, Integer> checksumsOldRevision = blackboard.getChecksumsNodes();
+        BitSet impactedFiles = new BitSet();
+        Set<String> affectedPackages = new HashSet<>();
+        Set<String> tests = new HashSet<>();
+
+        int batches = 0;
+        int start = 0;
+        while (start < sourceIndex.getNumberOfFiles()) {
+            // at least one file per batch, even if it exceeds the budget on its own
+            int end = start + 1;
+            long batchSize = sizes.get(start) * AST_BYTES_PER_SOURCE_BYTE;
+            while (end < sourceIndex.getNumberOfFiles()
+                    && batchSize + sizes.get(end) * AST_BYTES_PER_SOURCE_BYTE <= memoryBudget) {
+                batchSize += sizes.get(end) * AST_BYTES_PER_SOURCE_BYTE;
+                end++;
+            }
+
+            processBatch(sourceIndex, start, end, checksumsOldRevision, impactedFiles, affectedPackages, tests);
+            batches++;
+            start = end;
+        }
+
+        // to deal with shadowing, all compilation units in a package containing an added one are impacted
+        for (int file = 0; file < sourceIndex.getNumberOfFiles(); file++) {
+            if (affectedPackages.contains(sourceIndex.getPackage(file)))
+                impactedFiles.set(file);
+        }
+
+        List<CompilationUnit> compilationUnits = new ArrayList<>();
+        impactedFiles.stream().forEach(file -> sourceIndex.load(file).ifPresent(compilationUnits::add));
+        Metrics.count(Counter.COMPILATION_UNITS_PARSED, compilationUnits.size());
+
+        Log.log(FINE, "Processed " + sourceIndex.getNumberOfFiles() + " files in " + batches
+                + " batches, keeping " + compilationUnits.size() + " compilation units in memory");
+
+        if (blackboard.getTestFilter() != null)
+            blackboard.setTests(tests);
+        blackboard.setSourceIndex(sourceIndex);
+        blackboard.setCompilationUnits(compilationUnits);
+
+        return PARSED;
+    }
+
+    @Override
+    public boolean executeCondition() {
+        return blackboard.getState() == TYPE_SOLVER_SET;
+    }
+
+    @Override
+    public Set<BlackboardState> getRequiredStates() {
+        // the checksums of the old revision are needed to find the impacted files
+        return Set.of(IMPORTED, TYPE_SOLVER_SET);
+    }
+
+    @Override
+    public BlackboardState getProvidedState() {
+        return PARSED;
+    }
+
+    //##################################################################################################################
+    // Auxiliary methods
+
+    private void processBatch(SourceIndex sourceIndex,
+                              int start,
+                              int end,
+                              Map<String, Integer> checksumsOldRevision,
+                              BitSet impactedFiles,
+                              Set<String> affectedPackages,
+                              Set<String> tests) {
+        for (int file = start; file < end; file++) {
+            Optional<CompilationUnit> maybeCompilationUnit = sourceIndex.parse(file);
+            Metrics.count(Counter.COMPILATION_UNITS_PARSED);
+            if (maybeCompilationUnit.isEmpty())
+                continue;
+            CompilationUnit compilationUnit = maybeCompilationUnit.get();
+
+            String packageName = compilationUnit.getPackageDeclaration()
+                    .map(NodeWithName::getNameAsString)
+                    .orElse("");
+            sourceIndex.setPackage(file, packageName);
+
+            if (blackboard.getTestFilter() != null)
+                compilationUnit.accept(testFinderVisitor, tests);
+
+            Map<String, Node> nodes = new HashMap<>();
+            compilationUnit.accept(blackboard.getNameFinderVisitor(), nodes);
+
+            for (Map.Entry<String, Node> entry : nodes.entrySet()) {
+                String name = entry.getKey();
+                Node node = entry.getValue();
+                sourceIndex.addNode(name, file);
+
+                if (node == null)
+                    continue;
+
+                Integer checksumOldRevision = checksumsOldRevision == null ? null : checksumsOldRevision.get(name);
+                if (checksumOldRevision == null) {
+                    impactedFiles.set(file);
+                    if (node instanceof CompilationUnit)
+                        affectedPackages.add(packageName);
+                } else {
+                    Metrics.count(Counter.NODES_HASHED);
+                    if (!checksumOldRevision.equals(checksumVisitor.hashCode(node)))
+                        impactedFiles.set(file);
+                }
+            }
+        }
+    }
+
+    private static List<Path> listJavaFiles(Path root) {
+        if (root == null || !Files.isDirectory(root))
+            return List.of();
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths.filter(path -> path.toString().endsWith(".java"))
+                    .filter(Files::isRegularFile)
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            Log.errLog(WARNING, "Failed to list source files in " + root + ": " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    private static long fileSize(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
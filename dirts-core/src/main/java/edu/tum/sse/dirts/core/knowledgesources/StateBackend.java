@@ -0,0 +1,95 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.core.knowledgesources;
+
+import com.github.javaparser.ast.body.BodyDeclaration;
+import edu.tum.sse.dirts.core.Blackboard;
+import edu.tum.sse.dirts.core.strategies.DependencyStrategy;
+import edu.tum.sse.dirts.graph.DependencyGraph;
+import edu.tum.sse.dirts.util.DirtsUtil;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Format in which graph, checksums and mapping of compilation units are exported for the next run
+ * <p>
+ * Changes between two full exports are recorded in the {@link StateJournal}, independent of the format.
+ */
+public interface StateBackend {
+
+    /**
+     * @return the format configured on the blackboard
+     */
+    static StateBackend of(Blackboard<?> blackboard) {
+        Path rootPath = blackboard.getRootPath();
+        Path subPath = blackboard.getSubPath();
+        String suffix = blackboard.getSuffix();
+        return blackboard.isKeyValueStore()
+                ? new KeyValueStateBackend(rootPath, subPath, suffix)
+                : new JsonStateBackend(rootPath, subPath, suffix);
+    }
+
+    /**
+     * All files of the exported state of a module and level, i.e. the files of the configured format, the journal,
+     * the checksums of the build files, the detected DI frameworks and the storages of the dependency strategies
+     * <p>
+     * Other files in `.dirts`, e.g. the node store of the outermost module, describe more than this module and level.
+     */
+    static <T extends BodyDeclaration<?>> List<Path> getExportedPaths(Blackboard<T> blackboard) {
+        Path rootPath = blackboard.getRootPath();
+        Path subPath = blackboard.getSubPath();
+        String suffix = blackboard.getSuffix();
+        Path tmpPath = DirtsUtil.getSubTemporaryDirectory(rootPath, subPath);
+
+        List<Path> exportedPaths = new ArrayList<>(of(blackboard).getPaths());
+        exportedPaths.add(DirtsUtil.getJournalPath(rootPath, subPath, suffix));
+        exportedPaths.add(DirtsUtil.getBuildFilesPath(rootPath, subPath, suffix));
+        exportedPaths.add(DirtsUtil.getDIFrameworksPath(rootPath, subPath, suffix));
+        for (DependencyStrategy<T> dependencyStrategy : blackboard.getDependencyStrategies())
+            exportedPaths.addAll(dependencyStrategy.getExportedPaths(tmpPath, blackboard, suffix));
+        return exportedPaths;
+    }
+
+    /**
+     * @return files that hold the state in this format
+     */
+    List<Path> getPaths();
+
+    /**
+     * @return whether the state has been exported in this format
+     */
+    default boolean exists() {
+        return getPaths().stream().allMatch(Files::exists);
+    }
+
+    /**
+     * @return a new instance of the graph on every call
+     */
+    DependencyGraph readGraph() throws IOException;
+
+    Map<String, Integer> readChecksums() throws IOException;
+
+    Map<String, String> readCompilationUnitMapping() throws IOException;
+
+    /**
+     * Replaces the exported state, files of other formats are removed so that they are not mistaken for the state
+     */
+    void write(DependencyGraph graph,
+               Map<String, Integer> checksums,
+               Map<String, String> compilationUnitMapping) throws IOException;
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.core.knowledgesources;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.tum.sse.dirts.graph.GraphDelta;
+import edu.tum.sse.dirts.graph.MapDelta;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only journal of the changes to graph, checksums and compilation unit mapping since they have been exported
+ * in full
+ * <p>
+ * Every run appends one entry per line, the exported files and the journal together form the state of the module.
+ * Once the journal has grown to a fraction of the exported files, they are rewritten with the current state and the
+ * journal starts over.
+ */
+public class StateJournal {
+
+    private final static ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Size of the journal relative to the exported files, at which they are rewritten
+     */
+    private static final double COMPACTION_RATIO = 0.25;
+
+    private final Path path;
+
+    public StateJournal(Path path) {
+        this.path = path;
+    }
+
+    //##################################################################################################################
+    // Methods
+
+    /**
+     * Reads all complete entries, an empty list is returned if the journal does not exist
+     * <p>
+     * A last line without line break has been left by an interrupted run and is ignored.
+     */
+    public List<Entry> read() throws IOException {
+        String content;
+        try {
+            content = Files.readString(path);
+        } catch (NoSuchFileException e) {
+            return List.of();
+        }
+
+        List<Entry> entries = new ArrayList<>();
+        int start = 0;
+        int end;
+        while ((end = content.indexOf('\n', start)) >= 0) {
+            entries.add(objectMapper.readValue(content.substring(start, end), Entry.class));
+            start = end + 1;
+        }
+        return entries;
+    }
+
+    /**
+     * Appends the entry and forces it to the storage device, so that one run costs a single write and sync
+     */
+    public void append(Entry entry) throws IOException {
+        byte[] line = (objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+            channel.force(false);
+        }
+    }
+
+    /**
+     * @param exportedFiles the files the journal records changes of
+     * @return whether the exported files should be rewritten instead of appending to the journal
+     */
+    public boolean needsCompaction(List<Path> exportedFiles) {
+        try {
+            long exportedSize = 0;
+            for (Path exportedFile : exportedFiles)
+                exportedSize += Files.size(exportedFile);
+            if (!Files.exists(path))
+                return false;
+
+            // an interrupted append left an incomplete line, further entries would not be separated from it
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                ByteBuffer last = ByteBuffer.allocate(1);
+                if (channel.size() > 0 && (channel.read(last, channel.size() - 1) != 1 || last.get(0) != '\n'))
+                    return true;
+                return channel.size() > exportedSize * COMPACTION_RATIO;
+            }
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    public void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    //##################################################################################################################
+    // Auxiliary classes
+
+    public static class Entry {
+
+        private GraphDelta graph = new GraphDelta();
+        private MapDelta<Integer> checksums = new MapDelta<>();
+        private MapDelta<String> compilationUnitMapping = new MapDelta<>();
+
+        public GraphDelta getGraph() {
+            return graph;
+        }
+
+        public void setGraph(GraphDelta graph) {
+            this.graph = graph;
+        }
+
+        public MapDelta<Integer> getChecksums() {
+            return checksums;
+        }
+
+        public void setChecksums(MapDelta<Integer> checksums) {
+            this.checksums = checksums;
+        }
+
+        public MapDelta<String> getCompilationUnitMapping() {
+            return compilationUnitMapping;
+        }
+
+        public void setCompilationUnitMapping(MapDelta<String> compilationUnitMapping) {
+            this.compilationUnitMapping = compilationUnitMapping;
+        }
+    }
+}
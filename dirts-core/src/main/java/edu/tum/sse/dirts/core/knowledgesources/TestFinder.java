@@ -38,6 +38,11 @@ public class TestFinder<T extends BodyDeclaration<?>> extends KnowledgeSource<T>
 
     @Override
     public BlackboardState updateBlackboard() {
+        if (blackboard.getSourceIndex() != null) {
+            // tests have already been found while streaming the compilation units
+            return TESTS_FOUND;
+        }
+
         if (blackboard.getTestFilter() != null) {
             Collection<CompilationUnit> compilationUnits = blackboard.getCompilationUnits();
             Set<String> tests = new HashSet<>();
@@ -52,4 +57,14 @@ public class TestFinder<T extends BodyDeclaration<?>> extends KnowledgeSource<T>
     public boolean executeCondition() {
         return blackboard.getState() == PARSED;
     }
+
+    @Override
+    public Set<BlackboardState> getRequiredStates() {
+        return Set.of(PARSED);
+    }
+
+    @Override
+    public BlackboardState getProvidedState() {
+        return TESTS_FOUND;
+    }
 }
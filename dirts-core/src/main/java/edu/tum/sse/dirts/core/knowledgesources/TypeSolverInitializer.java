@@ -22,12 +22,15 @@ import com.github.javaparser.utils.SourceRoot;
 import edu.tum.sse.dirts.core.Blackboard;
 import edu.tum.sse.dirts.core.BlackboardState;
 import edu.tum.sse.dirts.core.KnowledgeSource;
+import edu.tum.sse.dirts.daemon.WarmState;
 import edu.tum.sse.dirts.util.Log;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import static edu.tum.sse.dirts.core.BlackboardState.IMPORTED;
 import static edu.tum.sse.dirts.core.BlackboardState.TYPE_SOLVER_SET;
@@ -51,66 +54,58 @@ public class TypeSolverInitializer<T extends BodyDeclaration<?>> extends Knowled
 
     @Override
     public BlackboardState updateBlackboard() {
+        if (blackboard.isSourcesShared()) {
+            Log.log(FINEST, "Reusing type solver created for another level");
+            return TYPE_SOLVER_SET;
+        }
+
         Path rootPath = blackboard.getRootPath();
         Path subPath = blackboard.getSubPath();
 
         CombinedTypeSolver typeSolver = new CombinedTypeSolver();
         typeSolver.add(new ReflectionTypeSolver()); // may cause build failure
 
-        Path mavenDependenciesPath = rootPath
-                .toAbsolutePath()
-                .resolve(subPath)
-                .resolve(Path.of(".dirts"))
-                .resolve(Path.of("libraries"));
-
-        if (Files.exists(mavenDependenciesPath)) {
-            try {
-                String[] mavenDependencies = Files
-                        .readString(mavenDependenciesPath)
-                        .split(":");
-
-                for (String mavenDependency : mavenDependencies) {
-                    if (!(mavenDependency == null || mavenDependency.equals(""))) {
-
-                        Path mavenDependencyPath = Path.of(mavenDependency);
-
-                        if (Files.isDirectory(mavenDependencyPath)) {
-                            Path parentDirectory = mavenDependencyPath.getParent().getParent();
-
-                            List<SourceRoot> sourceRoots = new ParserCollectionStrategy()
-                                    .collect(parentDirectory)
-                                    .getSourceRoots();
-
-                            for (SourceRoot sourceRoot : sourceRoots) {
-                                Log.log(FINEST, "Adding resolver for sources in "
-                                        + sourceRoot.getRoot().toAbsolutePath());
-                                typeSolver.add(new JavaParserTypeSolver(sourceRoot.getRoot()));
-                            }
-                        } else if (Files.isRegularFile(mavenDependenciesPath)) {
-                            try {
-                                Log.log(FINEST, "Adding resolver for jar "
-                                        + mavenDependencyPath.toAbsolutePath());
-                                typeSolver.add(new JarTypeSolver(mavenDependencyPath));
-                            } catch (IOException e) {
-                                Log.errLog(WARNING, "Failed to add resolver for jar:" + mavenDependency);
-                            }
+        List<Path> libraries = blackboard.getLibraries();
+        if (libraries != null && !libraries.isEmpty()) {
+            addLibraries(typeSolver, libraries);
+        } else {
+            Path mavenDependenciesPath = rootPath
+                    .toAbsolutePath()
+                    .resolve(subPath)
+                    .resolve(Path.of(".dirts"))
+                    .resolve(Path.of("libraries"));
+
+            if (Files.exists(mavenDependenciesPath)) {
+                try {
+                    String[] mavenDependencies = Files
+                            .readString(mavenDependenciesPath)
+                            .split(":");
+
+                    List<Path> mavenDependencyPaths = new ArrayList<>();
+                    for (String mavenDependency : mavenDependencies) {
+                        if (!(mavenDependency == null || mavenDependency.equals(""))) {
+                            mavenDependencyPaths.add(Path.of(mavenDependency));
                         }
                     }
-                }
-                try {
-                    Files.delete(mavenDependenciesPath);
+                    addLibraries(typeSolver, mavenDependencyPaths);
+                    // the file is consumed, a blackboard that is reused for another analysis keeps the libraries
+                    blackboard.setLibraries(mavenDependencyPaths);
+
+                    try {
+                        Files.delete(mavenDependenciesPath);
+                    } catch (IOException e) {
+                        Log.errLog(WARNING, "Failed to delete file containing dependencies: " + e.getMessage());
+                    }
                 } catch (IOException e) {
-                    Log.errLog(WARNING, "Failed to delete file containing dependencies: " + e.getMessage());
+                    Log.errLog(WARNING, "Failed to read maven dependencies - " +
+                            "we will not be able to resolve code from libraries");
+                    e.printStackTrace();
                 }
-            } catch (IOException e) {
+            } else {
                 Log.errLog(WARNING, "Failed to read maven dependencies - " +
                         "we will not be able to resolve code from libraries");
-                e.printStackTrace();
+                Log.errLog(WARNING, "File does not exist: " + mavenDependenciesPath);
             }
-        } else {
-            Log.errLog(WARNING, "Failed to read maven dependencies - " +
-                    "we will not be able to resolve code from libraries");
-            Log.errLog(WARNING, "File does not exist: " + mavenDependenciesPath);
         }
 
         blackboard.setTypeSolver(typeSolver);
@@ -118,8 +113,58 @@ public class TypeSolverInitializer<T extends BodyDeclaration<?>> extends Knowled
         return TYPE_SOLVER_SET;
     }
 
+    /**
+     * Adds resolvers for the jars and for the sources belonging to the class directories on the classpath
+     */
+    private void addLibraries(CombinedTypeSolver typeSolver, List<Path> libraries) {
+        // the daemon keeps the resolvers for jars across several analyses
+        WarmState warmState = blackboard.getWarmState();
+        List<Path> jars = new ArrayList<>();
+
+        for (Path mavenDependencyPath : libraries) {
+            if (Files.isDirectory(mavenDependencyPath)) {
+                Path parentDirectory = mavenDependencyPath.getParent().getParent();
+
+                List<SourceRoot> sourceRoots = new ParserCollectionStrategy()
+                        .collect(parentDirectory)
+                        .getSourceRoots();
+
+                for (SourceRoot sourceRoot : sourceRoots) {
+                    Log.log(FINEST, "Adding resolver for sources in "
+                            + sourceRoot.getRoot().toAbsolutePath());
+                    typeSolver.add(new JavaParserTypeSolver(sourceRoot.getRoot()));
+                }
+            } else if (Files.isRegularFile(mavenDependencyPath)) {
+                if (warmState != null) {
+                    jars.add(mavenDependencyPath);
+                    continue;
+                }
+                try {
+                    Log.log(FINEST, "Adding resolver for jar "
+                            + mavenDependencyPath.toAbsolutePath());
+                    typeSolver.add(new JarTypeSolver(mavenDependencyPath));
+                } catch (IOException e) {
+                    Log.errLog(WARNING, "Failed to add resolver for jar:" + mavenDependencyPath);
+                }
+            }
+        }
+        if (warmState != null) {
+            typeSolver.add(warmState.getLibraryTypeSolver(jars));
+        }
+    }
+
     @Override
     public boolean executeCondition() {
         return blackboard.getState() == IMPORTED;
     }
+
+    @Override
+    public Set<BlackboardState> getRequiredStates() {
+        return Set.of();
+    }
+
+    @Override
+    public BlackboardState getProvidedState() {
+        return TYPE_SOLVER_SET;
+    }
 }
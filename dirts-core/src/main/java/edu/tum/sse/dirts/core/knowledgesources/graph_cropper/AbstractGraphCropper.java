@@ -17,15 +17,18 @@ import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.body.BodyDeclaration;
 import com.github.javaparser.ast.body.TypeDeclaration;
 import edu.tum.sse.dirts.analysis.FinderVisitor;
+import edu.tum.sse.dirts.analysis.def.finders.TypeFinderVisitor;
 import edu.tum.sse.dirts.core.Blackboard;
 import edu.tum.sse.dirts.core.BlackboardState;
 import edu.tum.sse.dirts.core.KnowledgeSource;
-import edu.tum.sse.dirts.core.strategies.DependencyStrategy;
+import edu.tum.sse.dirts.core.strategies.DependencyStrategyExecutor;
 import edu.tum.sse.dirts.graph.DependencyGraph;
 import edu.tum.sse.dirts.graph.EdgeType;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
@@ -79,26 +82,31 @@ public abstract class AbstractGraphCropper<T extends BodyDeclaration<?>> extends
         // remove removed nodes
         nodesRemoved.keySet().forEach(dependencyGraph::removeNode);
 
-        Collection<TypeDeclaration<?>> impactedTypes = calculateImpactedTypeDeclarations(
-                dependencyGraph,
-                compilationUnits,
-                nodesAdded,
-                nodesRemoved,
-                nodesDifferent,
-                nodesSame
-        );
-
-        // remove all edges from nodes resulting from these compilationUnits, those will be recalculated
-        Map<String, Node> nodeMap = new HashMap<>();
-        impactedTypes.forEach(cu -> cu.accept(finderVisitor, nodeMap));
-        nodesRemoved.forEach((removed, node) -> nodeMap.put(removed, null));
-        nodeMap.keySet().forEach(from -> dependencyGraph.removeAllEdgesFrom(from, affectedEdges));
+        Collection<TypeDeclaration<?>> impactedTypes;
+        if (blackboard.getAnalysisPlan().isRecomputeAll()) {
+            // all edges will be recalculated, see Planner
+            impactedTypes = calculateAllTypeDeclarations(dependencyGraph, compilationUnits);
+        } else {
+            impactedTypes = calculateImpactedTypeDeclarations(
+                    dependencyGraph,
+                    compilationUnits,
+                    nodesAdded,
+                    nodesRemoved,
+                    nodesDifferent,
+                    nodesSame
+            );
+
+            // remove all edges from nodes resulting from these compilationUnits, those will be recalculated
+            Map<String, Node> nodeMap = new HashMap<>();
+            impactedTypes.forEach(cu -> cu.accept(finderVisitor, nodeMap));
+            nodesRemoved.forEach((removed, node) -> nodeMap.put(removed, null));
+            nodeMap.keySet().forEach(from -> dependencyGraph.removeAllEdgesFrom(from, affectedEdges));
+        }
 
         blackboard.setImpactedTypes(impactedTypes);
 
-        for (DependencyStrategy<T> dependencyStrategy : blackboard.getDependencyStrategies()) {
-            dependencyStrategy.doGraphCropping(blackboard);
-        }
+        DependencyStrategyExecutor.forEach(blackboard, "doGraphCropping",
+                dependencyStrategy -> dependencyStrategy.doGraphCropping(blackboard));
 
         return NEW_GRAPH_SET;
     }
@@ -111,5 +119,20 @@ public abstract class AbstractGraphCropper<T extends BodyDeclaration<?>> extends
                                       Map<String, Node> nodesDifferent,
                                       Map<String, Node> nodesSame);
 
+    /**
+     * Removes all edges that are recalculated for every type, instead of cropping the graph
+     *
+     * @return all types
+     */
+    protected Collection<TypeDeclaration<?>>
+    calculateAllTypeDeclarations(DependencyGraph dependencyGraph,
+                                 Collection<CompilationUnit> compilationUnits) {
+        dependencyGraph.removeAllEdgesByType(affectedEdges);
+
+        List<TypeDeclaration<?>> typeDeclarations = new ArrayList<>();
+        TypeFinderVisitor typeFinderVisitor = new TypeFinderVisitor();
+        compilationUnits.forEach(cu -> cu.accept(typeFinderVisitor, typeDeclarations));
+        return typeDeclarations;
+    }
 
 }
@@ -19,6 +19,7 @@ import com.github.javaparser.ast.nodeTypes.NodeWithName;
 import edu.tum.sse.dirts.analysis.FinderVisitor;
 import edu.tum.sse.dirts.analysis.def.finders.TypeFinderVisitor;
 import edu.tum.sse.dirts.core.Blackboard;
+import edu.tum.sse.dirts.core.BlackboardState;
 import edu.tum.sse.dirts.graph.DependencyGraph;
 import edu.tum.sse.dirts.graph.EdgeType;
 
@@ -26,7 +27,8 @@ import java.util.*;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
-import static edu.tum.sse.dirts.core.BlackboardState.NODES_CHANGES_SET;
+import static edu.tum.sse.dirts.core.BlackboardState.NEW_GRAPH_SET;
+import static edu.tum.sse.dirts.core.BlackboardState.PLANNED;
 
 /**
  * Prepares the graph before analyzing dependencies
@@ -98,6 +100,16 @@ public class ClassLevelGraphCropper extends AbstractGraphCropper<TypeDeclaration
 
     @Override
     public boolean executeCondition() {
-        return blackboard.getState() == NODES_CHANGES_SET;
+        return blackboard.getState() == PLANNED;
+    }
+
+    @Override
+    public Set<BlackboardState> getRequiredStates() {
+        return Set.of(PLANNED);
+    }
+
+    @Override
+    public BlackboardState getProvidedState() {
+        return NEW_GRAPH_SET;
     }
 }
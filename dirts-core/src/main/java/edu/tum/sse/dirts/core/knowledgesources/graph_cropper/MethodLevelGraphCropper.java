@@ -24,6 +24,7 @@ import edu.tum.sse.dirts.analysis.FinderVisitor;
 import edu.tum.sse.dirts.analysis.def.finders.TypeFinderVisitor;
 import edu.tum.sse.dirts.analysis.def.identifiers.methodlevel.InheritanceIdentifierVisitor;
 import edu.tum.sse.dirts.core.Blackboard;
+import edu.tum.sse.dirts.core.BlackboardState;
 import edu.tum.sse.dirts.graph.DependencyGraph;
 import edu.tum.sse.dirts.graph.EdgeType;
 
@@ -31,7 +32,8 @@ import java.util.*;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
-import static edu.tum.sse.dirts.core.BlackboardState.NODES_CHANGES_SET;
+import static edu.tum.sse.dirts.core.BlackboardState.NEW_GRAPH_SET;
+import static edu.tum.sse.dirts.core.BlackboardState.PLANNED;
 import static edu.tum.sse.dirts.util.naming_scheme.Names.lookup;
 
 /**
@@ -60,7 +62,6 @@ public class MethodLevelGraphCropper extends AbstractGraphCropper<BodyDeclaratio
             Map<String, Node> nodesSame
     ) {
 
-        Map<String, Node> allNodes = blackboard.getAllNodes();
         Map<String, String> compilationUnitMapping = blackboard.getCompilationUnitMapping();
 
         // Compute the set of CompilationUnits that require a recalculation of dependencies
@@ -70,9 +71,9 @@ public class MethodLevelGraphCropper extends AbstractGraphCropper<BodyDeclaratio
         // However, the dependencies of these nodes may change and need to be recalculated
         nodesRemoved.keySet().forEach(name -> {
             Set<String> affectedNodesNames = dependencyGraph.removeAllEdgesTo(name, affectedEdges);
-            Set<Node> affectedNodes = allNodes.entrySet().stream()
-                    .filter(e -> affectedNodesNames.contains(e.getKey()))
-                    .map(Map.Entry::getValue)
+            Set<Node> affectedNodes = affectedNodesNames.stream()
+                    .map(blackboard::getNode)
+                    .filter(Objects::nonNull)
                     .collect(Collectors.toSet());
             impactedCompilationUnits.addAll(affectedNodes.stream()
                     .map(Node::findCompilationUnit)
@@ -85,7 +86,7 @@ public class MethodLevelGraphCropper extends AbstractGraphCropper<BodyDeclaratio
         impactedCompilationUnits.addAll(nodesRemoved.keySet()
                 .stream().map(compilationUnitMapping::get)
                 .filter(Objects::nonNull)
-                .map(allNodes::get)
+                .map(blackboard::getNode)
                 .filter(Objects::nonNull)
                 .map(Node::findCompilationUnit)
                 .filter(Optional::isPresent)
@@ -142,7 +143,7 @@ public class MethodLevelGraphCropper extends AbstractGraphCropper<BodyDeclaratio
                 .flatMap(Set::stream)
                 // find all nodes that delegate to potentially overridden methods
                 .flatMap(m -> dependencyGraph.removeAllEdgesTo(lookup(m), Set.of(EdgeType.DELEGATION)).stream()
-                        .map(allNodes::get)
+                        .map(blackboard::getNode)
                         .filter(Objects::nonNull))
                 .map(Node::findCompilationUnit)
                 .filter(Optional::isPresent)
@@ -174,7 +175,7 @@ public class MethodLevelGraphCropper extends AbstractGraphCropper<BodyDeclaratio
 
         Set<CompilationUnit> impactedCompilationUnits2 = methodNodes.stream()
                 .flatMap(methodNode -> dependencyGraph.removeAllEdgesFrom(methodNode, Set.of(EdgeType.INHERITANCE, EdgeType.FIELD_ASSIGNMENT)).stream())
-                .map(allNodes::get)
+                .map(blackboard::getNode)
                 .filter(Objects::nonNull)
                 .map(Node::findCompilationUnit)
                 .filter(Optional::isPresent)
@@ -190,8 +191,34 @@ public class MethodLevelGraphCropper extends AbstractGraphCropper<BodyDeclaratio
         return typeDeclarations;
     }
 
+    @Override
+    protected Collection<TypeDeclaration<?>> calculateAllTypeDeclarations(DependencyGraph dependencyGraph,
+                                                                         Collection<CompilationUnit> compilationUnits) {
+        Collection<TypeDeclaration<?>> typeDeclarations = super.calculateAllTypeDeclarations(dependencyGraph,
+                compilationUnits);
+
+        // these edges are usually removed only for the methods of impacted types
+        dependencyGraph.removeAllEdgesByType(Set.of(EdgeType.INHERITANCE, EdgeType.FIELD_ASSIGNMENT));
+
+        IdentityHashMap<TypeDeclaration<?>, InheritanceIdentifierVisitor> inheritanceIdentifierVisitorMap = new IdentityHashMap<>();
+        typeDeclarations.forEach(t -> inheritanceIdentifierVisitorMap.put(t, new InheritanceIdentifierVisitor(t)));
+        blackboard.setInheritanceIdentifierVisitorMap(inheritanceIdentifierVisitorMap);
+
+        return typeDeclarations;
+    }
+
     @Override
     public boolean executeCondition() {
-        return blackboard.getState() == NODES_CHANGES_SET;
+        return blackboard.getState() == PLANNED;
+    }
+
+    @Override
+    public Set<BlackboardState> getRequiredStates() {
+        return Set.of(PLANNED);
+    }
+
+    @Override
+    public BlackboardState getProvidedState() {
+        return NEW_GRAPH_SET;
     }
 }
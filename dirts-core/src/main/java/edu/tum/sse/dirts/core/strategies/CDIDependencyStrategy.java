@@ -24,28 +24,19 @@ import edu.tum.sse.dirts.cdi.analysis.CDIMapper;
 import edu.tum.sse.dirts.cdi.analysis.identifiers.ManagedBeanIdentifierVisitor;
 import edu.tum.sse.dirts.cdi.analysis.identifiers.ProducerFieldIdentifierVisitor;
 import edu.tum.sse.dirts.cdi.analysis.identifiers.ProducerMethodIdentifierVisitor;
+import edu.tum.sse.dirts.cdi.util.BeansXMLInventory;
 import edu.tum.sse.dirts.cdi.util.CDIBean;
 import edu.tum.sse.dirts.core.Blackboard;
 import edu.tum.sse.dirts.graph.DependencyGraph;
 import edu.tum.sse.dirts.graph.ModificationGraph;
 import edu.tum.sse.dirts.graph.ModificationType;
-import edu.tum.sse.dirts.util.IgnoreErrorHandler;
 import edu.tum.sse.dirts.util.Log;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import java.io.File;
+
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.*;
-import java.util.stream.Collectors;
 
 import static edu.tum.sse.dirts.cdi.util.CDIUtil.lookupXMlAlternativeName;
 import static edu.tum.sse.dirts.graph.EdgeType.DI_CDI;
@@ -66,6 +57,7 @@ public class CDIDependencyStrategy<T extends BodyDeclaration<?>>
 
     private final CDIAlternativeDependencyCollector<T> alternativeDependencyCollector;
 
+    private BeansXMLInventory beansXMLInventoryNewRevision;
     private Set<String> xmlAlternativesNewRevision, xmlAlternativesOldRevision;
     private Set<String> xmlAlternativesAdded, xmlAlternativesRemoved, xmlAlternativesSame;
 
@@ -83,60 +75,30 @@ public class CDIDependencyStrategy<T extends BodyDeclaration<?>>
 
         Path rootPath = blackboard.getRootPath();
         Path subPath = blackboard.getSubPath();
-        Set<Path> beansXMLPaths = findBeansXMLFiles(rootPath.resolve(subPath));
 
-        xmlAlternativesNewRevision = new HashSet<>();
-        for (Path beansXMLPath : beansXMLPaths) {
-            File xmlFile = beansXMLPath.toFile();
+        // import inventory of beans.xml files
+        BeansXMLInventory beansXMLInventoryOldRevision = null;
+        try {
+            String inventoryString = Files.readString(tmpPath.resolve(Path.of("cdi_beans_xml_" + suffix)));
+            beansXMLInventoryOldRevision = objectMapper.readValue(inventoryString, BeansXMLInventory.class);
+        } catch (IOException ignored) {
+        }
 
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder;
+        if (beansXMLInventoryOldRevision != null) {
+            xmlAlternativesOldRevision = beansXMLInventoryOldRevision.getAllAlternatives();
+        } else {
+            // alternatives exported by previous versions, without an inventory
             try {
-                builder = factory.newDocumentBuilder();
-                builder.setErrorHandler(new IgnoreErrorHandler());
-
-                if (xmlFile.exists()) {
-                    Document document = builder.parse(xmlFile);
-                    Element root = document.getDocumentElement();
-
-                    NodeList alternatives = root.getElementsByTagName("alternatives");
-                    for (int i = alternatives.getLength() - 1; i >= 0; i--) {
-                        Node alternativeNode = alternatives.item(i);
-                        if (alternativeNode instanceof Element) {
-                            Element alternative = (Element) alternativeNode;
-                            NodeList classNodes = alternative.getElementsByTagName("class");
-                            for (int j = classNodes.getLength() - 1; j >= 0; j--) {
-                                Node classNode = classNodes.item(j);
-                                String textContent = classNode.getTextContent();
-                                xmlAlternativesNewRevision.add(textContent);
-                            }
-                        }
-                    }
-                }
-            } catch (IOException | SAXException ignored) {
-            } catch (Throwable e) {
-                e.printStackTrace();
+                String alternativesString = Files.readString(tmpPath.resolve(Path.of("cdi_alternatives_" + suffix)));
+                xmlAlternativesOldRevision = objectMapper.readValue(alternativesString, typeRefXMLAlternatives);
+            } catch (IOException e) {
+                xmlAlternativesOldRevision = new HashSet<>();
             }
         }
 
-        // import Nodes
-        try {
-            String alternativesString = Files.readString(tmpPath.resolve(Path.of("cdi_alternatives_" + suffix)));
-            xmlAlternativesOldRevision = objectMapper.readValue(alternativesString, typeRefXMLAlternatives);
-        } catch (IOException e) {
-            xmlAlternativesOldRevision = new HashSet<>();
-        }
-    }
-
-    private Set<Path> findBeansXMLFiles(Path path) {
-        try {
-            return Files.walk(path)
-                    .filter(p -> !p.toAbsolutePath().toString().contains("/target/"))
-                    .filter(p -> p.toAbsolutePath().toString().endsWith("META-INF/beans.xml"))
-                    .collect(Collectors.toSet());
-        } catch (IOException e) {
-            return new HashSet<>();
-        }
+        // only beans.xml files that have changed are parsed again
+        beansXMLInventoryNewRevision = BeansXMLInventory.update(beansXMLInventoryOldRevision, rootPath.resolve(subPath));
+        xmlAlternativesNewRevision = beansXMLInventoryNewRevision.getAllAlternatives();
     }
 
     @Override
@@ -146,15 +108,23 @@ public class CDIDependencyStrategy<T extends BodyDeclaration<?>>
         try {
             Files.createDirectories(tmpPath);
 
-            Files.writeString(tmpPath.resolve(Path.of("cdi_alternatives_" + suffix)),
-                    objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(xmlAlternativesNewRevision),
+            Files.writeString(tmpPath.resolve(Path.of("cdi_beans_xml_" + suffix)),
+                    objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(beansXMLInventoryNewRevision),
                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            Files.deleteIfExists(tmpPath.resolve(Path.of("cdi_alternatives_" + suffix)));
 
         } catch (IOException ignored) {
             Log.log(SEVERE, "Failed to export CDI alternative entries");
         }
     }
 
+    @Override
+    public List<Path> getExportedPaths(Path tmpPath, Blackboard<T> blackboard, String suffix) {
+        List<Path> exportedPaths = new ArrayList<>(super.getExportedPaths(tmpPath, blackboard, suffix));
+        exportedPaths.add(tmpPath.resolve(Path.of("cdi_beans_xml_" + suffix)));
+        return exportedPaths;
+    }
+
     @Override
     public void doChangeAnalysis(Blackboard<T> blackboard) {
         super.doChangeAnalysis(blackboard);
@@ -221,4 +191,10 @@ public class CDIDependencyStrategy<T extends BodyDeclaration<?>>
         xmlAlternativesRemoved.forEach(s -> modificationGraph.setModificationType(lookupXMlAlternativeName(s),
                 ModificationType.REMOVED));
     }
+
+    @Override
+    public boolean requiresAllCompilationUnits() {
+        // alternatives are collected from all compilation units
+        return true;
+    }
 }
@@ -12,8 +12,6 @@
  */
 package edu.tum.sse.dirts.core.strategies;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.javaparser.ast.body.BodyDeclaration;
 import com.github.javaparser.ast.body.TypeDeclaration;
 import edu.tum.sse.dirts.analysis.di.*;
@@ -25,13 +23,13 @@ import edu.tum.sse.dirts.util.Log;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import static edu.tum.sse.dirts.util.DirtsUtil.getBeansPath;
 import static edu.tum.sse.dirts.util.DirtsUtil.getInjectionPointsPath;
@@ -40,18 +38,14 @@ import static java.util.logging.Level.*;
 public abstract class DIDependencyStrategy<T extends BodyDeclaration<?>, B extends Bean>
         implements DependencyStrategy<T> {
 
-    private final static ObjectMapper objectMapper = new ObjectMapper();
-    private static final TypeReference<BeanStorage<Set<String>>> typeReferenceBeanStorage = new TypeReference<>() {
-    };
-    private static final TypeReference<InjectionPointStorage> typeReferenceInjectionPointStorage =
-            new TypeReference<>() {
-            };
-
     private final String prefix;
 
     protected BeanStorage<Set<String>> beans;
     private InjectionPointStorage injectionPoints;
 
+    // reverse index from nodes to the beans they are part of
+    private final Map<String, Set<Set<String>>> beansByNode = new HashMap<>();
+
     private final InjectionPointCollector<T> injectionPointCollector;
     protected final EdgeType edgeType;
 
@@ -76,15 +70,15 @@ public abstract class DIDependencyStrategy<T extends BodyDeclaration<?>, B exten
         Path injectionPointsPath = getInjectionPointsPath(rootPath, subPath, prefix, suffix);
 
         try {
-            String beanStorageString = Files.readString(beansPath);
-            beans = objectMapper.readValue(beanStorageString, typeReferenceBeanStorage);
+            beans = DIStorageCodec.readBeans(beansPath);
         } catch (IOException e) {
             beans = new BeanStorage<>();
         }
+        beansByNode.clear();
+        beans.getAllBeans().forEach(this::indexBean);
 
         try {
-            String injectionPointsString = Files.readString(injectionPointsPath);
-            injectionPoints = objectMapper.readValue(injectionPointsString, typeReferenceInjectionPointStorage);
+            injectionPoints = DIStorageCodec.readInjectionPoints(injectionPointsPath);
         } catch (IOException e) {
             injectionPoints = new InjectionPointStorage();
         }
@@ -100,27 +94,27 @@ public abstract class DIDependencyStrategy<T extends BodyDeclaration<?>, B exten
 
         try {
             Files.createDirectories(beansPath.getParent());
-
-            Files.writeString(beansPath,
-                    objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(beans),
-                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-
+            DIStorageCodec.writeBeans(beans, beansPath);
         } catch (IOException ignored) {
             Log.log(SEVERE, "Failed to export " + prefix + " beans");
         }
 
         try {
             Files.createDirectories(injectionPointsPath.getParent());
-
-            Files.writeString(injectionPointsPath,
-                    objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(injectionPoints),
-                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-
+            DIStorageCodec.writeInjectionPoints(injectionPoints, injectionPointsPath);
         } catch (IOException ignored) {
             Log.log(SEVERE, "Failed to export " + prefix + " injection points");
         }
     }
 
+    @Override
+    public List<Path> getExportedPaths(Path tmpPath, Blackboard<T> blackboard, String suffix) {
+        Path rootPath = blackboard.getRootPath();
+        Path subPath = blackboard.getSubPath();
+        return List.of(getBeansPath(rootPath, subPath, prefix, suffix),
+                getInjectionPointsPath(rootPath, subPath, prefix, suffix));
+    }
+
     @Override
     public void doChangeAnalysis(Blackboard<T> blackboard) {
     }
@@ -139,15 +133,17 @@ public abstract class DIDependencyStrategy<T extends BodyDeclaration<?>, B exten
         // remove edges from impacted injection points
         impactedNodes.forEach(b -> dependencyGraph.removeAllEdgesFrom(b, Set.of(edgeType)));
 
-        Set<Set<String>> impactedBeans = beans.getAllBeans().stream()
-                .filter(p -> p.stream().anyMatch(impactedNodes::contains)
-                        || p.stream().anyMatch(nodesRemoved::contains))
-                .collect(Collectors.toSet());
+        Set<Set<String>> impactedBeans = new HashSet<>();
+        impactedNodes.forEach(n -> impactedBeans.addAll(beansByNode.getOrDefault(n, Set.of())));
+        nodesRemoved.forEach(n -> impactedBeans.addAll(beansByNode.getOrDefault(n, Set.of())));
 
         impactedBeans.addAll(calculateImpactedBeans());
 
         // remove impacted beans, those are going to be rediscovered
-        impactedBeans.forEach(beans::removeBean);
+        impactedBeans.forEach(b -> {
+            beans.removeBean(b);
+            unindexBean(b);
+        });
 
         if (!impactedBeans.isEmpty())
             Log.log(FINER, "BEANS", "Impacted beans:\n" + impactedBeans);
@@ -193,13 +189,26 @@ public abstract class DIDependencyStrategy<T extends BodyDeclaration<?>, B exten
         }
 
         // consider join between newBeans and newInjectionPoints
-        join(dependencyGraph, newInjectionPoints, newBeans, nameMapper::mapToString);
+        join(dependencyGraph,
+                newInjectionPoints,
+                newInjectionPoints.getInjectionPoints().keySet(),
+                newBeans,
+                nameMapper::mapToString);
 
         // consider join between newBeans and (old) injectionPoints
-        join(dependencyGraph, injectionPoints, newBeans, nameMapper::mapToString);
+        // only those injectionPoints that have a lookup key matching the type of some new bean can observe them
+        join(dependencyGraph,
+                injectionPoints,
+                injectionPoints.lookupInjectionPoints(newBeans.getBeansByType().keySet()),
+                newBeans,
+                nameMapper::mapToString);
 
         // consider join between (old) beans and newInjectionPoints
-        join(dependencyGraph, newInjectionPoints, beans, b -> b);
+        join(dependencyGraph,
+                newInjectionPoints,
+                newInjectionPoints.getInjectionPoints().keySet(),
+                beans,
+                b -> b);
 
         newBeans.getBeansByName().forEach((k, v) ->
                 v.forEach(b -> beans.addBeanByName(k, nameMapper.mapToString(b))));
@@ -207,6 +216,7 @@ public abstract class DIDependencyStrategy<T extends BodyDeclaration<?>, B exten
                 v.forEach(b -> beans.addBeanByType(k, nameMapper.mapToString(b))));
         newBeans.getBeansByQualifier().forEach((k, v) ->
                 v.forEach(b -> beans.addBeanByName(k, nameMapper.mapToString(b))));
+        newBeans.getAllBeans().forEach(b -> indexBean(nameMapper.mapToString(b)));
 
         injectionPoints.addAll(newInjectionPoints);
     }
@@ -217,11 +227,27 @@ public abstract class DIDependencyStrategy<T extends BodyDeclaration<?>, B exten
     }
 
 
+    private void indexBean(Set<String> bean) {
+        bean.forEach(n -> beansByNode.computeIfAbsent(n, k -> new HashSet<>()).add(bean));
+    }
+
+    private void unindexBean(Set<String> bean) {
+        bean.forEach(n -> {
+            Set<Set<String>> beansOfNode = beansByNode.get(n);
+            if (beansOfNode != null) {
+                beansOfNode.remove(bean);
+                if (beansOfNode.isEmpty())
+                    beansByNode.remove(n);
+            }
+        });
+    }
+
     private <B1> void join(DependencyGraph dependencyGraph,
-                               InjectionPointStorage injectionPoints,
-                               BeanStorage<B1> beanStorage,
-                               Function<B1, Set<String>> mapper) {
-        injectionPoints.getInjectionPoints().forEach((fromNode, keys) -> keys.forEach(key -> {
+                           InjectionPointStorage injectionPoints,
+                           Set<String> consideredInjectionPoints,
+                           BeanStorage<B1> beanStorage,
+                           Function<B1, Set<String>> mapper) {
+        consideredInjectionPoints.forEach(fromNode -> injectionPoints.getInjectionPoints().get(fromNode).forEach(key -> {
             // fetch possible beans
             Set<B1> beans = beanStorage.getBeans(key.getFirst(), key.getSecond(), key.getThird());
             for (B1 bean : beans) {
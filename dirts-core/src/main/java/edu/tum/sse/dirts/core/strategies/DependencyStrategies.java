@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.core.strategies;
+
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import edu.tum.sse.dirts.cdi.analysis.*;
+import edu.tum.sse.dirts.core.Blackboard;
+import edu.tum.sse.dirts.guice.analysis.GuiceClassLevelInjectionPointCollectorVisitor;
+import edu.tum.sse.dirts.guice.analysis.GuiceClassLevelMapper;
+import edu.tum.sse.dirts.guice.analysis.GuiceMethodLevelInjectionPointCollectorVisitor;
+import edu.tum.sse.dirts.guice.analysis.GuiceMethodLevelMapper;
+import edu.tum.sse.dirts.spring.analysis.*;
+
+/**
+ * Registers the DependencyStrategies of the extensions on a blackboard
+ */
+public class DependencyStrategies {
+
+    private DependencyStrategies() {
+    }
+
+    //##################################################################################################################
+    // Methods
+
+    public static void addClassLevelStrategies(Blackboard<TypeDeclaration<?>> blackboard,
+                                               boolean spring,
+                                               boolean guice,
+                                               boolean cdi) {
+        // Spring
+        if (spring) {
+            blackboard.addDependencyStrategy(new SpringDependencyStrategy<>(
+                    new SpringClassLevelInjectionPointCollectorVisitor(),
+                    new SpringBeanClassLevelDependencyCollector(),
+                    new SpringClassLevelMapper()));
+        }
+
+        // Guice
+        if (guice) {
+            blackboard.addDependencyStrategy(new GuiceDependencyStrategy<>(
+                    new GuiceClassLevelInjectionPointCollectorVisitor(),
+                    new GuiceClassLevelMapper()));
+        }
+
+        // CDI
+        if (cdi) {
+            blackboard.addDependencyStrategy(new CDIDependencyStrategy<>(
+                    new CDIClassLevelInjectionPointCollectorVisitor(),
+                    new CDIClassLevelMapper(), new CDIClassLevelAlternativeDependencyCollector()));
+        }
+    }
+
+    public static void addMethodLevelStrategies(Blackboard<BodyDeclaration<?>> blackboard,
+                                                boolean spring,
+                                                boolean guice,
+                                                boolean cdi) {
+        // Spring
+        if (spring) {
+            blackboard.addDependencyStrategy(new SpringDependencyStrategy<>(
+                    new SpringMethodLevelInjectionPointCollectorVisitor(),
+                    new SpringBeanMethodLevelDependencyCollector(),
+                    new SpringMethodLevelMapper()));
+        }
+
+        // Guice
+        if (guice) {
+            blackboard.addDependencyStrategy(new GuiceDependencyStrategy<>(
+                    new GuiceMethodLevelInjectionPointCollectorVisitor(),
+                    new GuiceMethodLevelMapper()));
+        }
+
+        // CDI
+        if (cdi) {
+            blackboard.addDependencyStrategy(new CDIDependencyStrategy<>(
+                    new CDIMethodLevelInjectionPointCollectorVisitor(),
+                    new CDIMethodLevelMapper(), new CDIMethodLevelAlternativeDependencyCollector()));
+        }
+    }
+}
@@ -16,6 +16,7 @@ import com.github.javaparser.ast.body.BodyDeclaration;
 import edu.tum.sse.dirts.core.Blackboard;
 
 import java.nio.file.Path;
+import java.util.List;
 
 /**
  * Represents a strategy for computing dependencies
@@ -26,6 +27,17 @@ public interface DependencyStrategy<T extends BodyDeclaration<?>> {
 
     void doExport(Path tmpPath, Blackboard<T> blackboard, String suffix);
 
+    /**
+     * Files written by {@link #doExport}, which are shared and restored together with the graph
+     * <p>
+     * No two strategies may write the same file, since strategies import and export their state concurrently.
+     *
+     * @return paths of the exported files
+     */
+    default List<Path> getExportedPaths(Path tmpPath, Blackboard<T> blackboard, String suffix) {
+        return List.of();
+    }
+
     void doChangeAnalysis(Blackboard<T> blackboard);
 
     void doGraphCropping(Blackboard<T> blackboard);
@@ -33,4 +45,15 @@ public interface DependencyStrategy<T extends BodyDeclaration<?>> {
     void doDependencyAnalysis(Blackboard<T> blackboard);
 
     void combineGraphs(Blackboard<T> blackboard);
+
+    /**
+     * Whether this strategy visits all compilation units of the module, not only the impacted ones
+     * <p>
+     * In this case all compilation units have to be kept in memory.
+     *
+     * @return true if {@link Blackboard#getCompilationUnits()} needs to contain all compilation units
+     */
+    default boolean requiresAllCompilationUnits() {
+        return false;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.core.strategies;
+
+import com.github.javaparser.ast.body.BodyDeclaration;
+import edu.tum.sse.dirts.core.Blackboard;
+import edu.tum.sse.dirts.util.AnalysisContext;
+import edu.tum.sse.dirts.util.Log;
+import edu.tum.sse.dirts.util.metrics.Metrics;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static java.util.logging.Level.FINE;
+
+/**
+ * Executes a task on all DependencyStrategies of a blackboard
+ * <p>
+ * The analysis of the strategies always runs sequentially, since they share the compilation units and the type
+ * solver, whose caches must not be accessed concurrently. Only importing and exporting, which neither resolve
+ * symbols nor modify graphs and where each strategy reads and writes its own files, may run concurrently, if the
+ * blackboard allows more than one thread.
+ */
+public class DependencyStrategyExecutor {
+
+    private DependencyStrategyExecutor() {
+    }
+
+    //##################################################################################################################
+    // Methods
+
+    /**
+     * Executes a task that may resolve symbols or modify graphs on one strategy after another
+     *
+     * @param phase name of the phase used in metrics
+     */
+    public static <T extends BodyDeclaration<?>> void forEach(Blackboard<T> blackboard,
+                                                               String phase,
+                                                               Consumer<DependencyStrategy<T>> task) {
+        blackboard.getDependencyStrategies().forEach(measured(blackboard, phase, task));
+    }
+
+    /**
+     * Executes a task that neither resolves symbols nor modifies graphs, concurrently if allowed by the blackboard
+     *
+     * @param phase name of the phase used in metrics
+     */
+    public static <T extends BodyDeclaration<?>> void forEachConcurrently(Blackboard<T> blackboard,
+                                                                          String phase,
+                                                                          Consumer<DependencyStrategy<T>> task) {
+        execute(blackboard, measured(blackboard, phase, task));
+    }
+
+    /**
+     * Wraps a task such that it is measured separately for every DependencyStrategy
+     */
+    public static <T extends BodyDeclaration<?>> Consumer<DependencyStrategy<T>> measured(
+            Blackboard<T> blackboard,
+            String phase,
+            Consumer<DependencyStrategy<T>> task) {
+        Metrics metrics = blackboard.getMetrics();
+        if (metrics == null)
+            return task;
+
+        return dependencyStrategy -> {
+            try (Metrics.Phase ignored = metrics.startPhase("dependencyStrategy",
+                    dependencyStrategy.getClass().getSimpleName() + "." + phase)) {
+                task.accept(dependencyStrategy);
+            }
+        };
+    }
+
+    private static <T extends BodyDeclaration<?>> void execute(Blackboard<T> blackboard,
+                                                               Consumer<DependencyStrategy<T>> task) {
+        List<DependencyStrategy<T>> dependencyStrategies = blackboard.getDependencyStrategies();
+        int threads = blackboard.getStrategyThreads();
+
+        if (threads <= 1 || dependencyStrategies.size() <= 1) {
+            dependencyStrategies.forEach(task);
+            return;
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(
+                Math.min(threads, dependencyStrategies.size()), new StrategyThreadFactory());
+        try {
+            Log.log(FINE, "Running concurrently: " + dependencyStrategies.stream()
+                    .map(s -> s.getClass().getSimpleName())
+                    .collect(Collectors.joining(", ")));
+            executeAll(task, dependencyStrategies, executorService);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private static <T extends BodyDeclaration<?>> void executeAll(Consumer<DependencyStrategy<T>> task,
+                                                                  List<DependencyStrategy<T>> dependencyStrategies,
+                                                                  ExecutorService executorService) {
+        List<Future<?>> futures = new ArrayList<>();
+        for (DependencyStrategy<T> dependencyStrategy : dependencyStrategies) {
+            futures.add(executorService.submit(AnalysisContext.wrap(Metrics.inheritPhases(
+                    () -> task.accept(dependencyStrategy)))));
+        }
+
+        // wait for all strategies, also if one of them has failed
+        RuntimeException failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = new IllegalStateException("Interrupted while waiting for DependencyStrategies", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Error)
+                    throw (Error) cause;
+                if (failure == null)
+                    failure = cause instanceof RuntimeException
+                            ? (RuntimeException) cause
+                            : new IllegalStateException(cause);
+            }
+        }
+        if (failure != null)
+            throw failure;
+    }
+
+    //##################################################################################################################
+    // Auxiliary classes
+
+    private static class StrategyThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "dirts-strategy-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -72,4 +72,9 @@ public class RecomputeAllDependencyStrategy<T extends BodyDeclaration<?>> implem
     public void combineGraphs(Blackboard<T> blackboard) {
 
     }
+
+    @Override
+    public boolean requiresAllCompilationUnits() {
+        return true;
+    }
 }
@@ -135,6 +135,13 @@ public class SpringDependencyStrategy<T extends BodyDeclaration<?>>
         }
     }
 
+    @Override
+    public List<Path> getExportedPaths(Path tmpPath, Blackboard<T> blackboard, String suffix) {
+        List<Path> exportedPaths = new ArrayList<>(super.getExportedPaths(tmpPath, blackboard, suffix));
+        exportedPaths.add(tmpPath.resolve(Path.of("spring_xmlbeans_" + suffix)));
+        return exportedPaths;
+    }
+
     @Override
     public void doChangeAnalysis(Blackboard<T> blackboard) {
         super.doChangeAnalysis(blackboard);
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.daemon;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.tum.sse.dirts.util.DirtsUtil;
+import edu.tum.sse.dirts.util.Log;
+
+import java.io.*;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.logging.Level.*;
+
+/**
+ * Sends requests to the daemon of a project and starts it if it is not running
+ */
+public class DaemonClient {
+
+    //##################################################################################################################
+    // Static constants
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 1000;
+
+    private final static ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Whether this JVM already started a daemon, to start only one for all modules of a reactor build
+     */
+    private static final AtomicBoolean started = new AtomicBoolean(false);
+
+    private DaemonClient() {
+    }
+
+    //##################################################################################################################
+    // Methods
+
+    /**
+     * Sends a request to the daemon running for this project
+     *
+     * @return the response, null if there is no daemon or it could not be reached
+     */
+    public static DaemonResponse send(Path rootPath, DaemonRequest request) {
+        Properties info = DirtsDaemon.readInfo(rootPath);
+        if (info == null)
+            return null;
+
+        request.setToken(info.getProperty(DirtsDaemon.TOKEN));
+        try (Socket socket = new Socket()) {
+            int port = Integer.parseInt(info.getProperty(DirtsDaemon.PORT));
+            socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), CONNECT_TIMEOUT_MILLIS);
+
+            Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            writer.write(objectMapper.writeValueAsString(request));
+            writer.write('\n');
+            writer.flush();
+
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            String line = reader.readLine();
+            if (line == null) {
+                Log.errLog(WARNING, "DIRTS daemon closed the connection without responding");
+                return null;
+            }
+            return objectMapper.readValue(line, DaemonResponse.class);
+        } catch (ConnectException e) {
+            // the daemon has terminated without cleaning up
+            Log.log(FINE, "DIRTS daemon is not reachable, removing " + DirtsUtil.getDaemonPath(rootPath));
+            try {
+                Files.deleteIfExists(DirtsUtil.getDaemonPath(rootPath));
+            } catch (IOException ex) {
+                Log.errLog(FINE, "Failed to remove file of unreachable daemon: " + ex.getMessage());
+            }
+            return null;
+        } catch (IOException | NumberFormatException e) {
+            Log.errLog(WARNING, "Failed to communicate with DIRTS daemon: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Starts a daemon for this project in the background, unless there is one already
+     *
+     * @param classpath          classpath containing DIRTS and its dependencies
+     * @param idleTimeoutMinutes time after which the daemon stops if it does not receive any requests
+     */
+    public static void start(Path rootPath, String classpath, int idleTimeoutMinutes) {
+        if (DirtsDaemon.readInfo(rootPath) != null || !started.compareAndSet(false, true))
+            return;
+
+        Path java = Path.of(System.getProperty("java.home"), "bin", "java");
+        Path logPath = DirtsUtil.getDaemonLogPath(rootPath);
+        try {
+            Files.createDirectories(logPath.getParent());
+            new ProcessBuilder(java.toString(),
+                    "-cp", classpath,
+                    DirtsDaemon.class.getName(),
+                    rootPath.toAbsolutePath().toString(),
+                    String.valueOf(idleTimeoutMinutes))
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.appendTo(logPath.toFile()))
+                    .start();
+            Log.log(INFO, "Started DIRTS daemon, it will be used from the next run on (log: " + logPath + ")");
+        } catch (IOException e) {
+            Log.errLog(WARNING, "Failed to start DIRTS daemon: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.daemon;
+
+import edu.tum.sse.dirts.analysis.di.DIFrameworkDetector.DIFramework;
+import edu.tum.sse.dirts.graph.EdgeType;
+import org.apache.maven.surefire.api.testset.TestFilter;
+import org.apache.maven.surefire.api.testset.TestListResolver;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Request sent to the daemon, contains everything needed to set up the analysis of a single module
+ */
+public class DaemonRequest {
+
+    //##################################################################################################################
+    // Static constants
+
+    public static final String SELECT = "select";
+    public static final String GRAPH = "graph";
+    public static final String STOP = "stop";
+
+    public static final String CLASS_LEVEL = "class_level";
+    public static final String METHOD_LEVEL = "method_level";
+
+    //##################################################################################################################
+    // Attributes
+
+    private String command;
+    private String token;
+
+    private String rootPath;
+    private String subPath;
+    private String level;
+
+    private String logging = "INFO";
+    private boolean restrictive;
+    private boolean annotations;
+    private boolean springExtension;
+    private boolean guiceExtension;
+    private boolean cdiExtension;
+    private int strategyThreads = 1;
+    private int knowledgeSourceThreads = 1;
+    private boolean flightRecording;
+    private boolean planning;
+    private double runAllThreshold = 0.8;
+    private boolean selectionCaching;
+    private String stateCache;
+    private boolean stateSnapshots;
+    private boolean keyValueStore;
+
+    private Set<EdgeType> edgeTypes = new HashSet<>();
+
+    /**
+     * DI frameworks detected in the module, null if frameworks are not detected
+     */
+    private Set<DIFramework> detectedFrameworks;
+
+    /**
+     * Patterns of surefire's TestListResolver in the form of its test parameter, null if there is no test filter
+     */
+    private String testFilter;
+
+    //##################################################################################################################
+    // Constructors
+
+    public DaemonRequest() {
+    }
+
+    public DaemonRequest(String command) {
+        this.command = command;
+    }
+
+    //##################################################################################################################
+    // Methods
+
+    /**
+     * Stores the patterns of a test filter, so that it can be recreated by the daemon
+     */
+    public void applyTestFilter(TestFilter<String, String> testFilter) {
+        if (testFilter instanceof TestListResolver) {
+            // excluded patterns are prefixed with "!"
+            this.testFilter = ((TestListResolver) testFilter).getPluginParameterTest();
+        } else {
+            this.testFilter = null;
+        }
+    }
+
+    /**
+     * @return the test filter described by the stored patterns, null if there is none
+     */
+    public TestFilter<String, String> createTestFilter() {
+        if (testFilter == null)
+            return null;
+        return new TestListResolver(testFilter);
+    }
+
+    //##################################################################################################################
+    // Getters and setters used by jackson
+
+    public String getCommand() {
+        return command;
+    }
+
+    public void setCommand(String command) {
+        this.command = command;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public String getRootPath() {
+        return rootPath;
+    }
+
+    public void setRootPath(String rootPath) {
+        this.rootPath = rootPath;
+    }
+
+    public String getSubPath() {
+        return subPath;
+    }
+
+    public void setSubPath(String subPath) {
+        this.subPath = subPath;
+    }
+
+    public String getLevel() {
+        return level;
+    }
+
+    public void setLevel(String level) {
+        this.level = level;
+    }
+
+    public String getLogging() {
+        return logging;
+    }
+
+    public void setLogging(String logging) {
+        this.logging = logging;
+    }
+
+    public boolean isRestrictive() {
+        return restrictive;
+    }
+
+    public void setRestrictive(boolean restrictive) {
+        this.restrictive = restrictive;
+    }
+
+    public boolean isAnnotations() {
+        return annotations;
+    }
+
+    public void setAnnotations(boolean annotations) {
+        this.annotations = annotations;
+    }
+
+    public boolean isSpringExtension() {
+        return springExtension;
+    }
+
+    public void setSpringExtension(boolean springExtension) {
+        this.springExtension = springExtension;
+    }
+
+    public boolean isGuiceExtension() {
+        return guiceExtension;
+    }
+
+    public void setGuiceExtension(boolean guiceExtension) {
+        this.guiceExtension = guiceExtension;
+    }
+
+    public boolean isCdiExtension() {
+        return cdiExtension;
+    }
+
+    public void setCdiExtension(boolean cdiExtension) {
+        this.cdiExtension = cdiExtension;
+    }
+
+    public int getStrategyThreads() {
+        return strategyThreads;
+    }
+
+    public void setStrategyThreads(int strategyThreads) {
+        this.strategyThreads = strategyThreads;
+    }
+
+    public int getKnowledgeSourceThreads() {
+        return knowledgeSourceThreads;
+    }
+
+    public void setKnowledgeSourceThreads(int knowledgeSourceThreads) {
+        this.knowledgeSourceThreads = knowledgeSourceThreads;
+    }
+
+    public boolean isFlightRecording() {
+        return flightRecording;
+    }
+
+    public void setFlightRecording(boolean flightRecording) {
+        this.flightRecording = flightRecording;
+    }
+
+    public boolean isPlanning() {
+        return planning;
+    }
+
+    public void setPlanning(boolean planning) {
+        this.planning = planning;
+    }
+
+    public double getRunAllThreshold() {
+        return runAllThreshold;
+    }
+
+    public void setRunAllThreshold(double runAllThreshold) {
+        this.runAllThreshold = runAllThreshold;
+    }
+
+    public boolean isSelectionCaching() {
+        return selectionCaching;
+    }
+
+    public void setSelectionCaching(boolean selectionCaching) {
+        this.selectionCaching = selectionCaching;
+    }
+
+    public String getStateCache() {
+        return stateCache;
+    }
+
+    public void setStateCache(String stateCache) {
+        this.stateCache = stateCache;
+    }
+
+    public boolean isStateSnapshots() {
+        return stateSnapshots;
+    }
+
+    public void setStateSnapshots(boolean stateSnapshots) {
+        this.stateSnapshots = stateSnapshots;
+    }
+
+    public boolean isKeyValueStore() {
+        return keyValueStore;
+    }
+
+    public void setKeyValueStore(boolean keyValueStore) {
+        this.keyValueStore = keyValueStore;
+    }
+
+    public Set<EdgeType> getEdgeTypes() {
+        return edgeTypes;
+    }
+
+    public void setEdgeTypes(Set<EdgeType> edgeTypes) {
+        this.edgeTypes = edgeTypes;
+    }
+
+    public Set<DIFramework> getDetectedFrameworks() {
+        return detectedFrameworks;
+    }
+
+    public void setDetectedFrameworks(Set<DIFramework> detectedFrameworks) {
+        this.detectedFrameworks = detectedFrameworks;
+    }
+
+    public String getTestFilter() {
+        return testFilter;
+    }
+
+    public void setTestFilter(String testFilter) {
+        this.testFilter = testFilter;
+    }
+}
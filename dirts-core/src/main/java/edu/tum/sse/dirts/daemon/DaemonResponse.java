@@ -0,0 +1,119 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.daemon;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Response of the daemon
+ */
+public class DaemonResponse {
+
+    //##################################################################################################################
+    // Attributes
+
+    /**
+     * Message describing why the analysis failed, null if it succeeded
+     */
+    private String error;
+
+    /**
+     * Tests that are not affected, i.e. the entry with key null of the selected tests
+     */
+    private Set<String> notAffected;
+
+    /**
+     * Tests that are affected, grouped by the node that affects them
+     */
+    private Map<String, Set<String>> affected;
+
+    private String graph;
+
+    //##################################################################################################################
+    // Constructors
+
+    public DaemonResponse() {
+    }
+
+    public static DaemonResponse failed(String error) {
+        DaemonResponse response = new DaemonResponse();
+        response.error = error;
+        return response;
+    }
+
+    public static DaemonResponse selected(Map<String, Set<String>> selectedTests) {
+        DaemonResponse response = new DaemonResponse();
+        if (selectedTests != null) {
+            response.affected = new HashMap<>(selectedTests);
+            response.notAffected = response.affected.remove(null);
+        }
+        return response;
+    }
+
+    public static DaemonResponse graph(String graph) {
+        DaemonResponse response = new DaemonResponse();
+        response.graph = graph;
+        return response;
+    }
+
+    //##################################################################################################################
+    // Methods
+
+    /**
+     * @return selected tests in the format returned by Control.getSelectedTests(), null if there are none
+     */
+    public Map<String, Set<String>> toSelectedTests() {
+        if (affected == null)
+            return null;
+        Map<String, Set<String>> selectedTests = new HashMap<>(affected);
+        selectedTests.put(null, notAffected == null ? Set.of() : notAffected);
+        return selectedTests;
+    }
+
+    //##################################################################################################################
+    // Getters and setters used by jackson
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Set<String> getNotAffected() {
+        return notAffected;
+    }
+
+    public void setNotAffected(Set<String> notAffected) {
+        this.notAffected = notAffected;
+    }
+
+    public Map<String, Set<String>> getAffected() {
+        return affected;
+    }
+
+    public void setAffected(Map<String, Set<String>> affected) {
+        this.affected = affected;
+    }
+
+    public String getGraph() {
+        return graph;
+    }
+
+    public void setGraph(String graph) {
+        this.graph = graph;
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.daemon;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import edu.tum.sse.dirts.core.Blackboard;
+import edu.tum.sse.dirts.core.control.ClassLevelControl;
+import edu.tum.sse.dirts.core.control.Control;
+import edu.tum.sse.dirts.core.control.MethodLevelControl;
+import edu.tum.sse.dirts.core.strategies.DependencyStrategies;
+import edu.tum.sse.dirts.util.AnalysisContext;
+import edu.tum.sse.dirts.util.DirtsUtil;
+import edu.tum.sse.dirts.util.Log;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.SecureRandom;
+import java.util.Properties;
+import java.util.logging.Level;
+
+import static java.util.logging.Level.INFO;
+import static java.util.logging.Level.WARNING;
+
+/**
+ * Long-lived process that keeps type solvers and parsed compilation units in memory between two runs of DIRTS
+ * <p>
+ * The daemon listens on a socket bound to the loopback address. Port and a random token are written to
+ * `.dirts/daemon` in the outermost project, only clients that are able to read this file can send requests.
+ * Requests are processed one after another, since the analysis relies on static configuration.
+ */
+public class DirtsDaemon {
+
+    //##################################################################################################################
+    // Static constants
+
+    public static final int DEFAULT_IDLE_TIMEOUT_MINUTES = 180;
+
+    static final String PORT = "port";
+    static final String TOKEN = "token";
+    static final String PID = "pid";
+
+    private final static ObjectMapper objectMapper = new ObjectMapper();
+
+    //##################################################################################################################
+    // Attributes
+
+    private final Path rootPath;
+    private final int idleTimeoutMinutes;
+    private final String token;
+
+    private final WarmState warmState = new WarmState();
+
+    private boolean running = true;
+
+    //##################################################################################################################
+    // Constructors
+
+    public DirtsDaemon(Path rootPath, int idleTimeoutMinutes) {
+        this.rootPath = rootPath;
+        this.idleTimeoutMinutes = idleTimeoutMinutes;
+
+        byte[] bytes = new byte[16];
+        new SecureRandom().nextBytes(bytes);
+        StringBuilder token = new StringBuilder();
+        for (byte b : bytes) {
+            token.append(String.format("%02x", b));
+        }
+        this.token = token.toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path rootPath = Path.of(args[0]).toAbsolutePath();
+        int idleTimeoutMinutes = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_IDLE_TIMEOUT_MINUTES;
+        new DirtsDaemon(rootPath, idleTimeoutMinutes).run();
+    }
+
+    //##################################################################################################################
+    // Methods
+
+    public void run() throws IOException {
+        Path infoPath = DirtsUtil.getDaemonPath(rootPath);
+        try (ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            serverSocket.setSoTimeout(idleTimeoutMinutes * 60 * 1000);
+            writeInfo(infoPath, serverSocket.getLocalPort());
+            Log.log(INFO, "DIRTS daemon for " + rootPath + " listening on port " + serverSocket.getLocalPort());
+
+            while (running) {
+                try (Socket socket = serverSocket.accept()) {
+                    handle(socket);
+                } catch (SocketTimeoutException e) {
+                    Log.log(INFO, "DIRTS daemon has been idle for " + idleTimeoutMinutes + " minutes, stopping");
+                    running = false;
+                } catch (IOException e) {
+                    Log.errLog(WARNING, "Failed to process request: " + e.getMessage());
+                }
+            }
+        } finally {
+            Files.deleteIfExists(infoPath);
+        }
+    }
+
+    private void handle(Socket socket) throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        String line = reader.readLine();
+        if (line == null)
+            return;
+
+        DaemonResponse response = handle(objectMapper.readValue(line, DaemonRequest.class));
+
+        Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+        writer.write(objectMapper.writeValueAsString(response));
+        writer.write('\n');
+        writer.flush();
+    }
+
+    DaemonResponse handle(DaemonRequest request) {
+        if (!token.equals(request.getToken()))
+            return DaemonResponse.failed("Invalid token");
+
+        String command = String.valueOf(request.getCommand());
+        switch (command) {
+            case DaemonRequest.STOP:
+                Log.log(INFO, "DIRTS daemon has been asked to stop");
+                running = false;
+                return new DaemonResponse();
+            case DaemonRequest.SELECT:
+            case DaemonRequest.GRAPH:
+                try {
+                    return analyze(request);
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                    return DaemonResponse.failed(e.toString());
+                } finally {
+                    warmState.afterAnalysis();
+                }
+            default:
+                return DaemonResponse.failed("Unknown command " + command);
+        }
+    }
+
+    private DaemonResponse analyze(DaemonRequest request) {
+        AnalysisContext context = new AnalysisContext();
+        context.setLogLevel(Level.parse(request.getLogging()));
+        context.setRestrictive(request.isRestrictive());
+        context.setConsiderAnnotationsAsDependencies(request.isAnnotations());
+
+        try (AnalysisContext.Scope ignored = context.bind()) {
+            return doAnalyze(request);
+        }
+    }
+
+    private DaemonResponse doAnalyze(DaemonRequest request) {
+        Path rootPath = Path.of(request.getRootPath());
+        Path subPath = Path.of(request.getSubPath());
+        boolean select = DaemonRequest.SELECT.equals(request.getCommand());
+
+        Log.log(INFO, "Analyzing " + rootPath.resolve(subPath) + " (" + request.getLevel() + ")");
+
+        Control<?> control;
+        if (DaemonRequest.METHOD_LEVEL.equals(request.getLevel())) {
+            Blackboard<BodyDeclaration<?>> blackboard =
+                    new Blackboard<>(rootPath, subPath, DaemonRequest.METHOD_LEVEL);
+            configure(blackboard, request);
+            DependencyStrategies.addMethodLevelStrategies(blackboard,
+                    request.isSpringExtension(), request.isGuiceExtension(), request.isCdiExtension());
+            control = new MethodLevelControl(blackboard, select);
+        } else {
+            Blackboard<TypeDeclaration<?>> blackboard =
+                    new Blackboard<>(rootPath, subPath, DaemonRequest.CLASS_LEVEL);
+            configure(blackboard, request);
+            DependencyStrategies.addClassLevelStrategies(blackboard,
+                    request.isSpringExtension(), request.isGuiceExtension(), request.isCdiExtension());
+            control = new ClassLevelControl(blackboard, select);
+        }
+
+        if (select) {
+            return DaemonResponse.selected(control.getSelectedTests(request.getEdgeTypes()));
+        } else {
+            return DaemonResponse.graph(control.visualizeDependencyGraph());
+        }
+    }
+
+    private void configure(Blackboard<?> blackboard, DaemonRequest request) {
+        blackboard.setStrategyThreads(request.getStrategyThreads());
+        blackboard.setKnowledgeSourceThreads(request.getKnowledgeSourceThreads());
+        blackboard.setFlightRecording(request.isFlightRecording());
+        blackboard.setPlanning(request.isPlanning());
+        blackboard.setRunAllThreshold(request.getRunAllThreshold());
+        blackboard.setSelectionCaching(request.isSelectionCaching());
+        blackboard.setStateCachePath(request.getStateCache() == null ? null : Path.of(request.getStateCache()));
+        blackboard.setStateSnapshots(request.isStateSnapshots());
+        blackboard.setKeyValueStore(request.isKeyValueStore());
+        blackboard.setTestFilter(request.createTestFilter());
+        blackboard.setDetectedFrameworks(request.getDetectedFrameworks());
+        blackboard.setWarmState(warmState);
+    }
+
+    //##################################################################################################################
+    // Auxiliary methods
+
+    private void writeInfo(Path infoPath, int port) throws IOException {
+        Properties info = new Properties();
+        info.setProperty(PORT, String.valueOf(port));
+        info.setProperty(TOKEN, token);
+        info.setProperty(PID, String.valueOf(ProcessHandle.current().pid()));
+
+        Files.createDirectories(infoPath.getParent());
+        Path tmpPath = infoPath.resolveSibling(infoPath.getFileName() + ".tmp");
+        Files.deleteIfExists(tmpPath);
+        try {
+            Files.createFile(tmpPath, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } catch (UnsupportedOperationException e) {
+            Files.createFile(tmpPath);
+        }
+        try (Writer writer = Files.newBufferedWriter(tmpPath)) {
+            info.store(writer, "DIRTS daemon");
+        }
+        Files.move(tmpPath, infoPath, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * @return port and token of the daemon running for this project, null if there is none
+     */
+    static Properties readInfo(Path rootPath) {
+        Path infoPath = DirtsUtil.getDaemonPath(rootPath);
+        if (!Files.exists(infoPath))
+            return null;
+        Properties info = new Properties();
+        try (Reader reader = Files.newBufferedReader(infoPath)) {
+            info.load(reader);
+        } catch (IOException e) {
+            return null;
+        }
+        return info.containsKey(PORT) && info.containsKey(TOKEN) ? info : null;
+    }
+}
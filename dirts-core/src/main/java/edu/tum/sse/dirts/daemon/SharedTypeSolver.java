@@ -0,0 +1,64 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.daemon;
+
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.symbolsolver.model.resolution.SymbolReference;
+import com.github.javaparser.symbolsolver.model.resolution.TypeSolver;
+
+import java.util.Objects;
+
+/**
+ * Makes a TypeSolver that is kept across several analyses available to the CombinedTypeSolver of a single analysis
+ * <p>
+ * A TypeSolver can only be assigned to one parent. The shared TypeSolver keeps its own root, so that it only resolves
+ * the types it knows itself, while this wrapper is attached to the TypeSolver of the current analysis.
+ */
+class SharedTypeSolver implements TypeSolver {
+
+    //##################################################################################################################
+    // Attributes
+
+    private final TypeSolver delegate;
+
+    private TypeSolver parent;
+
+    //##################################################################################################################
+    // Constructors
+
+    SharedTypeSolver(TypeSolver delegate) {
+        this.delegate = delegate;
+    }
+
+    //##################################################################################################################
+    // Methods
+
+    @Override
+    public TypeSolver getParent() {
+        return parent;
+    }
+
+    @Override
+    public void setParent(TypeSolver parent) {
+        Objects.requireNonNull(parent);
+        if (this.parent != null) {
+            throw new IllegalStateException("This TypeSolver already has a parent.");
+        }
+        this.parent = parent;
+    }
+
+    @Override
+    public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
+        return delegate.tryToSolveType(name);
+    }
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.daemon;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.DataKey;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFacade;
+import com.github.javaparser.symbolsolver.model.resolution.TypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.JarTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import com.github.javaparser.utils.SourceRoot;
+import edu.tum.sse.dirts.analysis.def.checksum.ChecksumVisitor;
+import edu.tum.sse.dirts.util.Log;
+
+import javax.lang.model.SourceVersion;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.WARNING;
+
+/**
+ * State that is kept in memory by the daemon between two analyses
+ * <p>
+ * Contains the TypeSolvers for the jars of the maven dependencies and the compilation units of all source roots that
+ * have been parsed so far. A compilation unit is only parsed again if the size or the modification time of its file
+ * has changed. Checksums of nodes in reused compilation units are not computed again.
+ */
+public class WarmState {
+
+    //##################################################################################################################
+    // Static constants
+
+    /**
+     * Maximum number of distinct sets of libraries whose TypeSolvers are kept
+     */
+    private static final int MAX_LIBRARY_TYPE_SOLVERS = 32;
+
+    /**
+     * Checksums of a node, by the class of the ChecksumVisitor that computed them
+     */
+    private static final DataKey<Map<Class<?>, Integer>> CHECKSUMS = new DataKey<>() {
+    };
+
+    //##################################################################################################################
+    // Attributes
+
+    private final Map<List<String>, TypeSolver> libraryTypeSolvers =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<List<String>, TypeSolver> eldest) {
+                    return size() > MAX_LIBRARY_TYPE_SOLVERS;
+                }
+            };
+
+    private final Map<Path, Map<Path, CachedCompilationUnit>> compilationUnits = new HashMap<>();
+
+    //##################################################################################################################
+    // Methods
+
+    /**
+     * Provides a TypeSolver for the jars of the maven dependencies
+     * <p>
+     * The TypeSolver is reused as long as none of the jars has changed.
+     *
+     * @param jars paths of the jars
+     * @return a TypeSolver that can be added to the CombinedTypeSolver of the current analysis
+     */
+    public synchronized TypeSolver getLibraryTypeSolver(List<Path> jars) {
+        List<String> key = new ArrayList<>();
+        for (Path jar : jars) {
+            key.add(jar.toAbsolutePath() + "@" + fingerprint(jar));
+        }
+
+        TypeSolver typeSolver = libraryTypeSolvers.get(key);
+        if (typeSolver == null) {
+            CombinedTypeSolver combinedTypeSolver = new CombinedTypeSolver();
+            combinedTypeSolver.add(new ReflectionTypeSolver());
+            for (Path jar : jars) {
+                try {
+                    combinedTypeSolver.add(new JarTypeSolver(jar));
+                } catch (IOException e) {
+                    Log.errLog(WARNING, "Failed to add resolver for jar:" + jar);
+                }
+            }
+            libraryTypeSolvers.put(key, combinedTypeSolver);
+            typeSolver = combinedTypeSolver;
+        } else {
+            Log.log(FINE, "Reusing resolvers for " + jars.size() + " jars");
+        }
+        return new SharedTypeSolver(typeSolver);
+    }
+
+    /**
+     * Parses all files in a SourceRoot, reusing the compilation units of files that have not changed
+     * <p>
+     * Like SourceRoot.tryToParse(), only successfully parsed compilation units are returned.
+     *
+     * @param sourceRoot the SourceRoot, including the configuration of the parser
+     * @return compilation units of this SourceRoot
+     */
+    public synchronized List<CompilationUnit> parse(SourceRoot sourceRoot) throws IOException {
+        return parse(sourceRoot, null);
+    }
+
+    /**
+     * Parses all files in a SourceRoot, only checking the given files for changes
+     * <p>
+     * Compilation units of files that are not among the changed paths are reused without looking at the file system.
+     * The whole SourceRoot is checked as usual if it has not been parsed before or if a changed path is an existing
+     * directory, i.e. events for the files in that directory may have been lost.
+     *
+     * @param sourceRoot   the SourceRoot, including the configuration of the parser
+     * @param changedFiles files and directories that may have changed since the last call, null if unknown
+     * @return compilation units of this SourceRoot
+     */
+    public synchronized List<CompilationUnit> parse(SourceRoot sourceRoot, Set<Path> changedFiles)
+            throws IOException {
+        Path root = sourceRoot.getRoot().toAbsolutePath();
+        ParserConfiguration configuration = sourceRoot.getParserConfiguration();
+        JavaParser javaParser = new JavaParser(configuration);
+
+        Map<Path, CachedCompilationUnit> previous = compilationUnits.getOrDefault(root, Map.of());
+        Map<Path, CachedCompilationUnit> current = new HashMap<>();
+        List<CompilationUnit> ret = new ArrayList<>();
+
+        List<Path> changed = null;
+        if (changedFiles != null && compilationUnits.containsKey(root)) {
+            changed = new ArrayList<>();
+            for (Path changedFile : changedFiles) {
+                changedFile = changedFile.toAbsolutePath();
+                if (Files.isDirectory(changedFile)) {
+                    changed = null;
+                    break;
+                }
+                changed.add(changedFile);
+            }
+        }
+
+        List<Path> files;
+        if (changed == null) {
+            files = collectJavaFiles(root);
+        } else {
+            Set<Path> candidates = new TreeSet<>(previous.keySet());
+            for (Path changedFile : changed) {
+                if (isJavaFileInPackage(root, changedFile)) {
+                    candidates.add(changedFile);
+                }
+            }
+            files = new ArrayList<>(candidates);
+        }
+
+        int reused = 0;
+        for (Path file : files) {
+            CachedCompilationUnit cached = previous.get(file);
+            if (cached != null && changed != null && !isAffected(file, changed)) {
+                reuse(cached, configuration);
+                current.put(file, cached);
+                ret.add(cached.compilationUnit);
+                reused++;
+                continue;
+            }
+            if (changed != null && !Files.isRegularFile(file)) {
+                // the file has been deleted
+                continue;
+            }
+
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            long size = attributes.size();
+
+            if (cached != null && cached.lastModified == lastModified && cached.size == size) {
+                reuse(cached, configuration);
+                reused++;
+            } else {
+                ParseResult<CompilationUnit> result = javaParser.parse(file);
+                if (!result.isSuccessful()) {
+                    continue;
+                }
+                CompilationUnit compilationUnit = result.getResult().orElseThrow();
+                compilationUnit.setStorage(file, configuration.getCharacterEncoding());
+                cached = new CachedCompilationUnit(compilationUnit, lastModified, size);
+            }
+            current.put(file, cached);
+            ret.add(cached.compilationUnit);
+        }
+        compilationUnits.put(root, current);
+
+        Log.log(FINE, "Reused " + reused + " of " + ret.size() + " compilation units in " + root);
+        return ret;
+    }
+
+    /**
+     * Computes the checksum of a node, the result is stored in the node itself
+     * <p>
+     * Checksums only depend on the syntax of a node, they stay valid as long as its compilation unit is reused.
+     */
+    public int checksum(Node node, ChecksumVisitor<?> checksumVisitor) {
+        Map<Class<?>, Integer> checksums;
+        if (node.containsData(CHECKSUMS)) {
+            checksums = node.getData(CHECKSUMS);
+        } else {
+            checksums = new HashMap<>(2);
+            node.setData(CHECKSUMS, checksums);
+        }
+        return checksums.computeIfAbsent(checksumVisitor.getClass(), k -> checksumVisitor.hashCode(node));
+    }
+
+    /**
+     * Releases the caches JavaParser keeps for the TypeSolvers of the last analysis
+     */
+    public void afterAnalysis() {
+        JavaParserFacade.clearInstances();
+    }
+
+    //##################################################################################################################
+    // Auxiliary methods
+
+    /**
+     * Collects java files the same way as SourceRoot does, i.e. skipping directories that cannot be part of a package
+     */
+    private static List<Path> collectJavaFiles(Path root) throws IOException {
+        List<Path> files = new ArrayList<>();
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (!dir.equals(root) && !SourceVersion.isIdentifier(dir.getFileName().toString())) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (!attrs.isDirectory() && file.toString().endsWith(".java")) {
+                    files.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        Collections.sort(files);
+        return files;
+    }
+
+    private static void reuse(CachedCompilationUnit cached, ParserConfiguration configuration) {
+        // the resolver of the previous analysis refers to outdated TypeSolvers
+        CompilationUnit compilationUnit = cached.compilationUnit;
+        configuration.getSymbolResolver()
+                .ifPresent(symbolResolver -> compilationUnit.setData(Node.SYMBOL_RESOLVER_KEY, symbolResolver));
+    }
+
+    /**
+     * @return whether the file is one of the changed paths or lies in a changed directory that has been deleted
+     */
+    private static boolean isAffected(Path file, List<Path> changed) {
+        for (Path changedFile : changed) {
+            if (file.startsWith(changedFile)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a file would be collected by collectJavaFiles(root)
+     */
+    private static boolean isJavaFileInPackage(Path root, Path file) {
+        if (!file.startsWith(root) || file.equals(root) || !file.toString().endsWith(".java")) {
+            return false;
+        }
+        Path directory = root.relativize(file).getParent();
+        if (directory != null) {
+            for (Path name : directory) {
+                if (!SourceVersion.isIdentifier(name.toString())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static String fingerprint(Path file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return attributes.lastModifiedTime().toMillis() + ":" + attributes.size();
+        } catch (IOException e) {
+            return "missing";
+        }
+    }
+
+    private static class CachedCompilationUnit {
+
+        private final CompilationUnit compilationUnit;
+        private final long lastModified;
+        private final long size;
+
+        private CachedCompilationUnit(CompilationUnit compilationUnit, long lastModified, long size) {
+            this.compilationUnit = compilationUnit;
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+    }
+}
@@ -15,7 +15,10 @@ package edu.tum.sse.dirts.graph;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.tum.sse.dirts.util.KeyValueStore;
 import edu.tum.sse.dirts.util.Log;
+import edu.tum.sse.dirts.util.metrics.Counter;
+import edu.tum.sse.dirts.util.metrics.Metrics;
 
 import java.util.*;
 import java.util.logging.Level;
@@ -25,6 +28,16 @@ import java.util.logging.Level;
  */
 public class DependencyGraph {
 
+    //##################################################################################################################
+    // Constants
+
+    /**
+     * Prefixes of the keys of nodes and edges in a {@link KeyValueStore}
+     */
+    private static final String NODES_PREFIX = "node\t";
+    private static final String FORWARDS_EDGES_PREFIX = "forwards\t";
+    private static final String BACKWARDS_EDGES_PREFIX = "backwards\t";
+
     //##################################################################################################################
     // Attributes
 
@@ -134,6 +147,7 @@ public class DependencyGraph {
             addNode(to);
 
         edges.put(from, to, type);
+        Metrics.count(Counter.EDGES_ADDED);
     }
 
     /**
@@ -155,7 +169,9 @@ public class DependencyGraph {
      */
     @SuppressWarnings("UnusedReturnValue")
     public Set<String> removeAllEdgesFrom(String from, Set<EdgeType> affectedEdges) {
-        return edges.removeRegularEntries(from, affectedEdges);
+        Set<String> ret = edges.removeRegularEntries(from, affectedEdges);
+        Metrics.count(Counter.EDGES_REMOVED, ret.size());
+        return ret;
     }
 
     /**
@@ -166,7 +182,72 @@ public class DependencyGraph {
      * @return names of the nodes that are at the start of removed edges
      */
     public Set<String> removeAllEdgesTo(String to, Set<EdgeType> affectedEdges) {
-        return edges.removeInverseEntries(to, affectedEdges);
+        Set<String> ret = edges.removeInverseEntries(to, affectedEdges);
+        Metrics.count(Counter.EDGES_REMOVED, ret.size());
+        return ret;
+    }
+
+    /**
+     * Computes all nodes that reach one of the given nodes in the transitive closure of the graph
+     *
+     * @param targets nodes that should be reached
+     * @return reaching nodes, including the targets themselves
+     */
+    public Set<String> reachingNodes(Collection<String> targets) {
+        Queue<String> queue = new LinkedList<>(targets);
+        Set<String> reached = new HashSet<>(queue);
+
+        while (!queue.isEmpty()) {
+            Map<String, Set<EdgeType>> edges = getBackwardsEdges().get(queue.poll());
+            if (edges != null)
+                for (String outgoingNode : edges.keySet()) {
+                    if (reached.add(outgoingNode)) {
+                        queue.add(outgoingNode);
+                    }
+                }
+        }
+
+        return reached;
+    }
+
+    /**
+     * @param oldRevision the graph this graph has been derived from
+     * @return changes that turn the old revision into this graph
+     */
+    public GraphDelta deltaFrom(DependencyGraph oldRevision) {
+        GraphDelta delta = new GraphDelta();
+        delta.setNodes(MapDelta.between(oldRevision.nodes, nodes));
+        delta.setForwardsEdges(MapDelta.between(oldRevision.getForwardsEdges(), getForwardsEdges()));
+        delta.setBackwardsEdges(MapDelta.between(oldRevision.getBackwardsEdges(), getBackwardsEdges()));
+        return delta;
+    }
+
+    /**
+     * @return copy of this graph that can be modified independently
+     */
+    public DependencyGraph copy() {
+        DependencyGraph copy = new DependencyGraph();
+        copy.applyDelta(deltaFrom(copy));
+        return copy;
+    }
+
+    /**
+     * Applies changes computed by {@link #deltaFrom(DependencyGraph)}
+     */
+    public void applyDelta(GraphDelta delta) {
+        delta.getNodes().applyTo(nodes, HashSet::new);
+        delta.getForwardsEdges().applyTo(
+                (from, to) -> edges.setRegularEntries(from, copyEdges(to)),
+                from -> edges.setRegularEntries(from, null));
+        delta.getBackwardsEdges().applyTo(
+                (to, from) -> edges.setInverseEntries(to, copyEdges(from)),
+                to -> edges.setInverseEntries(to, null));
+    }
+
+    private static Map<String, Set<EdgeType>> copyEdges(Map<String, Set<EdgeType>> edges) {
+        Map<String, Set<EdgeType>> copy = new HashMap<>();
+        edges.forEach((node, edgeTypes) -> copy.put(node, new HashSet<>(edgeTypes)));
+        return copy;
     }
 
     //##################################################################################################################
@@ -186,6 +267,42 @@ public class DependencyGraph {
         return nodesString + "\n\n" + forwardsString + "\n\n" + backwardsString;
     }
 
+    /**
+     * Adds one entry per node and per source and target of edges to the entries of a {@link KeyValueStore}
+     */
+    public void serializeEntries(Map<String, String> entries) throws JsonProcessingException {
+        ObjectMapper mapper = new ObjectMapper();
+        for (Map.Entry<String, Set<String>> node : nodes.entrySet())
+            entries.put(NODES_PREFIX + node.getKey(), mapper.writeValueAsString(node.getValue()));
+        for (Map.Entry<String, Map<String, Set<EdgeType>>> edge : getForwardsEdges().entrySet())
+            entries.put(FORWARDS_EDGES_PREFIX + edge.getKey(), mapper.writeValueAsString(edge.getValue()));
+        for (Map.Entry<String, Map<String, Set<EdgeType>>> edge : getBackwardsEdges().entrySet())
+            entries.put(BACKWARDS_EDGES_PREFIX + edge.getKey(), mapper.writeValueAsString(edge.getValue()));
+    }
+
+    /**
+     * Reads a graph written by {@link #serializeEntries(Map)}
+     */
+    public static DependencyGraph deserializeEntries(KeyValueStore store) throws JsonProcessingException {
+        ObjectMapper mapper = new ObjectMapper();
+        TypeReference<Set<String>> typeRefMessages = new TypeReference<>() {
+        };
+        TypeReference<Map<String, Set<EdgeType>>> typeRefEdges = new TypeReference<>() {
+        };
+
+        Map<String, Set<String>> nodes = new HashMap<>();
+        for (Map.Entry<String, String> node : store.prefixMap(NODES_PREFIX, v -> v).entrySet())
+            nodes.put(node.getKey(), mapper.readValue(node.getValue(), typeRefMessages));
+        Map<String, Map<String, Set<EdgeType>>> forwardsEdges = new HashMap<>();
+        for (Map.Entry<String, String> edge : store.prefixMap(FORWARDS_EDGES_PREFIX, v -> v).entrySet())
+            forwardsEdges.put(edge.getKey(), mapper.readValue(edge.getValue(), typeRefEdges));
+        Map<String, Map<String, Set<EdgeType>>> backwardsEdges = new HashMap<>();
+        for (Map.Entry<String, String> edge : store.prefixMap(BACKWARDS_EDGES_PREFIX, v -> v).entrySet())
+            backwardsEdges.put(edge.getKey(), mapper.readValue(edge.getValue(), typeRefEdges));
+
+        return new DependencyGraph(nodes, forwardsEdges, backwardsEdges);
+    }
+
     public static DependencyGraph deserializeGraph(String input) throws JsonProcessingException {
         ObjectMapper mapper = new ObjectMapper();
         String[] split = input.split("\n\n");
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.graph;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Changes that turn one revision of a {@link DependencyGraph} into another, per node and per source and target of
+ * edges
+ */
+public class GraphDelta {
+
+    private MapDelta<Set<String>> nodes = new MapDelta<>();
+    private MapDelta<Map<String, Set<EdgeType>>> forwardsEdges = new MapDelta<>();
+    private MapDelta<Map<String, Set<EdgeType>>> backwardsEdges = new MapDelta<>();
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return nodes.isEmpty() && forwardsEdges.isEmpty() && backwardsEdges.isEmpty();
+    }
+
+    public MapDelta<Set<String>> getNodes() {
+        return nodes;
+    }
+
+    public void setNodes(MapDelta<Set<String>> nodes) {
+        this.nodes = nodes;
+    }
+
+    public MapDelta<Map<String, Set<EdgeType>>> getForwardsEdges() {
+        return forwardsEdges;
+    }
+
+    public void setForwardsEdges(MapDelta<Map<String, Set<EdgeType>>> forwardsEdges) {
+        this.forwardsEdges = forwardsEdges;
+    }
+
+    public MapDelta<Map<String, Set<EdgeType>>> getBackwardsEdges() {
+        return backwardsEdges;
+    }
+
+    public void setBackwardsEdges(MapDelta<Map<String, Set<EdgeType>>> backwardsEdges) {
+        this.backwardsEdges = backwardsEdges;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.graph;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Changes that turn one map into another, values of changed keys are replaced as a whole
+ */
+public class MapDelta<V> {
+
+    //##################################################################################################################
+    // Attributes
+
+    private Map<String, V> put = new HashMap<>();
+    private Set<String> removed = new HashSet<>();
+
+    //##################################################################################################################
+    // Methods
+
+    /**
+     * @return changes that turn the old map into the new map
+     */
+    public static <V> MapDelta<V> between(Map<String, V> oldMap, Map<String, V> newMap) {
+        MapDelta<V> delta = new MapDelta<>();
+        newMap.forEach((key, value) -> {
+            if (!oldMap.containsKey(key) || !Objects.equals(oldMap.get(key), value))
+                delta.put.put(key, value);
+        });
+        oldMap.keySet().forEach(key -> {
+            if (!newMap.containsKey(key))
+                delta.removed.add(key);
+        });
+        return delta;
+    }
+
+    /**
+     * Applies the changes to the map
+     *
+     * @param copy creates the value that is put into the map, since the delta may be applied to several maps
+     */
+    public void applyTo(Map<String, V> map, UnaryOperator<V> copy) {
+        applyTo((key, value) -> map.put(key, copy.apply(value)), map::remove);
+    }
+
+    /**
+     * Applies the changes to a structure that is not a plain map
+     */
+    public void applyTo(BiConsumer<String, V> putAction, Consumer<String> removeAction) {
+        removed.forEach(removeAction);
+        put.forEach(putAction);
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return put.isEmpty() && removed.isEmpty();
+    }
+
+    //##################################################################################################################
+    // Getters and setters
+
+    public Map<String, V> getPut() {
+        return put;
+    }
+
+    public void setPut(Map<String, V> put) {
+        this.put = put;
+    }
+
+    public Set<String> getRemoved() {
+        return removed;
+    }
+
+    public void setRemoved(Set<String> removed) {
+        this.removed = removed;
+    }
+}
@@ -220,6 +220,17 @@ public class ModificationGraph extends DependencyGraph {
                 .collect(Collectors.toMap(n -> n + modificationStatus.get(n), this::reachableNodes));
     }
 
+    /**
+     * Computes all nodes that reach a modified node in the transitive closure of the graph
+     *
+     * @return affected nodes, including the modified nodes themselves
+     */
+    public Set<String> affectedNodes() {
+        return reachingNodes(nodes.keySet().stream()
+                .filter(n -> modificationStatus.get(n).isRelevant())
+                .collect(Collectors.toList()));
+    }
+
     /**
      * Can be used to trace tests that are affected by a certain type of edge
      * <p>
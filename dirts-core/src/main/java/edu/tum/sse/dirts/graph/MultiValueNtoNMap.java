@@ -66,6 +66,33 @@ public class MultiValueNtoNMap<K, V> {
     }
 
 
+    /**
+     * Replaces the entries of a key in the regular map without updating the inverse map
+     * <p>
+     * Only meant to restore a state recorded for both maps, see {@link DependencyGraph#applyDelta(GraphDelta)}.
+     *
+     * @param entries the new entries, null to remove the key
+     */
+    void setRegularEntries(K k1, Map<K, Set<V>> entries) {
+        if (entries == null)
+            regularMap.remove(k1);
+        else
+            regularMap.put(k1, entries);
+    }
+
+    /**
+     * Replaces the entries of a key in the inverse map without updating the regular map
+     *
+     * @param entries the new entries, null to remove the key
+     * @see #setRegularEntries(Object, Map)
+     */
+    void setInverseEntries(K k2, Map<K, Set<V>> entries) {
+        if (entries == null)
+            inverseMap.remove(k2);
+        else
+            inverseMap.put(k2, entries);
+    }
+
     public void remove(K k) {
         if (regularMap.containsKey(k)) {
             regularMap.get(k).forEach((k2, values) -> inverseMap.get(k2).remove(k));
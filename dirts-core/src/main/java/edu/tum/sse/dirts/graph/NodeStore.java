@@ -0,0 +1,183 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.graph;
+
+import edu.tum.sse.dirts.util.SharedFiles;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Reactor-wide store of the nodes that have been affected by changes in the modules analyzed so far
+ * <p>
+ * The store is a single file in the outermost project, one record per line:
+ * {@code <module>\t<modification type>\t<node>}. Modules only append records for nodes whose status has changed, later
+ * records supersede earlier ones. Reading the store builds an index from node names to their latest record, so the
+ * work done per module is proportional to the number of changes, not to the size of the project.
+ */
+public class NodeStore {
+
+    //##################################################################################################################
+    // Constants
+
+    private static final char SEPARATOR = '\t';
+
+    /**
+     * Number of records that may be superseded before the file is compacted
+     */
+    private static final int COMPACTION_THRESHOLD = 1024;
+
+    //##################################################################################################################
+    // Attributes
+
+    private final Map<String, Record> index = new HashMap<>();
+    private int numberOfRecords = 0;
+
+    //##################################################################################################################
+    // Methods
+
+    /**
+     * Reads the store, an empty store is returned if the file does not exist
+     */
+    public static NodeStore read(Path path) throws IOException {
+        NodeStore nodeStore = new NodeStore();
+        nodeStore.load(SharedFiles.read(path));
+        return nodeStore;
+    }
+
+    /**
+     * Replaces the records of a module by the nodes that are now affected in this module
+     * <p>
+     * Nodes recorded for this module that are not affected anymore are marked as not modified.
+     *
+     * @param module        the module that has been analyzed
+     * @param affectedNodes nodes of this module that are affected and their modification type
+     */
+    public static void update(Path path, String module, Map<String, ModificationType> affectedNodes)
+            throws IOException {
+        SharedFiles.withLock(path, lockedPath -> {
+            NodeStore nodeStore = new NodeStore();
+            nodeStore.load(SharedFiles.read(lockedPath));
+
+            StringBuilder appended = new StringBuilder();
+            nodeStore.index.forEach((node, record) -> {
+                if (record.getModule().equals(module)
+                        && record.getModificationType().isRelevant()
+                        && !affectedNodes.containsKey(node)) {
+                    appendRecord(appended, module, ModificationType.NOT_MODIFIED, node);
+                }
+            });
+            affectedNodes.forEach((node, modificationType) -> {
+                Record record = nodeStore.index.get(node);
+                if (record == null
+                        || !record.getModule().equals(module)
+                        || record.getModificationType() != modificationType) {
+                    appendRecord(appended, module, modificationType, node);
+                }
+            });
+
+            if (appended.length() == 0)
+                return null;
+
+            nodeStore.load(appended.toString());
+            if (nodeStore.numberOfRecords - nodeStore.index.size() > COMPACTION_THRESHOLD) {
+                SharedFiles.writeAtomically(lockedPath, nodeStore.compacted());
+            } else {
+                Files.writeString(lockedPath, appended, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * @param module the module that is analyzed
+     * @return nodes of other modules that are affected by changes
+     */
+    public Set<String> getNodesAffectedOutside(String module) {
+        Set<String> result = new HashSet<>();
+        index.forEach((node, record) -> {
+            if (!record.getModule().equals(module) && record.getModificationType().isRelevant())
+                result.add(node);
+        });
+        return result;
+    }
+
+    public Optional<Record> getRecord(String node) {
+        return Optional.ofNullable(index.get(node));
+    }
+
+    //##################################################################################################################
+    // Auxiliary methods
+
+    private void load(String content) {
+        int start = 0;
+        int end;
+        // a line without line break may still be written by another process
+        while ((end = content.indexOf('\n', start)) >= 0) {
+            String line = content.substring(start, end);
+            start = end + 1;
+
+            int first = line.indexOf(SEPARATOR);
+            int second = first < 0 ? -1 : line.indexOf(SEPARATOR, first + 1);
+            if (second < 0)
+                continue;
+
+            ModificationType modificationType;
+            try {
+                modificationType = ModificationType.valueOf(line.substring(first + 1, second));
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            index.put(line.substring(second + 1), new Record(line.substring(0, first), modificationType));
+            numberOfRecords++;
+        }
+    }
+
+    private String compacted() {
+        StringBuilder content = new StringBuilder();
+        index.forEach((node, record) -> {
+            if (record.getModificationType().isRelevant())
+                appendRecord(content, record.getModule(), record.getModificationType(), node);
+        });
+        return content.toString();
+    }
+
+    private static void appendRecord(StringBuilder builder, String module, ModificationType type, String node) {
+        builder.append(module).append(SEPARATOR).append(type.name()).append(SEPARATOR).append(node).append('\n');
+    }
+
+    //##################################################################################################################
+    // Auxiliary classes
+
+    public static class Record {
+
+        private final String module;
+        private final ModificationType modificationType;
+
+        private Record(String module, ModificationType modificationType) {
+            this.module = module;
+            this.modificationType = modificationType;
+        }
+
+        public String getModule() {
+            return module;
+        }
+
+        public ModificationType getModificationType() {
+            return modificationType;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.util;
+
+import edu.tum.sse.dirts.util.naming_scheme.NamingState;
+
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+
+/**
+ * Configuration and state of a single execution of DIRTS
+ * <p>
+ * Several modules may be analyzed concurrently in the same JVM (e.g. using `mvn -T`), so everything that depends on
+ * the execution is kept in the context bound to the current thread instead of static fields.
+ * Tasks that are run on other threads have to be wrapped using wrap() to see the same context.
+ * Threads without a bound context use a default context.
+ */
+public class AnalysisContext {
+
+    //##################################################################################################################
+    // Static attributes
+
+    private static final AnalysisContext DEFAULT = new AnalysisContext();
+
+    private static final ThreadLocal<AnalysisContext> boundContext = new ThreadLocal<>();
+
+    //##################################################################################################################
+    // Attributes
+
+    private volatile Level logLevel = Level.WARNING;
+
+    /**
+     * Whether nodes that cannot be resolved should be ignored
+     */
+    private volatile boolean restrictive = false;
+
+    private volatile boolean considerAnnotationsAsDependencies = false;
+
+    /**
+     * Custom names of nodes that cannot be named otherwise, these have to be consistent within one execution
+     */
+    private final NamingState namingState = new NamingState();
+
+    //##################################################################################################################
+    // Methods
+
+    /**
+     * @return the context bound to the current thread
+     */
+    public static AnalysisContext current() {
+        AnalysisContext context = boundContext.get();
+        return context != null ? context : DEFAULT;
+    }
+
+    /**
+     * Binds this context to the current thread, until the returned scope is closed
+     */
+    public Scope bind() {
+        AnalysisContext previous = boundContext.get();
+        boundContext.set(this);
+        return () -> {
+            if (previous != null) {
+                boundContext.set(previous);
+            } else {
+                boundContext.remove();
+            }
+        };
+    }
+
+    /**
+     * Wraps a task, such that it runs in the context of the current thread when run on another thread
+     */
+    public static Runnable wrap(Runnable task) {
+        AnalysisContext context = current();
+        return () -> {
+            try (Scope ignored = context.bind()) {
+                task.run();
+            }
+        };
+    }
+
+    /**
+     * Wraps a task, such that it runs in the context of the current thread when run on another thread
+     */
+    public static <V> Callable<V> wrap(Callable<V> task) {
+        AnalysisContext context = current();
+        return () -> {
+            try (Scope ignored = context.bind()) {
+                return task.call();
+            }
+        };
+    }
+
+    // _________________________________________________________________________________________________________________
+
+    public Level getLogLevel() {
+        return logLevel;
+    }
+
+    public void setLogLevel(Level logLevel) {
+        this.logLevel = logLevel;
+    }
+
+    public boolean isRestrictive() {
+        return restrictive;
+    }
+
+    public void setRestrictive(boolean restrictive) {
+        this.restrictive = restrictive;
+    }
+
+    public boolean isConsiderAnnotationsAsDependencies() {
+        return considerAnnotationsAsDependencies;
+    }
+
+    public void setConsiderAnnotationsAsDependencies(boolean considerAnnotationsAsDependencies) {
+        this.considerAnnotationsAsDependencies = considerAnnotationsAsDependencies;
+    }
+
+    public NamingState getNamingState() {
+        return namingState;
+    }
+
+    //##################################################################################################################
+    // Auxiliary classes
+
+    /**
+     * Restores the previously bound context when closed
+     */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -28,14 +28,46 @@ public class DirtsUtil {
         return getRootTemporaryDirectory(rootPath).resolve("affected_modules");
     }
 
-    public static Path getChangedNodesPath(Path rootPath) {
-        return getRootTemporaryDirectory(rootPath).resolve("changed_nodes");
+    public static Path getNodeStorePath(Path rootPath, String suffix) {
+        return getRootTemporaryDirectory(rootPath).resolve("nodes_" + suffix);
+    }
+
+    public static Path getSnapshotsPath(Path rootPath) {
+        return getRootTemporaryDirectory(rootPath).resolve("snapshots");
+    }
+
+    public static Path getDaemonPath(Path rootPath) {
+        return getRootTemporaryDirectory(rootPath).resolve("daemon");
+    }
+
+    public static Path getDaemonLogPath(Path rootPath) {
+        return getRootTemporaryDirectory(rootPath).resolve("daemon.log");
     }
 
     public static Path getLibrariesPath(Path rootPath, Path subPath) {
         return getSubTemporaryDirectory(rootPath, subPath).resolve("libraries");
     }
 
+    public static Path getWatchStopPath(Path rootPath, Path subPath) {
+        return getSubTemporaryDirectory(rootPath, subPath).resolve("watch_stop");
+    }
+
+    public static Path getDIFrameworksPath(Path rootPath, Path subPath, String suffix) {
+        return getSubTemporaryDirectory(rootPath, subPath).resolve("di_frameworks_" + suffix);
+    }
+
+    public static Path getMetricsPath(Path rootPath, Path subPath, String suffix) {
+        return getSubTemporaryDirectory(rootPath, subPath).resolve("metrics").resolve(suffix + ".json");
+    }
+
+    public static Path getTestHistoryPath(Path rootPath, Path subPath) {
+        return getSubTemporaryDirectory(rootPath, subPath).resolve("test_history");
+    }
+
+    public static Path getFlightRecordingPath(Path rootPath, Path subPath, String suffix) {
+        return getSubTemporaryDirectory(rootPath, subPath).resolve("recordings").resolve(suffix + ".jfr");
+    }
+
     public static Path getSubPomPathRelative(Path subPath) {
         return subPath.resolve("pom.xml");
     }
@@ -48,6 +80,26 @@ public class DirtsUtil {
         return getSubTemporaryDirectory(rootPath, subPath).resolve(Path.of("checksums_" + suffix));
     }
 
+    public static Path getStateStorePath(Path rootPath, Path subPath, String suffix) {
+        return getSubTemporaryDirectory(rootPath, subPath).resolve(Path.of("state_" + suffix));
+    }
+
+    public static Path getJournalPath(Path rootPath, Path subPath, String suffix) {
+        return getSubTemporaryDirectory(rootPath, subPath).resolve(Path.of("journal_" + suffix));
+    }
+
+    public static Path getBuildFilesPath(Path rootPath, Path subPath, String suffix) {
+        return getSubTemporaryDirectory(rootPath, subPath).resolve(Path.of("build_files_" + suffix));
+    }
+
+    public static Path getSelectionCachePath(Path rootPath, Path subPath, String suffix) {
+        return getSubTemporaryDirectory(rootPath, subPath).resolve(Path.of("selection_cache_" + suffix));
+    }
+
+    public static Path getBaselinePath(Path rootPath, Path subPath, String suffix) {
+        return getSubTemporaryDirectory(rootPath, subPath).resolve(Path.of("baseline_" + suffix));
+    }
+
     public static Path getCUMappingPath(Path rootPath, Path subPath, String suffix) {
         return getSubTemporaryDirectory(rootPath, subPath).resolve(Path.of("cuMapping_" + suffix));
     }
@@ -27,8 +27,6 @@ import java.util.function.Function;
 
 public class JavaParserUtils {
 
-    public static boolean RESTRICTIVE = false;
-
     /*
      * Source of idea: Class ResolvedReferenceTypeDeclaration of JavaParser
      * https://github.com/javaparser/javaparser/blob/a6744e0ccc65710bbf970bbdb428629bc0b30958/javaparser-core/src/main/java/com/github/javaparser/resolution/declarations/ResolvedReferenceTypeDeclaration.java#L122
@@ -101,7 +99,7 @@ public class JavaParserUtils {
         if (annotationByName.isPresent()) {
             AnnotationExpr annotationExpr = annotationByName.get();
 
-            if (RESTRICTIVE) {
+            if (AnalysisContext.current().isRestrictive()) {
                 try {
 
                     ResolvedAnnotationDeclaration resolvedAnnotationDeclaration = annotationExpr.resolve();
@@ -144,7 +142,7 @@ public class JavaParserUtils {
                 ret = AnnotationType.MarkerAnnotation;
             }
 
-            if (RESTRICTIVE) {
+            if (AnalysisContext.current().isRestrictive()) {
                 try {
                     ResolvedAnnotationDeclaration resolvedAnnotationDeclaration = annotationExpr.resolve();
                     if (resolvedAnnotationDeclaration.getQualifiedName().equals(qualifiedAnnotation)) {
@@ -187,7 +185,7 @@ public class JavaParserUtils {
     public static boolean equalsMethodName(MethodCallExpr methodCallExpr,
                                            String simpleName,
                                            String qualifiedSignature) {
-        if (RESTRICTIVE) {
+        if (AnalysisContext.current().isRestrictive()) {
             try {
                 ResolvedMethodDeclaration resolvedMethodDeclaration = methodCallExpr.resolve();
                 return resolvedMethodDeclaration.getQualifiedSignature().equals(qualifiedSignature);
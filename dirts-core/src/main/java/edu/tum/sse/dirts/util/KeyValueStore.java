@@ -0,0 +1,304 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Immutable sorted key-value store in a single file that is mapped into memory
+ * <p>
+ * The file starts with a magic number and the number of entries, followed by the offsets of all entries and the
+ * entries themselves, each consisting of length-prefixed UTF-8 encoded key and value. Entries are sorted by the bytes
+ * of their keys, so a key is found by a binary search that only touches the pages on its path. A new revision is
+ * written to a temporary file that is atomically moved into place, so readers either see the old or the new revision.
+ */
+public class KeyValueStore {
+
+    private static final int MAGIC = 0x444b5631;
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+    private final ByteBuffer buffer;
+    private final int size;
+
+    private KeyValueStore(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+            throw new IOException("Not a key-value store");
+        this.size = buffer.getInt(Integer.BYTES);
+        if (size < 0 || HEADER_SIZE + (long) size * Long.BYTES > buffer.limit())
+            throw new IOException("Corrupted key-value store");
+    }
+
+    //##################################################################################################################
+    // Methods
+
+    /**
+     * Maps the store into memory, the pages are only read when they are accessed
+     */
+    public static KeyValueStore open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel has been closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new KeyValueStore(buffer);
+        }
+    }
+
+    /**
+     * Replaces the store with the given entries
+     */
+    public static void write(Path path, Map<String, String> entries) throws IOException {
+        List<byte[][]> encoded = new ArrayList<>(entries.size());
+        entries.forEach((key, value) -> encoded.add(new byte[][]{
+                key.getBytes(StandardCharsets.UTF_8),
+                value.getBytes(StandardCharsets.UTF_8)}));
+        encoded.sort((e1, e2) -> Arrays.compareUnsigned(e1[0], e2[0]));
+
+        long length = HEADER_SIZE + (long) encoded.size() * Long.BYTES;
+        for (byte[][] entry : encoded)
+            length += 2 * Integer.BYTES + entry[0].length + entry[1].length;
+        if (length > Integer.MAX_VALUE)
+            throw new IOException("Key-value store exceeds 2 GiB");
+
+        ByteBuffer content = ByteBuffer.allocate((int) length);
+        content.putInt(MAGIC);
+        content.putInt(encoded.size());
+        long offset = HEADER_SIZE + (long) encoded.size() * Long.BYTES;
+        for (byte[][] entry : encoded) {
+            content.putLong(offset);
+            offset += 2 * Integer.BYTES + entry[0].length + entry[1].length;
+        }
+        for (byte[][] entry : encoded) {
+            content.putInt(entry[0].length).put(entry[0]);
+            content.putInt(entry[1].length).put(entry[1]);
+        }
+        SharedFiles.writeAtomically(path, content.array());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the value of the key, null if there is none
+     */
+    public String get(String key) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int index = lowerBound(keyBytes);
+        if (index < size && compareKey(index, keyBytes) == 0)
+            return valueAt(index);
+        return null;
+    }
+
+    /**
+     * @return index of the first entry whose key is not less than the given key
+     */
+    public int lowerBound(byte[] key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareKey(mid, key) < 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    public String keyAt(int index) {
+        int offset = offsetAt(index);
+        return decode(offset + Integer.BYTES, buffer.getInt(offset));
+    }
+
+    public String valueAt(int index) {
+        int offset = offsetAt(index);
+        int valueOffset = offset + Integer.BYTES + buffer.getInt(offset);
+        return decode(valueOffset + Integer.BYTES, buffer.getInt(valueOffset));
+    }
+
+    /**
+     * Creates a view of all entries whose keys start with the prefix, which must not be empty
+     * <p>
+     * The view can be modified, changes are kept in memory and do not affect the store.
+     *
+     * @param decoder creates the values of the view from the stored values
+     */
+    public <V> PrefixMap<V> prefixMap(String prefix, Function<String, V> decoder) {
+        byte[] from = prefix.getBytes(StandardCharsets.UTF_8);
+        byte[] to = Arrays.copyOf(from, from.length);
+        // keys starting with the prefix are less than the prefix with its last byte incremented
+        to[to.length - 1]++;
+        return new PrefixMap<>(this, prefix, lowerBound(from), lowerBound(to), decoder);
+    }
+
+    //##################################################################################################################
+    // Auxiliary methods
+
+    private int offsetAt(int index) {
+        return (int) buffer.getLong(HEADER_SIZE + index * Long.BYTES);
+    }
+
+    private int compareKey(int index, byte[] key) {
+        int offset = offsetAt(index);
+        int length = buffer.getInt(offset);
+        int start = offset + Integer.BYTES;
+        for (int i = 0; i < Math.min(length, key.length); i++) {
+            int cmp = Integer.compare(buffer.get(start + i) & 0xff, key[i] & 0xff);
+            if (cmp != 0)
+                return cmp;
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private String decode(int offset, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(offset);
+        duplicate.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    //##################################################################################################################
+    // Auxiliary classes
+
+    /**
+     * Map of the entries with a common prefix, which looks up keys in the store on demand
+     * <p>
+     * Modifications are recorded in memory on top of the stored entries.
+     */
+    public static class PrefixMap<V> extends AbstractMap<String, V> {
+
+        private final KeyValueStore store;
+        private final String prefix;
+        private final int from;
+        private final int to;
+        private final Function<String, V> decoder;
+
+        private final Map<String, V> put = new HashMap<>();
+        private final Set<String> removed = new HashSet<>();
+        private int size;
+
+        private PrefixMap(KeyValueStore store, String prefix, int from, int to, Function<String, V> decoder) {
+            this.store = store;
+            this.prefix = prefix;
+            this.from = from;
+            this.to = to;
+            this.decoder = decoder;
+            this.size = to - from;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String
+                    && (put.containsKey(key) || (!removed.contains(key) && storedValue((String) key) != null));
+        }
+
+        @Override
+        public V get(Object key) {
+            if (!(key instanceof String))
+                return null;
+            if (put.containsKey(key))
+                return put.get(key);
+            if (removed.contains(key))
+                return null;
+            String value = storedValue((String) key);
+            return value == null ? null : decoder.apply(value);
+        }
+
+        @Override
+        public V put(String key, V value) {
+            boolean present = containsKey(key);
+            V old = present ? get(key) : null;
+            put.put(key, value);
+            if (!present)
+                size++;
+            return old;
+        }
+
+        @Override
+        public V remove(Object key) {
+            if (!containsKey(key))
+                return null;
+            V old = get(key);
+            put.remove(key);
+            if (storedValue((String) key) != null)
+                removed.add((String) key);
+            size--;
+            return old;
+        }
+
+        @Override
+        public Set<Entry<String, V>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, V>> iterator() {
+                    return new Iterator<>() {
+                        private int index = from;
+                        private final Iterator<Entry<String, V>> putIterator = put.entrySet().iterator();
+                        private Entry<String, V> next = advance();
+
+                        private Entry<String, V> advance() {
+                            while (index < to) {
+                                String key = store.keyAt(index).substring(prefix.length());
+                                int current = index++;
+                                if (!removed.contains(key) && !put.containsKey(key))
+                                    return new SimpleImmutableEntry<>(key, decoder.apply(store.valueAt(current)));
+                            }
+                            return putIterator.hasNext() ? putIterator.next() : null;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next != null;
+                        }
+
+                        @Override
+                        public Entry<String, V> next() {
+                            if (next == null)
+                                throw new NoSuchElementException();
+                            Entry<String, V> result = next;
+                            next = advance();
+                            return result;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+
+        private String storedValue(String key) {
+            byte[] keyBytes = (prefix + key).getBytes(StandardCharsets.UTF_8);
+            int index = store.lowerBound(keyBytes);
+            if (index < to && store.compareKey(index, keyBytes) == 0)
+                return store.valueAt(index);
+            return null;
+        }
+    }
+}
@@ -12,6 +12,7 @@
  */
 package edu.tum.sse.dirts.util;
 
+import java.util.function.Supplier;
 import java.util.logging.Level;
 
 /**
@@ -19,26 +20,40 @@ import java.util.logging.Level;
  */
 public class Log {
 
-    private static Level logLevel = Level.WARNING;
-
+    /**
+     * Sets the log level of the AnalysisContext bound to the current thread
+     */
     public static void setLogLevel(Level logLevel) {
-        Log.logLevel = logLevel;
+        AnalysisContext.current().setLogLevel(logLevel);
+    }
+
+    private static boolean isLoggable(Level level) {
+        return level.intValue() >= AnalysisContext.current().getLogLevel().intValue();
     }
 
     public static void log(Level level, String msg) {
-        if (level.intValue() >= logLevel.intValue()) {
+        if (isLoggable(level)) {
             System.out.println("[" + level + "] " + msg);
         }
     }
 
+    /**
+     * Only builds the message if it is logged
+     */
+    public static void log(Level level, Supplier<String> msg) {
+        if (isLoggable(level)) {
+            System.out.println("[" + level + "] " + msg.get());
+        }
+    }
+
     public static void log(Level level, String alternativePrefix, String msg) {
-        if (level.intValue() >= logLevel.intValue()) {
+        if (isLoggable(level)) {
             System.out.println("[" + alternativePrefix + "]" + " " + msg);
         }
     }
 
     public static void errLog(Level level, String msg) {
-        if (level.intValue() >= logLevel.intValue()) {
+        if (isLoggable(level)) {
             System.err.println("[" + level + "] " + msg);
         }
     }
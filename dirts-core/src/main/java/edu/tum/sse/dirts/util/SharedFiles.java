@@ -0,0 +1,134 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.util;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Access to files in the outermost project that are shared by all modules
+ * <p>
+ * Modules may be analyzed concurrently, either in the same JVM (`mvn -T`) or in different processes.
+ * Updates are serialized using a lock held within this JVM and a file lock on a sibling file ending with `.lock`.
+ * The new content is written to a temporary file that is atomically moved into place, so readers never see partially
+ * written content.
+ */
+public class SharedFiles {
+
+    private static final Map<Path, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    private SharedFiles() {
+    }
+
+    //##################################################################################################################
+    // Methods
+
+    /**
+     * @return content of the file, an empty string if it does not exist
+     */
+    public static String read(Path path) throws IOException {
+        try {
+            return Files.readString(path);
+        } catch (NoSuchFileException e) {
+            return "";
+        }
+    }
+
+    /**
+     * Replaces the content of the file
+     */
+    public static void write(Path path, String content) throws IOException {
+        update(path, ignored -> content);
+    }
+
+    /**
+     * Atomically replaces the content of the file with the result of the update function
+     *
+     * @param update receives the current content, an empty string if the file does not exist
+     * @return the new content
+     */
+    public static String update(Path path, UnaryOperator<String> update) throws IOException {
+        return withLock(path, lockedPath -> {
+            String content = update.apply(read(lockedPath));
+            writeAtomically(lockedPath, content);
+            return content;
+        });
+    }
+
+    /**
+     * Runs the action while no other thread or process is accessing the file through this class
+     *
+     * @param action receives the absolute path of the file
+     * @return result of the action
+     */
+    public static <V> V withLock(Path path, LockedAction<V> action) throws IOException {
+        Path absolutePath = path.toAbsolutePath().normalize();
+        Files.createDirectories(absolutePath.getParent());
+
+        // file locks are held by the whole JVM and must not overlap, so threads are serialized first
+        ReentrantLock lock = locks.computeIfAbsent(absolutePath, p -> new ReentrantLock());
+        lock.lock();
+        try (FileChannel channel = FileChannel.open(absolutePath.resolveSibling(absolutePath.getFileName() + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            return action.run(absolutePath);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the content of the file without readers ever seeing partially written content
+     * <p>
+     * Concurrent writers have to be excluded using {@link #withLock(Path, LockedAction)}.
+     */
+    public static void writeAtomically(Path path, String content) throws IOException {
+        writeAtomically(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Replaces the content of the file without readers ever seeing partially written content
+     *
+     * @see #writeAtomically(Path, String)
+     */
+    public static void writeAtomically(Path path, byte[] content) throws IOException {
+        // unlike Files.createTempFile, this respects the default permissions of newly created files
+        Path tmpPath = path.resolveSibling(path.getFileName()
+                + "." + ProcessHandle.current().pid() + "." + Thread.currentThread().getId() + ".tmp");
+        try {
+            Files.write(tmpPath, content);
+            try {
+                Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmpPath);
+        }
+    }
+
+    //##################################################################################################################
+    // Auxiliary classes
+
+    @FunctionalInterface
+    public interface LockedAction<V> {
+        V run(Path path) throws IOException;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+import static java.util.logging.Level.WARNING;
+
+/**
+ * Watches directories containing source files and resources for changes of java and xml files
+ */
+public class SourceWatcher implements Closeable {
+
+    //##################################################################################################################
+    // Static constants
+
+    /**
+     * Milliseconds between two checks whether waiting for changes should be stopped
+     */
+    private static final long STOP_CHECK_MILLIS = 500;
+
+    //##################################################################################################################
+    // Attributes
+
+    private final WatchService watchService;
+
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+
+    //##################################################################################################################
+    // Constructors
+
+    public SourceWatcher(Collection<Path> roots) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        for (Path root : roots) {
+            if (Files.isDirectory(root)) {
+                register(root, new HashSet<>());
+            }
+        }
+    }
+
+    //##################################################################################################################
+    // Methods
+
+    /**
+     * Blocks until a relevant file has changed and no further events occurred for the given duration
+     *
+     * @param debounceMillis time without events that ends a batch of changes
+     * @return changed files and directories
+     */
+    public Set<Path> awaitChanges(long debounceMillis) throws InterruptedException {
+        return awaitChanges(debounceMillis, () -> false);
+    }
+
+    /**
+     * Blocks until a relevant file has changed and no further events occurred for the given duration, or until
+     * stopping has been requested
+     *
+     * @param debounceMillis time without events that ends a batch of changes
+     * @param stopRequested  checked periodically while no events occur
+     * @return changed files and directories, empty if stopping has been requested
+     */
+    public Set<Path> awaitChanges(long debounceMillis, BooleanSupplier stopRequested) throws InterruptedException {
+        Set<Path> changed = new TreeSet<>();
+        while (changed.isEmpty()) {
+            WatchKey key = watchService.poll(STOP_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+            if (key == null) {
+                if (stopRequested.getAsBoolean())
+                    return changed;
+                continue;
+            }
+            while (key != null) {
+                collect(key, changed);
+                key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    //##################################################################################################################
+    // Auxiliary methods
+
+    private void collect(WatchKey key, Set<Path> changed) {
+        Path directory = directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                // events have been lost, so everything in this directory might have changed
+                changed.add(directory);
+                continue;
+            }
+
+            Path path = directory.resolve((Path) event.context());
+            if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+                try {
+                    // files may have been created before the directory is registered
+                    register(path, changed);
+                } catch (IOException e) {
+                    Log.errLog(WARNING, "Failed to watch directory " + path + ": " + e.getMessage());
+                }
+            } else if (isRelevant(path)) {
+                changed.add(path);
+            }
+        }
+
+        if (!key.reset()) {
+            // the directory has been deleted
+            directories.remove(key);
+            changed.add(directory);
+        }
+    }
+
+    private void register(Path root, Set<Path> existingFiles) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                WatchKey key = dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+                directories.put(key, dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (isRelevant(file)) {
+                    existingFiles.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static boolean isRelevant(Path path) {
+        String fileName = path.getFileName().toString();
+        return fileName.endsWith(".java") || fileName.endsWith(".xml");
+    }
+}
@@ -0,0 +1,429 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.INFO;
+import static java.util.logging.Level.WARNING;
+
+/**
+ * Content-addressed store of the state exported to `.dirts`, keyed by commit and module
+ * <p>
+ * Used both as cache shared by several machines, e.g. the agents of a CI system, and for local snapshots that keep the
+ * state of several branches. Exported files are split into chunks at content-defined boundaries and every chunk is
+ * stored once in `objects/<sha-256>`, so snapshots that differ in a few nodes share most of their chunks.
+ * For every commit and module, `refs/<commit>/<module>/manifest_<suffix>` lists the chunks of each file, the snapshot
+ * of the last run on a branch is additionally listed in `branches/<branch>/<module>/manifest_<suffix>`.
+ * All files are moved into place atomically, so several processes may use the store concurrently.
+ * <p>
+ * Commits are determined using git in the outermost project. The commit the state in `.dirts` has been computed on,
+ * published for or restored from is recorded in `baseline_<suffix>`.
+ */
+public class StateCache {
+
+    private final static ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Number of ancestors of the current commit that are searched for stored state
+     */
+    private static final int MAX_ANCESTORS = 100;
+
+    /**
+     * A chunk ends where the rolling hash has these bits unset, i.e. chunks are about 2 KiB long on average
+     */
+    private static final int CHUNK_MASK = 0x7ff;
+
+    private static final int MIN_CHUNK_LENGTH = 256;
+
+    /**
+     * Chunks are cut after this many bytes even without a boundary
+     */
+    private static final int MAX_CHUNK_LENGTH = 64 * 1024;
+
+    /**
+     * Random values of all bytes for the rolling hash, the seed must never change
+     */
+    private static final int[] GEAR = new Random(0x5eed).ints(256).toArray();
+
+    private final Path cachePath;
+    private final Path rootPath;
+    private final Path subPath;
+    private final String suffix;
+
+    /**
+     * Names of the files in `.dirts` of this module that belong to the state, all other files are left untouched
+     */
+    private final Set<String> exportedFileNames;
+
+    /**
+     * @param exportedPaths files in `.dirts` of this module that make up the exported state of this level
+     */
+    public StateCache(Path cachePath, Path rootPath, Path subPath, String suffix, List<Path> exportedPaths) {
+        this.cachePath = cachePath;
+        this.rootPath = rootPath;
+        this.subPath = subPath;
+        this.suffix = suffix;
+        this.exportedFileNames = exportedPaths.stream()
+                .map(path -> path.getFileName().toString())
+                .collect(Collectors.toSet());
+    }
+
+    //##################################################################################################################
+    // Methods for shared caches
+
+    /**
+     * Copies the state published for the nearest ancestor commit into `.dirts` of this module
+     *
+     * @return the commit whose state has been fetched, empty if there is none
+     */
+    public Optional<String> fetch() {
+        for (String commit : git("rev-list", "--max-count=" + MAX_ANCESTORS, "HEAD")) {
+            Path manifestPath = getManifestPath(commit);
+            if (!Files.isRegularFile(manifestPath))
+                continue;
+
+            if (restore(manifestPath)) {
+                Log.log(INFO, "Fetched " + suffix + " state of commit " + commit + " from " + cachePath);
+                return Optional.of(commit);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Publishes the state exported to `.dirts` of this module for the current commit
+     * <p>
+     * Nothing is published if tracked files have uncommitted changes, since the state would not match the commit.
+     *
+     * @return the commit the state has been published for, empty if nothing has been published
+     */
+    public Optional<String> publish() {
+        List<String> head = git("rev-parse", "HEAD");
+        if (head.isEmpty())
+            return Optional.empty();
+        if (!git("status", "--porcelain", "--untracked-files=no").isEmpty()) {
+            Log.log(INFO, "Not publishing " + suffix + " state, the working tree has uncommitted changes");
+            return Optional.empty();
+        }
+        String commit = head.get(0);
+
+        if (store(commit, List.of(getManifestPath(commit)))) {
+            Log.log(FINE, "Published " + suffix + " state of commit " + commit + " to " + cachePath);
+            return Optional.of(commit);
+        }
+        return Optional.empty();
+    }
+
+    //##################################################################################################################
+    // Methods for local snapshots
+
+    /**
+     * Replaces the state in `.dirts` of this module with the closest snapshot, if the state has been computed on
+     * another branch
+     * <p>
+     * The closest snapshot is the one of the nearest ancestor of the current commit. The current state is kept if its
+     * baseline is at least as close. If no ancestor has a snapshot, the snapshot of the last run on the current
+     * branch is used, e.g. after the branch has been rebased.
+     *
+     * @return the commit whose snapshot has been restored, empty if the current state is kept
+     */
+    public Optional<String> restoreClosestSnapshot() {
+        String baseline = readBaseline();
+        boolean hasState = Files.exists(DirtsUtil.getGraphPath(rootPath, subPath, suffix))
+                || Files.exists(DirtsUtil.getStateStorePath(rootPath, subPath, suffix));
+
+        for (String commit : git("rev-list", "--max-count=" + MAX_ANCESTORS, "HEAD")) {
+            if (hasState && commit.equals(baseline))
+                return Optional.empty();
+
+            Path manifestPath = getManifestPath(commit);
+            if (Files.isRegularFile(manifestPath) && restore(manifestPath)) {
+                Log.log(INFO, "Restored " + suffix + " snapshot of commit " + commit);
+                return Optional.of(commit);
+            }
+        }
+
+        List<String> branch = git("symbolic-ref", "--short", "-q", "HEAD");
+        if (!branch.isEmpty()) {
+            Path manifestPath = getBranchManifestPath(branch.get(0));
+            try {
+                String commit = readManifest(manifestPath).getCommit();
+                if (!(hasState && commit.equals(baseline)) && restore(manifestPath)) {
+                    Log.log(INFO, "Restored " + suffix + " snapshot of branch " + branch.get(0));
+                    return Optional.of(commit);
+                }
+            } catch (NoSuchFileException ignored) {
+            } catch (IOException e) {
+                Log.errLog(WARNING, "Failed to read snapshot of branch " + branch.get(0) + ": " + e.getMessage());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Stores the state exported to `.dirts` of this module as snapshot of the current commit and branch
+     * <p>
+     * Unlike {@link #publish()}, the snapshot is stored even if there are uncommitted changes, since it only serves
+     * as baseline for later runs on this machine.
+     *
+     * @return the commit the snapshot has been stored for, empty if nothing has been stored
+     */
+    public Optional<String> snapshot() {
+        List<String> head = git("rev-parse", "HEAD");
+        if (head.isEmpty())
+            return Optional.empty();
+        String commit = head.get(0);
+
+        List<Path> manifestPaths = new ArrayList<>();
+        manifestPaths.add(getManifestPath(commit));
+        List<String> branch = git("symbolic-ref", "--short", "-q", "HEAD");
+        if (!branch.isEmpty())
+            manifestPaths.add(getBranchManifestPath(branch.get(0)));
+
+        if (store(commit, manifestPaths)) {
+            Log.log(FINE, "Stored " + suffix + " snapshot of commit " + commit);
+            return Optional.of(commit);
+        }
+        return Optional.empty();
+    }
+
+    //##################################################################################################################
+    // Auxiliary methods
+
+    /**
+     * Stores the exported files as chunks and lists them in the manifests
+     *
+     * @return whether the state has been stored
+     */
+    private boolean store(String commit, List<Path> manifestPaths) {
+        Path tmpPath = DirtsUtil.getSubTemporaryDirectory(rootPath, subPath);
+        try (Stream<Path> files = Files.list(tmpPath)) {
+            Manifest manifest = new Manifest();
+            manifest.setCommit(commit);
+            for (Path file : files.filter(this::isExportedState).collect(Collectors.toList())) {
+                List<String> hashes = new ArrayList<>();
+                for (byte[] chunk : chunk(Files.readAllBytes(file))) {
+                    String hash = hash(chunk);
+                    Path objectPath = getObjectPath(hash);
+                    if (!Files.exists(objectPath)) {
+                        Files.createDirectories(objectPath.getParent());
+                        SharedFiles.writeAtomically(objectPath, chunk);
+                    }
+                    hashes.add(hash);
+                }
+                manifest.getFiles().put(file.getFileName().toString(), hashes);
+            }
+
+            String content = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(manifest);
+            for (Path manifestPath : manifestPaths) {
+                Files.createDirectories(manifestPath.getParent());
+                SharedFiles.writeAtomically(manifestPath, content);
+            }
+            writeBaseline(commit);
+            return true;
+        } catch (IOException e) {
+            Log.errLog(WARNING, "Failed to store " + suffix + " state of commit " + commit + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Replaces the exported files in `.dirts` with those listed in the manifest
+     *
+     * @return whether the state has been restored
+     */
+    private boolean restore(Path manifestPath) {
+        try {
+            Manifest manifest = readManifest(manifestPath);
+
+            // assemble all files first, so that the state is not left half replaced if an object is missing
+            Map<String, byte[]> contents = new HashMap<>();
+            for (Map.Entry<String, List<String>> entry : manifest.getFiles().entrySet()) {
+                // files published by older versions may not belong to the state
+                if (!exportedFileNames.contains(entry.getKey()))
+                    continue;
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                for (String hash : entry.getValue()) {
+                    byte[] chunk = Files.readAllBytes(getObjectPath(hash));
+                    if (!hash(chunk).equals(hash))
+                        throw new IOException("Corrupted object " + hash);
+                    content.write(chunk);
+                }
+                contents.put(entry.getKey(), content.toByteArray());
+            }
+
+            Path tmpPath = DirtsUtil.getSubTemporaryDirectory(rootPath, subPath);
+            Files.createDirectories(tmpPath);
+            try (Stream<Path> files = Files.list(tmpPath)) {
+                for (Path file : files.filter(this::isExportedState).collect(Collectors.toList())) {
+                    if (!contents.containsKey(file.getFileName().toString()))
+                        Files.delete(file);
+                }
+            }
+            for (Map.Entry<String, byte[]> entry : contents.entrySet()) {
+                SharedFiles.writeAtomically(tmpPath.resolve(entry.getKey()), entry.getValue());
+            }
+            writeBaseline(manifest.getCommit());
+            return true;
+        } catch (IOException e) {
+            Log.errLog(WARNING, "Failed to restore " + suffix + " state from " + manifestPath + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Splits the content where a rolling hash of the preceding bytes matches {@link #CHUNK_MASK}
+     * <p>
+     * Since boundaries depend on the content only, inserting or removing bytes only changes the surrounding chunks.
+     * This works for text as well as for binary files like the {@link KeyValueStore}.
+     */
+    static List<byte[]> chunk(byte[] content) {
+        List<byte[]> chunks = new ArrayList<>();
+        int start = 0;
+        int hash = 0;
+        for (int i = 0; i < content.length; i++) {
+            // every byte is shifted out of the hash after 32 steps
+            hash = (hash << 1) + GEAR[content[i] & 0xff];
+            int length = i + 1 - start;
+            if ((length >= MIN_CHUNK_LENGTH && (hash & CHUNK_MASK) == 0) || length >= MAX_CHUNK_LENGTH) {
+                chunks.add(Arrays.copyOfRange(content, start, i + 1));
+                start = i + 1;
+            }
+        }
+        if (start < content.length)
+            chunks.add(Arrays.copyOfRange(content, start, content.length));
+        return chunks;
+    }
+
+    private boolean isExportedState(Path file) {
+        return Files.isRegularFile(file) && exportedFileNames.contains(file.getFileName().toString());
+    }
+
+    private Manifest readManifest(Path manifestPath) throws IOException {
+        return objectMapper.readValue(Files.readString(manifestPath), Manifest.class);
+    }
+
+    private String readBaseline() {
+        try {
+            return Files.readString(DirtsUtil.getBaselinePath(rootPath, subPath, suffix)).trim();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void writeBaseline(String commit) throws IOException {
+        Path baselinePath = DirtsUtil.getBaselinePath(rootPath, subPath, suffix);
+        Files.createDirectories(baselinePath.getParent());
+        SharedFiles.writeAtomically(baselinePath, commit);
+    }
+
+    private Path getManifestPath(String commit) {
+        return cachePath.resolve("refs").resolve(commit).resolve(subPath.toString()).resolve("manifest_" + suffix);
+    }
+
+    private Path getBranchManifestPath(String branch) {
+        // branch names may contain slashes
+        return cachePath.resolve("branches").resolve(URLEncoder.encode(branch, StandardCharsets.UTF_8))
+                .resolve(subPath.toString()).resolve("manifest_" + suffix);
+    }
+
+    private Path getObjectPath(String hash) {
+        return cachePath.resolve("objects").resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest(content);
+            StringBuilder sb = new StringBuilder();
+            for (byte b : bytes)
+                sb.append(String.format("%02x", b));
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Runs git in the outermost project
+     *
+     * @return lines printed by git, empty if git failed
+     */
+    private List<String> git(String... args) {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(args));
+        try {
+            Process process = new ProcessBuilder(command)
+                    .directory(rootPath.toFile())
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            String output;
+            try (InputStream inputStream = process.getInputStream()) {
+                output = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            if (process.waitFor() != 0) {
+                Log.log(FINE, "Failed to run git " + String.join(" ", args));
+                return List.of();
+            }
+            return output.lines().filter(line -> !line.isBlank()).collect(Collectors.toList());
+        } catch (IOException e) {
+            Log.log(FINE, "Failed to run git: " + e.getMessage());
+            return List.of();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return List.of();
+        }
+    }
+
+    //##################################################################################################################
+    // Auxiliary classes
+
+    public static class Manifest {
+
+        private String commit;
+        private Map<String, List<String>> files = new TreeMap<>();
+
+        public String getCommit() {
+            return commit;
+        }
+
+        public void setCommit(String commit) {
+            this.commit = commit;
+        }
+
+        public Map<String, List<String>> getFiles() {
+            return files;
+        }
+
+        public void setFiles(Map<String, List<String>> files) {
+            this.files = files;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.util.metrics;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import jdk.jfr.*;
+
+/**
+ * Flight recorder event for processing a single CompilationUnit
+ */
+@Name("edu.tum.sse.dirts.CompilationUnit")
+@Label("Compilation Unit")
+@Category("DIRTS")
+@Description("Parsing, hashing or collecting dependencies of a single CompilationUnit")
+public class CompilationUnitEvent extends Event {
+
+    public static final String PARSE = "parse";
+    public static final String CHECKSUM = "checksum";
+    public static final String DEPENDENCIES = "dependencies";
+
+    @Label("Stage")
+    public String stage;
+
+    @Label("File Name")
+    public String fileName;
+
+    @Label("Nodes")
+    @Description("Number of nodes of the syntax tree, or number of hashed nodes for stage checksum")
+    public long nodes;
+
+    public CompilationUnitEvent(String stage) {
+        this.stage = stage;
+    }
+
+    /**
+     * @return true if this kind of event is recorded at the moment
+     */
+    public static boolean enabled() {
+        return new CompilationUnitEvent(null).isEnabled();
+    }
+
+    /**
+     * Sets file name and, unless hashing, number of nodes from a node, if the event is going to be committed
+     */
+    public void setCompilationUnit(Node node) {
+        if (shouldCommit()) {
+            node.findCompilationUnit()
+                    .flatMap(CompilationUnit::getStorage)
+                    .ifPresent(storage -> fileName = storage.getPath().toString());
+            if (!CHECKSUM.equals(stage))
+                nodes = node.stream().count();
+        }
+    }
+}
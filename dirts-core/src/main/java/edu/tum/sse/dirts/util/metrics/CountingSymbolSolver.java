@@ -0,0 +1,85 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.util.metrics;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.type.Type;
+import com.github.javaparser.resolution.UnsolvedSymbolException;
+import com.github.javaparser.resolution.types.ResolvedType;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.model.resolution.TypeSolver;
+
+import java.util.function.Supplier;
+
+/**
+ * JavaSymbolSolver that counts the symbols resolved by the analysis and the ones that could not be resolved
+ * <p>
+ * Only the outermost resolution is counted, i.e. the lookups of types and nested resolutions the symbol solver performs
+ * while trying candidates are not.
+ */
+public class CountingSymbolSolver extends JavaSymbolSolver {
+
+    private static final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+
+    public CountingSymbolSolver(TypeSolver typeSolver) {
+        super(typeSolver);
+    }
+
+    @Override
+    public <T> T resolveDeclaration(Node node, Class<T> resultClass) {
+        return count(() -> super.resolveDeclaration(node, resultClass));
+    }
+
+    @Override
+    public <T> T toResolvedType(Type javaparserType, Class<T> resultClass) {
+        return count(() -> super.toResolvedType(javaparserType, resultClass));
+    }
+
+    @Override
+    public ResolvedType calculateType(Expression expression) {
+        return count(() -> super.calculateType(expression));
+    }
+
+    //##################################################################################################################
+    // Auxiliary methods
+
+    private static <T> T count(Supplier<T> resolution) {
+        int[] currentDepth = depth.get();
+        if (currentDepth[0]++ > 0) {
+            try {
+                return resolution.get();
+            } finally {
+                currentDepth[0]--;
+            }
+        }
+
+        Metrics.count(Counter.SYMBOL_RESOLUTIONS);
+        try {
+            return resolution.get();
+        } catch (RuntimeException e) {
+            Metrics.count(Counter.SYMBOL_RESOLUTION_FAILURES);
+
+            SymbolResolutionFailureEvent event = new SymbolResolutionFailureEvent();
+            if (event.shouldCommit()) {
+                event.name = e instanceof UnsolvedSymbolException
+                        ? ((UnsolvedSymbolException) e).getName()
+                        : e.getClass().getSimpleName();
+                event.commit();
+            }
+            throw e;
+        } finally {
+            currentDepth[0]--;
+        }
+    }
+}
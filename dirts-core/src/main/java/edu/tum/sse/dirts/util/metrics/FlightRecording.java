@@ -0,0 +1,101 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.util.metrics;
+
+import edu.tum.sse.dirts.util.Log;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.WARNING;
+
+/**
+ * Flight recording of a run using the settings bundled with DIRTS
+ * <p>
+ * The settings can also be used for recordings started on the command line, they are located at
+ * {@value #SETTINGS} in the jar.
+ */
+public class FlightRecording implements AutoCloseable {
+
+    public static final String SETTINGS = "/edu/tum/sse/dirts/util/metrics/dirts.jfc";
+
+    //##################################################################################################################
+    // Attributes
+
+    private final Recording recording;
+    private final Path destination;
+
+    //##################################################################################################################
+    // Constructors
+
+    private FlightRecording(Recording recording, Path destination) {
+        this.recording = recording;
+        this.destination = destination;
+    }
+
+    //##################################################################################################################
+    // Methods
+
+    /**
+     * Starts a recording that is written to destination when closed
+     *
+     * @param enabled whether to record at all
+     * @return the started recording, a recording that does nothing if not enabled or if starting failed
+     */
+    public static FlightRecording start(boolean enabled, Path destination) {
+        if (!enabled)
+            return new FlightRecording(null, null);
+
+        try (InputStream inputStream = FlightRecording.class.getResourceAsStream(SETTINGS)) {
+            if (inputStream == null)
+                throw new IOException("Missing " + SETTINGS);
+            try (Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
+                Recording recording = new Recording(Configuration.create(reader));
+                recording.setName("DIRTS");
+                recording.setToDisk(true);
+                recording.start();
+                Log.log(FINE, "Started flight recording");
+                return new FlightRecording(recording, destination);
+            }
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            Log.log(WARNING, "Failed to start flight recording: " + e.getMessage());
+            return new FlightRecording(null, null);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (recording == null)
+            return;
+
+        try {
+            recording.stop();
+            Files.createDirectories(destination.getParent());
+            recording.dump(destination);
+            Log.log(FINE, "Wrote flight recording to " + destination);
+        } catch (IOException | IllegalStateException e) {
+            Log.log(WARNING, "Failed to write flight recording: " + e.getMessage());
+        } finally {
+            recording.close();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.util.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * Flight recorder event for the traversal of the combined graph, when affected tests are calculated
+ */
+@Name("edu.tum.sse.dirts.GraphTraversal")
+@Label("Graph Traversal")
+@Category("DIRTS")
+@Description("Calculation of the nodes affected by changes")
+public class GraphTraversalEvent extends Event {
+
+    @Label("Edge Types")
+    public String edgeTypes;
+
+    @Label("Nodes")
+    public long nodes;
+
+    @Label("Changed Nodes")
+    public long changedNodes;
+}
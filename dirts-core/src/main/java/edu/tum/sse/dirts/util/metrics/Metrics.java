@@ -0,0 +1,230 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.util.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.tum.sse.dirts.util.Log;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.WARNING;
+
+/**
+ * Records wall time, cpu time, allocated bytes and counters of the phases of a single run
+ * <p>
+ * Phases are attributed to the thread that executes them. Counters are added to every phase that is active on the
+ * current thread, so the counters of a phase include those of phases nested in it.
+ */
+public class Metrics {
+
+    //##################################################################################################################
+    // Attributes
+
+    private final static ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    /**
+     * Phases that are currently active on a thread, innermost last
+     */
+    private static final ThreadLocal<Deque<PhaseMetrics>> activePhases = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final Instant startedAt = Instant.now();
+    private final Map<String, PhaseMetrics> phases = new LinkedHashMap<>();
+
+    //##################################################################################################################
+    // Methods
+
+    /**
+     * Starts measuring a phase on the current thread
+     *
+     * @param kind kind of the phase, e.g. knowledgeSource
+     * @param name name of the phase
+     * @return the running phase, needs to be closed on the same thread
+     */
+    public Phase startPhase(String kind, String name) {
+        PhaseMetrics phaseMetrics;
+        synchronized (phases) {
+            phaseMetrics = phases.computeIfAbsent(kind + ":" + name, k -> new PhaseMetrics(kind, name));
+        }
+        return new Phase(phaseMetrics);
+    }
+
+    /**
+     * Adds one to a counter of all phases active on the current thread
+     */
+    public static void count(Counter counter) {
+        count(counter, 1);
+    }
+
+    /**
+     * Adds to a counter of all phases active on the current thread
+     */
+    public static void count(Counter counter, long delta) {
+        Deque<PhaseMetrics> phasesOfThread = activePhases.get();
+        if (!phasesOfThread.isEmpty()) {
+            for (PhaseMetrics phaseMetrics : phasesOfThread) {
+                phaseMetrics.count(counter, delta);
+            }
+        }
+    }
+
+    /**
+     * Wraps a task, such that it is attributed to the phases active on the current thread when run on another thread
+     */
+    public static Runnable inheritPhases(Runnable task) {
+        List<PhaseMetrics> inherited = new ArrayList<>(activePhases.get());
+        return () -> {
+            Deque<PhaseMetrics> phasesOfThread = activePhases.get();
+            inherited.forEach(phasesOfThread::addLast);
+            try {
+                task.run();
+            } finally {
+                inherited.forEach(p -> phasesOfThread.removeLastOccurrence(p));
+            }
+        };
+    }
+
+    public List<PhaseMetrics> getPhases() {
+        synchronized (phases) {
+            return new ArrayList<>(phases.values());
+        }
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Writes a report containing all phases as json
+     */
+    public void export(Path path, String suffix) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("suffix", suffix);
+        report.put("startedAt", startedAt.toString());
+        report.put("phases", getPhases());
+
+        try {
+            Files.createDirectories(path.getParent());
+            Files.writeString(path, objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+            Log.log(FINE, "Exported metrics to " + path);
+        } catch (IOException e) {
+            Log.log(WARNING, "Failed to export metrics: " + e.getMessage());
+        }
+    }
+
+    //##################################################################################################################
+    // Auxiliary methods
+
+    private static long currentThreadCpuTime() {
+        if (threadMXBean.isCurrentThreadCpuTimeSupported())
+            return threadMXBean.getCurrentThreadCpuTime();
+        return -1;
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean extendedThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+            if (extendedThreadMXBean.isThreadAllocatedMemorySupported()
+                    && extendedThreadMXBean.isThreadAllocatedMemoryEnabled())
+                return extendedThreadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    //##################################################################################################################
+    // Auxiliary classes
+
+    /**
+     * A phase that is currently measured
+     */
+    public static class Phase implements AutoCloseable {
+
+        private final PhaseMetrics phaseMetrics;
+
+        private final long startWallTime;
+        private final long startCpuTime;
+        private final long startAllocatedBytes;
+
+        private final PhaseEvent event;
+        private final Map<Counter, Long> startCounters;
+
+        private long wallTime = -1;
+
+        private Phase(PhaseMetrics phaseMetrics) {
+            this.phaseMetrics = phaseMetrics;
+            activePhases.get().addLast(phaseMetrics);
+
+            PhaseEvent phaseEvent = new PhaseEvent();
+            if (phaseEvent.isEnabled()) {
+                this.event = phaseEvent;
+                this.startCounters = phaseMetrics.getCounters();
+                event.begin();
+            } else {
+                this.event = null;
+                this.startCounters = null;
+            }
+
+            this.startCpuTime = currentThreadCpuTime();
+            this.startAllocatedBytes = currentThreadAllocatedBytes();
+            this.startWallTime = System.nanoTime();
+        }
+
+        /**
+         * @return wall time in nanoseconds once the phase is closed
+         */
+        public long getWallTime() {
+            return wallTime;
+        }
+
+        @Override
+        public void close() {
+            if (wallTime >= 0)
+                return;
+
+            wallTime = System.nanoTime() - startWallTime;
+            long cpuTime = startCpuTime >= 0 ? currentThreadCpuTime() - startCpuTime : -1;
+            long allocatedBytes = startAllocatedBytes >= 0 ? currentThreadAllocatedBytes() - startAllocatedBytes : -1;
+
+            phaseMetrics.record(wallTime, cpuTime, allocatedBytes);
+            activePhases.get().removeLastOccurrence(phaseMetrics);
+
+            if (event != null) {
+                event.end();
+                if (event.shouldCommit()) {
+                    Map<Counter, Long> counters = phaseMetrics.getCounters();
+                    event.kind = phaseMetrics.getKind();
+                    event.name = phaseMetrics.getName();
+                    event.compilationUnitsParsed = delta(counters, Counter.COMPILATION_UNITS_PARSED);
+                    event.nodesHashed = delta(counters, Counter.NODES_HASHED);
+                    event.edgesAdded = delta(counters, Counter.EDGES_ADDED);
+                    event.edgesRemoved = delta(counters, Counter.EDGES_REMOVED);
+                    event.symbolResolutions = delta(counters, Counter.SYMBOL_RESOLUTIONS);
+                    event.symbolResolutionFailures = delta(counters, Counter.SYMBOL_RESOLUTION_FAILURES);
+                    event.commit();
+                }
+            }
+        }
+
+        private long delta(Map<Counter, Long> counters, Counter counter) {
+            return counters.getOrDefault(counter, 0L) - startCounters.getOrDefault(counter, 0L);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.util.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * Flight recorder event for a knowledge source or a hook of a DependencyStrategy
+ */
+@Name("edu.tum.sse.dirts.Phase")
+@Label("Phase")
+@Category("DIRTS")
+@Description("Execution of a KnowledgeSource or of a hook of a DependencyStrategy")
+public class PhaseEvent extends Event {
+
+    @Label("Kind")
+    String kind;
+
+    @Label("Name")
+    String name;
+
+    @Label("Compilation Units Parsed")
+    long compilationUnitsParsed;
+
+    @Label("Nodes Hashed")
+    long nodesHashed;
+
+    @Label("Edges Added")
+    long edgesAdded;
+
+    @Label("Edges Removed")
+    long edgesRemoved;
+
+    @Label("Symbol Resolutions")
+    long symbolResolutions;
+
+    @Label("Symbol Resolution Failures")
+    long symbolResolutionFailures;
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.util.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Measurements of a single phase, accumulated over all its invocations
+ */
+public class PhaseMetrics {
+
+    //##################################################################################################################
+    // Attributes
+
+    private final String kind;
+    private final String name;
+
+    private final AtomicLong invocations = new AtomicLong();
+    private final AtomicLong wallTimeNanos = new AtomicLong();
+    private final AtomicLong cpuTimeNanos = new AtomicLong();
+    private final AtomicLong allocatedBytes = new AtomicLong();
+    private final AtomicLongArray counters = new AtomicLongArray(Counter.values().length);
+
+    //##################################################################################################################
+    // Constructors
+
+    PhaseMetrics(String kind, String name) {
+        this.kind = kind;
+        this.name = name;
+    }
+
+    //##################################################################################################################
+    // Methods
+
+    void record(long wallTime, long cpuTime, long allocated) {
+        invocations.incrementAndGet();
+        wallTimeNanos.addAndGet(wallTime);
+        if (cpuTime >= 0)
+            cpuTimeNanos.addAndGet(cpuTime);
+        if (allocated >= 0)
+            allocatedBytes.addAndGet(allocated);
+    }
+
+    void count(Counter counter, long delta) {
+        counters.addAndGet(counter.ordinal(), delta);
+    }
+
+    //##################################################################################################################
+    // Getters
+
+    public String getKind() {
+        return kind;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getInvocations() {
+        return invocations.get();
+    }
+
+    public long getWallTimeNanos() {
+        return wallTimeNanos.get();
+    }
+
+    public long getCpuTimeNanos() {
+        return cpuTimeNanos.get();
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes.get();
+    }
+
+    public Map<Counter, Long> getCounters() {
+        Map<Counter, Long> ret = new EnumMap<>(Counter.class);
+        for (Counter counter : Counter.values()) {
+            long value = counters.get(counter.ordinal());
+            if (value != 0)
+                ret.put(counter, value);
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.util.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * Flight recorder event for a symbol that could not be resolved
+ */
+@Name("edu.tum.sse.dirts.SymbolResolutionFailure")
+@Label("Symbol Resolution Failure")
+@Category("DIRTS")
+@Description("A symbol the analysis could not resolve")
+public class SymbolResolutionFailureEvent extends Event {
+
+    @Label("Name")
+    public String name;
+}
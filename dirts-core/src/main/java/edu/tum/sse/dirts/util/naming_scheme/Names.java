@@ -20,6 +20,7 @@ import com.github.javaparser.symbolsolver.javaparsermodel.declarations.JavaParse
 import com.github.javaparser.symbolsolver.model.resolution.SymbolReference;
 import com.github.javaparser.symbolsolver.model.resolution.TypeSolver;
 import edu.tum.sse.dirts.graph.DependencyGraph;
+import edu.tum.sse.dirts.util.AnalysisContext;
 import edu.tum.sse.dirts.util.Container;
 import edu.tum.sse.dirts.util.tuples.Pair;
 
@@ -37,17 +38,6 @@ public class Names {
 
     public static boolean DEBUG_INFO = false;
 
-    private static final Map<ResolvedValueDeclaration, Integer> unknownValueDeclarations =
-            new IdentityHashMap<>();
-
-    private static final UnresolvedLookupVisitor UNRESOLVED_LOOKUP_VISITOR;
-    private static final ResolvingLookupVisitor RESOLVING_LOOKUP_VISITOR;
-
-    static {
-        UNRESOLVED_LOOKUP_VISITOR = new UnresolvedLookupVisitor();
-        RESOLVING_LOOKUP_VISITOR = new ResolvingLookupVisitor(UNRESOLVED_LOOKUP_VISITOR);
-    }
-
     //##################################################################################################################
     // lookup for types that are only referenced in Strings for example in xml beans
 
@@ -100,7 +90,8 @@ public class Names {
     public static Pair<String, Optional<String>> lookup(Node subject) {
         Container<String> stringContainer = new Container<>(null);
         Container<Optional<String>> messageContainer = new Container<>(Optional.empty());
-        subject.accept(RESOLVING_LOOKUP_VISITOR, new Pair<>(stringContainer, messageContainer));
+        NamingState namingState = AnalysisContext.current().getNamingState();
+        subject.accept(namingState.resolvingLookupVisitor, new Pair<>(stringContainer, messageContainer));
         return new Pair<>(stringContainer.content, messageContainer.content);
     }
 
@@ -143,7 +134,8 @@ public class Names {
         } else if (isArrayLengthExpression(resolvedValueDeclaration)) {                         // ArrayLengthExpression
             return "Array.length";
         } else {
-            return getCustomName(unknownValueDeclarations, resolvedValueDeclaration);
+            NamingState namingState = AnalysisContext.current().getNamingState();
+            return getCustomName(namingState.unknownValueDeclarations, resolvedValueDeclaration);
         }
     }
 
@@ -183,12 +175,12 @@ public class Names {
     // Auxiliary methods
 
     private static <N> String getCustomName(Map<N, Integer> nMap, N n) {
-        if (!nMap.containsKey(n)) {
-            int value = nMap.size();
-            nMap.put(n, value);
+        Integer value;
+        synchronized (nMap) {
+            value = nMap.computeIfAbsent(n, k -> nMap.size());
         }
 
-        return (DEBUG_INFO ? "UnknownType_" + nMap.get(n) + n.getClass().getSimpleName() : "");
+        return (DEBUG_INFO ? "UnknownType_" + value + n.getClass().getSimpleName() : "");
     }
 
     private static boolean isArrayLengthExpression(ResolvedValueDeclaration resolvedValueDeclaration) {
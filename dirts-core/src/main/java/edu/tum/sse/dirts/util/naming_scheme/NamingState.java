@@ -0,0 +1,32 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.util.naming_scheme;
+
+import com.github.javaparser.resolution.declarations.ResolvedValueDeclaration;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * State of the naming scheme, i.e. the custom names assigned to nodes that cannot be named by their signature
+ * <p>
+ * Belongs to an AnalysisContext, so that concurrent executions do not share it.
+ */
+public class NamingState {
+
+    final Map<ResolvedValueDeclaration, Integer> unknownValueDeclarations = new IdentityHashMap<>();
+
+    final UnresolvedLookupVisitor unresolvedLookupVisitor = new UnresolvedLookupVisitor();
+
+    final ResolvingLookupVisitor resolvingLookupVisitor = new ResolvingLookupVisitor(unresolvedLookupVisitor);
+}
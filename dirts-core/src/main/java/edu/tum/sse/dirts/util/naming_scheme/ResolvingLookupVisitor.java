@@ -52,12 +52,12 @@ class ResolvingLookupVisitor extends VoidVisitorWithDefaults<Pair<Container<Stri
     // Methods
 
     private static <N> String getCustomName(Map<N, Integer> nMap, N n) {
-        if (!nMap.containsKey(n)) {
-            int value = nMap.size();
-            nMap.put(n, value);
+        Integer value;
+        synchronized (nMap) {
+            value = nMap.computeIfAbsent(n, k -> nMap.size());
         }
 
-        return n.getClass().getSimpleName() + "_" + nMap.get(n);
+        return n.getClass().getSimpleName() + "_" + value;
     }
 
     //##################################################################################################################
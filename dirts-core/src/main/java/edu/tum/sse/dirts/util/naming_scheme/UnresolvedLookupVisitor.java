@@ -38,12 +38,12 @@ class UnresolvedLookupVisitor extends VoidVisitorWithDefaults<Container<String>>
     // Methods
 
     private static <N> String getCustomName(Map<N, Integer> nMap, N n) {
-        if (!nMap.containsKey(n)) {
-            int value = nMap.size();
-            nMap.put(n, value);
+        Integer value;
+        synchronized (nMap) {
+            value = nMap.computeIfAbsent(n, k -> nMap.size());
         }
 
-        return "_" + nMap.get(n) + "_";
+        return "_" + value + "_";
     }
 
     //##################################################################################################################
@@ -0,0 +1,101 @@
+package edu.tum.sse.dirts.analysis.di;
+
+import edu.tum.sse.dirts.analysis.di.DIFrameworkDetector.DIFramework;
+import edu.tum.sse.dirts.util.DirtsUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DIFrameworkDetectorTest {
+
+    @TempDir
+    Path rootPath;
+
+    @Test
+    void testDetectFromLibraries() throws IOException {
+        /* given */
+        Path librariesPath = DirtsUtil.getLibrariesPath(rootPath, Path.of(""));
+        Files.createDirectories(librariesPath.getParent());
+        Files.writeString(librariesPath, "/repo/com/google/inject/guice/5.1.0/guice-5.1.0.jar:" +
+                "/repo/junit/junit/4.13.2/junit-4.13.2.jar");
+
+        DIFrameworkDetector sut = new DIFrameworkDetector(rootPath, Path.of(""));
+
+        /* when */
+        Set<DIFramework> frameworks = sut.detect();
+
+        /* then */
+        assertThat(frameworks).containsExactly(DIFramework.GUICE);
+    }
+
+    @Test
+    void testDetectFromImports() throws IOException {
+        /* given */
+        Path sourcePath = rootPath.resolve("src/main/java/a/Service.java");
+        Files.createDirectories(sourcePath.getParent());
+        Files.writeString(sourcePath, "/*\n * header\n */\npackage a;\n\n" +
+                "import java.util.List;\n" +
+                "import org.springframework.stereotype.Component;\n\n" +
+                "@Component\npublic class Service {\n}\n");
+
+        // should be ignored since it is build output
+        Path generatedPath = rootPath.resolve("target/generated-sources/a/Generated.java");
+        Files.createDirectories(generatedPath.getParent());
+        Files.writeString(generatedPath, "package a;\nimport javax.enterprise.inject.Produces;\nclass Generated {}\n");
+
+        DIFrameworkDetector sut = new DIFrameworkDetector(rootPath, Path.of(""));
+
+        /* when */
+        Set<DIFramework> frameworks = sut.detect();
+
+        /* then */
+        assertThat(frameworks).containsExactly(DIFramework.SPRING);
+    }
+
+    @Test
+    void testPreviouslyDetectedFrameworksAreConsideredOnce() throws IOException {
+        /* given */
+        Path sourcePath = rootPath.resolve("src/main/java/a/Module.java");
+        Files.createDirectories(sourcePath.getParent());
+        Files.writeString(sourcePath, "package a;\nimport com.google.inject.AbstractModule;\nclass Module {}\n");
+        DIFrameworkDetector sut = new DIFrameworkDetector(rootPath, Path.of(""));
+        DIFrameworkDetector.exportFrameworks(rootPath, Path.of(""), "class_level", sut.detect());
+
+        Files.writeString(sourcePath, "package a;\nclass Module {}\n");
+
+        /* when */
+        Set<DIFramework> detected = sut.detect();
+        Set<DIFramework> firstRun = sut.withPreviousFrameworks(detected, "class_level");
+        Set<DIFramework> otherLevel = sut.withPreviousFrameworks(detected, "method_level");
+
+        DIFrameworkDetector.exportFrameworks(rootPath, Path.of(""), "class_level", detected);
+        Set<DIFramework> secondRun = sut.withPreviousFrameworks(sut.detect(), "class_level");
+
+        /* then */
+        assertThat(firstRun).containsExactly(DIFramework.GUICE);
+        assertThat(otherLevel).isEmpty();
+        assertThat(secondRun).isEmpty();
+    }
+
+    @Test
+    void testFrameworksAreConsideredUntilExported() throws IOException {
+        /* given */
+        DIFrameworkDetector sut = new DIFrameworkDetector(rootPath, Path.of(""));
+        DIFrameworkDetector.exportFrameworks(rootPath, Path.of(""), "class_level", Set.of(DIFramework.CDI));
+
+        /* when */
+        // e.g. the analysis has failed or the selection has been reused, nothing is exported
+        Set<DIFramework> firstRun = sut.withPreviousFrameworks(sut.detect(), "class_level");
+        Set<DIFramework> secondRun = sut.withPreviousFrameworks(sut.detect(), "class_level");
+
+        /* then */
+        assertThat(firstRun).containsExactly(DIFramework.CDI);
+        assertThat(secondRun).containsExactly(DIFramework.CDI);
+    }
+}
@@ -0,0 +1,76 @@
+package edu.tum.sse.dirts.analysis.di;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.tum.sse.dirts.util.tuples.Triple;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+
+class DIStorageCodecTest {
+
+    @TempDir
+    Path tmpPath;
+
+    @Test
+    void testBeansRoundTrip() throws IOException {
+        /* given */
+        BeanStorage<Set<String>> beans = new BeanStorage<>();
+        beans.addBeanByName("repository", Set.of("edu.tum.Repository", "edu.tum.Config.repository()"));
+        beans.addBeanByType("edu.tum.Repository", Set.of("edu.tum.Repository", "edu.tum.Config.repository()"));
+        beans.addBeanByQualifier("primary", Set.of("edu.tum.Service"));
+        Path path = tmpPath.resolve("beans");
+
+        /* when */
+        DIStorageCodec.writeBeans(beans, path);
+        BeanStorage<Set<String>> read = DIStorageCodec.readBeans(path);
+
+        /* then */
+        assertThat(read.getAllBeans()).isEqualTo(beans.getAllBeans());
+        assertThat(read.getBeansByName()).isEqualTo(beans.getBeansByName());
+        assertThat(read.getBeansByType()).isEqualTo(beans.getBeansByType());
+        assertThat(read.getBeansByQualifier()).isEqualTo(beans.getBeansByQualifier());
+    }
+
+    @Test
+    void testInjectionPointsRoundTrip() throws IOException {
+        /* given */
+        InjectionPointStorage injectionPoints = new InjectionPointStorage();
+        injectionPoints.addInjectionPoint("edu.tum.Service.repository", "edu.tum.Repository", null, Set.of());
+        injectionPoints.addInjectionPoint("edu.tum.Service.repository", (String) null, "repository", Set.of("primary"));
+        Path path = tmpPath.resolve("injection_points");
+
+        /* when */
+        DIStorageCodec.writeInjectionPoints(injectionPoints, path);
+        InjectionPointStorage read = DIStorageCodec.readInjectionPoints(path);
+
+        /* then */
+        assertThat(read.getInjectionPoints()).containsOnlyKeys("edu.tum.Service.repository");
+        assertThat(read.getInjectionPoints().get("edu.tum.Service.repository"))
+                .extracting(Triple::getFirst, Triple::getSecond, Triple::getThird)
+                .containsExactlyInAnyOrder(
+                        tuple("edu.tum.Repository", null, Set.of()),
+                        tuple(null, "repository", Set.of("primary")));
+    }
+
+    @Test
+    void testReadLegacyJSON() throws IOException {
+        /* given */
+        BeanStorage<Set<String>> beans = new BeanStorage<>();
+        beans.addBeanByName("repository", Set.of("edu.tum.Repository"));
+        Path path = tmpPath.resolve("beans");
+        Files.writeString(path, new ObjectMapper().writeValueAsString(beans));
+
+        /* when */
+        BeanStorage<Set<String>> read = DIStorageCodec.readBeans(path);
+
+        /* then */
+        assertThat(read.getBeansByName()).isEqualTo(beans.getBeansByName());
+    }
+}
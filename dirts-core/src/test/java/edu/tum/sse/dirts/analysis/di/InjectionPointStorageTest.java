@@ -0,0 +1,33 @@
+package edu.tum.sse.dirts.analysis.di;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InjectionPointStorageTest {
+
+    @Test
+    void testLookupInjectionPoints() {
+        /* given */
+        InjectionPointStorage injectionPoints = new InjectionPointStorage();
+        injectionPoints.addInjectionPoint("edu.tum.A.repository", "edu.tum.Repository", null, Set.of());
+        injectionPoints.addInjectionPoint("edu.tum.B.service", "edu.tum.Service", null, Set.of());
+        injectionPoints.addInjectionPoint("edu.tum.C.named", (String) null, "named", Set.of());
+
+        InjectionPointStorage changed = new InjectionPointStorage();
+        changed.addInjectionPoint("edu.tum.B.service", "edu.tum.Repository", null, Set.of());
+
+        /* when */
+        injectionPoints.addAll(changed);
+        injectionPoints.removeInjectionPoint("edu.tum.A.repository");
+
+        /* then */
+        assertThat(injectionPoints.lookupInjectionPoints(List.of("edu.tum.Repository")))
+                .containsExactlyInAnyOrder("edu.tum.B.service", "edu.tum.C.named");
+        assertThat(injectionPoints.lookupInjectionPoints(List.of("edu.tum.Service")))
+                .containsExactly("edu.tum.C.named");
+    }
+}
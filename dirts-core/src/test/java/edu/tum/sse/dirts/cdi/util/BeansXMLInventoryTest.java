@@ -0,0 +1,54 @@
+package edu.tum.sse.dirts.cdi.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BeansXMLInventoryTest {
+
+    private static final String BEANS_XML = "<beans xmlns=\"https://jakarta.ee/xml/ns/jakartaee\">\n" +
+            "    <alternatives>\n" +
+            "        <class>%s</class>\n" +
+            "        <stereotype>edu.tum.Mock</stereotype>\n" +
+            "    </alternatives>\n" +
+            "</beans>\n";
+
+    @TempDir
+    Path modulePath;
+
+    @Test
+    void testUpdate() throws IOException {
+        /* given */
+        Path beansXMLPath = modulePath.resolve("src/main/resources/META-INF/beans.xml");
+        Files.createDirectories(beansXMLPath.getParent());
+        Files.writeString(beansXMLPath, String.format(BEANS_XML, "edu.tum.FirstAlternative"));
+
+        // build output should be ignored
+        Path copiedBeansXMLPath = modulePath.resolve("target/classes/META-INF/beans.xml");
+        Files.createDirectories(copiedBeansXMLPath.getParent());
+        Files.writeString(copiedBeansXMLPath, String.format(BEANS_XML, "edu.tum.Ignored"));
+
+        /* when */
+        BeansXMLInventory first = BeansXMLInventory.update(null, modulePath);
+        BeansXMLInventory unchanged = BeansXMLInventory.update(first, modulePath);
+
+        Files.writeString(beansXMLPath, String.format(BEANS_XML, "edu.tum.SecondAlternative"));
+        Files.setLastModifiedTime(beansXMLPath, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+        BeansXMLInventory changed = BeansXMLInventory.update(unchanged, modulePath);
+
+        /* then */
+        String key = Path.of("src/main/resources/META-INF/beans.xml").toString();
+        assertThat(first.getEntries()).containsOnlyKeys(key);
+        assertThat(first.getAllAlternatives()).containsExactly("edu.tum.FirstAlternative");
+
+        assertThat(unchanged.getEntries().get(key)).isSameAs(first.getEntries().get(key));
+
+        assertThat(changed.getAllAlternatives()).containsExactly("edu.tum.SecondAlternative");
+    }
+}
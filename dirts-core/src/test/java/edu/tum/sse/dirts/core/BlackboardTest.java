@@ -0,0 +1,67 @@
+package edu.tum.sse.dirts.core;
+
+import com.github.javaparser.ast.body.TypeDeclaration;
+import edu.tum.sse.dirts.core.control.ClassLevelControl;
+import edu.tum.sse.dirts.daemon.WarmState;
+import org.apache.maven.surefire.api.testset.TestListResolver;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BlackboardTest {
+
+    @TempDir
+    Path tmpPath;
+
+    @Test
+    void testReanalysisSelectsTestsAffectedSinceImportedRevision() throws IOException {
+        /* given */
+        Path mainPath = Files.createDirectories(tmpPath.resolve("src/main/java/p"));
+        Path testPath = Files.createDirectories(tmpPath.resolve("src/test/java/p"));
+        Files.writeString(mainPath.resolve("A.java"), "package p; public class A { int f() { return 1; } }");
+        Files.writeString(mainPath.resolve("B.java"), "package p; public class B { int g() { return 2; } }");
+        Files.writeString(testPath.resolve("ATest.java"), "package p; import org.junit.jupiter.api.Test; " +
+                "public class ATest { @Test void t() { new A().f(); } }");
+        Files.writeString(testPath.resolve("BTest.java"), "package p; import org.junit.jupiter.api.Test; " +
+                "public class BTest { @Test void t() { new B().g(); } }");
+        new ClassLevelControl(createBlackboard(), true).getSelectedTests(Set.of());
+
+        Blackboard<TypeDeclaration<?>> blackboard = createBlackboard();
+        blackboard.setWarmState(new WarmState());
+        new ClassLevelControl(blackboard, false).getSelectedTests(Set.of());
+
+        /* when */
+        Files.writeString(mainPath.resolve("B.java"), "package p; public class B { int g() { return 3; } }");
+        blackboard.prepareReanalysis(Set.of(mainPath.resolve("B.java")));
+        Set<String> firstSelection = affected(new ClassLevelControl(blackboard, false).getSelectedTests(Set.of()));
+
+        Files.writeString(mainPath.resolve("A.java"), "package p; public class A { int f() { return 4; } }");
+        blackboard.prepareReanalysis(Set.of(mainPath.resolve("A.java")));
+        Set<String> secondSelection = affected(new ClassLevelControl(blackboard, false).getSelectedTests(Set.of()));
+
+        /* then */
+        assertThat(firstSelection).containsOnly("p.BTest");
+        assertThat(secondSelection).containsOnly("p.ATest", "p.BTest");
+    }
+
+    private Blackboard<TypeDeclaration<?>> createBlackboard() {
+        Blackboard<TypeDeclaration<?>> blackboard = new Blackboard<>(tmpPath, Path.of(""), "class_level");
+        blackboard.setTestFilter(new TestListResolver("**/*Test.java"));
+        return blackboard;
+    }
+
+    private static Set<String> affected(Map<String, Set<String>> selectedTests) {
+        return selectedTests.entrySet().stream()
+                .filter(e -> e.getKey() != null)
+                .flatMap(e -> e.getValue().stream())
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,105 @@
+package edu.tum.sse.dirts.core.control;
+
+import com.github.javaparser.ast.body.TypeDeclaration;
+import edu.tum.sse.dirts.core.Blackboard;
+import edu.tum.sse.dirts.core.BlackboardState;
+import edu.tum.sse.dirts.core.KnowledgeSource;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static edu.tum.sse.dirts.core.BlackboardState.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KnowledgeSourceSchedulerTest {
+
+    @Test
+    void testIndependentKnowledgeSourcesRunConcurrently() {
+        /* given */
+        Blackboard<TypeDeclaration<?>> blackboard = new Blackboard<>(Path.of(""), Path.of(""), "test");
+        List<BlackboardState> finished = new CopyOnWriteArrayList<>();
+
+        // both need to run at the same time to pass the latch
+        CountDownLatch latch = new CountDownLatch(2);
+        blackboard.addKnowledgeSource(new TestKnowledgeSource(blackboard, Set.of(TYPE_SOLVER_SET), DONE, finished, null));
+        blackboard.addKnowledgeSource(new TestKnowledgeSource(blackboard, Set.of(), IMPORTED, finished, latch));
+        blackboard.addKnowledgeSource(new TestKnowledgeSource(blackboard, Set.of(), TYPE_SOLVER_SET, finished, latch));
+
+        /* when */
+        new KnowledgeSourceScheduler<>(blackboard, 2).applyKnowledgeSources();
+
+        /* then */
+        assertThat(blackboard.getState()).isEqualTo(DONE);
+        assertThat(finished).containsExactlyInAnyOrder(IMPORTED, TYPE_SOLVER_SET, DONE);
+        assertThat(finished.indexOf(TYPE_SOLVER_SET)).isLessThan(finished.indexOf(DONE));
+    }
+
+    @Test
+    void testUndeclaredKnowledgeSourcesAreNotScheduled() {
+        /* given */
+        Blackboard<TypeDeclaration<?>> blackboard = new Blackboard<>(Path.of(""), Path.of(""), "test");
+        KnowledgeSource<TypeDeclaration<?>> declared =
+                new TestKnowledgeSource(blackboard, Set.of(), IMPORTED, List.of(), null);
+        KnowledgeSource<TypeDeclaration<?>> undeclared =
+                new TestKnowledgeSource(blackboard, null, DONE, List.of(), null);
+
+        /* then */
+        assertThat(KnowledgeSourceScheduler.isApplicable(List.of(declared))).isTrue();
+        assertThat(KnowledgeSourceScheduler.isApplicable(List.of(declared, undeclared))).isFalse();
+    }
+
+    private static class TestKnowledgeSource extends KnowledgeSource<TypeDeclaration<?>> {
+
+        private final Set<BlackboardState> requiredStates;
+        private final BlackboardState providedState;
+        private final List<BlackboardState> finished;
+        private final CountDownLatch latch;
+
+        TestKnowledgeSource(Blackboard<TypeDeclaration<?>> blackboard,
+                            Set<BlackboardState> requiredStates,
+                            BlackboardState providedState,
+                            List<BlackboardState> finished,
+                            CountDownLatch latch) {
+            super(blackboard);
+            this.requiredStates = requiredStates;
+            this.providedState = providedState;
+            this.finished = finished;
+            this.latch = latch;
+        }
+
+        @Override
+        public BlackboardState updateBlackboard() {
+            if (latch != null) {
+                latch.countDown();
+                try {
+                    if (!latch.await(10, TimeUnit.SECONDS))
+                        return FAILED;
+                } catch (InterruptedException e) {
+                    return FAILED;
+                }
+            }
+            finished.add(providedState);
+            return providedState;
+        }
+
+        @Override
+        public boolean executeCondition() {
+            return false;
+        }
+
+        @Override
+        public Set<BlackboardState> getRequiredStates() {
+            return requiredStates;
+        }
+
+        @Override
+        public BlackboardState getProvidedState() {
+            return providedState;
+        }
+    }
+}
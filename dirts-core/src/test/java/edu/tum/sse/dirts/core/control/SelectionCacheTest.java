@@ -0,0 +1,121 @@
+package edu.tum.sse.dirts.core.control;
+
+import com.github.javaparser.ast.body.TypeDeclaration;
+import edu.tum.sse.dirts.core.Blackboard;
+import edu.tum.sse.dirts.graph.EdgeType;
+import org.apache.maven.surefire.api.testset.TestListResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SelectionCacheTest {
+
+    @TempDir
+    Path tmpPath;
+
+    private Path mainPath;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mainPath = tmpPath.resolve("src/main/java/p");
+        Path testPath = tmpPath.resolve("src/test/java/p");
+        Files.createDirectories(mainPath);
+        Files.createDirectories(testPath);
+        Files.writeString(mainPath.resolve("A.java"), "package p; public class A { int f() { return 1; } }");
+        Files.writeString(mainPath.resolve("B.java"), "package p; public class B { int g() { return 2; } }");
+        Files.writeString(testPath.resolve("ATest.java"), "package p; import org.junit.jupiter.api.Test; " +
+                "public class ATest { @Test void t() { new A().f(); } }");
+        Files.writeString(testPath.resolve("BTest.java"), "package p; import org.junit.jupiter.api.Test; " +
+                "public class BTest { @Test void t() { new B().g(); } }");
+    }
+
+    @Test
+    void testIdenticalTreeReusesSelection() {
+        /* given */
+        ClassLevelControl firstControl = createControl();
+        Map<String, Set<String>> firstSelection = firstControl.getSelectedTests(Set.of());
+
+        /* when */
+        ClassLevelControl secondControl = createControl();
+        Map<String, Set<String>> secondSelection = secondControl.getSelectedTests(Set.of());
+
+        /* then */
+        assertThat(firstControl.isSelectionReused()).isFalse();
+        assertThat(secondControl.isSelectionReused()).isTrue();
+        assertThat(secondSelection).isEqualTo(firstSelection);
+    }
+
+    @Test
+    void testChangedTreeOrConfigurationIsAnalyzed() throws IOException {
+        /* given */
+        createControl().getSelectedTests(Set.of());
+
+        /* when */
+        ClassLevelControl otherConfiguration = createControl();
+        otherConfiguration.getSelectedTests(Set.of(EdgeType.DI_SPRING));
+
+        Files.writeString(mainPath.resolve("A.java"), "package p; public class A { int f() { return 3; } }");
+        ClassLevelControl changedTree = createControl();
+        Map<String, Set<String>> selection = changedTree.getSelectedTests(Set.of());
+
+        /* then */
+        assertThat(otherConfiguration.isSelectionReused()).isFalse();
+        assertThat(changedTree.isSelectionReused()).isFalse();
+        assertThat(selection.entrySet().stream()
+                .filter(e -> e.getKey() != null)
+                .flatMap(e -> e.getValue().stream()))
+                .containsOnly("p.ATest");
+    }
+
+    @Test
+    void testChangeInUpstreamModuleIsAnalyzed() throws IOException {
+        /* given */
+        Path upstreamPath = tmpPath.resolve("upstream/src/main/java/u");
+        Path downstreamPath = tmpPath.resolve("downstream/src/test/java/d");
+        Files.createDirectories(upstreamPath);
+        Files.createDirectories(downstreamPath);
+        Files.createDirectories(tmpPath.resolve("upstream/target/classes"));
+        Files.writeString(upstreamPath.resolve("U.java"), "package u; public class U { int f() { return 1; } }");
+        Files.writeString(downstreamPath.resolve("DTest.java"), "package d; import org.junit.jupiter.api.Test; " +
+                "public class DTest { @Test void t() { new u.U(); } }");
+
+        createControl(Path.of("upstream")).getSelectedTests(Set.of());
+        createControl(Path.of("downstream")).getSelectedTests(Set.of());
+
+        /* when */
+        // only the upstream module changes
+        Files.writeString(upstreamPath.resolve("U.java"), "package u; public class U { int f() { return 2; } }");
+        createControl(Path.of("upstream")).getSelectedTests(Set.of());
+
+        ClassLevelControl downstream = createControl(Path.of("downstream"));
+        Map<String, Set<String>> selection = downstream.getSelectedTests(Set.of());
+
+        /* then */
+        assertThat(downstream.isSelectionReused()).isFalse();
+        assertThat(selection.entrySet().stream()
+                .filter(e -> e.getKey() != null)
+                .flatMap(e -> e.getValue().stream()))
+                .containsOnly("d.DTest");
+    }
+
+    private ClassLevelControl createControl() {
+        return createControl(Path.of(""));
+    }
+
+    private ClassLevelControl createControl(Path subPath) {
+        Blackboard<TypeDeclaration<?>> blackboard = new Blackboard<>(tmpPath, subPath, "class_level");
+        blackboard.setLibraries(List.of(tmpPath.resolve("upstream/target/classes")));
+        blackboard.setTestFilter(new TestListResolver("**/*Test.java"));
+        blackboard.setSelectionCaching(true);
+        return new ClassLevelControl(blackboard, true);
+    }
+}
@@ -3,6 +3,7 @@ package edu.tum.sse.dirts.core.knowledgesources;
 import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.body.TypeDeclaration;
 import edu.tum.sse.dirts.analysis.FinderVisitor;
+import edu.tum.sse.dirts.core.AnalysisPlan;
 import edu.tum.sse.dirts.core.Blackboard;
 import edu.tum.sse.dirts.core.BlackboardState;
 import edu.tum.sse.dirts.core.knowledgesources.graph_cropper.ClassLevelGraphCropper;
@@ -34,6 +35,7 @@ public class ClassLevelGraphCropperTest extends KnowledgeSourceTest {
         when(blackboardMock.getSubPath()).thenReturn(subPath);
 
         when(blackboardMock.getDependencyGraphNewRevision()).thenReturn(dependencyGraph);
+        when(blackboardMock.getAnalysisPlan()).thenReturn(AnalysisPlan.INCREMENTAL);
 
         BlackboardState blackboardState = sut.updateBlackboard();
 
@@ -0,0 +1,51 @@
+package edu.tum.sse.dirts.core.knowledgesources;
+
+import edu.tum.sse.dirts.graph.DependencyGraph;
+import edu.tum.sse.dirts.graph.EdgeType;
+import edu.tum.sse.dirts.util.DirtsUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeyValueStateBackendTest {
+
+    @TempDir
+    Path rootPath;
+
+    private final Path subPath = Path.of("");
+
+    @Test
+    void testReadWrittenState() throws Exception {
+        /* given */
+        DependencyGraph graph = new DependencyGraph();
+        graph.addNode("A");
+        graph.addNode("ATest");
+        graph.addEdge("ATest", "A", EdgeType.DELEGATION);
+        Map<String, Integer> checksums = Map.of("A", 1, "ATest", 2);
+        Map<String, String> compilationUnitMapping = Map.of("A", "A.java", "ATest", "ATest.java");
+
+        Path graphPath = DirtsUtil.getGraphPath(rootPath, subPath, "test");
+        Files.createDirectories(graphPath.getParent());
+        Files.writeString(graphPath, "{}");
+
+        /* when */
+        new KeyValueStateBackend(rootPath, subPath, "test").write(graph, checksums, compilationUnitMapping);
+        KeyValueStateBackend sut = new KeyValueStateBackend(rootPath, subPath, "test");
+
+        /* then */
+        assertThat(sut.exists()).isTrue();
+        assertThat(graphPath).doesNotExist();
+
+        DependencyGraph readGraph = sut.readGraph();
+        assertThat(readGraph.getNodes()).containsExactlyInAnyOrder("A", "ATest");
+        assertThat(readGraph.reachingNodes(Set.of("A"))).contains("ATest");
+        assertThat(sut.readChecksums()).isEqualTo(checksums);
+        assertThat(sut.readCompilationUnitMapping()).isEqualTo(compilationUnitMapping);
+    }
+}
@@ -60,6 +60,22 @@ public class ParserTest extends KnowledgeSourceTest {
                 .doesNotContain("Foo");
     }
 
+    @Test
+    public void testSharedSourcesAreNotParsedAgain() {
+        /* given */
+        Blackboard<TypeDeclaration<?>> blackboardMock = mock(Blackboard.class);
+        Parser<TypeDeclaration<?>> sut = new Parser<>(blackboardMock);
+
+        /* when */
+        when(blackboardMock.isSourcesShared()).thenReturn(true);
+
+        BlackboardState blackboardState = sut.updateBlackboard();
+
+        /* then */
+        assertThat(blackboardState).isEqualTo(resultState);
+        verify(blackboardMock, never()).setCompilationUnits(any());
+    }
+
     @Test
     public void testImportCompilationUnits() throws IOException, NoSuchMethodException, InvocationTargetException, IllegalAccessException {
         // given
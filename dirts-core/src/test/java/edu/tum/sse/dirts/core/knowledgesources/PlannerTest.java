@@ -0,0 +1,137 @@
+package edu.tum.sse.dirts.core.knowledgesources;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import edu.tum.sse.dirts.core.AnalysisPlan;
+import edu.tum.sse.dirts.core.Blackboard;
+import edu.tum.sse.dirts.core.BlackboardState;
+import edu.tum.sse.dirts.graph.DependencyGraph;
+import edu.tum.sse.dirts.graph.EdgeType;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static edu.tum.sse.dirts.core.BlackboardState.PLANNED;
+import static edu.tum.sse.dirts.core.BlackboardState.READY_TO_CALCULATE_AFFECTED_TESTS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class PlannerTest extends KnowledgeSourceTest {
+
+    private final BlackboardState resultState = PLANNED;
+
+    @Test
+    public void testUpdateBlackboard() {
+        /* given */
+        Blackboard<TypeDeclaration<?>> blackboardMock = mock(Blackboard.class);
+        Planner<TypeDeclaration<?>> sut = new Planner<>(blackboardMock);
+
+        /* when */
+        when(blackboardMock.isPlanning()).thenReturn(false);
+
+        BlackboardState blackboardState = sut.updateBlackboard();
+
+        /* then */
+        assertThat(blackboardState).isEqualTo(resultState);
+        verify(blackboardMock, never()).setAnalysisPlan(any());
+    }
+
+    @Test
+    public void testRunAllIfMostTestsAreAffected() {
+        /* given */
+        Blackboard<TypeDeclaration<?>> blackboardMock = mock(Blackboard.class);
+        Planner<TypeDeclaration<?>> sut = new Planner<>(blackboardMock);
+
+        DependencyGraph graphOldRevision = new DependencyGraph();
+        graphOldRevision.addEdge("ATest", "Changed", EdgeType.NEW);
+        graphOldRevision.addEdge("BTest", "Uses", EdgeType.NEW);
+        graphOldRevision.addEdge("Uses", "Changed", EdgeType.NEW);
+        graphOldRevision.addEdge("CTest", "Unchanged", EdgeType.NEW);
+
+        Map<String, Node> nodesDifferent = new HashMap<>();
+        nodesDifferent.put("Changed", null);
+
+        ArgumentCaptor<AnalysisPlan> analysisPlanCaptor = ArgumentCaptor.forClass(AnalysisPlan.class);
+
+        /* when */
+        mockPlanning(blackboardMock, graphOldRevision, nodesDifferent);
+        when(blackboardMock.getRunAllThreshold()).thenReturn(0.6);
+
+        BlackboardState blackboardState = sut.updateBlackboard();
+
+        /* then */
+        assertThat(blackboardState).isEqualTo(READY_TO_CALCULATE_AFFECTED_TESTS);
+        verify(blackboardMock).setAnalysisPlan(analysisPlanCaptor.capture());
+        assertThat(analysisPlanCaptor.getValue().isRunAll()).isTrue();
+        assertThat(analysisPlanCaptor.getValue().isRecomputeAll()).isFalse();
+    }
+
+    @Test
+    public void testIncrementalIfFewTestsAreAffected() {
+        /* given */
+        Blackboard<TypeDeclaration<?>> blackboardMock = mock(Blackboard.class);
+        Planner<TypeDeclaration<?>> sut = new Planner<>(blackboardMock);
+
+        DependencyGraph graphOldRevision = new DependencyGraph();
+        graphOldRevision.addEdge("ATest", "Changed", EdgeType.NEW);
+        graphOldRevision.addEdge("BTest", "Unchanged", EdgeType.NEW);
+        graphOldRevision.addEdge("CTest", "Unchanged", EdgeType.NEW);
+
+        Map<String, Node> nodesDifferent = new HashMap<>();
+        nodesDifferent.put("Changed", null);
+
+        ArgumentCaptor<AnalysisPlan> analysisPlanCaptor = ArgumentCaptor.forClass(AnalysisPlan.class);
+
+        /* when */
+        mockPlanning(blackboardMock, graphOldRevision, nodesDifferent);
+        when(blackboardMock.getRunAllThreshold()).thenReturn(0.6);
+
+        sut.updateBlackboard();
+
+        /* then */
+        verify(blackboardMock).setAnalysisPlan(analysisPlanCaptor.capture());
+        assertThat(analysisPlanCaptor.getValue()).isSameAs(AnalysisPlan.INCREMENTAL);
+    }
+
+    @Test
+    public void testRunAllIfBuildFilesChanged() {
+        /* given */
+        Blackboard<TypeDeclaration<?>> blackboardMock = mock(Blackboard.class);
+        Planner<TypeDeclaration<?>> sut = new Planner<>(blackboardMock);
+
+        ArgumentCaptor<AnalysisPlan> analysisPlanCaptor = ArgumentCaptor.forClass(AnalysisPlan.class);
+
+        /* when */
+        mockPlanning(blackboardMock, new DependencyGraph(), new HashMap<>());
+        when(blackboardMock.getChecksumsBuildFiles()).thenReturn(Map.of("pom.xml", 42));
+
+        sut.updateBlackboard();
+
+        /* then */
+        verify(blackboardMock).setAnalysisPlan(analysisPlanCaptor.capture());
+        assertThat(analysisPlanCaptor.getValue().isRunAll()).isTrue();
+        assertThat(analysisPlanCaptor.getValue().getRunAllReason()).contains("pom.xml");
+    }
+
+    //##################################################################################################################
+    // Auxiliary methods
+
+    private void mockPlanning(Blackboard<TypeDeclaration<?>> blackboardMock,
+                              DependencyGraph graphOldRevision,
+                              Map<String, Node> nodesDifferent) {
+        when(blackboardMock.getRootPath()).thenReturn(rootPath);
+        when(blackboardMock.getSubPath()).thenReturn(subPath);
+        when(blackboardMock.getSuffix()).thenReturn(suffix);
+        when(blackboardMock.isPlanning()).thenReturn(true);
+        when(blackboardMock.getDependencyGraphOldRevision()).thenReturn(graphOldRevision);
+        when(blackboardMock.getTests()).thenReturn(List.of("ATest", "BTest", "CTest"));
+        when(blackboardMock.getNodesDifferent()).thenReturn(nodesDifferent);
+        when(blackboardMock.getNodesAdded()).thenReturn(new HashMap<>());
+        when(blackboardMock.getNodesRemoved()).thenReturn(new HashMap<>());
+        when(blackboardMock.getCompilationUnits()).thenReturn(List.of());
+    }
+}
@@ -3,14 +3,22 @@ package edu.tum.sse.dirts.core.knowledgesources;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.github.javaparser.ast.body.TypeDeclaration;
 import edu.tum.sse.dirts.analysis.def.checksum.ChecksumVisitor;
+import edu.tum.sse.dirts.analysis.di.DIFrameworkDetector.DIFramework;
+import edu.tum.sse.dirts.core.AnalysisPlan;
 import edu.tum.sse.dirts.core.Blackboard;
 import edu.tum.sse.dirts.core.BlackboardState;
 import edu.tum.sse.dirts.core.strategies.DependencyStrategy;
 import edu.tum.sse.dirts.graph.DependencyGraph;
+import edu.tum.sse.dirts.util.DirtsUtil;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static edu.tum.sse.dirts.core.BlackboardState.DONE;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -21,6 +29,10 @@ public class ProjectExporterTest extends KnowledgeSourceTest {
 
     private final BlackboardState resultState = DONE;
 
+    // the exported files must not overwrite the files in the test resources
+    @TempDir
+    Path exportRootPath;
+
     @Test
     public void testUpdateBlackboard() throws JsonProcessingException {
         /* given */
@@ -35,9 +47,11 @@ public class ProjectExporterTest extends KnowledgeSourceTest {
         Map<String, Integer> checksums = Map.of("edu.tum.sse.dirts.test_code.AClass", 42);
 
         /* when */
-        when(blackboardMock.getRootPath()).thenReturn(rootPath);
+        when(blackboardMock.getRootPath()).thenReturn(exportRootPath);
         when(blackboardMock.getSubPath()).thenReturn(subPath);
         when(blackboardMock.getSuffix()).thenReturn("test");
+        when(blackboardMock.getAnalysisPlan()).thenReturn(AnalysisPlan.INCREMENTAL);
+        when(blackboardMock.getDetectedFrameworks()).thenReturn(Set.of(DIFramework.SPRING));
 
         when(blackboardMock.getDependencyStrategies()).thenReturn(List.of(dependencyStrategyMock));
 
@@ -65,5 +79,40 @@ public class ProjectExporterTest extends KnowledgeSourceTest {
 
         // dependencyStrategies should be considered
         verify(dependencyStrategyMock).doExport(any(), same(blackboardMock), eq(suffix));
+
+        // detected frameworks are exported together with the state
+        assertThat(DirtsUtil.getDIFrameworksPath(exportRootPath, subPath, suffix)).content().contains("SPRING");
+    }
+
+    @Test
+    public void testDropStateIfAllTestsAreRun() throws IOException {
+        /* given */
+        Blackboard<TypeDeclaration<?>> blackboardMock = mock(Blackboard.class);
+        ChecksumVisitor<TypeDeclaration<?>> checksumVisitorMock = mock(ChecksumVisitor.class);
+        ProjectExporter<TypeDeclaration<?>> sut = new ProjectExporter<>(blackboardMock, checksumVisitorMock, true);
+
+        DependencyStrategy<TypeDeclaration<?>> dependencyStrategyMock = mock(DependencyStrategy.class);
+
+        Path graphPath = DirtsUtil.getGraphPath(exportRootPath, subPath, suffix);
+        Files.createDirectories(graphPath.getParent());
+        Files.writeString(graphPath, "{ }");
+
+        /* when */
+        when(blackboardMock.getRootPath()).thenReturn(exportRootPath);
+        when(blackboardMock.getSubPath()).thenReturn(subPath);
+        when(blackboardMock.getSuffix()).thenReturn(suffix);
+        when(blackboardMock.getAnalysisPlan()).thenReturn(AnalysisPlan.runAll("build files changed: pom.xml"));
+
+        when(blackboardMock.getDependencyStrategies()).thenReturn(List.of(dependencyStrategyMock));
+
+        BlackboardState blackboardState = sut.updateBlackboard();
+
+        /* then */
+        assertThat(blackboardState).isEqualTo(resultState);
+        assertThat(graphPath).doesNotExist();
+
+        // no graph has been calculated
+        verify(blackboardMock, never()).getDependencyGraphNewRevision();
+        verify(dependencyStrategyMock, never()).doExport(any(), any(), any());
     }
-}
\ No newline at end of file
+}
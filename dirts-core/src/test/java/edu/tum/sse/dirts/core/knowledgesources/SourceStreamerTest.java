@@ -0,0 +1,114 @@
+package edu.tum.sse.dirts.core.knowledgesources;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import edu.tum.sse.dirts.analysis.def.checksum.ClassLevelChecksumVisitor;
+import edu.tum.sse.dirts.analysis.def.finders.ClassLevelNameFinderVisitor;
+import edu.tum.sse.dirts.analysis.def.finders.ClassLevelTestFinderVisitor;
+import edu.tum.sse.dirts.core.Blackboard;
+import edu.tum.sse.dirts.core.BlackboardState;
+import edu.tum.sse.dirts.core.SourceIndex;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static edu.tum.sse.dirts.core.BlackboardState.PARSED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class SourceStreamerTest extends KnowledgeSourceTest {
+
+    private final BlackboardState resultState = PARSED;
+
+    private static final String A_CLASS = "edu.tum.sse.dirts.test_code.knowledgesources.AClass";
+    private static final String A_TEST = "edu.tum.sse.dirts.test_code.knowledgesources.ATest";
+
+    @Test
+    public void testUpdateBlackboard() {
+        /* given */
+        ClassLevelChecksumVisitor checksumVisitor = new ClassLevelChecksumVisitor();
+        ClassLevelNameFinderVisitor nameFinderVisitor = new ClassLevelNameFinderVisitor();
+
+        // a first run without checksums keeps every compilation unit
+        Collection<CompilationUnit> allCompilationUnits = stream(null, checksumVisitor, nameFinderVisitor).compilationUnits;
+        assertThat(primaryTypeNames(allCompilationUnits)).contains("AClass", "ATest");
+
+        Map<String, Node> nodes = new HashMap<>();
+        allCompilationUnits.forEach(cu -> cu.accept(nameFinderVisitor, nodes));
+        Map<String, Integer> checksumsOldRevision = new HashMap<>();
+        nodes.forEach((name, node) -> checksumsOldRevision.put(name, checksumVisitor.hashCode(node)));
+        checksumsOldRevision.put(A_CLASS, checksumsOldRevision.get(A_CLASS) + 1);
+
+        /* when */
+        Result result = stream(checksumsOldRevision, checksumVisitor, nameFinderVisitor);
+
+        /* then */
+        assertThat(result.state).isEqualTo(resultState);
+
+        // only the compilation unit of the modified class is kept in memory
+        assertThat(primaryTypeNames(result.compilationUnits)).containsExactly("AClass");
+
+        // all names and tests are still known
+        assertThat(result.sourceIndex.getNodes()).contains(A_CLASS, A_TEST);
+        assertThat(result.tests).contains(A_TEST);
+    }
+
+    //##################################################################################################################
+    // Auxiliary methods
+
+    private Result stream(Map<String, Integer> checksumsOldRevision,
+                          ClassLevelChecksumVisitor checksumVisitor,
+                          ClassLevelNameFinderVisitor nameFinderVisitor) {
+        Blackboard<TypeDeclaration<?>> blackboardMock = mock(Blackboard.class);
+        SourceStreamer<TypeDeclaration<?>> sut = new SourceStreamer<>(blackboardMock,
+                checksumVisitor,
+                new ClassLevelTestFinderVisitor((klass, method) -> true));
+
+        ArgumentCaptor<Collection<CompilationUnit>> compilationUnitsCaptor = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<Collection<String>> testsCaptor = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<SourceIndex> sourceIndexCaptor = ArgumentCaptor.forClass(SourceIndex.class);
+
+        when(blackboardMock.getTypeSolver()).thenReturn(new CombinedTypeSolver(new ReflectionTypeSolver()));
+        when(blackboardMock.getRootPath()).thenReturn(rootPath);
+        when(blackboardMock.getSubPath()).thenReturn(subPath);
+        when(blackboardMock.getMemoryBudget()).thenReturn(1L);
+        when(blackboardMock.getChecksumsNodes()).thenReturn(checksumsOldRevision);
+        when(blackboardMock.getNameFinderVisitor()).thenReturn(nameFinderVisitor);
+        when(blackboardMock.getTestFilter()).thenReturn((klass, method) -> true);
+
+        Result result = new Result();
+        result.state = sut.updateBlackboard();
+
+        verify(blackboardMock).setCompilationUnits(compilationUnitsCaptor.capture());
+        verify(blackboardMock).setTests(testsCaptor.capture());
+        verify(blackboardMock).setSourceIndex(sourceIndexCaptor.capture());
+        result.compilationUnits = compilationUnitsCaptor.getValue();
+        result.tests = testsCaptor.getValue();
+        result.sourceIndex = sourceIndexCaptor.getValue();
+        return result;
+    }
+
+    private static Set<String> primaryTypeNames(Collection<CompilationUnit> compilationUnits) {
+        return compilationUnits.stream()
+                .map(CompilationUnit::getPrimaryTypeName)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(Collectors.toSet());
+    }
+
+    private static class Result {
+        private BlackboardState state;
+        private Collection<CompilationUnit> compilationUnits;
+        private Collection<String> tests;
+        private SourceIndex sourceIndex;
+    }
+}
@@ -0,0 +1,83 @@
+package edu.tum.sse.dirts.core.knowledgesources;
+
+import edu.tum.sse.dirts.graph.DependencyGraph;
+import edu.tum.sse.dirts.graph.EdgeType;
+import edu.tum.sse.dirts.graph.MapDelta;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StateJournalTest {
+
+    @TempDir
+    Path tmpPath;
+
+    @Test
+    void testReplayedStateEqualsExportedState() throws Exception {
+        /* given */
+        DependencyGraph oldRevision = new DependencyGraph();
+        oldRevision.addEdge("ATest", "A", EdgeType.NEW);
+        oldRevision.addEdge("BTest", "B", EdgeType.NEW);
+        oldRevision.addEdge("B", "C", EdgeType.INHERITANCE);
+        String exportedGraph = oldRevision.serializeGraph();
+        Map<String, Integer> oldChecksums = Map.of("A", 1, "B", 2, "C", 3);
+
+        DependencyGraph newRevision = DependencyGraph.deserializeGraph(exportedGraph);
+        newRevision.removeNode("C");
+        newRevision.addEdge("A", "D", EdgeType.STATIC);
+        Map<String, Integer> newChecksums = Map.of("A", 1, "B", 4, "D", 5);
+
+        StateJournal sut = new StateJournal(tmpPath.resolve("journal_test"));
+
+        /* when */
+        StateJournal.Entry entry = new StateJournal.Entry();
+        entry.setGraph(newRevision.deltaFrom(oldRevision));
+        entry.setChecksums(MapDelta.between(oldChecksums, newChecksums));
+        sut.append(entry);
+
+        DependencyGraph replayedGraph = DependencyGraph.deserializeGraph(exportedGraph);
+        Map<String, Integer> replayedChecksums = new HashMap<>(oldChecksums);
+        for (StateJournal.Entry readEntry : sut.read()) {
+            replayedGraph.applyDelta(readEntry.getGraph());
+            readEntry.getChecksums().applyTo(replayedChecksums, UnaryOperator.identity());
+        }
+
+        /* then */
+        assertThat(entry.getChecksums().getPut()).containsOnlyKeys("B", "D");
+        assertThat(entry.getChecksums().getRemoved()).containsOnly("C");
+        assertThat(replayedChecksums).isEqualTo(newChecksums);
+        assertThat(replayedGraph.getNodes()).isEqualTo(newRevision.getNodes());
+        assertThat(replayedGraph.reachingNodes(Set.of("D"))).containsOnly("D", "A", "ATest");
+        assertThat(replayedGraph.reachingNodes(Set.of("C"))).containsOnly("C");
+        assertThat(replayedGraph.serializeGraph().length()).isEqualTo(newRevision.serializeGraph().length());
+    }
+
+    @Test
+    void testIncompleteEntryIsIgnoredAndCompacted() throws Exception {
+        /* given */
+        Path exportedPath = tmpPath.resolve("graph_test");
+        Files.writeString(exportedPath, "x".repeat(10000));
+        StateJournal sut = new StateJournal(tmpPath.resolve("journal_test"));
+        sut.append(new StateJournal.Entry());
+        boolean compactionBefore = sut.needsCompaction(List.of(exportedPath));
+
+        /* when */
+        Files.writeString(tmpPath.resolve("journal_test"), "{\"graph\":", StandardOpenOption.APPEND);
+
+        /* then */
+        assertThat(compactionBefore).isFalse();
+        assertThat(sut.read()).hasSize(1);
+        assertThat(sut.needsCompaction(List.of(exportedPath))).isTrue();
+        assertThat(sut.needsCompaction(List.of(tmpPath.resolve("missing")))).isTrue();
+    }
+}
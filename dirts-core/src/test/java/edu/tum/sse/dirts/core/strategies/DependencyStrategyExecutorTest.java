@@ -0,0 +1,145 @@
+package edu.tum.sse.dirts.core.strategies;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import edu.tum.sse.dirts.core.Blackboard;
+import edu.tum.sse.dirts.graph.DependencyGraph;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DependencyStrategyExecutorTest {
+
+    @Test
+    void testStrategiesResolvingSymbolsRunOneAfterAnother() {
+        /* given */
+        CompilationUnit compilationUnit = new JavaParser(new ParserConfiguration()
+                .setSymbolResolver(new JavaSymbolSolver(new CombinedTypeSolver(new ReflectionTypeSolver()))))
+                .parse("import java.util.*;\n" +
+                        "class A { List<String> list; Map<String, Set<Integer>> map; Optional<Deque<Long>> deque; }")
+                .getResult().orElseThrow();
+        Blackboard<TypeDeclaration<?>> blackboard = createBlackboard(4);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        List<ResolvingStrategy> strategies = List.of(
+                new ResolvingStrategy(compilationUnit, active, maxActive),
+                new ResolvingStrategy(compilationUnit, active, maxActive),
+                new ResolvingStrategy(compilationUnit, active, maxActive));
+        strategies.forEach(blackboard::addDependencyStrategy);
+
+        /* when */
+        DependencyStrategyExecutor.forEach(blackboard, "doDependencyAnalysis", s -> s.doDependencyAnalysis(blackboard));
+
+        /* then */
+        assertThat(maxActive.get()).isEqualTo(1);
+        for (ResolvingStrategy strategy : strategies)
+            assertThat(strategy.resolved).contains("java.util.List", "java.util.Map", "java.util.Deque");
+        assertThat(blackboard.getDependencyGraphNewRevision().getNodes()).contains("java.util.Optional");
+    }
+
+    @Test
+    void testImportRunsConcurrently() {
+        /* given */
+        Blackboard<TypeDeclaration<?>> blackboard = createBlackboard(4);
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 2; i++) {
+            blackboard.addDependencyStrategy(new TestStrategy() {
+                @Override
+                public void doImport(Path tmpPath, Blackboard<TypeDeclaration<?>> blackboard, String suffix) {
+                    try {
+                        // would time out if both strategies were not running at the same time
+                        barrier.await(10, TimeUnit.SECONDS);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    threads.add(Thread.currentThread().getName());
+                }
+            });
+        }
+
+        /* when */
+        DependencyStrategyExecutor.forEachConcurrently(blackboard, "doImport",
+                s -> s.doImport(Path.of(""), blackboard, "test"));
+
+        /* then */
+        assertThat(threads).hasSize(2).doesNotHaveDuplicates();
+    }
+
+    private static Blackboard<TypeDeclaration<?>> createBlackboard(int threads) {
+        Blackboard<TypeDeclaration<?>> blackboard = new Blackboard<>(Path.of(""), Path.of(""), "test");
+        blackboard.setStrategyThreads(threads);
+        blackboard.setGraphNewRevision(new DependencyGraph());
+        return blackboard;
+    }
+
+    private static class TestStrategy implements DependencyStrategy<TypeDeclaration<?>> {
+
+        @Override
+        public void doImport(Path tmpPath, Blackboard<TypeDeclaration<?>> blackboard, String suffix) {
+        }
+
+        @Override
+        public void doExport(Path tmpPath, Blackboard<TypeDeclaration<?>> blackboard, String suffix) {
+        }
+
+        @Override
+        public void doChangeAnalysis(Blackboard<TypeDeclaration<?>> blackboard) {
+        }
+
+        @Override
+        public void doGraphCropping(Blackboard<TypeDeclaration<?>> blackboard) {
+        }
+
+        @Override
+        public void doDependencyAnalysis(Blackboard<TypeDeclaration<?>> blackboard) {
+        }
+
+        @Override
+        public void combineGraphs(Blackboard<TypeDeclaration<?>> blackboard) {
+        }
+    }
+
+    /**
+     * Resolves all types of a compilation unit and adds them to the graph, while tracking how many strategies are active
+     */
+    private static class ResolvingStrategy extends TestStrategy {
+
+        private final CompilationUnit compilationUnit;
+        private final AtomicInteger active;
+        private final AtomicInteger maxActive;
+        private final Set<String> resolved = new HashSet<>();
+
+        ResolvingStrategy(CompilationUnit compilationUnit, AtomicInteger active, AtomicInteger maxActive) {
+            this.compilationUnit = compilationUnit;
+            this.active = active;
+            this.maxActive = maxActive;
+        }
+
+        @Override
+        public void doDependencyAnalysis(Blackboard<TypeDeclaration<?>> blackboard) {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                for (ClassOrInterfaceType type : compilationUnit.findAll(ClassOrInterfaceType.class)) {
+                    String name = type.resolve().asReferenceType().getQualifiedName();
+                    resolved.add(name);
+                    blackboard.getDependencyGraphNewRevision().addNode(name);
+                }
+            } finally {
+                active.decrementAndGet();
+            }
+        }
+    }
+}
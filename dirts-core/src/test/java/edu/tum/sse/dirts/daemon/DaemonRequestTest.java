@@ -0,0 +1,61 @@
+package edu.tum.sse.dirts.daemon;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.maven.surefire.api.testset.TestFilter;
+import org.apache.maven.surefire.api.testset.TestListResolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DaemonRequestTest {
+
+    @Test
+    void testTestFilterSurvivesSerialization() throws Exception {
+        /* given */
+        TestListResolver testFilter = new TestListResolver(
+                List.of("**/*Test.java"),
+                List.of("**/Slow*.java"));
+        DaemonRequest request = new DaemonRequest(DaemonRequest.SELECT);
+        request.applyTestFilter(testFilter);
+
+        /* when */
+        ObjectMapper objectMapper = new ObjectMapper();
+        DaemonRequest received = objectMapper.readValue(objectMapper.writeValueAsString(request), DaemonRequest.class);
+        TestFilter<String, String> recreated = received.createTestFilter();
+
+        /* then */
+        assertThat(recreated.shouldRun("edu/tum/FooTest.class", null)).isTrue();
+        assertThat(recreated.shouldRun("edu/tum/SlowTest.class", null)).isFalse();
+        assertThat(recreated.shouldRun("edu/tum/Foo.class", null)).isFalse();
+    }
+
+    @Test
+    void testMethodPatternsSurviveSerialization() throws Exception {
+        /* given */
+        TestListResolver testFilter = new TestListResolver(List.of("FooTest#testA+testB", "%regex[.*Bar.*#test.*]"));
+        DaemonRequest request = new DaemonRequest(DaemonRequest.SELECT);
+        request.applyTestFilter(testFilter);
+
+        /* when */
+        ObjectMapper objectMapper = new ObjectMapper();
+        DaemonRequest received = objectMapper.readValue(objectMapper.writeValueAsString(request), DaemonRequest.class);
+        TestFilter<String, String> recreated = received.createTestFilter();
+
+        /* then */
+        assertThat(recreated).isEqualTo(testFilter);
+    }
+
+    @Test
+    void testMissingTestFilter() {
+        /* given */
+        DaemonRequest request = new DaemonRequest(DaemonRequest.GRAPH);
+
+        /* when */
+        request.applyTestFilter(null);
+
+        /* then */
+        assertThat(request.createTestFilter()).isNull();
+    }
+}
@@ -0,0 +1,91 @@
+package edu.tum.sse.dirts.daemon;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.utils.SourceRoot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WarmStateTest {
+
+    @Test
+    void testOnlyChangedFilesAreParsedAgain(@TempDir Path root) throws Exception {
+        /* given */
+        Files.createDirectories(root.resolve("pkg"));
+        Files.writeString(root.resolve("pkg/A.java"), "package pkg; class A {}");
+        Files.writeString(root.resolve("pkg/B.java"), "package pkg; class B {}");
+
+        WarmState warmState = new WarmState();
+        Map<String, CompilationUnit> before = byTypeName(warmState.parse(new SourceRoot(root)));
+
+        /* when */
+        Files.writeString(root.resolve("pkg/B.java"), "package pkg; class B { int b; }");
+        Files.writeString(root.resolve("pkg/C.java"), "package pkg; class C {}");
+        Map<String, CompilationUnit> after = byTypeName(warmState.parse(new SourceRoot(root)));
+
+        /* then */
+        assertThat(after).containsOnlyKeys("A", "B", "C");
+        assertThat(after.get("A")).isSameAs(before.get("A"));
+        assertThat(after.get("B")).isNotSameAs(before.get("B"));
+        assertThat(after.get("B").getStorage()).isPresent();
+    }
+
+    @Test
+    void testDeletedFilesAreDropped(@TempDir Path root) throws Exception {
+        /* given */
+        Files.writeString(root.resolve("A.java"), "class A {}");
+        Files.writeString(root.resolve("B.java"), "class B {}");
+
+        WarmState warmState = new WarmState();
+        warmState.parse(new SourceRoot(root));
+
+        /* when */
+        Files.delete(root.resolve("B.java"));
+        List<CompilationUnit> compilationUnits = warmState.parse(new SourceRoot(root));
+
+        /* then */
+        assertThat(byTypeName(compilationUnits)).containsOnlyKeys("A");
+    }
+
+    @Test
+    void testOnlyGivenChangedFilesAreChecked(@TempDir Path root) throws Exception {
+        /* given */
+        Files.createDirectories(root.resolve("pkg"));
+        Files.createDirectories(root.resolve("old"));
+        Files.writeString(root.resolve("pkg/A.java"), "package pkg; class A {}");
+        Files.writeString(root.resolve("pkg/B.java"), "package pkg; class B {}");
+        Files.writeString(root.resolve("old/D.java"), "package old; class D {}");
+
+        WarmState warmState = new WarmState();
+        Map<String, CompilationUnit> before = byTypeName(warmState.parse(new SourceRoot(root)));
+
+        /* when */
+        Files.writeString(root.resolve("pkg/A.java"), "package pkg; class A { int a; }");
+        Files.writeString(root.resolve("pkg/B.java"), "package pkg; class B { int b; }");
+        Files.writeString(root.resolve("pkg/C.java"), "package pkg; class C {}");
+        Files.delete(root.resolve("old/D.java"));
+        Files.delete(root.resolve("old"));
+        Set<Path> changedFiles = Set.of(root.resolve("pkg/B.java"), root.resolve("pkg/C.java"), root.resolve("old"));
+        Map<String, CompilationUnit> after = byTypeName(warmState.parse(new SourceRoot(root), changedFiles));
+
+        /* then */
+        assertThat(after).containsOnlyKeys("A", "B", "C");
+        assertThat(after.get("A")).isSameAs(before.get("A"));
+        assertThat(after.get("B")).isNotSameAs(before.get("B"));
+    }
+
+    private static Map<String, CompilationUnit> byTypeName(List<CompilationUnit> compilationUnits) {
+        return compilationUnits.stream()
+                .collect(Collectors.toMap(cu -> cu.getType(0).getNameAsString(), Function.identity()));
+    }
+}
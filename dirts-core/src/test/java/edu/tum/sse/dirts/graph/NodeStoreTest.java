@@ -0,0 +1,85 @@
+package edu.tum.sse.dirts.graph;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NodeStoreTest {
+
+    @Test
+    void testNodesOfOtherModulesAreAffected(@TempDir Path root) throws Exception {
+        /* given */
+        Path path = root.resolve("nodes_class_level");
+
+        /* when */
+        NodeStore.update(path, "a", Map.of(
+                "a.Changed", ModificationType.MODIFIED,
+                "a.UsesChanged", ModificationType.CHANGED_DEPENDENCIES));
+        NodeStore.update(path, "b", Map.of("b.Added", ModificationType.ADDED));
+        NodeStore nodeStore = NodeStore.read(path);
+
+        /* then */
+        assertThat(nodeStore.getNodesAffectedOutside("b")).containsOnly("a.Changed", "a.UsesChanged");
+        assertThat(nodeStore.getNodesAffectedOutside("c")).containsOnly("a.Changed", "a.UsesChanged", "b.Added");
+        assertThat(nodeStore.getRecord("b.Added")).hasValueSatisfying(record -> {
+            assertThat(record.getModule()).isEqualTo("b");
+            assertThat(record.getModificationType()).isEqualTo(ModificationType.ADDED);
+        });
+    }
+
+    @Test
+    void testNodesNotAffectedAnymoreAreRetracted(@TempDir Path root) throws Exception {
+        /* given */
+        Path path = root.resolve("nodes_class_level");
+        NodeStore.update(path, "a", Map.of("a.First", ModificationType.MODIFIED));
+
+        /* when */
+        NodeStore.update(path, "a", Map.of("a.Second", ModificationType.MODIFIED));
+        NodeStore.update(path, "a", Map.of("a.Second", ModificationType.MODIFIED));
+
+        /* then */
+        assertThat(NodeStore.read(path).getNodesAffectedOutside("b")).containsOnly("a.Second");
+        // unchanged records are not appended again
+        assertThat(Files.readAllLines(path)).hasSize(3);
+    }
+
+    @Test
+    void testIncompleteRecordsAreIgnored(@TempDir Path root) throws Exception {
+        /* given */
+        Path path = root.resolve("nodes_class_level");
+        Files.writeString(path, "a\tMODIFIED\ta.Complete\na\tMODIFIED\ta.Incompl");
+
+        /* when */
+        NodeStore nodeStore = NodeStore.read(path);
+
+        /* then */
+        assertThat(nodeStore.getNodesAffectedOutside("b")).containsOnly("a.Complete");
+    }
+
+    @Test
+    void testAffectedNodesReachModifiedNodes() {
+        /* given */
+        DependencyGraph oldRevision = new DependencyGraph();
+        DependencyGraph newRevision = new DependencyGraph();
+        newRevision.addEdge("Test", "Uses", EdgeType.NEW);
+        newRevision.addEdge("Uses", "Changed", EdgeType.NEW);
+        newRevision.addEdge("Other", "Unchanged", EdgeType.NEW);
+        ModificationGraph sut = new ModificationGraph(oldRevision, newRevision);
+
+        /* when */
+        sut.setModificationByStatus(
+                Set.of("Test", "Uses", "Other", "Unchanged"),
+                Set.of("Changed"),
+                Set.of(),
+                Set.of());
+
+        /* then */
+        assertThat(sut.affectedNodes()).containsOnly("Test", "Uses", "Changed");
+    }
+}
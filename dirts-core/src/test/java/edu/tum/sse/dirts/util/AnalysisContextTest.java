@@ -0,0 +1,52 @@
+package edu.tum.sse.dirts.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalysisContextTest {
+
+    @Test
+    void testBindRestoresPreviousContext() {
+        /* given */
+        AnalysisContext outer = new AnalysisContext();
+        AnalysisContext inner = new AnalysisContext();
+        AnalysisContext before = AnalysisContext.current();
+
+        /* when */
+        try (AnalysisContext.Scope ignored = outer.bind()) {
+            try (AnalysisContext.Scope ignored2 = inner.bind()) {
+                assertThat(AnalysisContext.current()).isSameAs(inner);
+            }
+
+            /* then */
+            assertThat(AnalysisContext.current()).isSameAs(outer);
+        }
+        assertThat(AnalysisContext.current()).isSameAs(before);
+    }
+
+    @Test
+    void testWrappedTasksInheritContext() throws Exception {
+        /* given */
+        AnalysisContext context = new AnalysisContext();
+        context.setRestrictive(true);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        /* when */
+        Future<AnalysisContext> unwrapped;
+        Future<AnalysisContext> wrapped;
+        try (AnalysisContext.Scope ignored = context.bind()) {
+            unwrapped = executor.submit(AnalysisContext::current);
+            wrapped = executor.submit(AnalysisContext.wrap(AnalysisContext::current));
+        }
+
+        /* then */
+        assertThat(wrapped.get()).isSameAs(context);
+        assertThat(unwrapped.get()).isNotSameAs(context);
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,77 @@
+package edu.tum.sse.dirts.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class KeyValueStoreTest {
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void testGetStoredValues() throws Exception {
+        /* given */
+        Path path = tmp.resolve("store");
+        KeyValueStore.write(path, Map.of("b", "2", "a", "1", "ä", "umlaut", "c", ""));
+
+        /* when */
+        KeyValueStore store = KeyValueStore.open(path);
+
+        /* then */
+        assertThat(store.size()).isEqualTo(4);
+        assertThat(store.get("a")).isEqualTo("1");
+        assertThat(store.get("b")).isEqualTo("2");
+        assertThat(store.get("c")).isEmpty();
+        assertThat(store.get("ä")).isEqualTo("umlaut");
+        assertThat(store.get("d")).isNull();
+        assertThat(store.keyAt(0)).isEqualTo("a");
+        assertThat(store.keyAt(3)).isEqualTo("ä");
+    }
+
+    @Test
+    void testPrefixMapContainsOnlyEntriesWithPrefix() throws Exception {
+        /* given */
+        Path path = tmp.resolve("store");
+        KeyValueStore.write(path, Map.of(
+                "checksum\tA", "1",
+                "checksum\tB", "2",
+                "checksumA", "3",
+                "node\tA", "{}"));
+
+        /* when */
+        Map<String, Integer> checksums = KeyValueStore.open(path).prefixMap("checksum\t", Integer::valueOf);
+
+        /* then */
+        assertThat(checksums).hasSize(2);
+        assertThat(checksums).containsOnly(entry("A", 1), entry("B", 2));
+        assertThat(checksums.get("A")).isEqualTo(1);
+        assertThat(checksums.containsKey("checksumA")).isFalse();
+    }
+
+    @Test
+    void testPrefixMapKeepsModificationsInMemory() throws Exception {
+        /* given */
+        Path path = tmp.resolve("store");
+        KeyValueStore.write(path, Map.of("checksum\tA", "1", "checksum\tB", "2"));
+        KeyValueStore store = KeyValueStore.open(path);
+        Map<String, Integer> checksums = store.prefixMap("checksum\t", Integer::valueOf);
+
+        /* when */
+        checksums.put("A", 10);
+        checksums.put("C", 3);
+        checksums.remove("B");
+        checksums.remove("D");
+
+        /* then */
+        assertThat(checksums).hasSize(2);
+        assertThat(checksums).containsOnly(entry("A", 10), entry("C", 3));
+        assertThat(checksums.get("B")).isNull();
+        assertThat(store.get("checksum\tB")).isEqualTo("2");
+    }
+}
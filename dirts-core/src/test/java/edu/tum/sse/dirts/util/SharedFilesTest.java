@@ -0,0 +1,51 @@
+package edu.tum.sse.dirts.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SharedFilesTest {
+
+    @Test
+    @Timeout(30)
+    void testConcurrentUpdatesAreNotLost(@TempDir Path root) throws Exception {
+        /* given */
+        Path path = root.resolve(".dirts").resolve("affected_modules");
+        SharedFiles.write(path, "");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        /* when */
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            futures.add(executor.submit(() -> {
+                SharedFiles.update(path, content -> content + "x");
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        /* then */
+        assertThat(SharedFiles.read(path)).hasSize(64);
+    }
+
+    @Test
+    void testReadMissingFile(@TempDir Path root) throws Exception {
+        /* when */
+        String content = SharedFiles.read(root.resolve("missing"));
+
+        /* then */
+        assertThat(content).isEmpty();
+    }
+}
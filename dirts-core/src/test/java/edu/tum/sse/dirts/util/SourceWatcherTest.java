@@ -0,0 +1,64 @@
+package edu.tum.sse.dirts.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SourceWatcherTest {
+
+    @Test
+    @Timeout(10)
+    void testOnlyJavaAndXmlFilesAreReported(@TempDir Path root) throws Exception {
+        /* given */
+        try (SourceWatcher sourceWatcher = new SourceWatcher(List.of(root))) {
+
+            /* when */
+            Files.writeString(root.resolve("A.java"), "class A {}");
+            Files.writeString(root.resolve("beans.xml"), "<beans/>");
+            Files.writeString(root.resolve("notes.txt"), "");
+            Set<Path> changed = sourceWatcher.awaitChanges(200);
+
+            /* then */
+            assertThat(changed).containsOnly(root.resolve("A.java"), root.resolve("beans.xml"));
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    void testFilesInNewDirectoriesAreReported(@TempDir Path root) throws Exception {
+        /* given */
+        try (SourceWatcher sourceWatcher = new SourceWatcher(List.of(root))) {
+
+            /* when */
+            Path pkg = Files.createDirectory(root.resolve("pkg"));
+            Files.writeString(pkg.resolve("B.java"), "package pkg; class B {}");
+            Set<Path> changed = sourceWatcher.awaitChanges(200);
+
+            /* then */
+            assertThat(changed).contains(pkg.resolve("B.java"));
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    void testWaitingStopsOnRequest(@TempDir Path root) throws Exception {
+        /* given */
+        Path stopPath = root.resolve("stop");
+        try (SourceWatcher sourceWatcher = new SourceWatcher(List.of(root.resolve("src")))) {
+
+            /* when */
+            Files.writeString(stopPath, "");
+            Set<Path> changed = sourceWatcher.awaitChanges(200, () -> Files.exists(stopPath));
+
+            /* then */
+            assertThat(changed).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package edu.tum.sse.dirts.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StateCacheTest {
+
+    @TempDir
+    Path tmp;
+
+    private Path rootPath;
+    private Path cachePath;
+    private Path tmpPath;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        rootPath = tmp.resolve("project");
+        cachePath = tmp.resolve("cache");
+        tmpPath = DirtsUtil.getSubTemporaryDirectory(rootPath, Path.of("module"));
+        Files.createDirectories(rootPath.resolve("module"));
+        Files.writeString(rootPath.resolve(".gitignore"), ".dirts\n");
+        Files.writeString(rootPath.resolve("module/A.java"), "class A {}");
+        git("init", "-q", "-b", "main");
+        commit();
+    }
+
+    @Test
+    void testFetchStateOfAncestor() throws Exception {
+        /* given */
+        Files.createDirectories(tmpPath);
+        Files.writeString(tmpPath.resolve("graph_class_level"), "graph");
+        Files.writeString(tmpPath.resolve("checksums_class_level"), "checksums");
+        Files.writeString(tmpPath.resolve("graph_method_level"), "other level");
+        Optional<String> published = createStateCache().publish();
+
+        deleteTmpPath();
+        Files.writeString(rootPath.resolve("module/A.java"), "class A { int i; }");
+        commit();
+
+        /* when */
+        Optional<String> fetched = createStateCache().fetch();
+
+        /* then */
+        assertThat(published).isPresent();
+        assertThat(fetched).isEqualTo(published);
+        assertThat(Files.readString(tmpPath.resolve("graph_class_level"))).isEqualTo("graph");
+        assertThat(Files.readString(tmpPath.resolve("checksums_class_level"))).isEqualTo("checksums");
+        assertThat(tmpPath.resolve("graph_method_level")).doesNotExist();
+    }
+
+    @Test
+    void testFilesOutsideOfTheStateAreNotShared() throws Exception {
+        /* given */
+        // the outermost module shares its directory with the node store of the whole project
+        Path outermostPath = DirtsUtil.getSubTemporaryDirectory(rootPath, Path.of(""));
+        Path nodeStorePath = DirtsUtil.getNodeStorePath(rootPath, "class_level");
+        StateCache stateCache = new StateCache(cachePath, rootPath, Path.of(""), "class_level",
+                List.of(outermostPath.resolve("graph_class_level")));
+        Files.createDirectories(outermostPath);
+        Files.writeString(outermostPath.resolve("graph_class_level"), "graph");
+        Files.writeString(nodeStorePath, "records");
+        stateCache.publish();
+
+        Files.delete(outermostPath.resolve("graph_class_level"));
+        Files.writeString(nodeStorePath, "cleared");
+
+        /* when */
+        Optional<String> fetched = stateCache.fetch();
+
+        /* then */
+        assertThat(fetched).isPresent();
+        assertThat(Files.readString(outermostPath.resolve("graph_class_level"))).isEqualTo("graph");
+        assertThat(Files.readString(nodeStorePath)).isEqualTo("cleared");
+    }
+
+    @Test
+    void testUncommittedChangesAreNotPublished() throws Exception {
+        /* given */
+        Files.createDirectories(tmpPath);
+        Files.writeString(tmpPath.resolve("graph_class_level"), "graph");
+        Files.writeString(rootPath.resolve("module/A.java"), "class A { int i; }");
+
+        /* when */
+        Optional<String> published = createStateCache().publish();
+
+        /* then */
+        assertThat(published).isEmpty();
+        assertThat(createStateCache().fetch()).isEmpty();
+    }
+
+    @Test
+    void testRestoreSnapshotAfterSwitchingBranches() throws Exception {
+        /* given */
+        git("checkout", "-q", "-b", "feature");
+        Files.writeString(rootPath.resolve("module/A.java"), "class A { int i; }");
+        commit();
+        Files.createDirectories(tmpPath);
+        Files.writeString(tmpPath.resolve("graph_class_level"), "feature graph");
+        createStateCache().snapshot();
+
+        git("checkout", "-q", "-");
+        Files.writeString(tmpPath.resolve("graph_class_level"), "main graph");
+        Files.writeString(tmpPath.resolve("checksums_class_level"), "main checksums");
+        createStateCache().snapshot();
+
+        /* when */
+        git("checkout", "-q", "feature");
+        Optional<String> restoredOnFeature = createStateCache().restoreClosestSnapshot();
+        String graphOnFeature = Files.readString(tmpPath.resolve("graph_class_level"));
+        boolean checksumsOnFeature = Files.exists(tmpPath.resolve("checksums_class_level"));
+
+        git("checkout", "-q", "-");
+        Optional<String> restoredOnMain = createStateCache().restoreClosestSnapshot();
+        Optional<String> restoredAgain = createStateCache().restoreClosestSnapshot();
+
+        /* then */
+        assertThat(restoredOnFeature).isPresent();
+        assertThat(graphOnFeature).isEqualTo("feature graph");
+        assertThat(checksumsOnFeature).isFalse();
+        assertThat(restoredOnMain).isPresent();
+        assertThat(Files.readString(tmpPath.resolve("graph_class_level"))).isEqualTo("main graph");
+        assertThat(restoredAgain).isEmpty();
+    }
+
+    @Test
+    void testSnapshotsShareChunks() throws Exception {
+        /* given */
+        StringBuilder checksums = new StringBuilder();
+        for (int i = 0; i < 10000; i++)
+            checksums.append("  \"p.C").append(i).append("\" : ").append(i).append(",\n");
+        Files.createDirectories(tmpPath);
+        Files.writeString(tmpPath.resolve("checksums_class_level"), checksums);
+        createStateCache().snapshot();
+        long objects = countObjects();
+
+        /* when */
+        Files.writeString(tmpPath.resolve("checksums_class_level"),
+                checksums.toString().replace("\"p.C5000\" : 5000", "\"p.C5000\" : 42"));
+        Files.writeString(rootPath.resolve("module/A.java"), "class A { int i; }");
+        commit();
+        createStateCache().snapshot();
+
+        /* then */
+        assertThat(objects).isGreaterThan(10);
+        assertThat(countObjects()).isBetween(objects + 1, objects + 2);
+    }
+
+    @Test
+    void testChunksAreConcatenatedToContent() {
+        /* given */
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++)
+            content.append("line ").append(i).append('\n');
+        content.append("without newline");
+
+        /* when */
+        byte[] bytes = content.toString().getBytes(StandardCharsets.UTF_8);
+        List<byte[]> chunks = StateCache.chunk(bytes);
+
+        /* then */
+        ByteArrayOutputStream concatenated = new ByteArrayOutputStream();
+        chunks.forEach(concatenated::writeBytes);
+        assertThat(chunks).hasSizeGreaterThan(1);
+        assertThat(concatenated.toByteArray()).isEqualTo(bytes);
+    }
+
+    private long countObjects() throws IOException {
+        try (var files = Files.walk(cachePath.resolve("objects"))) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private StateCache createStateCache() {
+        return new StateCache(cachePath, rootPath, Path.of("module"), "class_level",
+                List.of(tmpPath.resolve("graph_class_level"), tmpPath.resolve("checksums_class_level")));
+    }
+
+    private void deleteTmpPath() throws IOException {
+        try (var files = Files.list(tmpPath)) {
+            for (Path file : (Iterable<Path>) files::iterator)
+                Files.delete(file);
+        }
+    }
+
+    private void commit() throws Exception {
+        git("add", "-A");
+        git("-c", "user.name=dirts", "-c", "user.email=dirts@localhost", "commit", "-q", "-m", "commit");
+    }
+
+    private void git(String... args) throws Exception {
+        String[] command = new String[args.length + 1];
+        command[0] = "git";
+        System.arraycopy(args, 0, command, 1, args.length);
+        Process process = new ProcessBuilder(command).directory(rootPath.toFile()).inheritIO().start();
+        assertThat(process.waitFor()).isZero();
+    }
+}
@@ -0,0 +1,46 @@
+package edu.tum.sse.dirts.util.metrics;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountingSymbolSolverTest {
+
+    @Test
+    void testOnlyResolutionsOfTheAnalysisAreCounted() {
+        /* given */
+        Metrics metrics = new Metrics();
+        CombinedTypeSolver typeSolver = new CombinedTypeSolver(new ReflectionTypeSolver());
+        CompilationUnit compilationUnit = new JavaParser(new ParserConfiguration()
+                .setSymbolResolver(new CountingSymbolSolver(typeSolver)))
+                .parse("import java.util.*;\n" +
+                        "class A { List<String> list; Missing missing; }")
+                .getResult().orElseThrow();
+        List<ClassOrInterfaceType> types = compilationUnit.findAll(ClassOrInterfaceType.class,
+                t -> t.getTypeArguments().isPresent() || t.getNameAsString().equals("Missing"));
+
+        /* when */
+        try (Metrics.Phase ignored = metrics.startPhase("knowledgeSource", "DependencyAnalyzer")) {
+            for (ClassOrInterfaceType type : types) {
+                try {
+                    type.resolve();
+                } catch (RuntimeException ignoredException) {
+                }
+            }
+        }
+
+        /* then */
+        // resolving List probes java.lang.List and the wildcard import, but only counts once
+        assertThat(metrics.getPhases().get(0).getCounters())
+                .containsEntry(Counter.SYMBOL_RESOLUTIONS, 2L)
+                .containsEntry(Counter.SYMBOL_RESOLUTION_FAILURES, 1L);
+    }
+}
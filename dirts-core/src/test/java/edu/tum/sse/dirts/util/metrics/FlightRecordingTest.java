@@ -0,0 +1,54 @@
+package edu.tum.sse.dirts.util.metrics;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlightRecordingTest {
+
+    @Test
+    void testPhasesAreRecorded(@TempDir Path tempDir) throws Exception {
+        /* given */
+        Path destination = tempDir.resolve("recordings").resolve("class_level.jfr");
+        Metrics metrics = new Metrics();
+
+        /* when */
+        try (FlightRecording ignored = FlightRecording.start(true, destination)) {
+            try (Metrics.Phase ignoredPhase = metrics.startPhase("knowledgeSource", "Parser")) {
+                Metrics.count(Counter.COMPILATION_UNITS_PARSED, 4);
+            }
+        }
+
+        /* then */
+        assertThat(destination).exists();
+        List<RecordedEvent> events = RecordingFile.readAllEvents(destination);
+        assertThat(events)
+                .filteredOn(e -> e.getEventType().getName().equals("edu.tum.sse.dirts.Phase"))
+                .singleElement()
+                .satisfies(e -> {
+                    assertThat(e.getString("name")).isEqualTo("Parser");
+                    assertThat(e.getLong("compilationUnitsParsed")).isEqualTo(4);
+                });
+    }
+
+    @Test
+    void testDisabledRecordingWritesNothing(@TempDir Path tempDir) {
+        /* given */
+        Path destination = tempDir.resolve("class_level.jfr");
+
+        /* when */
+        try (FlightRecording ignored = FlightRecording.start(false, destination)) {
+            new Metrics().startPhase("knowledgeSource", "Parser").close();
+        }
+
+        /* then */
+        assertThat(Files.exists(destination)).isFalse();
+    }
+}
@@ -0,0 +1,44 @@
+package edu.tum.sse.dirts.util.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricsTest {
+
+    @Test
+    void testCountersAreAttributedToActivePhases() {
+        /* given */
+        Metrics metrics = new Metrics();
+
+        /* when */
+        Metrics.count(Counter.EDGES_ADDED);
+        try (Metrics.Phase ignored = metrics.startPhase("knowledgeSource", "DependencyAnalyzer")) {
+            Metrics.count(Counter.EDGES_ADDED, 2);
+
+            // nested phase on another thread
+            CompletableFuture.runAsync(Metrics.inheritPhases(() -> {
+                try (Metrics.Phase ignoredNested = metrics.startPhase("dependencyStrategy", "Spring")) {
+                    Metrics.count(Counter.EDGES_ADDED, 3);
+                }
+            })).join();
+        }
+        Metrics.count(Counter.EDGES_ADDED);
+
+        /* then */
+        Map<String, PhaseMetrics> phases = metrics.getPhases().stream()
+                .collect(Collectors.toMap(PhaseMetrics::getName, p -> p));
+        assertThat(phases.keySet()).containsExactlyInAnyOrder("DependencyAnalyzer", "Spring");
+
+        assertThat(phases.get("DependencyAnalyzer").getCounters()).containsEntry(Counter.EDGES_ADDED, 5L);
+        assertThat(phases.get("Spring").getCounters()).containsEntry(Counter.EDGES_ADDED, 3L);
+        assertThat(metrics.getPhases()).extracting(PhaseMetrics::getInvocations).isEqualTo(List.of(1L, 1L));
+        assertThat(phases.get("DependencyAnalyzer").getWallTimeNanos())
+                .isGreaterThanOrEqualTo(phases.get("Spring").getWallTimeNanos());
+    }
+}
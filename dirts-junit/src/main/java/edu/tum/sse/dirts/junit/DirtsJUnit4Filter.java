@@ -0,0 +1,60 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.junit;
+
+import org.junit.runner.Description;
+import org.junit.runner.manipulation.Filter;
+
+/**
+ * Excludes the tests that have not been selected by DIRTS from JUnit 4 runners
+ * <p>
+ * JUnit 4 has no mechanism to register filters globally, it needs to be applied to a Request or Runner.
+ * Running JUnit 4 tests on the vintage engine of the JUnit Platform uses DirtsPostDiscoveryFilter instead.
+ */
+public class DirtsJUnit4Filter extends Filter {
+
+    private final Selection selection;
+
+    public DirtsJUnit4Filter() {
+        this(Selection.load());
+    }
+
+    public DirtsJUnit4Filter(Selection selection) {
+        this.selection = selection;
+    }
+
+    @Override
+    public boolean shouldRun(Description description) {
+        String className = description.getClassName();
+        String methodName = description.getMethodName();
+        if (className == null)
+            return true;
+
+        // parameterized tests are named like "method[0]"
+        if (methodName != null && methodName.contains("["))
+            methodName = methodName.substring(0, methodName.indexOf('['));
+
+        if (methodName == null ? selection.isExcluded(className) : selection.isExcluded(className, methodName))
+            return false;
+
+        // suites are run if any of their children are
+        if (!description.isTest() && !description.getChildren().isEmpty())
+            return description.getChildren().stream().anyMatch(this::shouldRun);
+        return true;
+    }
+
+    @Override
+    public String describe() {
+        return "tests selected by DIRTS";
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.junit;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.MethodOrdererContext;
+
+import java.util.Comparator;
+
+/**
+ * Runs the test methods of a JUnit Jupiter test class in the order prioritized by DIRTS
+ * <p>
+ * Can be enabled for all test classes with the configuration parameter
+ * {@code junit.jupiter.testmethod.order.default=edu.tum.sse.dirts.junit.DirtsMethodOrderer}.
+ * Methods that have not been prioritized keep their relative order and run last.
+ */
+public class DirtsMethodOrderer implements MethodOrderer {
+
+    private final RunOrder runOrder;
+
+    public DirtsMethodOrderer() {
+        this(RunOrder.load());
+    }
+
+    public DirtsMethodOrderer(RunOrder runOrder) {
+        this.runOrder = runOrder;
+    }
+
+    @Override
+    public void orderMethods(MethodOrdererContext context) {
+        String className = context.getTestClass().getName();
+        context.getMethodDescriptors().sort(Comparator.comparingInt(
+                methodDescriptor -> runOrder.indexOf(className, methodDescriptor.getMethod().getName())));
+    }
+}
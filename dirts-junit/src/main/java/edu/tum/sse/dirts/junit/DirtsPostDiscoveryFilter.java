@@ -0,0 +1,53 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.junit;
+
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+
+/**
+ * Excludes the tests that have not been selected by DIRTS from the JUnit Platform, including JUnit 4 tests run by the
+ * vintage engine
+ * <p>
+ * Registered automatically through the ServiceLoader once this jar is on the test classpath.
+ */
+public class DirtsPostDiscoveryFilter implements PostDiscoveryFilter {
+
+    private final Selection selection;
+
+    public DirtsPostDiscoveryFilter() {
+        this(Selection.load());
+    }
+
+    public DirtsPostDiscoveryFilter(Selection selection) {
+        this.selection = selection;
+    }
+
+    @Override
+    public FilterResult apply(TestDescriptor testDescriptor) {
+        TestSource source = testDescriptor.getSource().orElse(null);
+        if (source instanceof MethodSource) {
+            MethodSource methodSource = (MethodSource) source;
+            if (selection.isExcluded(methodSource.getClassName(), methodSource.getMethodName()))
+                return FilterResult.excluded("Not selected by DIRTS");
+        } else if (source instanceof ClassSource) {
+            if (selection.isExcluded(((ClassSource) source).getClassName()))
+                return FilterResult.excluded("Not selected by DIRTS");
+        }
+        return FilterResult.included(null);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.junit;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Order in which the selected tests should run, as prioritized by DIRTS
+ * <p>
+ * The file contains one test class or test method ("my.package.MyTest#myMethod") per line, highest priority first.
+ * Tests that are not listed run after all listed tests.
+ */
+public class RunOrder {
+
+    //##################################################################################################################
+    // Static constants
+
+    /**
+     * System property that may point to the run order file, relative to the working directory
+     */
+    public static final String RUN_ORDER_PROPERTY = "dirts.runOrder";
+
+    public static final Path DEFAULT_RUN_ORDER_PATH = Path.of(".dirts", "run_order");
+
+    public static final int UNKNOWN = Integer.MAX_VALUE;
+
+    private static final RunOrder EMPTY = new RunOrder(Map.of());
+
+    //##################################################################################################################
+    // Attributes
+
+    private final Map<String, Integer> positions;
+
+    //##################################################################################################################
+    // Constructors
+
+    private RunOrder(Map<String, Integer> positions) {
+        this.positions = positions;
+    }
+
+    //##################################################################################################################
+    // Methods
+
+    /**
+     * @param className fully qualified name of a test class, nested classes may be separated by '$' or '.'
+     * @return position of the test class, UNKNOWN if it has not been prioritized
+     */
+    public int indexOf(String className) {
+        return positions.getOrDefault(normalize(className), UNKNOWN);
+    }
+
+    /**
+     * @param className  fully qualified name of a test class, nested classes may be separated by '$' or '.'
+     * @param methodName name of a test method, without parameters
+     * @return position of the test method, UNKNOWN if it has not been prioritized
+     */
+    public int indexOf(String className, String methodName) {
+        return positions.getOrDefault(normalize(className) + "#" + methodName, UNKNOWN);
+    }
+
+    public boolean isEmpty() {
+        return positions.isEmpty();
+    }
+
+    //##################################################################################################################
+    // IO
+
+    /**
+     * Loads the run order from the path given by the system property dirts.runOrder or from .dirts/run_order
+     *
+     * @return run order that prioritizes nothing, if there is no run order file
+     */
+    public static RunOrder load() {
+        String property = System.getProperty(RUN_ORDER_PROPERTY);
+        Path path = property != null ? Path.of(property) : DEFAULT_RUN_ORDER_PATH;
+        if (!Files.exists(path))
+            return EMPTY;
+        try {
+            return read(path);
+        } catch (IOException e) {
+            System.err.println("[DIRTS] Failed to read run order from " + path + ", keeping the default order: "
+                    + e.getMessage());
+            return EMPTY;
+        }
+    }
+
+    public static RunOrder read(Path path) throws IOException {
+        Map<String, Integer> positions = new HashMap<>();
+        List<String> lines = Files.readAllLines(path);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (!line.isEmpty())
+                positions.putIfAbsent(normalize(line), i);
+        }
+        return new RunOrder(positions);
+    }
+
+    /**
+     * @param tests fully qualified names of test classes and test methods ("my.package.MyTest#myMethod"),
+     *              highest priority first
+     */
+    public static void write(Path path, List<String> tests) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Files.write(path, tests);
+    }
+
+    //##################################################################################################################
+    // Auxiliary methods
+
+    private static String normalize(String test) {
+        return test.replace('$', '.');
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.junit;
+
+import java.io.*;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Tests that have not been selected by DIRTS, stored as sorted hashes of class and method names
+ * <p>
+ * Used by the filters in this package to exclude tests during discovery without matching any patterns.
+ */
+public class Selection {
+
+    //##################################################################################################################
+    // Static constants
+
+    /**
+     * System property that may point to the selection file, relative to the working directory
+     */
+    public static final String SELECTION_PROPERTY = "dirts.selection";
+
+    /**
+     * System property that may contain the index of the shard to run, starting at 0
+     */
+    public static final String SHARD_PROPERTY = "dirts.shard";
+
+    public static final Path DEFAULT_SELECTION_PATH = Path.of(".dirts", "selection");
+
+    private static final int MAGIC = 0x44495254;
+    private static final int VERSION = 1;
+
+    private static final Selection EMPTY = new Selection(new long[0], new long[0]);
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    //##################################################################################################################
+    // Attributes
+
+    private final long[] excludedClasses;
+    private final long[] excludedMethods;
+
+    //##################################################################################################################
+    // Constructors
+
+    private Selection(long[] excludedClasses, long[] excludedMethods) {
+        this.excludedClasses = excludedClasses;
+        this.excludedMethods = excludedMethods;
+    }
+
+    //##################################################################################################################
+    // Methods
+
+    /**
+     * @param className fully qualified name of a test class, nested classes may be separated by '$' or '.'
+     * @return whether the whole test class is excluded
+     */
+    public boolean isExcluded(String className) {
+        return Arrays.binarySearch(excludedClasses, hash(className, null)) >= 0;
+    }
+
+    /**
+     * @param className  fully qualified name of a test class, nested classes may be separated by '$' or '.'
+     * @param methodName name of a test method, without parameters
+     * @return whether the test method or its class is excluded
+     */
+    public boolean isExcluded(String className, String methodName) {
+        return isExcluded(className)
+                || Arrays.binarySearch(excludedMethods, hash(className, methodName)) >= 0;
+    }
+
+    public boolean isEmpty() {
+        return excludedClasses.length == 0 && excludedMethods.length == 0;
+    }
+
+    //##################################################################################################################
+    // IO
+
+    /**
+     * Loads the selection from the path given by the system property dirts.selection or from .dirts/selection
+     * <p>
+     * If the system property dirts.shard is set, the selection of this shard is loaded instead.
+     *
+     * @return selection that excludes nothing, if there is no selection file
+     */
+    public static Selection load() {
+        String property = System.getProperty(SELECTION_PROPERTY);
+        Path path = property != null ? Path.of(property) : DEFAULT_SELECTION_PATH;
+
+        String shard = System.getProperty(SHARD_PROPERTY);
+        if (shard != null) {
+            Path shardPath = null;
+            try {
+                shardPath = getShardPath(path, Integer.parseInt(shard.trim()));
+            } catch (NumberFormatException ignored) {
+            }
+            if (shardPath != null && Files.exists(shardPath)) {
+                path = shardPath;
+            } else {
+                System.err.println("[DIRTS] There is no selection for shard " + shard
+                        + ", running all selected tests");
+            }
+        }
+
+        if (!Files.exists(path))
+            return EMPTY;
+        try {
+            return read(path);
+        } catch (IOException e) {
+            System.err.println("[DIRTS] Failed to read selection from " + path + ", running all tests: "
+                    + e.getMessage());
+            return EMPTY;
+        }
+    }
+
+    public static Selection read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION)
+                throw new IOException("Unknown format");
+            long[] excludedClasses = readHashes(in);
+            long[] excludedMethods = readHashes(in);
+            return new Selection(excludedClasses, excludedMethods);
+        }
+    }
+
+    /**
+     * @param excludedClasses fully qualified names of test classes that are excluded entirely
+     * @param excludedMethods (fully qualified name of a test class, names of its excluded test methods)
+     */
+    public static void write(Path path,
+                             Collection<String> excludedClasses,
+                             Map<String, ? extends Collection<String>> excludedMethods) throws IOException {
+        long[] classHashes = excludedClasses.stream()
+                .mapToLong(className -> hash(className, null))
+                .sorted()
+                .distinct()
+                .toArray();
+        long[] methodHashes = excludedMethods.entrySet().stream()
+                .flatMapToLong(e -> e.getValue().stream().mapToLong(methodName -> hash(e.getKey(), methodName)))
+                .sorted()
+                .distinct()
+                .toArray();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + 8 * (classHashes.length + methodHashes.length));
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeHashes(out, classHashes);
+            writeHashes(out, methodHashes);
+        }
+
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Files.write(path, bytes.toByteArray());
+    }
+
+    /**
+     * @param selectionPath path of the selection of all shards
+     * @param shard         index of the shard, starting at 0
+     * @return path of the selection of this shard
+     */
+    public static Path getShardPath(Path selectionPath, int shard) {
+        return selectionPath.resolveSibling(selectionPath.getFileName() + "_" + shard);
+    }
+
+    /**
+     * Deletes the selections of all shards that belong to the selection at this path
+     */
+    public static void deleteShards(Path selectionPath) throws IOException {
+        Path directory = selectionPath.toAbsolutePath().getParent();
+        if (!Files.isDirectory(directory))
+            return;
+        try (DirectoryStream<Path> shards =
+                     Files.newDirectoryStream(directory, selectionPath.getFileName() + "_[0-9]*")) {
+            for (Path shard : shards) {
+                Files.delete(shard);
+            }
+        }
+    }
+
+    //##################################################################################################################
+    // Auxiliary methods
+
+    /**
+     * 64-bit FNV-1a hash of the name of a class or method, nested classes are separated by '.'
+     */
+    static long hash(String className, String methodName) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = hash(hash, className);
+        if (methodName != null) {
+            hash = hash(hash, "#");
+            hash = hash(hash, methodName);
+        }
+        return hash;
+    }
+
+    private static long hash(long hash, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            hash ^= c == '$' ? '.' : c;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static long[] readHashes(DataInputStream in) throws IOException {
+        long[] hashes = new long[in.readInt()];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = in.readLong();
+        }
+        return hashes;
+    }
+
+    private static void writeHashes(DataOutputStream out, long[] hashes) throws IOException {
+        out.writeInt(hashes.length);
+        for (long hash : hashes) {
+            out.writeLong(hash);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.junit;
+
+import java.util.*;
+
+/**
+ * Distributes test classes to shards that are executed in parallel, e.g. by several CI executors
+ */
+public class Sharding {
+
+    private Sharding() {
+    }
+
+    /**
+     * Longest processing time first: the longest test class is assigned to the shard with the smallest total duration,
+     * until all test classes have been assigned
+     *
+     * @param durations (test class, duration in a previous run), test classes without positive duration are
+     *                  estimated by the mean duration of the others
+     * @param shards    number of shards, at least 1
+     * @return test classes of each shard, indexed by the shard index
+     */
+    public static List<Set<String>> partition(Map<String, Long> durations, int shards) {
+        if (shards < 1)
+            throw new IllegalArgumentException("Number of shards must be positive: " + shards);
+
+        long mean = Math.round(durations.values().stream()
+                .mapToLong(Long::longValue)
+                .filter(duration -> duration > 0)
+                .average()
+                .orElse(1));
+        Map<String, Long> estimated = new HashMap<>();
+        durations.forEach((testClass, duration) -> estimated.put(testClass, duration > 0 ? duration : mean));
+
+        List<String> testClasses = new ArrayList<>(estimated.keySet());
+        testClasses.sort(Comparator.<String>comparingLong(estimated::get).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+
+        List<Set<String>> partition = new ArrayList<>(shards);
+        long[] loads = new long[shards];
+        // (load, shard index), ties go to the lower index to keep the result deterministic
+        PriorityQueue<Integer> leastLoaded = new PriorityQueue<>(shards,
+                Comparator.<Integer>comparingLong(shard -> loads[shard]).thenComparingInt(shard -> shard));
+        for (int i = 0; i < shards; i++) {
+            partition.add(new TreeSet<>());
+            leastLoaded.add(i);
+        }
+
+        for (String testClass : testClasses) {
+            int shard = leastLoaded.poll();
+            partition.get(shard).add(testClass);
+            loads[shard] += estimated.get(testClass);
+            leastLoaded.add(shard);
+        }
+        return partition;
+    }
+}
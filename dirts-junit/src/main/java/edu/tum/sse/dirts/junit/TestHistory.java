@@ -0,0 +1,261 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.junit;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Durations and failures of test methods, collected from the XML reports written by Surefire
+ * <p>
+ * Used to prioritize fast tests and tests that have failed recently.
+ */
+public class TestHistory {
+
+    //##################################################################################################################
+    // Static constants
+
+    public static final int NEVER_FAILED = -1;
+
+    private static final String REPORT_GLOB = "TEST-*.xml";
+
+    //##################################################################################################################
+    // Attributes
+
+    /**
+     * Last modification time of the newest report that has already been taken into account
+     */
+    private long lastReport;
+
+    /**
+     * (my.package.MyTest#myMethod, record)
+     */
+    private final NavigableMap<String, Record> records;
+
+    //##################################################################################################################
+    // Constructors
+
+    public TestHistory() {
+        this(0, new TreeMap<>());
+    }
+
+    private TestHistory(long lastReport, NavigableMap<String, Record> records) {
+        this.lastReport = lastReport;
+        this.records = records;
+    }
+
+    //##################################################################################################################
+    // Methods
+
+    /**
+     * @param test fully qualified name of a test class or test method ("my.package.MyTest#myMethod")
+     * @return last duration in milliseconds, summed up over all methods of a test class, 0 if unknown
+     */
+    public long getDuration(String test) {
+        return recordsOf(test).stream().mapToLong(r -> r.durationMillis).sum();
+    }
+
+    /**
+     * @param test fully qualified name of a test class or test method ("my.package.MyTest#myMethod")
+     * @return number of runs since the last failure, NEVER_FAILED if no failure has been recorded
+     */
+    public int getRunsSinceFailure(String test) {
+        return recordsOf(test).stream()
+                .mapToInt(r -> r.runsSinceFailure)
+                .filter(runs -> runs != NEVER_FAILED)
+                .min()
+                .orElse(NEVER_FAILED);
+    }
+
+    /**
+     * @return comparator that puts recently failing tests first, followed by the remaining tests from fast to slow
+     */
+    public Comparator<String> comparator() {
+        return Comparator.<String>comparingInt(test -> {
+                    int runsSinceFailure = getRunsSinceFailure(test);
+                    return runsSinceFailure == NEVER_FAILED ? Integer.MAX_VALUE : runsSinceFailure;
+                })
+                .thenComparingLong(this::getDuration)
+                .thenComparing(Comparator.naturalOrder());
+    }
+
+    /**
+     * Takes into account all reports that have been written since the last update
+     *
+     * @param reportsDirectory directory containing the XML reports of Surefire
+     */
+    public void update(Path reportsDirectory) throws IOException {
+        if (!Files.isDirectory(reportsDirectory))
+            return;
+
+        DocumentBuilder documentBuilder = createDocumentBuilder();
+
+        long newestReport = lastReport;
+        try (DirectoryStream<Path> reports = Files.newDirectoryStream(reportsDirectory, REPORT_GLOB)) {
+            for (Path report : reports) {
+                long lastModified = Files.getLastModifiedTime(report).toMillis();
+                if (lastModified <= lastReport)
+                    continue;
+                newestReport = Math.max(newestReport, lastModified);
+
+                Document document;
+                try (InputStream in = Files.newInputStream(report)) {
+                    document = documentBuilder.parse(in);
+                } catch (SAXException e) {
+                    System.err.println("[DIRTS] Skipping malformed report " + report + ": " + e.getMessage());
+                    continue;
+                }
+                updateFromReport(document);
+            }
+        }
+        lastReport = newestReport;
+    }
+
+    //##################################################################################################################
+    // IO
+
+    public static TestHistory read(Path path) throws IOException {
+        List<String> lines = Files.readAllLines(path);
+        if (lines.isEmpty())
+            return new TestHistory();
+
+        long lastReport = Long.parseLong(lines.get(0).trim());
+        NavigableMap<String, Record> records = new TreeMap<>();
+        for (String line : lines.subList(1, lines.size())) {
+            String[] split = line.split("\t");
+            if (split.length != 3)
+                throw new IOException("Malformed line: " + line);
+            records.put(split[2], new Record(Long.parseLong(split[1]), Integer.parseInt(split[0])));
+        }
+        return new TestHistory(lastReport, records);
+    }
+
+    public void write(Path path) throws IOException {
+        List<String> lines = new ArrayList<>(records.size() + 1);
+        lines.add(Long.toString(lastReport));
+        records.forEach((test, record) ->
+                lines.add(record.runsSinceFailure + "\t" + record.durationMillis + "\t" + test));
+
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Files.write(path, lines);
+    }
+
+    //##################################################################################################################
+    // Auxiliary methods
+
+    private Collection<Record> recordsOf(String test) {
+        String key = test.replace('$', '.');
+        if (key.contains("#")) {
+            Record record = records.get(key);
+            return record == null ? List.of() : List.of(record);
+        }
+        return records.subMap(key + "#", true, key + "#\uffff", true).values();
+    }
+
+    private void updateFromReport(Document document) {
+        // parameterized tests and repetitions are reported once per invocation
+        Map<String, Long> durations = new HashMap<>();
+        Set<String> failed = new HashSet<>();
+
+        NodeList testCases = document.getElementsByTagName("testcase");
+        for (int i = 0; i < testCases.getLength(); i++) {
+            Element testCase = (Element) testCases.item(i);
+            if (testCase.getElementsByTagName("skipped").getLength() > 0)
+                continue;
+
+            String test = toTest(testCase.getAttribute("classname"), testCase.getAttribute("name"));
+            if (test == null)
+                continue;
+
+            durations.merge(test, toMillis(testCase.getAttribute("time")), Long::sum);
+            if (testCase.getElementsByTagName("failure").getLength() > 0
+                    || testCase.getElementsByTagName("error").getLength() > 0)
+                failed.add(test);
+        }
+
+        durations.forEach((test, durationMillis) -> {
+            Record previous = records.get(test);
+            int runsSinceFailure;
+            if (failed.contains(test))
+                runsSinceFailure = 0;
+            else if (previous == null || previous.runsSinceFailure == NEVER_FAILED)
+                runsSinceFailure = NEVER_FAILED;
+            else
+                runsSinceFailure = previous.runsSinceFailure + 1;
+            records.put(test, new Record(durationMillis, runsSinceFailure));
+        });
+    }
+
+    private static String toTest(String className, String name) {
+        if (className.isEmpty() || name.isEmpty())
+            return null;
+        // strip parameters and invocation indices, e.g. "myMethod(String)[1]"
+        int end = name.length();
+        for (char c : new char[]{'(', '['}) {
+            int index = name.indexOf(c);
+            if (index >= 0)
+                end = Math.min(end, index);
+        }
+        String methodName = name.substring(0, end).trim();
+        if (methodName.isEmpty())
+            return null;
+        return className.replace('$', '.') + "#" + methodName;
+    }
+
+    private static long toMillis(String seconds) {
+        try {
+            // surefire may use grouping separators for long durations
+            return Math.round(Double.parseDouble(seconds.replace(",", "")) * 1000);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static DocumentBuilder createDocumentBuilder() throws IOException {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            factory.setExpandEntityReferences(false);
+            return factory.newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new IOException(e);
+        }
+    }
+
+    //##################################################################################################################
+    // Auxiliary classes
+
+    private static class Record {
+        private final long durationMillis;
+        private final int runsSinceFailure;
+
+        private Record(long durationMillis, int runsSinceFailure) {
+            this.durationMillis = durationMillis;
+            this.runsSinceFailure = runsSinceFailure;
+        }
+    }
+}
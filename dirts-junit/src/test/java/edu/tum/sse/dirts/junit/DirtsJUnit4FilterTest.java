@@ -0,0 +1,43 @@
+package edu.tum.sse.dirts.junit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.runner.Description;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DirtsJUnit4FilterTest {
+
+    @TempDir
+    Path tmpPath;
+
+    @Test
+    public void testShouldRun() throws IOException {
+        /* given */
+        Path selectionPath = tmpPath.resolve("selection");
+        Selection.write(selectionPath,
+                Set.of("edu.tum.sse.dirts.ExcludedTest"),
+                Map.of("edu.tum.sse.dirts.PartialTest", List.of("excludedMethod")));
+        DirtsJUnit4Filter sut = new DirtsJUnit4Filter(Selection.read(selectionPath));
+
+        Description excludedClass = Description.createSuiteDescription("edu.tum.sse.dirts.ExcludedTest");
+        Description partialClass = Description.createSuiteDescription("edu.tum.sse.dirts.PartialTest");
+        Description excludedMethod = Description.createTestDescription("edu.tum.sse.dirts.PartialTest", "excludedMethod");
+        Description includedMethod = Description.createTestDescription("edu.tum.sse.dirts.PartialTest", "includedMethod[0]");
+        partialClass.addChild(excludedMethod);
+        partialClass.addChild(includedMethod);
+
+        /* when */
+        /* then */
+        assertThat(sut.shouldRun(excludedClass)).isFalse();
+        assertThat(sut.shouldRun(partialClass)).isTrue();
+        assertThat(sut.shouldRun(excludedMethod)).isFalse();
+        assertThat(sut.shouldRun(includedMethod)).isTrue();
+    }
+}
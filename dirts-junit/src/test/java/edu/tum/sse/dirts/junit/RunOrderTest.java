@@ -0,0 +1,58 @@
+package edu.tum.sse.dirts.junit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RunOrderTest {
+
+    @TempDir
+    Path tmpPath;
+
+    @Test
+    public void testWriteRead() throws IOException {
+        /* given */
+        Path runOrderPath = tmpPath.resolve(".dirts").resolve("run_order");
+
+        /* when */
+        RunOrder.write(runOrderPath, List.of(
+                "edu.tum.sse.dirts.FirstTest",
+                "edu.tum.sse.dirts.FirstTest#slowMethod",
+                "edu.tum.sse.dirts.Outer.NestedTest",
+                "edu.tum.sse.dirts.FirstTest#fastMethod"));
+        RunOrder runOrder = RunOrder.read(runOrderPath);
+
+        /* then */
+        assertThat(runOrder.isEmpty()).isFalse();
+
+        assertThat(runOrder.indexOf("edu.tum.sse.dirts.FirstTest"))
+                .isLessThan(runOrder.indexOf("edu.tum.sse.dirts.Outer$NestedTest"));
+        assertThat(runOrder.indexOf("edu.tum.sse.dirts.FirstTest", "slowMethod"))
+                .isLessThan(runOrder.indexOf("edu.tum.sse.dirts.FirstTest", "fastMethod"));
+
+        assertThat(runOrder.indexOf("edu.tum.sse.dirts.UnknownTest")).isEqualTo(RunOrder.UNKNOWN);
+        assertThat(runOrder.indexOf("edu.tum.sse.dirts.FirstTest", "unknownMethod")).isEqualTo(RunOrder.UNKNOWN);
+    }
+
+    @Test
+    public void testLoadWithoutRunOrderFile() {
+        /* given */
+        System.setProperty(RunOrder.RUN_ORDER_PROPERTY, tmpPath.resolve("missing").toString());
+
+        /* when */
+        RunOrder runOrder;
+        try {
+            runOrder = RunOrder.load();
+        } finally {
+            System.clearProperty(RunOrder.RUN_ORDER_PROPERTY);
+        }
+
+        /* then */
+        assertThat(runOrder.isEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,109 @@
+package edu.tum.sse.dirts.junit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SelectionTest {
+
+    @TempDir
+    Path tmpPath;
+
+    @Test
+    public void testWriteRead() throws IOException {
+        /* given */
+        Path selectionPath = tmpPath.resolve(".dirts").resolve("selection");
+
+        /* when */
+        Selection.write(selectionPath,
+                Set.of("edu.tum.sse.dirts.ExcludedTest", "edu.tum.sse.dirts.Outer.NestedTest"),
+                Map.of("edu.tum.sse.dirts.PartialTest", List.of("excludedMethod")));
+        Selection selection = Selection.read(selectionPath);
+
+        /* then */
+        assertThat(selection.isEmpty()).isFalse();
+
+        assertThat(selection.isExcluded("edu.tum.sse.dirts.ExcludedTest")).isTrue();
+        assertThat(selection.isExcluded("edu.tum.sse.dirts.ExcludedTest", "anyMethod")).isTrue();
+        assertThat(selection.isExcluded("edu.tum.sse.dirts.Outer$NestedTest")).isTrue();
+
+        assertThat(selection.isExcluded("edu.tum.sse.dirts.PartialTest")).isFalse();
+        assertThat(selection.isExcluded("edu.tum.sse.dirts.PartialTest", "excludedMethod")).isTrue();
+        assertThat(selection.isExcluded("edu.tum.sse.dirts.PartialTest", "includedMethod")).isFalse();
+
+        assertThat(selection.isExcluded("edu.tum.sse.dirts.UnknownTest")).isFalse();
+    }
+
+    @Test
+    public void testLoadShard() throws IOException {
+        /* given */
+        Path selectionPath = tmpPath.resolve(".dirts").resolve("selection");
+        Selection.write(selectionPath, Set.of("edu.tum.sse.dirts.ExcludedTest"), Map.of());
+        Selection.write(Selection.getShardPath(selectionPath, 0),
+                Set.of("edu.tum.sse.dirts.ExcludedTest", "edu.tum.sse.dirts.OtherShardTest"), Map.of());
+        Selection.write(Selection.getShardPath(selectionPath, 1),
+                Set.of("edu.tum.sse.dirts.ExcludedTest", "edu.tum.sse.dirts.FirstShardTest"), Map.of());
+
+        /* when */
+        Selection selection;
+        Selection missingShard;
+        System.setProperty(Selection.SELECTION_PROPERTY, selectionPath.toString());
+        try {
+            System.setProperty(Selection.SHARD_PROPERTY, "0");
+            selection = Selection.load();
+            System.setProperty(Selection.SHARD_PROPERTY, "2");
+            missingShard = Selection.load();
+        } finally {
+            System.clearProperty(Selection.SELECTION_PROPERTY);
+            System.clearProperty(Selection.SHARD_PROPERTY);
+        }
+
+        /* then */
+        assertThat(selection.isExcluded("edu.tum.sse.dirts.OtherShardTest")).isTrue();
+        assertThat(selection.isExcluded("edu.tum.sse.dirts.FirstShardTest")).isFalse();
+
+        assertThat(missingShard.isExcluded("edu.tum.sse.dirts.ExcludedTest")).isTrue();
+        assertThat(missingShard.isExcluded("edu.tum.sse.dirts.OtherShardTest")).isFalse();
+    }
+
+    @Test
+    public void testDeleteShards() throws IOException {
+        /* given */
+        Path selectionPath = tmpPath.resolve(".dirts").resolve("selection");
+        Selection.write(selectionPath, Set.of(), Map.of());
+        Selection.write(Selection.getShardPath(selectionPath, 0), Set.of(), Map.of());
+        Selection.write(Selection.getShardPath(selectionPath, 12), Set.of(), Map.of());
+
+        /* when */
+        Selection.deleteShards(selectionPath);
+
+        /* then */
+        assertThat(selectionPath).exists();
+        assertThat(Selection.getShardPath(selectionPath, 0)).doesNotExist();
+        assertThat(Selection.getShardPath(selectionPath, 12)).doesNotExist();
+    }
+
+    @Test
+    public void testLoadWithoutSelectionFile() {
+        /* given */
+        System.setProperty(Selection.SELECTION_PROPERTY, tmpPath.resolve("missing").toString());
+
+        /* when */
+        Selection selection;
+        try {
+            selection = Selection.load();
+        } finally {
+            System.clearProperty(Selection.SELECTION_PROPERTY);
+        }
+
+        /* then */
+        assertThat(selection.isEmpty()).isTrue();
+    }
+}
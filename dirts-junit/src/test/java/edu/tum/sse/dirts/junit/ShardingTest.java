@@ -0,0 +1,57 @@
+package edu.tum.sse.dirts.junit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ShardingTest {
+
+    @Test
+    public void testPartitionLongestFirst() {
+        /* given */
+        Map<String, Long> durations = Map.of(
+                "ATest", 7L,
+                "BTest", 5L,
+                "CTest", 4L,
+                "DTest", 3L,
+                "ETest", 2L);
+
+        /* when */
+        List<Set<String>> partition = Sharding.partition(durations, 2);
+
+        /* then */
+        // ATest -> 0, BTest -> 1, CTest -> 1, DTest -> 0, ETest -> 1
+        assertThat(partition).containsExactly(
+                Set.of("ATest", "DTest"),
+                Set.of("BTest", "CTest", "ETest"));
+    }
+
+    @Test
+    public void testPartitionEstimatesUnknownDurations() {
+        /* given */
+        Map<String, Long> durations = Map.of(
+                "ATest", 10L,
+                "BTest", 0L,
+                "CTest", 0L);
+
+        /* when */
+        List<Set<String>> partition = Sharding.partition(durations, 3);
+
+        /* then */
+        assertThat(partition).hasSize(3);
+        assertThat(partition).containsExactly(Set.of("ATest"), Set.of("BTest"), Set.of("CTest"));
+    }
+
+    @Test
+    public void testPartitionMoreShardsThanTests() {
+        /* when */
+        List<Set<String>> partition = Sharding.partition(Map.of("ATest", 1L), 3);
+
+        /* then */
+        assertThat(partition).containsExactly(Set.of("ATest"), Set.of(), Set.of());
+    }
+}
@@ -0,0 +1,97 @@
+package edu.tum.sse.dirts.junit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestHistoryTest {
+
+    @TempDir
+    Path tmpPath;
+
+    @Test
+    public void testUpdateFromReports() throws IOException {
+        /* given */
+        Path reportsPath = tmpPath.resolve("surefire-reports");
+        Files.createDirectories(reportsPath);
+        writeReport(reportsPath, "edu.tum.sse.dirts.ATest", 1000,
+                "<testcase classname=\"edu.tum.sse.dirts.ATest\" name=\"slow\" time=\"1.5\"/>",
+                "<testcase classname=\"edu.tum.sse.dirts.ATest\" name=\"failing\" time=\"0.2\">" +
+                        "<failure message=\"expected\"/></testcase>",
+                "<testcase classname=\"edu.tum.sse.dirts.ATest\" name=\"parameterized(String)[1]\" time=\"0.01\"/>",
+                "<testcase classname=\"edu.tum.sse.dirts.ATest\" name=\"parameterized(String)[2]\" time=\"0.02\"/>");
+        writeReport(reportsPath, "edu.tum.sse.dirts.BTest", 1000,
+                "<testcase classname=\"edu.tum.sse.dirts.BTest\" name=\"fast\" time=\"0.001\"/>",
+                "<testcase classname=\"edu.tum.sse.dirts.BTest\" name=\"ignored\" time=\"0\"><skipped/></testcase>");
+
+        TestHistory testHistory = new TestHistory();
+
+        /* when */
+        testHistory.update(reportsPath);
+
+        /* then */
+        assertThat(testHistory.getDuration("edu.tum.sse.dirts.ATest#slow")).isEqualTo(1500);
+        assertThat(testHistory.getDuration("edu.tum.sse.dirts.ATest#parameterized")).isEqualTo(30);
+        assertThat(testHistory.getDuration("edu.tum.sse.dirts.ATest")).isEqualTo(1730);
+        assertThat(testHistory.getDuration("edu.tum.sse.dirts.BTest#ignored")).isEqualTo(0);
+
+        assertThat(testHistory.getRunsSinceFailure("edu.tum.sse.dirts.ATest#failing")).isEqualTo(0);
+        assertThat(testHistory.getRunsSinceFailure("edu.tum.sse.dirts.ATest")).isEqualTo(0);
+        assertThat(testHistory.getRunsSinceFailure("edu.tum.sse.dirts.BTest")).isEqualTo(TestHistory.NEVER_FAILED);
+
+        List<String> tests = new ArrayList<>(List.of(
+                "edu.tum.sse.dirts.ATest#slow",
+                "edu.tum.sse.dirts.BTest#fast",
+                "edu.tum.sse.dirts.ATest#failing"));
+        tests.sort(testHistory.comparator());
+        assertThat(tests).containsExactly(
+                "edu.tum.sse.dirts.ATest#failing",
+                "edu.tum.sse.dirts.BTest#fast",
+                "edu.tum.sse.dirts.ATest#slow");
+    }
+
+    @Test
+    public void testUpdateOnlyFromNewReports() throws IOException {
+        /* given */
+        Path reportsPath = tmpPath.resolve("surefire-reports");
+        Files.createDirectories(reportsPath);
+        writeReport(reportsPath, "edu.tum.sse.dirts.ATest", 1000,
+                "<testcase classname=\"edu.tum.sse.dirts.ATest\" name=\"failing\" time=\"0.2\">" +
+                        "<error message=\"unexpected\"/></testcase>");
+
+        TestHistory testHistory = new TestHistory();
+        testHistory.update(reportsPath);
+
+        /* when */
+        Path historyPath = tmpPath.resolve(".dirts").resolve("test_history");
+        testHistory.write(historyPath);
+        testHistory = TestHistory.read(historyPath);
+        testHistory.update(reportsPath);
+
+        writeReport(reportsPath, "edu.tum.sse.dirts.ATest", 2000,
+                "<testcase classname=\"edu.tum.sse.dirts.ATest\" name=\"failing\" time=\"0.1\"/>");
+        testHistory.update(reportsPath);
+
+        /* then */
+        assertThat(testHistory.getRunsSinceFailure("edu.tum.sse.dirts.ATest#failing")).isEqualTo(1);
+        assertThat(testHistory.getDuration("edu.tum.sse.dirts.ATest#failing")).isEqualTo(100);
+    }
+
+    private static void writeReport(Path reportsPath, String className, long lastModified, String... testCases)
+            throws IOException {
+        Path report = reportsPath.resolve("TEST-" + className + ".xml");
+        Files.writeString(report, "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<testsuite name=\"" + className + "\">\n" +
+                String.join("\n", testCases) +
+                "\n</testsuite>\n");
+        Files.setLastModifiedTime(report, FileTime.fromMillis(lastModified));
+    }
+}
@@ -14,27 +14,37 @@ package edu.tum.sse.dirts.mojos;
 
 import com.github.javaparser.ast.body.BodyDeclaration;
 import com.github.javaparser.ast.body.TypeDeclaration;
-import edu.tum.sse.dirts.cdi.analysis.*;
+import edu.tum.sse.dirts.analysis.di.DIFrameworkDetector;
+import edu.tum.sse.dirts.analysis.di.DIFrameworkDetector.DIFramework;
 import edu.tum.sse.dirts.core.Blackboard;
 import edu.tum.sse.dirts.core.control.Control;
-import edu.tum.sse.dirts.core.strategies.CDIDependencyStrategy;
-import edu.tum.sse.dirts.core.strategies.GuiceDependencyStrategy;
-import edu.tum.sse.dirts.core.strategies.SpringDependencyStrategy;
-import edu.tum.sse.dirts.guice.analysis.GuiceMethodLevelInjectionPointCollectorVisitor;
-import edu.tum.sse.dirts.guice.analysis.GuiceMethodLevelMapper;
-import edu.tum.sse.dirts.guice.analysis.GuiceClassLevelInjectionPointCollectorVisitor;
-import edu.tum.sse.dirts.guice.analysis.GuiceClassLevelMapper;
-import edu.tum.sse.dirts.spring.analysis.*;
-import edu.tum.sse.dirts.util.JavaParserUtils;
+import edu.tum.sse.dirts.core.strategies.DependencyStrategies;
+import edu.tum.sse.dirts.daemon.DaemonClient;
+import edu.tum.sse.dirts.daemon.DaemonRequest;
+import edu.tum.sse.dirts.daemon.DaemonResponse;
+import edu.tum.sse.dirts.daemon.WarmState;
+import edu.tum.sse.dirts.util.AnalysisContext;
 import edu.tum.sse.dirts.util.Log;
+import org.apache.maven.artifact.Artifact;
 import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
 import org.apache.maven.plugin.surefire.SurefirePlugin;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 
+import java.io.File;
 import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.logging.Level;
+import java.util.stream.Collectors;
+
+import static java.util.logging.Level.INFO;
+import static java.util.logging.Level.WARNING;
 
 /**
  * Abstract parent class of all Mojos related to DIRTS
@@ -72,6 +82,106 @@ public abstract class AbstractDirtsMojo<T extends BodyDeclaration<?>> extends Su
     @Parameter(property = "considerAnnotationsAsDependencies", defaultValue = "false")
     protected boolean annotations;
 
+    /**
+     * Only use those extensions enabled above whose framework is detected in the current module
+     */
+    @Parameter(property = "autoDetectExtensions", defaultValue = "false")
+    protected boolean autoDetectExtensions;
+
+    /**
+     * Number of threads used to import and export the state of extensions concurrently, the analysis itself always
+     * runs one extension after another
+     */
+    @Parameter(property = "strategyThreads", defaultValue = "1")
+    protected int strategyThreads;
+
+    /**
+     * Number of threads used to run independent analysis steps concurrently
+     */
+    @Parameter(property = "knowledgeSourceThreads", defaultValue = "1")
+    protected int knowledgeSourceThreads;
+
+    /**
+     * Record a flight recording with the bundled settings into .dirts/recordings
+     */
+    @Parameter(property = "flightRecording", defaultValue = "false")
+    protected boolean flightRecording;
+
+    /**
+     * Run the analysis in a long-lived daemon that keeps parsed sources and resolvers for libraries in memory
+     */
+    @Parameter(property = "useDaemon", defaultValue = "false")
+    protected boolean useDaemon;
+
+    /**
+     * Minutes after which the daemon stops if it does not receive any requests
+     */
+    @Parameter(property = "daemonIdleTimeout", defaultValue = "180")
+    protected int daemonIdleTimeout;
+
+    /**
+     * Memory in MiB the syntax trees may occupy while parsing, 0 keeps all compilation units in memory
+     */
+    @Parameter(property = "memoryBudget", defaultValue = "0")
+    protected long memoryBudget;
+
+    /**
+     * Choose between incremental analysis, full re-analysis and running all tests based on the estimated costs
+     */
+    @Parameter(property = "usePlanner", defaultValue = "false")
+    protected boolean usePlanner;
+
+    /**
+     * Fraction of the tests expected to be affected, from which on the planner runs all tests
+     */
+    @Parameter(property = "runAllThreshold", defaultValue = "0.8")
+    protected double runAllThreshold;
+
+    /**
+     * Reuse the selection of the last run if neither the sources nor the configuration have changed since
+     */
+    @Parameter(property = "cacheSelection", defaultValue = "false")
+    protected boolean cacheSelection;
+
+    /**
+     * Directory shared by several machines, e.g. CI agents, to publish the exported state of each commit and to
+     * initialize modules without exported state from the nearest ancestor commit
+     */
+    @Parameter(property = "stateCache")
+    protected File stateCache;
+
+    /**
+     * Keep snapshots of the exported state for every commit and branch in .dirts/snapshots and start from the one
+     * closest to the current commit, e.g. after switching branches
+     */
+    @Parameter(property = "keepSnapshots", defaultValue = "false")
+    protected boolean keepSnapshots;
+
+    /**
+     * Export the state to a memory-mapped key-value store instead of JSON files, so that only the entries that are
+     * looked up are read
+     */
+    @Parameter(property = "useKeyValueStore", defaultValue = "false")
+    protected boolean useKeyValueStore;
+
+    @Parameter(defaultValue = "${plugin}", readonly = true)
+    private PluginDescriptor pluginDescriptor;
+
+    //##################################################################################################################
+    // Attributes
+
+    private Set<DIFramework> detectedFrameworks;
+
+    /**
+     * Whether the extension of each framework is active per level, decided once per mojo execution
+     */
+    private final Map<String, Map<DIFramework, Boolean>> activeExtensions = new HashMap<>();
+
+    /**
+     * State kept in memory across several analyses in watch mode, null otherwise
+     */
+    protected WarmState warmState;
+
     //##################################################################################################################
     // Abstract methods implemented by all subclasses
 
@@ -91,33 +201,37 @@ public abstract class AbstractDirtsMojo<T extends BodyDeclaration<?>> extends Su
 
         // Blackboard
         Blackboard<TypeDeclaration<?>> blackboard = new Blackboard<>(rootPath, subPath, "class_level");
-        Blackboard.considerAnnotationsAsDependencies = annotations;
-
-        // Spring
-        if (useSpringExtension) {
-            blackboard.addDependencyStrategy(new SpringDependencyStrategy<>(
-                    new SpringClassLevelInjectionPointCollectorVisitor(),
-                    new SpringBeanClassLevelDependencyCollector(),
-                    new SpringClassLevelMapper()));
-        }
-
-        // Guice
-        if (useGuiceExtension) {
-            blackboard.addDependencyStrategy(new GuiceDependencyStrategy<>(
-                    new GuiceClassLevelInjectionPointCollectorVisitor(),
-                    new GuiceClassLevelMapper()));
-        }
-
-        // CDI
-        if (useCDIExtension) {
-            blackboard.addDependencyStrategy(new CDIDependencyStrategy<>(
-                    new CDIClassLevelInjectionPointCollectorVisitor(),
-                    new CDIClassLevelMapper(), new CDIClassLevelAlternativeDependencyCollector()));
-        }
+        blackboard.setStrategyThreads(strategyThreads);
+        blackboard.setKnowledgeSourceThreads(knowledgeSourceThreads);
+        blackboard.setFlightRecording(flightRecording);
+        blackboard.setWarmState(warmState);
+        blackboard.setMemoryBudget(memoryBudget * 1024 * 1024);
+        blackboard.setPlanning(usePlanner);
+        blackboard.setRunAllThreshold(runAllThreshold);
+        blackboard.setSelectionCaching(cacheSelection);
+        blackboard.setStateCachePath(stateCache == null ? null : stateCache.toPath());
+        blackboard.setStateSnapshots(keepSnapshots);
+        blackboard.setKeyValueStore(useKeyValueStore);
+
+        blackboard.setDetectedFrameworks(autoDetectExtensions ? getDetectedFrameworks() : null);
+
+        addClassLevelStrategies(blackboard);
 
         return blackboard;
     }
 
+    /**
+     * Adds the DependencyStrategies of the active extensions to a class level blackboard
+     *
+     * @param blackboard blackboard
+     */
+    protected void addClassLevelStrategies(Blackboard<TypeDeclaration<?>> blackboard) {
+        DependencyStrategies.addClassLevelStrategies(blackboard,
+                isExtensionActive(useSpringExtension, DIFramework.SPRING, "class_level"),
+                isExtensionActive(useGuiceExtension, DIFramework.GUICE, "class_level"),
+                isExtensionActive(useCDIExtension, DIFramework.CDI, "class_level"));
+    }
+
     /**
      * Initializes method level blackboard
      *
@@ -129,42 +243,161 @@ public abstract class AbstractDirtsMojo<T extends BodyDeclaration<?>> extends Su
 
         // Blackboard
         Blackboard<BodyDeclaration<?>> blackboard = new Blackboard<>(rootPath, subPath, "method_level");
-        Blackboard.considerAnnotationsAsDependencies = annotations;
-
-        // Spring
-        if (useSpringExtension) {
-            blackboard.addDependencyStrategy(new SpringDependencyStrategy<>(
-                    new SpringMethodLevelInjectionPointCollectorVisitor(),
-                    new SpringBeanMethodLevelDependencyCollector(),
-                    new SpringMethodLevelMapper()));
-        }
+        blackboard.setStrategyThreads(strategyThreads);
+        blackboard.setKnowledgeSourceThreads(knowledgeSourceThreads);
+        blackboard.setFlightRecording(flightRecording);
+        blackboard.setWarmState(warmState);
+        blackboard.setMemoryBudget(memoryBudget * 1024 * 1024);
+        blackboard.setPlanning(usePlanner);
+        blackboard.setRunAllThreshold(runAllThreshold);
+        blackboard.setSelectionCaching(cacheSelection);
+        blackboard.setStateCachePath(stateCache == null ? null : stateCache.toPath());
+        blackboard.setStateSnapshots(keepSnapshots);
+        blackboard.setKeyValueStore(useKeyValueStore);
+
+        blackboard.setDetectedFrameworks(autoDetectExtensions ? getDetectedFrameworks() : null);
+
+        addMethodLevelStrategies(blackboard);
 
-        // Guice
-        if (useGuiceExtension) {
-            blackboard.addDependencyStrategy(new GuiceDependencyStrategy<>(
-                    new GuiceMethodLevelInjectionPointCollectorVisitor(),
-                    new GuiceMethodLevelMapper()));
-        }
+        return blackboard;
+    }
 
-        // CDI
-        if (useCDIExtension) {
-            blackboard.addDependencyStrategy(new CDIDependencyStrategy<>(
-                    new CDIMethodLevelInjectionPointCollectorVisitor(),
-                    new CDIMethodLevelMapper(), new CDIMethodLevelAlternativeDependencyCollector()));
-        }
+    /**
+     * Adds the DependencyStrategies of the active extensions to a method level blackboard
+     *
+     * @param blackboard blackboard
+     */
+    protected void addMethodLevelStrategies(Blackboard<BodyDeclaration<?>> blackboard) {
+        DependencyStrategies.addMethodLevelStrategies(blackboard,
+                isExtensionActive(useSpringExtension, DIFramework.SPRING, "method_level"),
+                isExtensionActive(useGuiceExtension, DIFramework.GUICE, "method_level"),
+                isExtensionActive(useCDIExtension, DIFramework.CDI, "method_level"));
+    }
 
-        return blackboard;
+    /**
+     * Creates the context holding the configuration of this execution
+     * <p>
+     * Modules may be analyzed concurrently when building with `mvn -T`, so the configuration is not kept globally.
+     *
+     * @return context that has to be bound while analyzing this module
+     */
+    protected AnalysisContext createAnalysisContext() {
+        AnalysisContext context = new AnalysisContext();
+        context.setLogLevel(Level.parse(logging));
+        context.setRestrictive(restrictive);
+        context.setConsiderAnnotationsAsDependencies(annotations);
+        return context;
     }
 
 
+    //##################################################################################################################
+    // Methods to communicate with the daemon
+
+    /**
+     * Creates a request for the daemon containing the configuration of this mojo
+     *
+     * @param command the command to be executed by the daemon
+     * @param level   class_level or method_level
+     * @return request
+     */
+    protected DaemonRequest createDaemonRequest(String command, String level) {
+        DaemonRequest request = new DaemonRequest(command);
+        request.setRootPath(getRootPath().toString());
+        request.setSubPath(getSubPath().toString());
+        request.setLevel(level);
+        request.setLogging(logging);
+        request.setRestrictive(restrictive);
+        request.setAnnotations(annotations);
+        request.setSpringExtension(isExtensionActive(useSpringExtension, DIFramework.SPRING, level));
+        request.setGuiceExtension(isExtensionActive(useGuiceExtension, DIFramework.GUICE, level));
+        request.setCdiExtension(isExtensionActive(useCDIExtension, DIFramework.CDI, level));
+        request.setDetectedFrameworks(autoDetectExtensions ? getDetectedFrameworks() : null);
+        request.setStrategyThreads(strategyThreads);
+        request.setKnowledgeSourceThreads(knowledgeSourceThreads);
+        request.setFlightRecording(flightRecording);
+        request.setPlanning(usePlanner);
+        request.setRunAllThreshold(runAllThreshold);
+        request.setSelectionCaching(cacheSelection);
+        request.setStateCache(stateCache == null ? null : stateCache.getAbsolutePath());
+        request.setStateSnapshots(keepSnapshots);
+        request.setKeyValueStore(useKeyValueStore);
+        return request;
+    }
+
+    /**
+     * Sends a request to the daemon, if it is not running it is started for upcoming runs
+     *
+     * @return the response of the daemon, null if the analysis has to be executed in-process
+     */
+    protected DaemonResponse sendToDaemon(DaemonRequest request) {
+        Path rootPath = getRootPath();
+        DaemonResponse response = DaemonClient.send(rootPath, request);
+        if (response == null) {
+            DaemonClient.start(rootPath, getPluginClasspath(), daemonIdleTimeout);
+            Log.log(INFO, "DIRTS daemon is not available, running analysis in-process");
+            return null;
+        }
+        if (response.getError() != null) {
+            Log.errLog(WARNING, "DIRTS daemon failed, running analysis in-process: " + response.getError());
+            return null;
+        }
+        return response;
+    }
+
+    private String getPluginClasspath() {
+        return pluginDescriptor.getArtifacts().stream()
+                .map(Artifact::getFile)
+                .filter(Objects::nonNull)
+                .map(File::getAbsolutePath)
+                .collect(Collectors.joining(File.pathSeparator));
+    }
+
     //##################################################################################################################
     // Auxiliary methods
 
+    /**
+     * @return true if the extension is enabled and, in case of automatic detection, the framework is used in this module
+     * or has been used in the last successful run of this level
+     */
+    private boolean isExtensionActive(boolean enabled, DIFramework framework, String level) {
+        if (!enabled)
+            return false;
+        if (!autoDetectExtensions)
+            return true;
+
+        Map<DIFramework, Boolean> activeExtensionsOfLevel =
+                activeExtensions.computeIfAbsent(level, l -> new EnumMap<>(DIFramework.class));
+        return activeExtensionsOfLevel.computeIfAbsent(framework, f -> {
+            boolean active = new DIFrameworkDetector(getRootPath(), getSubPath())
+                    .withPreviousFrameworks(getDetectedFrameworks(), level)
+                    .contains(f);
+            if (!active) {
+                Log.log(Level.INFO, "Skipping " + f + " extension in " + level
+                        + ", framework is not used in this module");
+            }
+            return active;
+        });
+    }
+
+    private Set<DIFramework> getDetectedFrameworks() {
+        if (detectedFrameworks == null) {
+            // has to happen before the TypeSolverInitializer consumes the file containing the libraries
+            detectedFrameworks = new DIFrameworkDetector(getRootPath(), getSubPath()).detect();
+        }
+        return detectedFrameworks;
+    }
+
     /**
      * @return the path of the outermost maven project
      */
     protected Path getRootPath() {
-        MavenProject project = getProject();
+        return getRootPath(getProject());
+    }
+
+    /**
+     * @return the path of the outermost maven project containing the given project
+     */
+    static Path getRootPath(MavenProject project) {
         while (project.hasParent() && project.getParent().getBasedir() != null) {
             project = project.getParent();
         }
@@ -14,8 +14,10 @@ package edu.tum.sse.dirts.mojos;
 
 import com.github.javaparser.ast.body.BodyDeclaration;
 import edu.tum.sse.dirts.core.control.Control;
+import edu.tum.sse.dirts.daemon.DaemonRequest;
+import edu.tum.sse.dirts.daemon.DaemonResponse;
+import edu.tum.sse.dirts.util.AnalysisContext;
 import edu.tum.sse.dirts.util.DirtsUtil;
-import edu.tum.sse.dirts.util.JavaParserUtils;
 import edu.tum.sse.dirts.util.Log;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Parameter;
@@ -23,7 +25,6 @@ import org.apache.maven.plugins.annotations.Parameter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.logging.Level;
 
 import static java.util.logging.Level.CONFIG;
 import static java.util.logging.Level.INFO;
@@ -39,12 +40,19 @@ public abstract class AbstractGraphMojo<P extends BodyDeclaration<?>> extends Ab
     protected abstract String getOutputFilePath();
     protected abstract String getDefaultOutputFilePath();
 
+    /**
+     * @return class_level or method_level
+     */
+    protected abstract String getLevel();
+
     @Override
     public void execute() throws MojoExecutionException {
+        try (AnalysisContext.Scope ignored = createAnalysisContext().bind()) {
+            exportGraph();
+        }
+    }
 
-        Log.setLogLevel(Level.parse(logging));
-        JavaParserUtils.RESTRICTIVE = restrictive;
-
+    private void exportGraph() throws MojoExecutionException {
         Log.log(CONFIG, "Root path: " + getRootPath());
         Log.log(CONFIG, "Sub path: " + getSubPath());
 
@@ -59,7 +67,16 @@ public abstract class AbstractGraphMojo<P extends BodyDeclaration<?>> extends Ab
             return;
         }
 
-        Control<P> control = getControl();
+        String graph = null;
+        if (useDaemon) {
+            DaemonResponse response = sendToDaemon(createDaemonRequest(DaemonRequest.GRAPH, getLevel()));
+            if (response != null)
+                graph = response.getGraph();
+        }
+        if (graph == null) {
+            Control<P> control = getControl();
+            graph = control.visualizeDependencyGraph();
+        }
 
         String fileName = getOutputFilePath();
         if (fileName.equals(getDefaultOutputFilePath()))
@@ -69,12 +86,12 @@ public abstract class AbstractGraphMojo<P extends BodyDeclaration<?>> extends Ab
         if (toFile) {
             try {
                 Path outputPath = Path.of(fileName);
-                Files.writeString(outputPath, control.visualizeDependencyGraph());
+                Files.writeString(outputPath, graph);
             } catch (IOException ignored) {
                 throw new MojoExecutionException("Unable to write dependency graph to file.\n");
             }
         } else {
-            System.out.println(control.visualizeDependencyGraph());
+            System.out.println(graph);
         }
     }
 
@@ -14,10 +14,17 @@ package edu.tum.sse.dirts.mojos;
 
 import com.github.javaparser.ast.body.BodyDeclaration;
 import edu.tum.sse.dirts.core.control.Control;
+import edu.tum.sse.dirts.daemon.DaemonRequest;
+import edu.tum.sse.dirts.daemon.DaemonResponse;
 import edu.tum.sse.dirts.graph.EdgeType;
+import edu.tum.sse.dirts.junit.RunOrder;
+import edu.tum.sse.dirts.junit.Selection;
+import edu.tum.sse.dirts.junit.Sharding;
+import edu.tum.sse.dirts.junit.TestHistory;
+import edu.tum.sse.dirts.util.AnalysisContext;
 import edu.tum.sse.dirts.util.DirtsUtil;
-import edu.tum.sse.dirts.util.JavaParserUtils;
 import edu.tum.sse.dirts.util.Log;
+import edu.tum.sse.dirts.util.SharedFiles;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.surefire.api.testset.ResolvedTest;
@@ -32,10 +39,8 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.function.Function;
-import java.util.logging.Level;
 import java.util.stream.Collectors;
 
 import static java.util.logging.Level.*;
@@ -56,13 +61,51 @@ public abstract class AbstractSelectMojo<P extends BodyDeclaration<?>> extends A
     @Parameter(property = "overrideExtension", defaultValue = "false")
     protected boolean overrideExtension;
 
+    /**
+     * Only for method level RTS - exclude the unaffected methods of test classes that have affected methods,
+     * instead of running these test classes entirely
+     */
+    @Parameter(property = "excludeTestMethods", defaultValue = "true")
+    protected boolean excludeTestMethods;
+
+    /**
+     * Write excluded tests to a binary selection file read by the filters of dirts-junit instead of the excludesFile,
+     * only if all tests that have not been selected are excluded
+     */
+    @Parameter(property = "useJUnitFilter", defaultValue = "false")
+    protected boolean useJUnitFilter;
+
+    /**
+     * Write the selected tests to a run order file read by dirts-junit, tests covering more changed nodes first,
+     * followed by recently failing and fast tests according to the reports of previous runs
+     */
+    @Parameter(property = "prioritizeTests", defaultValue = "false")
+    protected boolean prioritizeTests;
+
+    /**
+     * Only with `useJUnitFilter` - number of shards the selected test classes are distributed to according to their
+     * durations in previous runs, shard i is run with `-Ddirts.shard=i`
+     */
+    @Parameter(property = "shards", defaultValue = "1")
+    protected int shards;
+
+    private TestHistory testHistory;
+
+    /**
+     * @return class_level or method_level
+     */
+    protected abstract String getLevel();
+
     public void doExecute(Function<String, String> mapper) {
+        try (AnalysisContext.Scope ignored = createAnalysisContext().bind()) {
+            select(mapper);
+        }
+    }
+
+    private void select(Function<String, String> mapper) {
         Path subPath = getSubPath();
         Path rootPath = getRootPath();
 
-        Log.setLogLevel(Level.parse(logging));
-        JavaParserUtils.RESTRICTIVE = restrictive;
-
         Log.log(CONFIG, "Root path: " + rootPath);
         Log.log(CONFIG, "Sub path: " + subPath);
 
@@ -71,38 +114,22 @@ public abstract class AbstractSelectMojo<P extends BodyDeclaration<?>> extends A
                     "Clearing caches for affected modules and changed nodes.");
 
             Path affectedModulesPath = DirtsUtil.getAffectedModulesPath(rootPath);
-            Path changedNodesPath = DirtsUtil.getChangedNodesPath(rootPath);
-
-            if (!Files.exists(affectedModulesPath)) {
-                try {
-                    Files.createDirectories(affectedModulesPath.getParent());
-                    Files.createFile(affectedModulesPath);
-                } catch (IOException e) {
-                    Log.errLog(INFO, "Failed to create file containing affected modules: " + e.getMessage());
-                }
-            }
 
             try {
-                Files.writeString(affectedModulesPath, "pom.xml", StandardOpenOption.TRUNCATE_EXISTING);
+                SharedFiles.write(affectedModulesPath, "pom.xml");
             } catch (IOException e) {
                 Log.errLog(INFO, "Failed to reset file containing affected modules: " + e.getMessage());
             }
 
-            if (!Files.exists(changedNodesPath)) {
+            // both levels may be analyzed in the same build
+            for (String level : List.of(DaemonRequest.CLASS_LEVEL, DaemonRequest.METHOD_LEVEL)) {
                 try {
-                    Files.createDirectories(changedNodesPath.getParent());
-                    Files.createFile(changedNodesPath);
+                    SharedFiles.write(DirtsUtil.getNodeStorePath(rootPath, level), "");
                 } catch (IOException e) {
-                    Log.errLog(INFO, "Failed to create file containing changed nodes: " + e.getMessage());
+                    Log.errLog(INFO, "Failed to reset file containing changed nodes: " + e.getMessage());
                 }
             }
 
-            try {
-                Files.writeString(changedNodesPath, "", StandardOpenOption.TRUNCATE_EXISTING);
-            } catch (IOException e) {
-                Log.errLog(INFO, "Failed to reset file containing changed nodes: " + e.getMessage());
-            }
-
         }
 
         if (getProject().getPackaging().equals("pom")) {
@@ -123,10 +150,14 @@ public abstract class AbstractSelectMojo<P extends BodyDeclaration<?>> extends A
             if (!overrideExtension) {
                 Log.log(INFO, "We expect that another RTS-tool has already excluded some tests in the excludesFile. " +
                         "Every test that has not been excluded this way is considered as included by this other tool and will not be excluded.");
+                if (useJUnitFilter)
+                    Log.log(INFO, "Ignoring useJUnitFilter, tests excluded by the other tool are kept in the excludesFile.");
+                if (shards > 1)
+                    Log.log(INFO, "Ignoring shards, tests excluded by the other tool cannot be distributed.");
             }
         }
-
-        Control<P> control = getControl();
+        if (shards > 1 && !useJUnitFilter)
+            Log.log(INFO, "Ignoring shards, the selection of each shard is only applied by the filters of dirts-junit.");
 
         Set<EdgeType> edgeTypes = new HashSet<>();
 
@@ -136,7 +167,7 @@ public abstract class AbstractSelectMojo<P extends BodyDeclaration<?>> extends A
             edgeTypes.add(EdgeType.DI_CDI);
         }
 
-        Map<String, Set<String>> tests = control.getSelectedTests(edgeTypes);
+        Map<String, Set<String>> tests = selectTests(edgeTypes);
 
         if (tests != null) {
             Set<String> excluded = tests.get(null).stream().map(mapper).collect(Collectors.toSet());
@@ -152,11 +183,212 @@ public abstract class AbstractSelectMojo<P extends BodyDeclaration<?>> extends A
             });
 
             // In method level RTS, it is possible that some test methods of a class are excluded while others are included.
-            // In this case, we want the class not to be excluded
+            // In this case, we want the class not to be excluded, but only its unaffected methods
+            Map<String, Set<String>> excludedMethods = new HashMap<>();
+            if (excludeTestMethods && getLevel().equals(DaemonRequest.METHOD_LEVEL))
+                excludedMethods = getExcludedMethods(tests, mapper, included.keySet());
             excluded.removeAll(included.keySet());
 
-            writeSelectedTests(included, excluded);
+            writeSelectedTests(included, excluded, excludedMethods);
+            writeRunOrder(tests, mapper);
+        }
+    }
+
+    /**
+     * Calculates affected tests, in the daemon if enabled
+     *
+     * @param edgeTypes types of edges that need to occur in a path from test to modified node
+     * @return (changedNode, affectedTest), null if the analysis failed
+     */
+    protected Map<String, Set<String>> selectTests(Set<EdgeType> edgeTypes) {
+        if (useDaemon) {
+            DaemonRequest request = createDaemonRequest(DaemonRequest.SELECT, getLevel());
+            request.setEdgeTypes(edgeTypes);
+            request.applyTestFilter(getTestFilter());
+            DaemonResponse response = sendToDaemon(request);
+            if (response != null)
+                return response.toSelectedTests();
         }
+
+        Control<P> control = getControl();
+        return control.getSelectedTests(edgeTypes);
+    }
+
+    /**
+     * Finds the methods that can be excluded from partially affected test classes
+     *
+     * @param tests           (changedNode, affectedTest), unaffected tests are mapped to null
+     * @param mapper          maps tests to test classes
+     * @param includedClasses test classes that have at least one affected test
+     * @return (test class, names of the methods that are not affected)
+     */
+    private Map<String, Set<String>> getExcludedMethods(Map<String, Set<String>> tests,
+                                                        Function<String, String> mapper,
+                                                        Set<String> includedClasses) {
+        Map<String, Set<String>> excludedMethods = new HashMap<>();
+        for (String test : tests.get(null)) {
+            String testClass = mapper.apply(test);
+            if (includedClasses.contains(testClass))
+                excludedMethods.computeIfAbsent(testClass, k -> new TreeSet<>())
+                        .add(MethodLevelSelectMojo.toMethodName.apply(test));
+        }
+
+        Set<String> partiallyAffectedClasses = new HashSet<>();
+        tests.forEach((affectingNode, affectedTests) -> {
+            if (affectingNode != null) {
+                for (String affectedTest : affectedTests) {
+                    String testClass = mapper.apply(affectedTest);
+                    Set<String> methods = excludedMethods.get(testClass);
+                    if (methods != null) {
+                        // overloaded methods cannot be told apart by surefire
+                        String methodName = MethodLevelSelectMojo.toMethodName.apply(affectedTest);
+                        methods.remove(methodName);
+
+                        // constructors stand for tests in nested classes, that need to run entirely
+                        if (testClass.endsWith("." + methodName))
+                            partiallyAffectedClasses.add(testClass);
+                    }
+                }
+            }
+        });
+        partiallyAffectedClasses.forEach(excludedMethods::remove);
+
+        // constructors are not test methods
+        excludedMethods.forEach((testClass, methods) ->
+                methods.removeIf(methodName -> testClass.endsWith("." + methodName)));
+        excludedMethods.values().removeIf(Set::isEmpty);
+        return excludedMethods;
+    }
+
+    /**
+     * Prioritizes the selected tests, if enabled, and writes them to the run order file
+     *
+     * @param tests  (changedNode, affectedTest), unaffected tests are mapped to null
+     * @param mapper maps tests to test classes
+     */
+    private void writeRunOrder(Map<String, Set<String>> tests, Function<String, String> mapper) {
+        Path modulePath = getRootPath().resolve(getSubPath());
+        Path runOrderPath = modulePath.resolve(RunOrder.DEFAULT_RUN_ORDER_PATH);
+        try {
+            // an order of a previous run must not be applied to this one
+            Files.deleteIfExists(runOrderPath);
+        } catch (IOException e) {
+            Log.errLog(WARNING, "Failed to delete run order of previous run: " + e.getMessage());
+        }
+        if (!prioritizeTests)
+            return;
+
+        TestHistory testHistory = getTestHistory();
+
+        boolean methodLevel = getLevel().equals(DaemonRequest.METHOD_LEVEL);
+
+        // (test class or test method, number of changed nodes affecting it)
+        Map<String, Integer> coveredChanges = new HashMap<>();
+        tests.forEach((affectingNode, affectedTests) -> {
+            if (affectingNode != null) {
+                for (String affectedTest : affectedTests) {
+                    String testClass = mapper.apply(affectedTest);
+                    String test = testClass;
+                    if (methodLevel) {
+                        String methodName = MethodLevelSelectMojo.toMethodName.apply(affectedTest);
+                        // constructors stand for tests in nested classes
+                        if (!testClass.endsWith("." + methodName))
+                            test = testClass + "#" + methodName;
+                    }
+                    coveredChanges.merge(test, 1, Integer::sum);
+                }
+            }
+        });
+
+        List<String> prioritized = new ArrayList<>(coveredChanges.keySet());
+        prioritized.sort(Comparator.<String>comparingInt(coveredChanges::get).reversed()
+                .thenComparing(testHistory.comparator()));
+
+        // a test class is placed where its first test method has been placed
+        Set<String> testClasses = new HashSet<>();
+        List<String> runOrder = new ArrayList<>();
+        for (String test : prioritized) {
+            String testClass = test.contains("#") ? test.substring(0, test.indexOf("#")) : test;
+            if (testClasses.add(testClass))
+                runOrder.add(testClass);
+            if (!test.equals(testClass))
+                runOrder.add(test);
+        }
+
+        try {
+            RunOrder.write(runOrderPath, runOrder);
+        } catch (IOException e) {
+            Log.errLog(WARNING, "Failed to write run order: " + e.getMessage());
+        }
+
+        System.out.println("DIRTS run order: [" +
+                runOrder.stream().filter(t -> !t.contains("#")).collect(Collectors.joining("\n")) +
+                "]");
+    }
+
+    /**
+     * Distributes the selected test classes to shards, if enabled, and writes the selection of each shard
+     *
+     * @param selectionPath   path of the selection of all shards
+     * @param included        test classes that have been selected
+     * @param excluded        test classes that have not been selected
+     * @param excludedMethods methods of selected test classes that have not been selected
+     */
+    private void writeShards(Path selectionPath,
+                             Set<String> included,
+                             Set<String> excluded,
+                             Map<String, Set<String>> excludedMethods) throws IOException {
+        if (shards <= 1)
+            return;
+
+        TestHistory testHistory = getTestHistory();
+        Map<String, Long> durations = new HashMap<>();
+        included.forEach(testClass -> durations.put(testClass, testHistory.getDuration(testClass)));
+
+        List<Set<String>> partition = Sharding.partition(durations, shards);
+        for (int shard = 0; shard < partition.size(); shard++) {
+            Set<String> testClasses = partition.get(shard);
+
+            // every shard excludes the test classes of the other shards
+            Set<String> excludedFromShard = new HashSet<>(excluded);
+            included.stream().filter(t -> !testClasses.contains(t)).forEach(excludedFromShard::add);
+            Selection.write(Selection.getShardPath(selectionPath, shard), excludedFromShard, excludedMethods);
+
+            long duration = testClasses.stream().mapToLong(testHistory::getDuration).sum();
+            Log.log(INFO, "Shard " + shard + ": " + testClasses.size() + " test classes, " +
+                    duration + "ms in previous runs");
+        }
+    }
+
+    /**
+     * @return durations and failures of previous runs, updated with the reports written since the last update
+     */
+    private TestHistory getTestHistory() {
+        if (testHistory == null) {
+            Path testHistoryPath = DirtsUtil.getTestHistoryPath(getRootPath(), getSubPath());
+            testHistory = new TestHistory();
+            try {
+                if (Files.exists(testHistoryPath))
+                    testHistory = TestHistory.read(testHistoryPath);
+            } catch (IOException | NumberFormatException e) {
+                Log.errLog(WARNING, "Failed to read test history, starting a new one: " + e.getMessage());
+            }
+            try {
+                testHistory.update(getReportsDirectory().toPath());
+                testHistory.write(testHistoryPath);
+            } catch (IOException e) {
+                Log.errLog(WARNING, "Failed to update test history: " + e.getMessage());
+            }
+        }
+        return testHistory;
+    }
+
+    /**
+     * @param included tests that have been selected, mapped to the nodes affecting them
+     * @return whether this module has to be tested
+     */
+    protected boolean isModuleAffected(Map<String, Set<String>> included) {
+        return !included.isEmpty();
     }
 
     /**
@@ -306,7 +538,14 @@ public abstract class AbstractSelectMojo<P extends BodyDeclaration<?>> extends A
 
     }
 
-    protected void writeSelectedTests(Map<String, Set<String>> included, Set<String> excluded) {
+    /**
+     * @param included        test classes that have been selected, mapped to the nodes affecting them
+     * @param excluded        test classes that have not been selected
+     * @param excludedMethods methods of selected test classes that have not been selected
+     */
+    protected void writeSelectedTests(Map<String, Set<String>> included,
+                                      Set<String> excluded,
+                                      Map<String, Set<String>> excludedMethods) {
         File excludesFile = getExcludesFile();
 
         if (excludesFile == null) {
@@ -316,11 +555,22 @@ public abstract class AbstractSelectMojo<P extends BodyDeclaration<?>> extends A
         }
 
         Path excludesFilePath = excludesFile.toPath();
+        Path selectionPath = getRootPath().resolve(getSubPath()).resolve(Selection.DEFAULT_SELECTION_PATH);
         try {
+            // a selection of a previous run must not be applied to this one
+            Files.deleteIfExists(selectionPath);
+            Selection.deleteShards(selectionPath);
+
             Set<String> includedFormatted = included.keySet().stream()
                     .map(t -> t.replaceAll("\\.", "/") + ".java").collect(Collectors.toSet());
             Set<String> excludedFormatted = excluded.stream()
                     .map(t -> t.replaceAll("\\.", "/") + ".java").collect(Collectors.toSet());
+            // surefire accepts patterns of the form "my/package/MyTest.java#method1+method2"
+            Map<String, String> excludedMethodsFormatted = new TreeMap<>();
+            excludedMethods.forEach((t, methods) -> {
+                String testClass = t.replaceAll("\\.", "/") + ".java";
+                excludedMethodsFormatted.put(testClass, testClass + "#" + String.join("+", methods));
+            });
 
             if (!Files.exists(excludesFilePath)) {
                 Files.createDirectories(excludesFilePath.getParent());
@@ -331,20 +581,35 @@ public abstract class AbstractSelectMojo<P extends BodyDeclaration<?>> extends A
 
             if (!standalone && !overrideExtension) {
                 // only change the excluded tests already present
+                List<String> excludedMethodsOfExcludedClasses = new ArrayList<>();
                 String[] lines = excludesFileContent.split("\n");
                 for (String line : lines) {
                     if (includedFormatted.contains(line)) {
                         newExcludesFileContent.append("# ").append(line).append("\n");
+                        // the other tool considered the methods of this class as unaffected as well
+                        if (excludedMethodsFormatted.containsKey(line))
+                            excludedMethodsOfExcludedClasses.add(excludedMethodsFormatted.get(line));
                     } else {
                         newExcludesFileContent.append(line).append("\n");
                     }
                 }
+
+                if (!excludedMethodsOfExcludedClasses.isEmpty()) {
+                    newExcludesFileContent.append(DIRTS_EXCLUDES_PREFIX).append("\n");
+                    excludedMethodsOfExcludedClasses.forEach(t -> newExcludesFileContent.append(t).append("\n"));
+                }
+            } else if (useJUnitFilter) {
+                // the filters of dirts-junit exclude all tests that have not been selected
+                newExcludesFileContent.append(excludesFileContent);
+                Selection.write(selectionPath, excluded, excludedMethods);
+                writeShards(selectionPath, included.keySet(), excluded, excludedMethods);
             } else {
                 // exclude all tests that have not been selected
                 newExcludesFileContent.append(excludesFileContent);
                 newExcludesFileContent.append(DIRTS_EXCLUDES_PREFIX).append("\n");
                 newExcludesFileContent.append("**/*$*\n");
                 excludedFormatted.forEach(t -> newExcludesFileContent.append(t).append("\n"));
+                excludedMethodsFormatted.values().forEach(t -> newExcludesFileContent.append(t).append("\n"));
             }
 
 
@@ -359,24 +624,20 @@ public abstract class AbstractSelectMojo<P extends BodyDeclaration<?>> extends A
             Path rootPath = getRootPath();
             Path subPath = getSubPath();
             Path affectedModulesPath = DirtsUtil.getAffectedModulesPath(rootPath);
-
-            if (!Files.exists(affectedModulesPath)) {
-                Files.createDirectories(affectedModulesPath.getParent());
-                Files.createFile(affectedModulesPath);
-            }
-
-            Set<String> affectedModules = new HashSet<>(Set.of(Files.readString(affectedModulesPath).split(", ")));
             String currentModule = DirtsUtil.getSubPomPathRelative(subPath).toString();
 
-            if (included.isEmpty()) {
-                affectedModules.remove(currentModule);
-            } else {
-                affectedModules.add(currentModule);
-            }
+            // modules may be analyzed concurrently when building with `mvn -T`
+            SharedFiles.update(affectedModulesPath, affectedModulesContent -> {
+                Set<String> affectedModules = new HashSet<>(Set.of(affectedModulesContent.split(", ")));
 
-            Files.writeString(affectedModulesPath,
-                    String.join(", ", affectedModules),
-                    StandardOpenOption.TRUNCATE_EXISTING);
+                if (isModuleAffected(included)) {
+                    affectedModules.add(currentModule);
+                } else {
+                    affectedModules.remove(currentModule);
+                }
+
+                return String.join(", ", affectedModules);
+            });
 
         } catch (IOException e) {
             Log.errLog(SEVERE, "Unable to read/write affectedModules");
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.mojos;
+
+import com.github.javaparser.ast.body.BodyDeclaration;
+import edu.tum.sse.dirts.core.Blackboard;
+import edu.tum.sse.dirts.daemon.WarmState;
+import edu.tum.sse.dirts.util.AnalysisContext;
+import edu.tum.sse.dirts.util.DirtsUtil;
+import edu.tum.sse.dirts.util.Log;
+import edu.tum.sse.dirts.util.SourceWatcher;
+import org.apache.maven.model.Resource;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static java.util.logging.Level.INFO;
+import static java.util.logging.Level.SEVERE;
+import static java.util.logging.Level.WARNING;
+
+/**
+ * Repeats the selection of tests whenever source files or resources of the module change
+ * <p>
+ * All selections are relative to the revision analyzed by the last run of a select mojo, the files in `.dirts` are
+ * not overwritten. The blackboard of the first selection, the compilation units of unchanged files and the resolvers
+ * for libraries are kept in memory, so only the changed files have to be parsed and hashed again. Watching stops
+ * once the file `.dirts/watch_stop` is created in the module.
+ */
+public abstract class AbstractWatchMojo<P extends BodyDeclaration<?>> extends AbstractSelectMojo<P> {
+
+    /**
+     * Milliseconds without further changes before the tests are selected again
+     */
+    @Parameter(property = "debounce", defaultValue = "300")
+    protected long debounce;
+
+    /**
+     * Files and directories that have changed since the last selection, null before the first selection
+     */
+    private Set<Path> changedFiles;
+
+    protected void watch(Function<String, String> mapper) throws MojoExecutionException {
+        try (AnalysisContext.Scope ignored = createAnalysisContext().bind()) {
+            watchSources(mapper);
+        }
+    }
+
+    private void watchSources(Function<String, String> mapper) throws MojoExecutionException {
+        // the state is kept in this process, the daemon would overwrite the files in .dirts
+        useDaemon = false;
+        warmState = new WarmState();
+
+        Path stopPath = DirtsUtil.getWatchStopPath(getRootPath(), getSubPath());
+        deleteStopFile(stopPath);
+
+        try (SourceWatcher sourceWatcher = new SourceWatcher(getWatchedDirectories())) {
+            while (changedFiles == null || !changedFiles.isEmpty()) {
+                long startTime = System.currentTimeMillis();
+                try {
+                    doExecute(mapper);
+                } catch (RuntimeException e) {
+                    Log.errLog(SEVERE, "Failed to select tests: " + e.getMessage());
+                } finally {
+                    warmState.afterAnalysis();
+                }
+                Log.log(INFO, "Selected tests in " + (System.currentTimeMillis() - startTime)
+                        + " ms, waiting for changes");
+
+                changedFiles = sourceWatcher.awaitChanges(debounce, () -> Files.exists(stopPath));
+                Log.log(INFO, changedFiles.isEmpty()
+                        ? "Stopped watching, found " + stopPath
+                        : "Changed: " + changedFiles.stream()
+                        .map(Path::toString)
+                        .collect(Collectors.joining(", ")));
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to watch source files", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            deleteStopFile(stopPath);
+        }
+    }
+
+    /**
+     * Prepares the blackboard of the last selection to select tests again
+     * <p>
+     * Only the changed files are parsed again and the state imported by the first selection is kept.
+     *
+     * @param blackboard blackboard of the last selection, null before the first selection
+     * @return whether the blackboard can be reused, otherwise a new one has to be created
+     */
+    protected boolean prepareReanalysis(Blackboard<P> blackboard) {
+        if (blackboard == null)
+            return false;
+        blackboard.prepareReanalysis(changedFiles);
+        return true;
+    }
+
+    private static void deleteStopFile(Path stopPath) {
+        try {
+            Files.deleteIfExists(stopPath);
+        } catch (IOException e) {
+            Log.errLog(WARNING, "Failed to delete file " + stopPath + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return source roots and resource directories of this module
+     */
+    private List<Path> getWatchedDirectories() {
+        MavenProject project = getProject();
+        List<String> directories = new ArrayList<>();
+        // the lists are raw in maven-project 2.x
+        for (Object sourceRoot : project.getCompileSourceRoots())
+            directories.add((String) sourceRoot);
+        for (Object sourceRoot : project.getTestCompileSourceRoots())
+            directories.add((String) sourceRoot);
+        for (Object resource : project.getBuild().getResources())
+            directories.add(((Resource) resource).getDirectory());
+        for (Object resource : project.getBuild().getTestResources())
+            directories.add(((Resource) resource).getDirectory());
+
+        return directories.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .map(Path::of)
+                .collect(Collectors.toList());
+    }
+}
@@ -16,6 +16,7 @@ import com.github.javaparser.ast.body.TypeDeclaration;
 import edu.tum.sse.dirts.core.Blackboard;
 import edu.tum.sse.dirts.core.control.Control;
 import edu.tum.sse.dirts.core.control.ClassLevelControl;
+import edu.tum.sse.dirts.daemon.DaemonRequest;
 import org.apache.maven.plugins.annotations.Execute;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
@@ -27,6 +28,11 @@ import org.apache.maven.plugins.annotations.Mojo;
 @Execute(goal = "class_level_select", phase = LifecyclePhase.INITIALIZE, lifecycle = "dirts")
 public class ClassLevelSelectMojo extends AbstractSelectMojo<TypeDeclaration<?>> {
 
+    @Override
+    protected String getLevel() {
+        return DaemonRequest.CLASS_LEVEL;
+    }
+
     @Override
     protected Control<TypeDeclaration<?>> getControl() {
         Blackboard<TypeDeclaration<?>> classLevelBlackboard = getClassLevelBlackboard();
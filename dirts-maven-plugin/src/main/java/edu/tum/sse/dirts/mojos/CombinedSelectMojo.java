@@ -0,0 +1,93 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.mojos;
+
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import edu.tum.sse.dirts.core.Blackboard;
+import edu.tum.sse.dirts.core.control.ClassLevelControl;
+import edu.tum.sse.dirts.core.control.CombinedControl;
+import edu.tum.sse.dirts.core.control.Control;
+import edu.tum.sse.dirts.core.control.MethodLevelControl;
+import edu.tum.sse.dirts.daemon.DaemonRequest;
+import edu.tum.sse.dirts.graph.EdgeType;
+import edu.tum.sse.dirts.util.Log;
+import edu.tum.sse.dirts.util.tuples.Pair;
+import org.apache.maven.plugins.annotations.Execute;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.surefire.api.testset.TestFilter;
+
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.logging.Level.INFO;
+
+/**
+ * Select tests using the method-level approach, while updating the class-level state in the same pass
+ * <p>
+ * A module is considered as affected if tests are selected on either level.
+ */
+@Mojo(name = "combined_select")
+@Execute(goal = "combined_select", phase = LifecyclePhase.INITIALIZE, lifecycle = "dirts")
+public class CombinedSelectMojo extends AbstractSelectMojo<BodyDeclaration<?>> {
+
+    private boolean affectedOnClassLevel = false;
+
+    @Override
+    protected String getLevel() {
+        return DaemonRequest.METHOD_LEVEL;
+    }
+
+    @Override
+    protected Control<BodyDeclaration<?>> getControl() {
+        Blackboard<BodyDeclaration<?>> methodLevelBlackboard = getMethodLevelBlackboard();
+        methodLevelBlackboard.setTestFilter(getTestFilter());
+        return new MethodLevelControl(methodLevelBlackboard, true);
+    }
+
+    @Override
+    protected Map<String, Set<String>> selectTests(Set<EdgeType> edgeTypes) {
+        if (useDaemon)
+            Log.log(INFO, "The daemon analyzes a single level only, both levels are analyzed in-process");
+
+        TestFilter<String, String> testFilter = getTestFilter();
+
+        Blackboard<TypeDeclaration<?>> classLevelBlackboard = getClassLevelBlackboard();
+        classLevelBlackboard.setTestFilter(testFilter);
+        Blackboard<BodyDeclaration<?>> methodLevelBlackboard = getMethodLevelBlackboard();
+        methodLevelBlackboard.setTestFilter(testFilter);
+
+        CombinedControl control = new CombinedControl(
+                new ClassLevelControl(classLevelBlackboard, true),
+                new MethodLevelControl(methodLevelBlackboard, true));
+
+        Pair<Map<String, Set<String>>, Map<String, Set<String>>> tests = control.getSelectedTests(edgeTypes);
+        if (tests == null)
+            return null;
+
+        affectedOnClassLevel = tests.getFirst().entrySet().stream()
+                .anyMatch(e -> e.getKey() != null && !e.getValue().isEmpty());
+        return tests.getSecond();
+    }
+
+    @Override
+    protected boolean isModuleAffected(Map<String, Set<String>> included) {
+        return affectedOnClassLevel || super.isModuleAffected(included);
+    }
+
+    @Override
+    public void execute() {
+        doExecute(MethodLevelSelectMojo.toContainingClass);
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.mojos;
+
+import edu.tum.sse.dirts.daemon.DaemonClient;
+import edu.tum.sse.dirts.daemon.DaemonRequest;
+import edu.tum.sse.dirts.daemon.DaemonResponse;
+import edu.tum.sse.dirts.util.Log;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import static java.util.logging.Level.INFO;
+
+/**
+ * Stop the daemon running for this project
+ * <p>
+ * Only sends a request to the daemon, so unlike the other Mojos this one does not need any configuration of surefire.
+ */
+@Mojo(name = "daemon_stop", aggregator = true)
+public class DaemonStopMojo extends AbstractMojo {
+
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject project;
+
+    @Override
+    public void execute() {
+        DaemonResponse response = DaemonClient.send(AbstractDirtsMojo.getRootPath(project),
+                new DaemonRequest(DaemonRequest.STOP));
+        if (response == null) {
+            Log.log(INFO, "There is no DIRTS daemon running for this project");
+        } else {
+            Log.log(INFO, "Stopped DIRTS daemon");
+        }
+    }
+}
@@ -15,6 +15,7 @@ package edu.tum.sse.dirts.mojos;
 import com.github.javaparser.ast.body.BodyDeclaration;
 import edu.tum.sse.dirts.core.Blackboard;
 import edu.tum.sse.dirts.core.control.Control;
+import edu.tum.sse.dirts.daemon.DaemonRequest;
 import edu.tum.sse.dirts.core.control.MethodLevelControl;
 import org.apache.maven.plugins.annotations.Execute;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
@@ -47,6 +48,11 @@ public class MethodLevelGraphMojo extends AbstractGraphMojo<BodyDeclaration<?>>
         return OUTPUT_FILE;
     }
 
+    @Override
+    protected String getLevel() {
+        return DaemonRequest.METHOD_LEVEL;
+    }
+
     @Override
     protected Control<BodyDeclaration<?>> getControl() {
         Blackboard<BodyDeclaration<?>> methodLevelBlackboard = getMethodLevelBlackboard();
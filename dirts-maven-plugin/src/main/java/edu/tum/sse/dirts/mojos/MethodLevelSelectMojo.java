@@ -15,6 +15,7 @@ package edu.tum.sse.dirts.mojos;
 import com.github.javaparser.ast.body.BodyDeclaration;
 import edu.tum.sse.dirts.core.Blackboard;
 import edu.tum.sse.dirts.core.control.Control;
+import edu.tum.sse.dirts.daemon.DaemonRequest;
 import edu.tum.sse.dirts.core.control.MethodLevelControl;
 import org.apache.maven.plugins.annotations.Execute;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
@@ -29,7 +30,7 @@ import java.util.function.Function;
 @Execute(goal = "method_level_select", phase = LifecyclePhase.INITIALIZE, lifecycle = "dirts")
 public class MethodLevelSelectMojo extends AbstractSelectMojo<BodyDeclaration<?>> {
 
-    private final Function<String, String> toContainingClass = t -> {
+    static final Function<String, String> toContainingClass = t -> {
         String ret = t;
         if (ret.contains("(")) {
             ret = ret.substring(0, ret.indexOf("("));
@@ -40,6 +41,22 @@ public class MethodLevelSelectMojo extends AbstractSelectMojo<BodyDeclaration<?>
         return ret;
     };
 
+    static final Function<String, String> toMethodName = t -> {
+        String ret = t;
+        if (ret.contains("(")) {
+            ret = ret.substring(0, ret.indexOf("("));
+        }
+        if (ret.contains(".")) {
+            ret = ret.substring(ret.lastIndexOf(".") + 1);
+        }
+        return ret;
+    };
+
+
+    @Override
+    protected String getLevel() {
+        return DaemonRequest.METHOD_LEVEL;
+    }
 
     @Override
     protected Control<BodyDeclaration<?>> getControl() {
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2022. The dirts authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package edu.tum.sse.dirts.mojos;
+
+import com.github.javaparser.ast.body.BodyDeclaration;
+import edu.tum.sse.dirts.core.Blackboard;
+import edu.tum.sse.dirts.core.control.Control;
+import edu.tum.sse.dirts.core.control.MethodLevelControl;
+import edu.tum.sse.dirts.daemon.DaemonRequest;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Execute;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+
+/**
+ * Select tests using the method-level approach whenever the sources change
+ */
+@Mojo(name = "method_level_watch")
+@Execute(goal = "method_level_watch", phase = LifecyclePhase.INITIALIZE, lifecycle = "dirts")
+public class MethodLevelWatchMojo extends AbstractWatchMojo<BodyDeclaration<?>> {
+
+    @Override
+    protected String getLevel() {
+        return DaemonRequest.METHOD_LEVEL;
+    }
+
+    /**
+     * Blackboard kept across the selections
+     */
+    private Blackboard<BodyDeclaration<?>> methodLevelBlackboard;
+
+    @Override
+    protected Control<BodyDeclaration<?>> getControl() {
+        if (prepareReanalysis(methodLevelBlackboard)) {
+            addMethodLevelStrategies(methodLevelBlackboard);
+        } else {
+            methodLevelBlackboard = getMethodLevelBlackboard();
+            methodLevelBlackboard.setTestFilter(getTestFilter());
+        }
+        return new MethodLevelControl(methodLevelBlackboard, false);
+    }
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        watch(MethodLevelSelectMojo.toContainingClass);
+    }
+}